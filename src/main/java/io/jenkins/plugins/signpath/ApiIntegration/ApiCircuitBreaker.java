@@ -0,0 +1,255 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stops calling SignPath for a while once most calls of all builds on this controller fail
+ * <ul>
+ * <li>closed: calls pass, the outcomes of the last {@link #WINDOW_SIZE} calls are recorded; once at least
+ * {@link #MINIMUM_CALLS} are recorded and the share of failures reaches the threshold, the breaker opens</li>
+ * <li>open: calls are refused right away (instead of each of them retrying against an unavailable service)
+ * until the open duration has passed</li>
+ * <li>half open: a single probe call passes; if it succeeds the breaker closes, if it fails it opens again</li>
+ * </ul>
+ * Transfers (uploads and downloads) never probe, they may take minutes and all other calls would be refused meanwhile;
+ * they are only made while the breaker is closed (see {@link #tryAcquireTransferPermission()}).
+ * Only failures to reach SignPath count (I/O errors, HTTP 5xx and 429), rejected calls (i.e. misconfiguration)
+ * do not say anything about the availability of the service.
+ *
+ * @see CircuitBreakingSignPathFacade
+ */
+public final class ApiCircuitBreaker {
+    private static final Logger LOGGER = Logger.getLogger(ApiCircuitBreaker.class.getName());
+
+    static final int WINDOW_SIZE = 20;
+    static final int MINIMUM_CALLS = 10;
+    public static final int DEFAULT_OPEN_DURATION_IN_SECONDS = 60;
+    // calls that retry an unavailable SignPath internally (the SignPath client) give up after this while the breaker
+    // is enabled, the breaker only learns about the outage once the call returns
+    public static final int MAX_SERVICE_UNAVAILABLE_TIMEOUT_IN_SECONDS = 10;
+
+    private static final ApiCircuitBreaker INSTANCE = new ApiCircuitBreaker(System::nanoTime);
+
+    /**
+     * The states of the breaker
+     */
+    public enum State {
+        CLOSED("closed"),
+        OPEN("open"),
+        HALF_OPEN("half open");
+
+        private final String displayName;
+
+        State(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Supplier<Long> nanoClock;
+
+    // 0 disables the breaker
+    private int failureRateThresholdPercent;
+    private long openDurationNanos = TimeUnit.SECONDS.toNanos(DEFAULT_OPEN_DURATION_IN_SECONDS);
+
+    private State state = State.CLOSED;
+    // ring buffer of the last outcomes in the closed state, true = failure
+    private final boolean[] outcomes = new boolean[WINDOW_SIZE];
+    private int outcomeCount;
+    private int nextOutcome;
+    private int failureCount;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    private long tripCount;
+    private long refusedCount;
+
+    ApiCircuitBreaker(Supplier<Long> nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return the circuit breaker of this controller (the threshold and open duration are configured globally)
+     */
+    public static ApiCircuitBreaker get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param failureRateThresholdPercent the share of failed calls (in percent) that opens the breaker, 0 disables it
+     */
+    public synchronized void setFailureRateThresholdPercent(int failureRateThresholdPercent) {
+        this.failureRateThresholdPercent = Math.max(0, Math.min(100, failureRateThresholdPercent));
+        if (this.failureRateThresholdPercent == 0) {
+            close();
+        }
+    }
+
+    public synchronized int getFailureRateThresholdPercent() {
+        return failureRateThresholdPercent;
+    }
+
+    /**
+     * @param openDurationInSeconds how long calls are refused once the breaker opened, before a probe call is let through
+     */
+    public synchronized void setOpenDurationInSeconds(int openDurationInSeconds) {
+        this.openDurationNanos = TimeUnit.SECONDS.toNanos(Math.max(1, openDurationInSeconds));
+    }
+
+    public synchronized boolean isEnabled() {
+        return failureRateThresholdPercent > 0;
+    }
+
+    /**
+     * Asks whether a call may be made now
+     * Every permitted call has to be followed by exactly one of {@link #onSuccess()}, {@link #onFailure()} or
+     * {@link #onIgnored()}.
+     *
+     * @return false if the call must not be made because the breaker is open (or another probe is running)
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && nanoClock.get() - openedAtNanos - openDurationNanos >= 0) {
+            state = State.HALF_OPEN;
+            LOGGER.log(Level.INFO, "SignPath circuit breaker is half open, probing SignPath with the next call");
+        }
+
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (!probeInFlight) {
+                    probeInFlight = true;
+                    return true;
+                }
+                refusedCount++;
+                return false;
+            default:
+                refusedCount++;
+                return false;
+        }
+    }
+
+    /**
+     * Asks whether a transfer (upload or download) may be made now
+     * In contrast to {@link #tryAcquirePermission()}, a transfer is never let through as the probe call of the half
+     * open breaker. Every permitted transfer has to be followed by exactly one of {@link #onSuccess()},
+     * {@link #onFailure()} or {@link #onIgnored()}.
+     *
+     * @return false if the transfer must not be made because the breaker is not closed
+     */
+    public synchronized boolean tryAcquireTransferPermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        refusedCount++;
+        return false;
+    }
+
+    /**
+     * @return true while calls are refused, without letting a probe call through (used to stop retrying)
+     */
+    public synchronized boolean isOpen() {
+        return state == State.OPEN && nanoClock.get() - openedAtNanos - openDurationNanos < 0;
+    }
+
+    /**
+     * @return the time until a probe call will be let through, 0 if calls are not refused for a known time
+     */
+    public synchronized long getRemainingOpenNanos() {
+        return state == State.OPEN ? Math.max(0, openedAtNanos + openDurationNanos - nanoClock.get()) : 0;
+    }
+
+    /**
+     * SignPath answered the call
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            LOGGER.log(Level.INFO, "SignPath is available again, closing the SignPath circuit breaker");
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+     * SignPath could not be reached or is unavailable
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (failureRateThresholdPercent > 0 && outcomeCount >= MINIMUM_CALLS
+                    && failureCount * 100 >= failureRateThresholdPercent * outcomeCount) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * The outcome of the call says nothing about the availability of SignPath (i.e. it was rejected)
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        // the transition to half open only happens with the next call, report it as it will be
+        return state == State.OPEN && !isOpen() ? State.HALF_OPEN : state;
+    }
+
+    /**
+     * @return the share of failures among the recorded calls in percent
+     */
+    public synchronized int getFailureRatePercent() {
+        return outcomeCount == 0 ? 0 : failureCount * 100 / outcomeCount;
+    }
+
+    public synchronized long getTripCount() {
+        return tripCount;
+    }
+
+    public synchronized long getRefusedCount() {
+        return refusedCount;
+    }
+
+    private void record(boolean failure) {
+        if (outcomeCount == WINDOW_SIZE) {
+            if (outcomes[nextOutcome]) {
+                failureCount--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[nextOutcome] = failure;
+        if (failure) {
+            failureCount++;
+        }
+        nextOutcome = (nextOutcome + 1) % WINDOW_SIZE;
+    }
+
+    private void open() {
+        LOGGER.log(Level.WARNING, "SignPath seems to be unavailable, refusing calls for {0} seconds",
+                TimeUnit.NANOSECONDS.toSeconds(openDurationNanos));
+        state = State.OPEN;
+        openedAtNanos = nanoClock.get();
+        probeInFlight = false;
+        tripCount++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        probeInFlight = false;
+        outcomeCount = 0;
+        nextOutcome = 0;
+        failureCount = 0;
+    }
+}
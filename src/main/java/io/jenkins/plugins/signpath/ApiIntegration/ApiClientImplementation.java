@@ -0,0 +1,30 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+/**
+ * Defines which implementation of the {@link SignPathFacade} calls the SignPath API
+ */
+public enum ApiClientImplementation {
+    /**
+     * The SignPath Java client, every step uses its own connections
+     *
+     * @see io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.SignPathClientFacade
+     */
+    SIGNPATH_CLIENT("SignPath Java client"),
+
+    /**
+     * The JDK HttpClient, all steps share a few (HTTP/2 multiplexed) connections
+     *
+     * @see io.jenkins.plugins.signpath.ApiIntegration.JdkHttpClient.JdkHttpClientFacade
+     */
+    JDK_HTTP_CLIENT("JDK HttpClient (HTTP/2, shared connections)");
+
+    private final String displayName;
+
+    ApiClientImplementation(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
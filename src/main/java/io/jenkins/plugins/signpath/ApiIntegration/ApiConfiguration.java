@@ -1,27 +1,44 @@
 package io.jenkins.plugins.signpath.ApiIntegration;
 
+import java.io.Serializable;
 import java.net.URL;
 
 /**
  * Holds all general configuration values that are necessary for talking to the SignPath API
+ * It is serializable so that it can be shipped to agents together with callables that talk to SignPath directly
  */
-public class ApiConfiguration {
+public class ApiConfiguration implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private final URL apiUrl;
     private final int serviceUnavailableTimeoutInSeconds;
     private final int uploadAndDownloadRequestTimeoutInSeconds;
     private final int waitForCompletionTimeoutInSeconds;
     private final int waitBetweenReadinessChecksInSeconds;
+    private final int uploadRetryCount;
+    private final int downloadRetryCount;
+    // 0 (i.e. in configurations persisted by older versions) means a fixed interval, see ReadinessCheckPolicy
+    private final int maxWaitBetweenReadinessChecksInSeconds;
+    private final int waitBetweenTransferRetriesInSeconds;
 
     public ApiConfiguration(URL apiUrl,
                             int serviceUnavailableTimeoutInSeconds,
                             int uploadAndDownloadRequestTimeoutInSeconds,
                             int waitForCompletionTimeoutInSeconds,
-                            int waitBetweenReadinessChecksInSeconds) {
+                            int waitBetweenReadinessChecksInSeconds,
+                            int uploadRetryCount,
+                            int downloadRetryCount,
+                            int maxWaitBetweenReadinessChecksInSeconds,
+                            int waitBetweenTransferRetriesInSeconds) {
         this.apiUrl = apiUrl;
         this.serviceUnavailableTimeoutInSeconds = serviceUnavailableTimeoutInSeconds;
         this.uploadAndDownloadRequestTimeoutInSeconds = uploadAndDownloadRequestTimeoutInSeconds;
         this.waitForCompletionTimeoutInSeconds = waitForCompletionTimeoutInSeconds;
         this.waitBetweenReadinessChecksInSeconds = waitBetweenReadinessChecksInSeconds;
+        this.uploadRetryCount = uploadRetryCount;
+        this.downloadRetryCount = downloadRetryCount;
+        this.maxWaitBetweenReadinessChecksInSeconds = maxWaitBetweenReadinessChecksInSeconds;
+        this.waitBetweenTransferRetriesInSeconds = waitBetweenTransferRetriesInSeconds;
     }
 
     public URL getApiUrl() {
@@ -43,4 +60,30 @@ public class ApiConfiguration {
     public int getWaitBetweenReadinessChecksInSeconds() {
         return this.waitBetweenReadinessChecksInSeconds;
     }
-}
\ No newline at end of file
+
+    public int getUploadRetryCount() {
+        return uploadRetryCount;
+    }
+
+    public int getDownloadRetryCount() {
+        return downloadRetryCount;
+    }
+
+    public int getMaxWaitBetweenReadinessChecksInSeconds() {
+        return maxWaitBetweenReadinessChecksInSeconds;
+    }
+
+    public int getWaitBetweenTransferRetriesInSeconds() {
+        return waitBetweenTransferRetriesInSeconds;
+    }
+
+    /**
+     * @param serviceUnavailableTimeoutInSeconds the service unavailable timeout of the copy
+     * @return a copy of this configuration with the given service unavailable timeout
+     */
+    public ApiConfiguration withServiceUnavailableTimeoutInSeconds(int serviceUnavailableTimeoutInSeconds) {
+        return new ApiConfiguration(apiUrl, serviceUnavailableTimeoutInSeconds, uploadAndDownloadRequestTimeoutInSeconds,
+                waitForCompletionTimeoutInSeconds, waitBetweenReadinessChecksInSeconds, uploadRetryCount, downloadRetryCount,
+                maxWaitBetweenReadinessChecksInSeconds, waitBetweenTransferRetriesInSeconds);
+    }
+}
@@ -0,0 +1,191 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Limits the SignPath API calls of all builds on this controller, with a token bucket per {@link CallType}
+ * A bucket refills at the configured rate and holds up to {@link #BURST_SECONDS} worth of calls, so short bursts
+ * pass right away while a sustained peak is spread out. Callers above the limit wait for a slot instead of being
+ * rejected (and retrying); slots are handed out in the order the callers arrive.
+ *
+ * @see RateLimitedSignPathFacade
+ */
+public final class ApiRateLimiter {
+    // a full bucket lets this many seconds worth of calls through at once
+    static final int BURST_SECONDS = 10;
+    // status checks of waiting builds are limited by default (10 per second), the other calls are not
+    public static final int DEFAULT_MAX_STATUS_CALLS_PER_MINUTE = 600;
+
+    private static final ApiRateLimiter INSTANCE = new ApiRateLimiter(System::nanoTime);
+
+    /**
+     * The kinds of calls that are limited separately
+     */
+    public enum CallType {
+        SUBMIT("submit"),
+        STATUS("status"),
+        TRANSFER("transfer");
+
+        private final String displayName;
+
+        CallType(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private final Supplier<Long> nanoClock;
+    private final Map<CallType, TokenBucket> buckets = new EnumMap<>(CallType.class);
+
+    ApiRateLimiter(Supplier<Long> nanoClock) {
+        this.nanoClock = nanoClock;
+        for (CallType callType : CallType.values()) {
+            buckets.put(callType, new TokenBucket());
+        }
+    }
+
+    /**
+     * @return the rate limiter of this controller (the limits are configured globally)
+     */
+    public static ApiRateLimiter get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param callType          the kind of calls to limit
+     * @param maxCallsPerMinute the maximum number of calls per minute for the whole controller, 0 means unlimited
+     */
+    public void setMaxCallsPerMinute(CallType callType, int maxCallsPerMinute) {
+        buckets.get(callType).setMaxCallsPerMinute(Math.max(0, maxCallsPerMinute), nanoClock.get());
+    }
+
+    public int getMaxCallsPerMinute(CallType callType) {
+        return buckets.get(callType).getMaxCallsPerMinute();
+    }
+
+    /**
+     * @return true if any kind of calls is limited
+     */
+    public boolean isEnabled() {
+        for (TokenBucket bucket : buckets.values()) {
+            if (bucket.getMaxCallsPerMinute() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits until the call may be made
+     *
+     * @param callType the kind of call
+     * @throws InterruptedException occurs if waiting is interrupted, the reserved slot is lost then
+     */
+    public void acquire(CallType callType) throws InterruptedException {
+        TokenBucket bucket = buckets.get(callType);
+        long waitNanos = bucket.reserve(nanoClock.get());
+        if (waitNanos <= 0) {
+            return;
+        }
+
+        bucket.queueLength.incrementAndGet();
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } finally {
+            bucket.queueLength.decrementAndGet();
+        }
+    }
+
+    /**
+     * Reserves the next free slot
+     *
+     * @return the nanoseconds to wait until the reserved slot, 0 if the call can be made right away
+     */
+    long reserve(CallType callType) {
+        return buckets.get(callType).reserve(nanoClock.get());
+    }
+
+    /**
+     * @return how long a call made now would have to wait, in milliseconds
+     */
+    public long getWaitTimeMillis(CallType callType) {
+        return TimeUnit.NANOSECONDS.toMillis(buckets.get(callType).getWaitNanos(nanoClock.get()));
+    }
+
+    /**
+     * @return the number of callers currently waiting for a slot
+     */
+    public int getQueueLength(CallType callType) {
+        return buckets.get(callType).queueLength.get();
+    }
+
+    private static final class TokenBucket {
+        private final AtomicInteger queueLength = new AtomicInteger();
+        private int maxCallsPerMinute;
+        private double storedTokens;
+        // the time the stored tokens were last updated; in the future while callers are queued
+        private long nextFreeNanos;
+
+        private synchronized int getMaxCallsPerMinute() {
+            return maxCallsPerMinute;
+        }
+
+        private synchronized void setMaxCallsPerMinute(int maxCallsPerMinute, long now) {
+            if (this.maxCallsPerMinute == maxCallsPerMinute) {
+                return;
+            }
+
+            boolean callersQueued = this.maxCallsPerMinute > 0 && nextFreeNanos - now > 0;
+            this.maxCallsPerMinute = maxCallsPerMinute;
+            // a changed limit starts from a full bucket, callers already queued keep their slots
+            this.storedTokens = getCapacity();
+            if (!callersQueued) {
+                this.nextFreeNanos = now;
+            }
+        }
+
+        private synchronized long reserve(long now) {
+            if (maxCallsPerMinute <= 0) {
+                return 0;
+            }
+
+            refill(now);
+            double tokensFromBucket = Math.min(1, storedTokens);
+            storedTokens -= tokensFromBucket;
+            // the caller waits until the missing part of its token has been refilled (after the ones queued before it)
+            nextFreeNanos += (long) ((1 - tokensFromBucket) * getNanosPerToken());
+            return Math.max(0, nextFreeNanos - now);
+        }
+
+        private synchronized long getWaitNanos(long now) {
+            if (maxCallsPerMinute <= 0) {
+                return 0;
+            }
+
+            refill(now);
+            return Math.max(0, nextFreeNanos - now) + (long) ((1 - Math.min(1, storedTokens)) * getNanosPerToken());
+        }
+
+        private void refill(long now) {
+            if (now - nextFreeNanos > 0) {
+                storedTokens = Math.min(getCapacity(), storedTokens + (now - nextFreeNanos) / getNanosPerToken());
+                nextFreeNanos = now;
+            }
+        }
+
+        private double getNanosPerToken() {
+            return (double) TimeUnit.MINUTES.toNanos(1) / maxCallsPerMinute;
+        }
+
+        private double getCapacity() {
+            return Math.max(1, maxCallsPerMinute * BURST_SECONDS / 60.0);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import hudson.FilePath;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithArtifactRetrievalLinkModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithoutArtifactModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithArtifactRetrievalLinkResult;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithoutArtifactResult;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+/**
+ * A {@link SignPathFacade} that serves repeated downloads of the same signed artifact from the {@link SignedArtifactCache}
+ * All other calls are passed on to the wrapped facade. Cached artifacts are only served to facades with the same
+ * API token as the one that downloaded them. Only downloads on the controller fill the cache, downloads to a workspace
+ * are served from it if possible and otherwise still run on the agent.
+ */
+public class CachingSignPathFacade implements SignPathFacade {
+    private final SignPathFacade signPathFacade;
+    private final SignedArtifactCache cache;
+    private final String credentialIdentity;
+
+    /**
+     * @param signPathFacade     the facade that calls the SignPath API
+     * @param cache              the cache to serve from
+     * @param credentialIdentity the identity of the API token of the wrapped facade, see {@link SignPathCredentials#getApiTokenIdentity}
+     */
+    public CachingSignPathFacade(SignPathFacade signPathFacade, SignedArtifactCache cache, String credentialIdentity) {
+        this.signPathFacade = signPathFacade;
+        this.cache = cache;
+        this.credentialIdentity = credentialIdentity;
+    }
+
+    @Override
+    public SubmitSigningRequestWithoutArtifactResult submitSigningRequestWithoutArtifact(SigningRequestWithoutArtifactModel submitModel) throws SignPathFacadeCallException {
+        return signPathFacade.submitSigningRequestWithoutArtifact(submitModel);
+    }
+
+    @Override
+    public SubmitSigningRequestWithArtifactRetrievalLinkResult submitSigningRequestWithArtifactRetrievalLink(SigningRequestWithArtifactRetrievalLinkModel submitModel) throws SignPathFacadeCallException {
+        return signPathFacade.submitSigningRequestWithArtifactRetrievalLink(submitModel);
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, InputStream artifactStream) throws IOException, SignPathFacadeCallException {
+        signPathFacade.uploadUnsignedArtifact(uploadLink, artifactStream);
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, FilePath artifactFilePath) throws IOException, InterruptedException {
+        signPathFacade.uploadUnsignedArtifact(uploadLink, artifactFilePath);
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, UnsignedArtifactStreamProvider artifactStreamProvider, long contentLength) throws IOException, InterruptedException {
+        signPathFacade.uploadUnsignedArtifact(uploadLink, artifactStreamProvider, contentLength);
+    }
+
+    @Override
+    public void waitForCompletion(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        // only signed artifacts of completed signing requests are ever cached
+        if (!cache.contains(credentialIdentity, organizationId, signingRequestID)) {
+            signPathFacade.waitForCompletion(organizationId, signingRequestID);
+        }
+    }
+
+    @Override
+    public SigningRequestStatus getSigningRequestStatus(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        return signPathFacade.getSigningRequestStatus(organizationId, signingRequestID);
+    }
+
+    @Override
+    public InputStream downloadSignedArtifact(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        InputStream cachedArtifact = cache.open(credentialIdentity, organizationId, signingRequestID);
+        if (cachedArtifact != null) {
+            return cachedArtifact;
+        }
+
+        try (InputStream signedArtifact = signPathFacade.downloadSignedArtifact(organizationId, signingRequestID)) {
+            return cache.store(credentialIdentity, organizationId, signingRequestID, signedArtifact);
+        }
+    }
+
+    @Override
+    public void downloadSignedArtifact(UUID organizationId, UUID signingRequestID, FilePath targetFilePath) throws IOException, InterruptedException {
+        // the cache lives on the controller: a cached artifact is copied to the agent from there, but a miss must not
+        // route the download through the controller
+        InputStream cachedArtifact = cache.open(credentialIdentity, organizationId, signingRequestID);
+        if (cachedArtifact == null) {
+            signPathFacade.downloadSignedArtifact(organizationId, signingRequestID, targetFilePath);
+            return;
+        }
+
+        try (InputStream signedArtifact = cachedArtifact) {
+            targetFilePath.copyFrom(signedArtifact);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import hudson.FilePath;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithArtifactRetrievalLinkModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithoutArtifactModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithArtifactRetrievalLinkResult;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithoutArtifactResult;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link SignPathFacade} that fails right away while the {@link ApiCircuitBreaker} is open, and reports the outcome
+ * of every call of the wrapped facade to it
+ * Status queries (and thus {@link #waitForCompletion(UUID, UUID)}) are passed on as is: the
+ * {@link SigningRequestPollingService} reports their outcomes itself and, while the breaker is open, keeps the
+ * waiting builds parked instead of failing them.
+ * Transfers are only made while the breaker is closed. A download finding it half open first probes with a status
+ * query of its signing request, an upload always follows a submit (which probes) and is refused otherwise.
+ */
+public class CircuitBreakingSignPathFacade implements SignPathFacade {
+    private final SignPathFacade signPathFacade;
+    private final ApiCircuitBreaker circuitBreaker;
+
+    public CircuitBreakingSignPathFacade(SignPathFacade signPathFacade, ApiCircuitBreaker circuitBreaker) {
+        this.signPathFacade = signPathFacade;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public SubmitSigningRequestWithoutArtifactResult submitSigningRequestWithoutArtifact(SigningRequestWithoutArtifactModel submitModel) throws SignPathFacadeCallException {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new SignPathFacadeCallException(getRefusedMessage());
+        }
+        try {
+            SubmitSigningRequestWithoutArtifactResult result = signPathFacade.submitSigningRequestWithoutArtifact(submitModel);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (Throwable ex) {
+            onFailure(ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public SubmitSigningRequestWithArtifactRetrievalLinkResult submitSigningRequestWithArtifactRetrievalLink(SigningRequestWithArtifactRetrievalLinkModel submitModel) throws SignPathFacadeCallException {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new SignPathFacadeCallException(getRefusedMessage());
+        }
+        try {
+            SubmitSigningRequestWithArtifactRetrievalLinkResult result = signPathFacade.submitSigningRequestWithArtifactRetrievalLink(submitModel);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (Throwable ex) {
+            onFailure(ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, InputStream artifactStream) throws IOException, SignPathFacadeCallException {
+        acquireUploadPermission();
+        try {
+            signPathFacade.uploadUnsignedArtifact(uploadLink, artifactStream);
+            circuitBreaker.onSuccess();
+        } catch (Throwable ex) {
+            onFailure(ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, FilePath artifactFilePath) throws IOException, InterruptedException {
+        acquireUploadPermission();
+        try {
+            signPathFacade.uploadUnsignedArtifact(uploadLink, artifactFilePath);
+            circuitBreaker.onSuccess();
+        } catch (Throwable ex) {
+            onFailure(ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, UnsignedArtifactStreamProvider artifactStreamProvider, long contentLength) throws IOException, InterruptedException {
+        acquireUploadPermission();
+        try {
+            signPathFacade.uploadUnsignedArtifact(uploadLink, artifactStreamProvider, contentLength);
+            circuitBreaker.onSuccess();
+        } catch (Throwable ex) {
+            onFailure(ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public void waitForCompletion(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        signPathFacade.waitForCompletion(organizationId, signingRequestID);
+    }
+
+    @Override
+    public SigningRequestStatus getSigningRequestStatus(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        return signPathFacade.getSigningRequestStatus(organizationId, signingRequestID);
+    }
+
+    @Override
+    public InputStream downloadSignedArtifact(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        acquireDownloadPermission(organizationId, signingRequestID);
+        try {
+            InputStream signedArtifact = signPathFacade.downloadSignedArtifact(organizationId, signingRequestID);
+            circuitBreaker.onSuccess();
+            return signedArtifact;
+        } catch (Throwable ex) {
+            onFailure(ex);
+            throw ex;
+        }
+    }
+
+    @Override
+    public void downloadSignedArtifact(UUID organizationId, UUID signingRequestID, FilePath targetFilePath) throws IOException, InterruptedException {
+        try {
+            acquireDownloadPermission(organizationId, signingRequestID);
+        } catch (SignPathFacadeCallException ex) {
+            // the probe was rejected, so would be the download
+            throw new IOException(ex.getMessage(), ex);
+        }
+        try {
+            signPathFacade.downloadSignedArtifact(organizationId, signingRequestID, targetFilePath);
+            circuitBreaker.onSuccess();
+        } catch (Throwable ex) {
+            onFailure(ex);
+            throw ex;
+        }
+    }
+
+    private void acquireUploadPermission() throws ServiceUnavailableException {
+        if (!circuitBreaker.tryAcquireTransferPermission()) {
+            throw getRefusedException();
+        }
+    }
+
+    private void acquireDownloadPermission(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        if (circuitBreaker.getState() == ApiCircuitBreaker.State.HALF_OPEN && circuitBreaker.tryAcquirePermission()) {
+            // a cheap status query probes whether SignPath is back, not the whole transfer
+            try {
+                signPathFacade.getSigningRequestStatus(organizationId, signingRequestID);
+                circuitBreaker.onSuccess();
+            } catch (Throwable ex) {
+                onFailure(ex);
+                throw ex;
+            }
+        }
+        if (!circuitBreaker.tryAcquireTransferPermission()) {
+            throw getRefusedException();
+        }
+    }
+
+    private ServiceUnavailableException getRefusedException() {
+        return new ServiceUnavailableException(getRefusedMessage(),
+                TimeUnit.NANOSECONDS.toSeconds(circuitBreaker.getRemainingOpenNanos()));
+    }
+
+    private String getRefusedMessage() {
+        long remainingOpenNanos = circuitBreaker.getRemainingOpenNanos();
+        if (remainingOpenNanos == 0) {
+            return "SignPath seems to be unavailable, it is not called until a probe call succeeds (circuit breaker half open).";
+        }
+        return String.format("SignPath seems to be unavailable, it is not called for another %d seconds (circuit breaker open).",
+                TimeUnit.NANOSECONDS.toSeconds(remainingOpenNanos) + 1);
+    }
+
+    private void onFailure(Throwable ex) {
+        if (isUnavailable(ex)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onIgnored();
+        }
+    }
+
+    /**
+     * Only a failure to reach SignPath says something about its availability
+     * Submits can only fail with a {@link SignPathFacadeCallException}, the facades pass the I/O error (i.e. a
+     * {@link ServiceUnavailableException}) on as its cause. Uploads the other way round wrap a rejection (a
+     * {@link SignPathFacadeCallException}) in an {@link IOException}, so the innermost of them decides.
+     */
+    static boolean isUnavailable(Throwable ex) {
+        boolean unavailable = false;
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            // a read timeout is an InterruptedIOException as well, but the thread was not interrupted
+            if (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException)) {
+                return false;
+            }
+            if (cause instanceof SignPathFacadeCallException) {
+                unavailable = false;
+            } else if (cause instanceof IOException) {
+                unavailable = true;
+            }
+        }
+        return unavailable;
+    }
+}
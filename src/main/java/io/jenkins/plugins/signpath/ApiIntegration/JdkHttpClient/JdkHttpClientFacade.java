@@ -0,0 +1,454 @@
+package io.jenkins.plugins.signpath.ApiIntegration.JdkHttpClient;
+
+import hudson.FilePath;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestOriginModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithArtifactRetrievalLinkModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithoutArtifactModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithArtifactRetrievalLinkResult;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithoutArtifactResult;
+import io.jenkins.plugins.signpath.ApiIntegration.ReadinessCheckPolicy;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.DownloadSignedArtifactCallable;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.RetryingArtifactUpload;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.SignPathClientFacade;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.SignedArtifactDownload;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.SigningRequestStatusQuery;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.UploadUnsignedArtifactCallable;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
+import io.jenkins.plugins.signpath.ApiIntegration.ServiceUnavailableRetry;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.ApiIntegration.SigningRequestPollingService;
+import io.jenkins.plugins.signpath.ApiIntegration.UnsignedArtifactStreamProvider;
+import io.jenkins.plugins.signpath.Common.TemporaryFile;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.jenkins.plugins.signpath.SignPathClientLogger;
+import io.signpath.signpathclient.SignPathClientException;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A {@link SignPathFacade} that calls the SignPath API with the JDK {@link HttpClient} instead of the SignPath client
+ * All instances share a single HttpClient that prefers HTTP/2, so the concurrent status checks, submits and downloads
+ * of all builds are multiplexed over a few connections instead of opening a socket each. Every API call is also
+ * available asynchronously; the {@link SignPathFacade} methods wait for those.
+ * As with the SignPath client, submits are repeated while SignPath is (temporarily) unavailable (see
+ * {@link ServiceUnavailableRetry}). A submit is only repeated if SignPath answered with 5xx/429 or the connection
+ * could not be established, otherwise it may have created a signing request already (see {@link Retry}).
+ * Signed artifacts are downloaded with the same resuming and verifying stream as with the SignPath client (see
+ * {@link SignedArtifactDownload}). Transfers from and to agents still run on the agent (see
+ * {@link UploadUnsignedArtifactCallable} and {@link DownloadSignedArtifactCallable}), so their bytes never pass
+ * through the controller.
+ */
+public class JdkHttpClientFacade implements SignPathFacade {
+    private static final Logger LOGGER = Logger.getLogger(JdkHttpClientFacade.class.getName());
+
+    private static final HttpClient SHARED_HTTP_CLIENT = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    /**
+     * Which failed requests are repeated while SignPath is unavailable
+     */
+    private enum Retry {
+        /**
+         * A single attempt
+         */
+        NEVER,
+        /**
+         * Requests SignPath answered with 5xx/429 or that could not connect, for requests with side effects:
+         * after any other I/O failure the request may have been processed already
+         */
+        IF_REJECTED_OR_NOT_CONNECTED
+    }
+
+    private final HttpClient httpClient;
+    private final SignPathCredentials credentials;
+    private final ApiConfiguration apiConfiguration;
+    private final SignPathClientLogger logger;
+    private final String userAgent;
+
+    public JdkHttpClientFacade(SignPathCredentials credentials, ApiConfiguration apiConfiguration, SignPathClientLogger logger) {
+        this(SHARED_HTTP_CLIENT, credentials, apiConfiguration, logger, SignPathClientFacade.buildUserAgent());
+    }
+
+    JdkHttpClientFacade(HttpClient httpClient, SignPathCredentials credentials, ApiConfiguration apiConfiguration, SignPathClientLogger logger, String userAgent) {
+        this.httpClient = httpClient;
+        this.credentials = credentials;
+        this.apiConfiguration = apiConfiguration;
+        this.logger = logger;
+        this.userAgent = userAgent;
+    }
+
+    @Override
+    public SubmitSigningRequestWithoutArtifactResult submitSigningRequestWithoutArtifact(SigningRequestWithoutArtifactModel submitModel) throws SignPathFacadeCallException {
+        try {
+            return await(submitSigningRequestWithoutArtifactAsync(submitModel));
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, null, ex);
+            // the cause tells an unavailable SignPath (see ServiceUnavailableException) from a rejected submit
+            throw new SignPathFacadeCallException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @param submitModel all the (non-authentication) parameters including filename and SHA-256 hex hash
+     * @return the signing request ID, upload link, and web link
+     * @see #submitSigningRequestWithoutArtifact(SigningRequestWithoutArtifactModel)
+     */
+    public CompletableFuture<SubmitSigningRequestWithoutArtifactResult> submitSigningRequestWithoutArtifactAsync(SigningRequestWithoutArtifactModel submitModel) {
+        MultipartFormData form = new MultipartFormData()
+                .field("unsignedArtifactMetadata.fileName", submitModel.getFileName())
+                .field("unsignedArtifactMetadata.sha256Hash", submitModel.getSha256HexHash());
+        try {
+            addSigningRequestFields(form, submitModel.getProjectSlug(), submitModel.getSigningPolicySlug(), submitModel.getArtifactConfigurationSlug(),
+                    submitModel.getDescription(), submitModel.getOrigin(), submitModel.getParameters());
+        } catch (IOException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        return send(() -> submitRequest(submitModel.getOrganizationId(), "SubmitWithoutArtifact", form),
+                HttpResponse.BodyHandlers.ofString(), "Submitting the signing request", Retry.IF_REJECTED_OR_NOT_CONNECTED)
+                .thenApply(response -> {
+                    JSONObject json = parseJson(response.body());
+                    return new SubmitSigningRequestWithoutArtifactResult(
+                            UUID.fromString(json.getString("signingRequestId")),
+                            json.optString("uploadLink", null),
+                            json.optString("webLink", null));
+                });
+    }
+
+    @Override
+    public SubmitSigningRequestWithArtifactRetrievalLinkResult submitSigningRequestWithArtifactRetrievalLink(SigningRequestWithArtifactRetrievalLinkModel submitModel) throws SignPathFacadeCallException {
+        try {
+            return await(submitSigningRequestWithArtifactRetrievalLinkAsync(submitModel));
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, null, ex);
+            // the cause tells an unavailable SignPath (see ServiceUnavailableException) from a rejected submit
+            throw new SignPathFacadeCallException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * @param submitModel all the (non-authentication) parameters including filename, SHA-256 hex hash, retrieval URL, and optional HTTP headers
+     * @return the signing request ID and web link
+     * @see #submitSigningRequestWithArtifactRetrievalLink(SigningRequestWithArtifactRetrievalLinkModel)
+     */
+    public CompletableFuture<SubmitSigningRequestWithArtifactRetrievalLinkResult> submitSigningRequestWithArtifactRetrievalLinkAsync(SigningRequestWithArtifactRetrievalLinkModel submitModel) {
+        MultipartFormData form = new MultipartFormData()
+                .field("ArtifactRetrievalLink.FileName", submitModel.getFileName())
+                .field("ArtifactRetrievalLink.Sha256Hash", submitModel.getSha256HexHash())
+                .field("ArtifactRetrievalLink.Url", submitModel.getRetrievalUrl());
+        if (submitModel.getRetrievalHttpHeaders() != null) {
+            int index = 0;
+            for (Map.Entry<String, String> header : submitModel.getRetrievalHttpHeaders().entrySet()) {
+                form.field(String.format("ArtifactRetrievalLink.HttpHeaders[%d].Key", index), header.getKey())
+                        .field(String.format("ArtifactRetrievalLink.HttpHeaders[%d].Value", index), header.getValue());
+                index++;
+            }
+        }
+        try {
+            addSigningRequestFields(form, submitModel.getProjectSlug(), submitModel.getSigningPolicySlug(), submitModel.getArtifactConfigurationSlug(),
+                    submitModel.getDescription(), submitModel.getOrigin(), submitModel.getParameters());
+        } catch (IOException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        return send(() -> submitRequest(submitModel.getOrganizationId(), "SubmitWithArtifactRetrievalLink", form),
+                HttpResponse.BodyHandlers.ofString(), "Submitting the signing request", Retry.IF_REJECTED_OR_NOT_CONNECTED)
+                .thenApply(response -> {
+                    JSONObject json = parseJson(response.body());
+                    return new SubmitSigningRequestWithArtifactRetrievalLinkResult(
+                            UUID.fromString(json.getString("signingRequestId")),
+                            json.optString("webLink", null));
+                });
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, InputStream artifactStream) throws IOException, SignPathFacadeCallException {
+        try (TemporaryFile tempFile = new TemporaryFile()) {
+            tempFile.copyFrom(artifactStream);
+            Path artifactFile = tempFile.getFile().toPath();
+            RetryingArtifactUpload.run(() -> awaitUpload(uploadLink, HttpRequest.BodyPublishers.ofFile(artifactFile)), apiConfiguration, logger);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry the artifact upload");
+        } catch (SignPathClientException ex) {
+            // not thrown by this upload, only declared by the retry contract
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, FilePath artifactFilePath) throws IOException, InterruptedException {
+        // the upload runs on the node that holds the artifact, so the bytes never pass through the controller
+        artifactFilePath.act(new UploadUnsignedArtifactCallable(
+                uploadLink,
+                credentials.getApiToken(),
+                apiConfiguration,
+                logger,
+                userAgent));
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, UnsignedArtifactStreamProvider artifactStreamProvider, long contentLength) throws IOException, InterruptedException {
+        try {
+            RetryingArtifactUpload.run(() -> {
+                try (InputStream artifactStream = artifactStreamProvider.open()) {
+                    // the fixed length makes the request fail if the stream provides more or fewer bytes
+                    awaitUpload(uploadLink, HttpRequest.BodyPublishers.fromPublisher(
+                            HttpRequest.BodyPublishers.ofInputStream(() -> artifactStream), contentLength));
+                }
+            }, apiConfiguration, logger);
+        } catch (SignPathClientException ex) {
+            // not thrown by this upload, only declared by the retry contract
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * A single attempt, failed uploads are not repeated (the content may not be readable twice)
+     *
+     * @param uploadLink the upload URL as returned by the SubmitWithoutArtifact route
+     * @param artifact   the artifact content
+     * @return completes once SignPath accepted the upload
+     */
+    public CompletableFuture<Void> uploadUnsignedArtifactAsync(String uploadLink, HttpRequest.BodyPublisher artifact) {
+        return send(() -> HttpRequest.newBuilder(URI.create(uploadLink))
+                        .timeout(Duration.ofSeconds(apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds()))
+                        .header("Authorization", "Bearer " + credentials.getApiToken().getPlainText())
+                        .header("User-Agent", userAgent)
+                        .header("Content-Type", "application/octet-stream")
+                        .POST(artifact)
+                        .build(),
+                HttpResponse.BodyHandlers.discarding(), "Uploading the artifact", Retry.NEVER)
+                .thenApply(response -> null);
+    }
+
+    @Override
+    public void waitForCompletion(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        // the status checks are shared with all other builds waiting on this controller
+        CompletableFuture<SigningRequestStatus> finalStatus = SigningRequestPollingService.get().awaitFinalStatus(
+                this, credentials, organizationId, signingRequestID, apiConfiguration, logger.getLogger());
+        SigningRequestStatus status = await(finalStatus);
+
+        if (!status.isCompleted()) {
+            throw new SignPathFacadeCallException(String.format(
+                    "Signing request %s finished with status '%s'", signingRequestID, status.getStatus()));
+        }
+    }
+
+    @Override
+    public SigningRequestStatus getSigningRequestStatus(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        return await(getSigningRequestStatusAsync(organizationId, signingRequestID));
+    }
+
+    /**
+     * A single status check, it is not repeated if SignPath is unavailable
+     *
+     * @param organizationId   the organization ID where the signing request resides
+     * @param signingRequestID the signing request ID
+     * @return the current status of the signing request
+     * @see #getSigningRequestStatus(UUID, UUID)
+     */
+    public CompletableFuture<SigningRequestStatus> getSigningRequestStatusAsync(UUID organizationId, UUID signingRequestID) {
+        return send(() -> apiRequest(organizationId, signingRequestID, "Status").header("Accept", "application/json").GET().build(),
+                HttpResponse.BodyHandlers.ofString(), String.format("Querying the status of signing request %s", signingRequestID), Retry.NEVER)
+                .thenApply(response -> {
+                    try {
+                        return SigningRequestStatusQuery.parse(response.body(), getRetryAfterInSeconds(response));
+                    } catch (IOException ex) {
+                        throw new CompletionException(ex);
+                    }
+                });
+    }
+
+    @Override
+    public InputStream downloadSignedArtifact(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        // resumed after a broken connection and verified against the length and digest SignPath sends, like the
+        // downloads of the SignPath client facade and on agents
+        SignedArtifactDownload download = new SignedArtifactDownload(apiConfiguration, userAgent);
+        return download.open(credentials.getApiToken().getPlainText(), organizationId, signingRequestID);
+    }
+
+    @Override
+    public void downloadSignedArtifact(UUID organizationId, UUID signingRequestID, FilePath targetFilePath) throws IOException, InterruptedException {
+        // the download runs on the node that holds the target, so the bytes never pass through the controller
+        targetFilePath.act(new DownloadSignedArtifactCallable(
+                organizationId,
+                signingRequestID,
+                credentials.getApiToken(),
+                apiConfiguration,
+                userAgent));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(Supplier<HttpRequest> request, HttpResponse.BodyHandler<T> bodyHandler,
+                                                        String action, Retry retry) {
+        return send(request, bodyHandler, action, retry, new ServiceUnavailableRetry(apiConfiguration));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> send(Supplier<HttpRequest> request, HttpResponse.BodyHandler<T> bodyHandler,
+                                                        String action, Retry retry, ServiceUnavailableRetry serviceUnavailableRetry) {
+        return httpClient.sendAsync(request.get(), bodyHandler).handle((response, failure) -> {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            if (cause == null && response.statusCode() >= 200 && response.statusCode() < 300) {
+                return CompletableFuture.completedFuture(response);
+            }
+
+            IOException retryableFailure;
+            if (cause == null) {
+                discard(response);
+                String message = String.format("%s failed with status code %d.", action, response.statusCode());
+                if (response.statusCode() < 500 && response.statusCode() != 429) {
+                    return CompletableFuture.<HttpResponse<T>>failedFuture(new SignPathFacadeCallException(message));
+                }
+                retryableFailure = new ServiceUnavailableException(message, getRetryAfterInSeconds(response));
+            } else if (cause instanceof IOException && isNotConnected(cause)) {
+                retryableFailure = (IOException) cause;
+            } else {
+                return CompletableFuture.<HttpResponse<T>>failedFuture(cause);
+            }
+
+            long waitInSeconds = retry == Retry.NEVER ? -1 : serviceUnavailableRetry.getWaitInSeconds(retryableFailure);
+            if (waitInSeconds < 0) {
+                return CompletableFuture.<HttpResponse<T>>failedFuture(retryableFailure);
+            }
+
+            logger.log(String.format("%s failed, retrying: %s", action, retryableFailure.getMessage()));
+            return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(waitInSeconds, TimeUnit.SECONDS))
+                    .thenCompose(ignored -> send(request, bodyHandler, action, retry, serviceUnavailableRetry));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * @return true if the request failed before it could be sent (it did not reach SignPath)
+     */
+    static boolean isNotConnected(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof HttpConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void awaitUpload(String uploadLink, HttpRequest.BodyPublisher artifact) throws IOException {
+        try {
+            await(uploadUnsignedArtifactAsync(uploadLink, artifact));
+        } catch (SignPathFacadeCallException ex) {
+            // the upload link is only valid once and for a short time, the retry decides whether to try again
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    private HttpRequest submitRequest(UUID organizationId, String route, MultipartFormData form) {
+        return HttpRequest.newBuilder(URI.create(String.format("%sv1/%s/SigningRequests/%s", getBaseUrl(), organizationId, route)))
+                .timeout(Duration.ofSeconds(apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds()))
+                .header("Authorization", String.format("Bearer %s:%s",
+                        credentials.getApiToken().getPlainText(), credentials.getTrustedBuildSystemToken().getPlainText()))
+                .header("User-Agent", userAgent)
+                .header("Content-Type", form.getContentType())
+                .POST(form.toBodyPublisher())
+                .build();
+    }
+
+    private HttpRequest.Builder apiRequest(UUID organizationId, UUID signingRequestId, String route) {
+        return HttpRequest.newBuilder(URI.create(String.format("%sv1/%s/SigningRequests/%s/%s", getBaseUrl(), organizationId, signingRequestId, route)))
+                .timeout(Duration.ofSeconds(apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds()))
+                .header("Authorization", "Bearer " + credentials.getApiToken().getPlainText())
+                .header("User-Agent", userAgent);
+    }
+
+    private String getBaseUrl() {
+        String baseUrl = apiConfiguration.getApiUrl().toString();
+        return baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    private static void addSigningRequestFields(MultipartFormData form, String projectSlug, String signingPolicySlug, String artifactConfigurationSlug,
+                                                String description, SigningRequestOriginModel origin, Map<String, String> parameters) throws IOException {
+        form.field("ProjectSlug", projectSlug)
+                .field("SigningPolicySlug", signingPolicySlug)
+                .field("ArtifactConfigurationSlug", artifactConfigurationSlug)
+                .field("Description", description);
+
+        if (parameters != null) {
+            for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                form.field("Parameters." + parameter.getKey(), parameter.getValue());
+            }
+        }
+
+        form.field("Origin.BuildData.Url", origin.getBuildUrl())
+                .file("Origin.BuildData.BuildSettingsFile", Paths.get(origin.getBuildSettingsFile().getAbsolutePath()))
+                .field("Origin.RepositoryData.BranchName", origin.getRepositoryMetadata().getBranchName())
+                .field("Origin.RepositoryData.CommitId", origin.getRepositoryMetadata().getCommitId())
+                .field("Origin.RepositoryData.Url", origin.getRepositoryMetadata().getRepositoryUrl())
+                .field("Origin.RepositoryData.SourceControlManagementType", origin.getRepositoryMetadata().getSourceControlManagementType());
+    }
+
+    private static JSONObject parseJson(String body) {
+        try {
+            return JSONObject.fromObject(body);
+        } catch (JSONException ex) {
+            throw new CompletionException(new IOException("The response of SignPath could not be read: " + ex.getMessage(), ex));
+        }
+    }
+
+    private static long getRetryAfterInSeconds(HttpResponse<?> response) {
+        return ReadinessCheckPolicy.parseRetryAfterInSeconds(response.headers().firstValue("Retry-After").orElse(null));
+    }
+
+    private static void discard(HttpResponse<?> response) {
+        if (response.body() instanceof InputStream) {
+            try {
+                ((InputStream) response.body()).close();
+            } catch (IOException ex) {
+                // the response is not used anyway
+                LOGGER.log(Level.FINE, "Could not discard the response body", ex);
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException, SignPathFacadeCallException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for SignPath");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof SignPathFacadeCallException) {
+                throw (SignPathFacadeCallException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package io.jenkins.plugins.signpath.ApiIntegration.JdkHttpClient;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacadeFactory;
+import io.jenkins.plugins.signpath.SignPathClientLogger;
+
+/**
+ * @see SignPathFacadeFactory
+ */
+public class JdkHttpClientFacadeFactory implements SignPathFacadeFactory {
+    private final ApiConfiguration apiConfiguration;
+    private final SignPathClientLogger logger;
+
+    public JdkHttpClientFacadeFactory(ApiConfiguration apiConfiguration, SignPathClientLogger logger) {
+        this.apiConfiguration = apiConfiguration;
+        this.logger = logger;
+    }
+
+    @Override
+    public SignPathFacade create(SignPathCredentials credentials) {
+        return SignPathFacadeFactory.decorate(new JdkHttpClientFacade(credentials, apiConfiguration, logger), credentials, apiConfiguration);
+    }
+}
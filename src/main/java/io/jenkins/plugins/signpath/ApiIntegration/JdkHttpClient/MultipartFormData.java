@@ -0,0 +1,82 @@
+package io.jenkins.plugins.signpath.ApiIntegration.JdkHttpClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Builds a multipart/form-data request body, as expected by the SignPath submit routes
+ * The body is kept in memory (it only contains metadata and the small build settings file), so the same request can
+ * be sent again if SignPath is temporarily unavailable.
+ */
+final class MultipartFormData {
+    private static final String LINE_BREAK = "\r\n";
+
+    private final String boundary = "SignPathJenkinsPlugin" + UUID.randomUUID().toString().replace("-", "");
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    /**
+     * @param name  the name of the form field
+     * @param value the value, the field is omitted if it is null
+     * @return this
+     */
+    MultipartFormData field(String name, String value) {
+        if (value == null) {
+            return this;
+        }
+
+        writePartHeader(String.format("Content-Disposition: form-data; name=\"%s\"", escape(name)));
+        write(value.getBytes(StandardCharsets.UTF_8));
+        write(LINE_BREAK);
+        return this;
+    }
+
+    /**
+     * @param name the name of the form field
+     * @param file the file whose content is sent as the value
+     * @return this
+     * @throws IOException occurs if the file cannot be read
+     */
+    MultipartFormData file(String name, Path file) throws IOException {
+        writePartHeader(String.format("Content-Disposition: form-data; name=\"%s\"; filename=\"%s\"", escape(name), escape(file.getFileName().toString())),
+                "Content-Type: application/octet-stream");
+        write(Files.readAllBytes(file));
+        write(LINE_BREAK);
+        return this;
+    }
+
+    String getContentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    HttpRequest.BodyPublisher toBodyPublisher() {
+        ByteArrayOutputStream complete = new ByteArrayOutputStream(body.size() + boundary.length() + 8);
+        complete.writeBytes(body.toByteArray());
+        complete.writeBytes(("--" + boundary + "--" + LINE_BREAK).getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.BodyPublishers.ofByteArray(complete.toByteArray());
+    }
+
+    private void writePartHeader(String... headers) {
+        write("--" + boundary + LINE_BREAK);
+        for (String header : headers) {
+            write(header + LINE_BREAK);
+        }
+        write(LINE_BREAK);
+    }
+
+    private void write(String text) {
+        write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void write(byte[] content) {
+        body.writeBytes(content);
+    }
+
+    private static String escape(String headerValue) {
+        return headerValue.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+    }
+}
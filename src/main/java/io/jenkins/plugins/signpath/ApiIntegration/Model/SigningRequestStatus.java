@@ -0,0 +1,50 @@
+package io.jenkins.plugins.signpath.ApiIntegration.Model;
+
+/**
+ * The current status of a signing request as returned by the Status route.
+ */
+public class SigningRequestStatus {
+    private static final String COMPLETED = "Completed";
+
+    private final String status;
+    private final String workflowStatus;
+    private final boolean isFinalStatus;
+    private final long retryAfterInSeconds;
+
+    public SigningRequestStatus(String status, String workflowStatus, boolean isFinalStatus) {
+        this(status, workflowStatus, isFinalStatus, 0);
+    }
+
+    public SigningRequestStatus(String status, String workflowStatus, boolean isFinalStatus, long retryAfterInSeconds) {
+        this.status = status;
+        this.workflowStatus = workflowStatus;
+        this.isFinalStatus = isFinalStatus;
+        this.retryAfterInSeconds = retryAfterInSeconds;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getWorkflowStatus() {
+        return workflowStatus;
+    }
+
+    public boolean isFinalStatus() {
+        return isFinalStatus;
+    }
+
+    /**
+     * @return the seconds SignPath asked to wait before checking the status again (Retry-After), 0 if there was no hint
+     */
+    public long getRetryAfterInSeconds() {
+        return retryAfterInSeconds;
+    }
+
+    /**
+     * @return true if the signing request has been processed successfully, i.e. a signed artifact is available
+     */
+    public boolean isCompleted() {
+        return isFinalStatus && COMPLETED.equalsIgnoreCase(status);
+    }
+}
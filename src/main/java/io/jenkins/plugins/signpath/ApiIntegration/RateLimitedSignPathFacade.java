@@ -0,0 +1,101 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import hudson.FilePath;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiRateLimiter.CallType;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithArtifactRetrievalLinkModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithoutArtifactModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithArtifactRetrievalLinkResult;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithoutArtifactResult;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.UUID;
+
+/**
+ * A {@link SignPathFacade} that waits for the {@link ApiRateLimiter} before every call of the wrapped facade
+ * Submits and uploads/downloads are limited separately. Status queries (and thus {@link #waitForCompletion(UUID, UUID)})
+ * are passed on as is: all status checks go through the {@link SigningRequestPollingService}, which takes them from the
+ * {@link CallType#STATUS} limit without blocking a thread.
+ */
+public class RateLimitedSignPathFacade implements SignPathFacade {
+    private final SignPathFacade signPathFacade;
+    private final ApiRateLimiter rateLimiter;
+
+    public RateLimitedSignPathFacade(SignPathFacade signPathFacade, ApiRateLimiter rateLimiter) {
+        this.signPathFacade = signPathFacade;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public SubmitSigningRequestWithoutArtifactResult submitSigningRequestWithoutArtifact(SigningRequestWithoutArtifactModel submitModel) throws SignPathFacadeCallException {
+        acquireForSubmit();
+        return signPathFacade.submitSigningRequestWithoutArtifact(submitModel);
+    }
+
+    @Override
+    public SubmitSigningRequestWithArtifactRetrievalLinkResult submitSigningRequestWithArtifactRetrievalLink(SigningRequestWithArtifactRetrievalLinkModel submitModel) throws SignPathFacadeCallException {
+        acquireForSubmit();
+        return signPathFacade.submitSigningRequestWithArtifactRetrievalLink(submitModel);
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, InputStream artifactStream) throws IOException, SignPathFacadeCallException {
+        acquireForIOCall(CallType.TRANSFER);
+        signPathFacade.uploadUnsignedArtifact(uploadLink, artifactStream);
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, FilePath artifactFilePath) throws IOException, InterruptedException {
+        rateLimiter.acquire(CallType.TRANSFER);
+        signPathFacade.uploadUnsignedArtifact(uploadLink, artifactFilePath);
+    }
+
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, UnsignedArtifactStreamProvider artifactStreamProvider, long contentLength) throws IOException, InterruptedException {
+        rateLimiter.acquire(CallType.TRANSFER);
+        signPathFacade.uploadUnsignedArtifact(uploadLink, artifactStreamProvider, contentLength);
+    }
+
+    @Override
+    public void waitForCompletion(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        signPathFacade.waitForCompletion(organizationId, signingRequestID);
+    }
+
+    @Override
+    public SigningRequestStatus getSigningRequestStatus(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        return signPathFacade.getSigningRequestStatus(organizationId, signingRequestID);
+    }
+
+    @Override
+    public InputStream downloadSignedArtifact(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        acquireForIOCall(CallType.TRANSFER);
+        return signPathFacade.downloadSignedArtifact(organizationId, signingRequestID);
+    }
+
+    @Override
+    public void downloadSignedArtifact(UUID organizationId, UUID signingRequestID, FilePath targetFilePath) throws IOException, InterruptedException {
+        rateLimiter.acquire(CallType.TRANSFER);
+        signPathFacade.downloadSignedArtifact(organizationId, signingRequestID, targetFilePath);
+    }
+
+    private void acquireForSubmit() throws SignPathFacadeCallException {
+        try {
+            rateLimiter.acquire(CallType.SUBMIT);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SignPathFacadeCallException("Interrupted while waiting for the SignPath API rate limit");
+        }
+    }
+
+    private void acquireForIOCall(CallType callType) throws InterruptedIOException {
+        try {
+            rateLimiter.acquire(callType);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the SignPath API rate limit");
+        }
+    }
+}
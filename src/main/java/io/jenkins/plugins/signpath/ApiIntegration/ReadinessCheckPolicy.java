@@ -0,0 +1,111 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides when the status of a signing request is checked next
+ * The first checks follow each other quickly, so fast (automatic) signing results are picked up within a second or
+ * two. After that the interval doubles with every check up to maxWaitBetweenReadinessChecksInSeconds, so a signing
+ * request waiting for a manual approval is not checked every few seconds for minutes. Every interval varies by a
+ * random jitter, and a Retry-After hint sent by SignPath is never undercut.
+ * If maxWaitBetweenReadinessChecksInSeconds is 0, the status is checked every waitBetweenReadinessChecksInSeconds.
+ * If SignPath notifies the controller of completed signing requests, the interval backs off further (up to
+ * {@link #CALLBACK_FALLBACK_INTERVAL_SECONDS}), the checks only cover callbacks that got lost.
+ */
+public final class ReadinessCheckPolicy {
+    static final long INITIAL_INTERVAL_MILLIS = 1000;
+    private static final int BACKOFF_FACTOR = 2;
+    // an interval varies by up to this fraction
+    private static final double JITTER = 0.2;
+    static final long CALLBACK_FALLBACK_INTERVAL_SECONDS = 300;
+
+    private final long initialIntervalNanos;
+    private final long maxIntervalNanos;
+    private final boolean completionCallbacksEnabled;
+
+    public ReadinessCheckPolicy(ApiConfiguration apiConfiguration) {
+        this(apiConfiguration, false);
+    }
+
+    public ReadinessCheckPolicy(ApiConfiguration apiConfiguration, boolean completionCallbacksEnabled) {
+        long fixedIntervalNanos = TimeUnit.SECONDS.toNanos(Math.max(1, apiConfiguration.getWaitBetweenReadinessChecksInSeconds()));
+        long maxIntervalNanos;
+        if (apiConfiguration.getMaxWaitBetweenReadinessChecksInSeconds() <= 0) {
+            this.initialIntervalNanos = fixedIntervalNanos;
+            maxIntervalNanos = fixedIntervalNanos;
+        } else {
+            maxIntervalNanos = TimeUnit.SECONDS.toNanos(apiConfiguration.getMaxWaitBetweenReadinessChecksInSeconds());
+            this.initialIntervalNanos = Math.min(TimeUnit.MILLISECONDS.toNanos(INITIAL_INTERVAL_MILLIS), maxIntervalNanos);
+        }
+        if (completionCallbacksEnabled) {
+            maxIntervalNanos = Math.max(maxIntervalNanos, TimeUnit.SECONDS.toNanos(CALLBACK_FALLBACK_INTERVAL_SECONDS));
+        }
+        this.maxIntervalNanos = maxIntervalNanos;
+        this.completionCallbacksEnabled = completionCallbacksEnabled;
+    }
+
+    /**
+     * @return the delay of the first check, spread over the first interval so requests submitted together are not checked together
+     */
+    public long getFirstDelayNanos() {
+        return ThreadLocalRandom.current().nextLong(initialIntervalNanos);
+    }
+
+    /**
+     * @param checkCount          the number of checks made so far (at least 1)
+     * @param retryAfterInSeconds the Retry-After hint of the last response, 0 if there was none
+     * @return the delay until the next check
+     */
+    public long getIntervalNanos(int checkCount, long retryAfterInSeconds) {
+        long intervalNanos = initialIntervalNanos;
+        for (int i = 1; i < checkCount && intervalNanos < maxIntervalNanos; i++) {
+            intervalNanos *= BACKOFF_FACTOR;
+        }
+        intervalNanos = Math.min(intervalNanos, maxIntervalNanos);
+
+        long jitteredNanos = (long) (intervalNanos * (1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER)));
+        return Math.max(jitteredNanos, TimeUnit.SECONDS.toNanos(Math.max(0, retryAfterInSeconds)));
+    }
+
+    /**
+     * @return a short description for the build log, i.e. "every 5 seconds"
+     */
+    public String getDescription() {
+        if (completionCallbacksEnabled) {
+            return String.format("when SignPath reports completion, otherwise up to every %d seconds", TimeUnit.NANOSECONDS.toSeconds(maxIntervalNanos));
+        }
+        if (initialIntervalNanos == maxIntervalNanos) {
+            return String.format("every %d seconds", TimeUnit.NANOSECONDS.toSeconds(maxIntervalNanos));
+        }
+        return String.format("quickly at first, then up to every %d seconds", TimeUnit.NANOSECONDS.toSeconds(maxIntervalNanos));
+    }
+
+    /**
+     * @param value the value of a Retry-After header (delay in seconds or an HTTP date) or null
+     * @return the seconds to wait, 0 if there is no (valid) hint
+     */
+    public static long parseRetryAfterInSeconds(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException ex) {
+            // not a delay, so it has to be a date
+        }
+
+        try {
+            Instant retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            long remainingMillis = retryAt.toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(remainingMillis + 999));
+        } catch (DateTimeParseException ex) {
+            return 0;
+        }
+    }
+}
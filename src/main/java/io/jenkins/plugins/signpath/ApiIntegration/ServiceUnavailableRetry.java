@@ -0,0 +1,44 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether and when a request is repeated while SignPath is (temporarily) unavailable
+ * As with the SignPath client, a request is repeated for up to serviceUnavailableTimeoutInSeconds, waiting
+ * waitBetweenReadinessChecksInSeconds between the attempts. This is shared by all facades that repeat requests
+ * themselves (whether they wait on a thread or asynchronously), so they all give up under the same conditions.
+ */
+public final class ServiceUnavailableRetry {
+    private final long deadlineNanos;
+    private final long configuredWaitInSeconds;
+
+    /**
+     * @param apiConfiguration defines the service unavailable timeout (starting now) and the wait between attempts
+     */
+    public ServiceUnavailableRetry(ApiConfiguration apiConfiguration) {
+        this.deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(apiConfiguration.getServiceUnavailableTimeoutInSeconds());
+        this.configuredWaitInSeconds = Math.max(1, apiConfiguration.getWaitBetweenReadinessChecksInSeconds());
+    }
+
+    /**
+     * @param failure the failure of the last attempt, a {@link ServiceUnavailableException} if SignPath answered
+     * @return the seconds to wait before the next attempt, -1 if the failure is final
+     */
+    public long getWaitInSeconds(IOException failure) {
+        // SignPath's Retry-After hint takes precedence over the configured wait, there is no point in asking earlier
+        long waitInSeconds = failure instanceof ServiceUnavailableException
+                ? Math.max(configuredWaitInSeconds, ((ServiceUnavailableException) failure).getRetryAfterInSeconds())
+                : configuredWaitInSeconds;
+        long now = System.nanoTime();
+        boolean retryAfterExceedsDeadline = waitInSeconds > configuredWaitInSeconds
+                && now + TimeUnit.SECONDS.toNanos(waitInSeconds) - deadlineNanos > 0;
+        // once the circuit breaker opened, other builds already found SignPath to be unavailable
+        if (now - deadlineNanos >= 0 || retryAfterExceedsDeadline || ApiCircuitBreaker.get().isOpen()) {
+            return -1;
+        }
+        return waitInSeconds;
+    }
+}
@@ -0,0 +1,68 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import org.jenkinsci.remoting.RoleChecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * A {@link FilePath.FileCallable} that runs on the agent and downloads the signed artifact
+ * directly into the workspace. The artifact never passes through the Jenkins controller.
+ */
+public class DownloadSignedArtifactCallable implements FilePath.FileCallable<Void> {
+    private static final long serialVersionUID = 1L;
+
+    private final UUID organizationId;
+    private final UUID signingRequestId;
+    private final Secret apiToken;
+    private final ApiConfiguration apiConfiguration;
+    private final String userAgent;
+
+    public DownloadSignedArtifactCallable(UUID organizationId,
+                                          UUID signingRequestId,
+                                          Secret apiToken,
+                                          ApiConfiguration apiConfiguration,
+                                          String userAgent) {
+        this.organizationId = organizationId;
+        this.signingRequestId = signingRequestId;
+        this.apiToken = apiToken;
+        this.apiConfiguration = apiConfiguration;
+        this.userAgent = userAgent;
+    }
+
+    @Override
+    public void checkRoles(RoleChecker checker) {
+        // No role restrictions: this callable only writes the signed artifact received from SignPath
+    }
+
+    @Override
+    public Void invoke(File target, VirtualChannel channel) throws IOException, InterruptedException {
+        Path targetFile = target.toPath().toAbsolutePath();
+        Files.createDirectories(targetFile.getParent());
+
+        // written next to the target and moved into place, so a failed download never leaves a truncated artifact
+        Path partialFile = Files.createTempFile(targetFile.getParent(), targetFile.getFileName().toString(), ".partial");
+        try {
+            SignedArtifactDownload download = new SignedArtifactDownload(apiConfiguration, userAgent);
+            try (InputStream signedArtifact = download.open(apiToken.getPlainText(), organizationId, signingRequestId)) {
+                Files.copy(signedArtifact, partialFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(partialFile, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (SignPathFacadeCallException ex) {
+            throw new IOException("Downloading the signed artifact to the agent failed: " + ex.getMessage(), ex);
+        } finally {
+            Files.deleteIfExists(partialFile);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiCircuitBreaker;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.signpath.signpathclient.SignPathClient;
+import io.signpath.signpathclient.SignPathClientException;
+import io.signpath.signpathclient.SignPathClientSimpleLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads an unsigned artifact and repeats the whole upload if it fails (e.g. because of a dropped connection)
+ * The SignPath upload link only accepts the complete artifact in one request, so a failed upload
+ * cannot be resumed and is instead started over from the (re-readable) file or stream
+ * Only I/O failures and an unavailable SignPath (5xx/429) are repeated, an upload SignPath rejected (e.g. an expired
+ * upload link or a missing permission) fails right away.
+ * This is used both on the controller and on agents
+ */
+public final class RetryingArtifactUpload {
+
+    private RetryingArtifactUpload() {
+    }
+
+    /**
+     * @param client           the client to upload with
+     * @param apiToken         the plain text api token
+     * @param uploadLink       the upload URL as returned by the SubmitWithoutArtifact route
+     * @param artifact         the artifact file, it is read again for every attempt
+     * @param apiConfiguration defines the number of retries and the wait time between them
+     * @param logger           used to report failed attempts to the build log
+     * @throws SignPathClientException occurs if the last attempt failed or SignPath rejected the upload
+     * @throws IOException             occurs if the last attempt failed with an I/O error
+     * @throws InterruptedException    occurs if the thread is interrupted while waiting for the next attempt
+     */
+    public static void upload(SignPathClient client,
+                              String apiToken,
+                              String uploadLink,
+                              File artifact,
+                              ApiConfiguration apiConfiguration,
+                              SignPathClientSimpleLogger logger) throws SignPathClientException, IOException, InterruptedException {
+        run(() -> client.uploadUnsignedArtifact(apiToken, uploadLink, artifact), apiConfiguration, logger);
+    }
+
+    /**
+     * @param attempt          a single, complete upload of the artifact
+     * @param apiConfiguration defines the number of retries and the wait time between them
+     * @param logger           used to report failed attempts to the build log
+     * @throws SignPathClientException occurs if the last attempt failed within the SignPath client
+     * @throws IOException             occurs if the last attempt failed with an I/O error
+     * @throws InterruptedException    occurs if an attempt or the wait for the next attempt is interrupted
+     */
+    public static void run(UploadAttempt attempt,
+                           ApiConfiguration apiConfiguration,
+                           SignPathClientSimpleLogger logger) throws SignPathClientException, IOException, InterruptedException {
+        int retryCount = Math.max(0, apiConfiguration.getUploadRetryCount());
+        for (int attemptNumber = 0; ; attemptNumber++) {
+            try {
+                attempt.upload();
+                return;
+            } catch (SignPathClientException | IOException ex) {
+                // once the circuit breaker opened, other builds already found SignPath to be unavailable
+                if (attemptNumber >= retryCount || !isRetryable(ex) || ApiCircuitBreaker.get().isOpen()) {
+                    throw ex;
+                }
+
+                logger.log(String.format("Uploading the artifact failed (attempt %d of %d), retrying: %s",
+                        attemptNumber + 1, retryCount + 1, ex.getMessage()));
+
+                // linear back off: a connection that just dropped often needs a moment before it is usable again
+                // (but never earlier than SignPath asked for)
+                long waitInSeconds = Math.max(apiConfiguration.getWaitBetweenTransferRetriesInSeconds() * (long) (attemptNumber + 1),
+                        ex instanceof ServiceUnavailableException ? ((ServiceUnavailableException) ex).getRetryAfterInSeconds() : 0);
+                Thread.sleep(TimeUnit.SECONDS.toMillis(waitInSeconds));
+            }
+        }
+    }
+
+    /**
+     * @param failure the failure of an upload attempt
+     * @return true if the failure was caused by the connection or an unavailable SignPath, false if SignPath
+     * rejected the upload (a 4xx status code) or waiting was interrupted
+     */
+    static boolean isRetryable(Exception failure) {
+        boolean ioFailure = false;
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            // a read timeout is an InterruptedIOException as well, but the thread was not interrupted
+            if (cause instanceof SignPathFacadeCallException
+                    || (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException))) {
+                return false;
+            }
+            ioFailure |= cause instanceof IOException;
+        }
+        // the SignPath client already repeats requests while SignPath is unavailable, so its other failures
+        // (i.e. status codes it does not accept) are final
+        return ioFailure;
+    }
+
+    /**
+     * A single, complete upload of the artifact
+     */
+    @FunctionalInterface
+    public interface UploadAttempt {
+        void upload() throws SignPathClientException, IOException, InterruptedException;
+    }
+}
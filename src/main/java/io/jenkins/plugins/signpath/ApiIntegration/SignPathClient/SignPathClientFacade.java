@@ -1,61 +1,75 @@
 package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
 //</editor-fold>
+import hudson.FilePath;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiCircuitBreaker;
 import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
 import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestOriginModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
 import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithArtifactRetrievalLinkModel;
 import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithoutArtifactModel;
 import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithArtifactRetrievalLinkResult;
 import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithoutArtifactResult;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.ApiIntegration.SigningRequestPollingService;
+import io.jenkins.plugins.signpath.ApiIntegration.UnsignedArtifactStreamProvider;
 import io.jenkins.plugins.signpath.Common.TemporaryFile;
 import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.jenkins.plugins.signpath.SignPathClientLogger;
 import io.signpath.signpathclient.api.model.SigningRequestSubmitWithArtifactRetrievalLinkResponse;
 import io.signpath.signpathclient.api.model.SigningRequestSubmitWithoutArtifactResponse;
-import io.signpath.signpathclient.SignPathClientSettings;
-import io.signpath.signpathclient.SignPathClient;
 import io.signpath.signpathclient.SignPathClientException;
 import io.signpath.signpathclient.SignPathClientSimpleLogger;
-import io.signpath.signpathclient.api.model.SigningRequestStatusResponse;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import jenkins.model.Jenkins;
 
 public class SignPathClientFacade implements SignPathFacade {
 
-    private final SignPathClient client;
     private final SignPathCredentials credentials;
     private final ApiConfiguration apiConfiguration;
-    private final SignPathClientSimpleLogger logger;
+    private final SignPathClientLogger logger;
 
-    public SignPathClientFacade(SignPathCredentials credentials, ApiConfiguration apiConfiguration, SignPathClientSimpleLogger logger) {
+    public SignPathClientFacade(SignPathCredentials credentials, ApiConfiguration apiConfiguration, SignPathClientLogger logger) {
         this.credentials = credentials;
         this.apiConfiguration = apiConfiguration;
         this.logger = logger;
-        String baseUrl = apiConfiguration.getApiUrl().toString();
-        if(!baseUrl.endsWith("/")) {
-            baseUrl = baseUrl + "/";
+    }
+
+    /**
+     * Leases the shared SignPath client for the given configuration, see {@link SignPathClientPool}
+     * This is also used on agents (where Jenkins is not available), therefore the user agent has to be passed in
+     */
+    static SignPathClientPool.Lease leaseClient(ApiConfiguration apiConfiguration, SignPathClientSimpleLogger logger, String userAgent) {
+        return SignPathClientPool.get().lease(apiConfiguration, userAgent, logger);
+    }
+
+    /**
+     * The SignPath client repeats a submit while SignPath is unavailable, for up to serviceUnavailableTimeoutInSeconds
+     * While the circuit breaker is enabled, that is capped: the breaker only learns about the outage once the submit
+     * returns, and it cannot stop the retries within the client once it opened.
+     */
+    static ApiConfiguration getSubmitApiConfiguration(ApiConfiguration apiConfiguration, ApiCircuitBreaker circuitBreaker) {
+        if (!circuitBreaker.isEnabled()
+                || apiConfiguration.getServiceUnavailableTimeoutInSeconds() <= ApiCircuitBreaker.MAX_SERVICE_UNAVAILABLE_TIMEOUT_IN_SECONDS) {
+            return apiConfiguration;
         }
-        this.client = new SignPathClient(baseUrl, logger,
-            new SignPathClientSettings(
-                apiConfiguration.getServiceUnavailableTimeoutInSeconds(),
-                apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds(),
-                apiConfiguration.getWaitForCompletionTimeoutInSeconds(),
-                apiConfiguration.getWaitBetweenReadinessChecksInSeconds(),
-                buildUserAgent()
-            ), apiConfiguration.getServiceUnavailableTimeoutInSeconds());
+        return apiConfiguration.withServiceUnavailableTimeoutInSeconds(ApiCircuitBreaker.MAX_SERVICE_UNAVAILABLE_TIMEOUT_IN_SECONDS);
     }
 
     @Override
     public SubmitSigningRequestWithoutArtifactResult submitSigningRequestWithoutArtifact(SigningRequestWithoutArtifactModel submitModel) throws SignPathFacadeCallException {
-        try {
-            SigningRequestSubmitWithoutArtifactResponse response = this.client.submitWithoutArtifact(
+        try (SignPathClientPool.Lease lease = leaseClient(getSubmitApiConfiguration(apiConfiguration, ApiCircuitBreaker.get()), logger, buildUserAgent())) {
+            SigningRequestSubmitWithoutArtifactResponse response = lease.getClient().submitWithoutArtifact(
                     credentials.getApiToken().getPlainText(),
                     credentials.getTrustedBuildSystemToken().getPlainText(),
                     submitModel.getOrganizationId().toString(),
@@ -75,14 +89,14 @@ public class SignPathClientFacade implements SignPathFacade {
                     response.getWebLink());
         } catch (SignPathClientException ex) {
             Logger.getLogger(SignPathClientFacade.class.getName()).log(Level.SEVERE, null, ex);
-            throw new SignPathFacadeCallException(ex.getMessage());
+            throw new SignPathFacadeCallException(ex.getMessage(), ex);
         }
     }
 
     @Override
     public SubmitSigningRequestWithArtifactRetrievalLinkResult submitSigningRequestWithArtifactRetrievalLink(SigningRequestWithArtifactRetrievalLinkModel submitModel) throws SignPathFacadeCallException {
-        try {
-            SigningRequestSubmitWithArtifactRetrievalLinkResponse response = this.client.submitWithArtifactRetrievalLink(
+        try (SignPathClientPool.Lease lease = leaseClient(getSubmitApiConfiguration(apiConfiguration, ApiCircuitBreaker.get()), logger, buildUserAgent())) {
+            SigningRequestSubmitWithArtifactRetrievalLinkResponse response = lease.getClient().submitWithArtifactRetrievalLink(
                     credentials.getApiToken().getPlainText(),
                     credentials.getTrustedBuildSystemToken().getPlainText(),
                     submitModel.getOrganizationId().toString(),
@@ -103,47 +117,101 @@ public class SignPathClientFacade implements SignPathFacade {
                     response.getWebLink());
         } catch (SignPathClientException ex) {
             Logger.getLogger(SignPathClientFacade.class.getName()).log(Level.SEVERE, null, ex);
-            throw new SignPathFacadeCallException(ex.getMessage());
+            throw new SignPathFacadeCallException(ex.getMessage(), ex);
         }
     }
 
     @Override
     public void uploadUnsignedArtifact(String uploadLink, InputStream artifactStream) throws IOException, SignPathFacadeCallException {
-        try (TemporaryFile tempFile = new TemporaryFile()) {
+        try (TemporaryFile tempFile = new TemporaryFile();
+             SignPathClientPool.Lease lease = leaseClient(apiConfiguration, logger, buildUserAgent())) {
             tempFile.copyFrom(artifactStream);
-            client.uploadUnsignedArtifact(credentials.getApiToken().getPlainText(), uploadLink, tempFile.getFile());
+            RetryingArtifactUpload.upload(lease.getClient(), credentials.getApiToken().getPlainText(), uploadLink, tempFile.getFile(), apiConfiguration, logger);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry the artifact upload");
         } catch (SignPathClientException ex) {
             Logger.getLogger(SignPathClientFacade.class.getName()).log(Level.SEVERE, null, ex);
-            throw new SignPathFacadeCallException(ex.getMessage());
+            throw new SignPathFacadeCallException(ex.getMessage(), ex);
         }
     }
 
     @Override
-    public TemporaryFile getSignedArtifact(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
-        TemporaryFile outputArtifact = new TemporaryFile();
+    public void uploadUnsignedArtifact(String uploadLink, FilePath artifactFilePath) throws IOException, InterruptedException {
+        // the upload runs on the node that holds the artifact, so the bytes never pass through the controller
+        artifactFilePath.act(new UploadUnsignedArtifactCallable(
+                uploadLink,
+                credentials.getApiToken(),
+                apiConfiguration,
+                logger,
+                buildUserAgent()));
+    }
 
+    @Override
+    public void uploadUnsignedArtifact(String uploadLink, UnsignedArtifactStreamProvider artifactStreamProvider, long contentLength) throws IOException, InterruptedException {
+        StreamingArtifactUpload streamingUpload = new StreamingArtifactUpload(apiConfiguration, buildUserAgent());
         try {
-            SigningRequestStatusResponse request = client.waitForFinalSigningRequestStatus(
-                credentials.getApiToken().getPlainText(),
-                organizationId.toString(),
-                signingRequestID.toString());
+            RetryingArtifactUpload.run(() -> {
+                try (InputStream artifactStream = artifactStreamProvider.open()) {
+                    streamingUpload.upload(credentials.getApiToken().getPlainText(), uploadLink, artifactStream, contentLength);
+                }
+            }, apiConfiguration, logger);
+        } catch (SignPathClientException ex) {
+            // not thrown by the streaming upload, only declared by the retry contract
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
 
-            if(!request.isFinalStatus()) {
-                throw new SignPathFacadeCallException("Timeout expired while waiting for signing request to complete");
+    @Override
+    public void waitForCompletion(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        // the status checks are shared with all other builds waiting on this controller
+        CompletableFuture<SigningRequestStatus> finalStatus = SigningRequestPollingService.get().awaitFinalStatus(
+                this, credentials, organizationId, signingRequestID, apiConfiguration, logger.getLogger());
+        SigningRequestStatus status;
+        try {
+            status = finalStatus.get();
+        } catch (InterruptedException ex) {
+            finalStatus.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for signing request to complete");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof SignPathFacadeCallException) {
+                throw (SignPathFacadeCallException) ex.getCause();
             }
-
-            client.downloadSignedArtifact(
-                    credentials.getApiToken().getPlainText(),
-                    organizationId.toString(),
-                    signingRequestID.toString(),
-                    outputArtifact.getFile());
-            return outputArtifact;
+            throw new IOException(ex.getCause().getMessage(), ex.getCause());
         }
-        catch (SignPathClientException ex) {
-            throw new SignPathFacadeCallException(ex.getMessage());
+
+        if (!status.isCompleted()) {
+            throw new SignPathFacadeCallException(String.format(
+                    "Signing request %s finished with status '%s'", signingRequestID, status.getStatus()));
         }
     }
 
+    @Override
+    public SigningRequestStatus getSigningRequestStatus(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        SigningRequestStatusQuery statusQuery = new SigningRequestStatusQuery(apiConfiguration, buildUserAgent());
+        return statusQuery.query(credentials.getApiToken().getPlainText(), organizationId, signingRequestID);
+    }
+
+    @Override
+    public InputStream downloadSignedArtifact(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException {
+        // streamed instead of using the client (which can only download into a file), so the caller can write the
+        // artifact to its final location right away
+        SignedArtifactDownload download = new SignedArtifactDownload(apiConfiguration, buildUserAgent());
+        return download.open(credentials.getApiToken().getPlainText(), organizationId, signingRequestID);
+    }
+
+    @Override
+    public void downloadSignedArtifact(UUID organizationId, UUID signingRequestID, FilePath targetFilePath) throws IOException, InterruptedException {
+        // the download runs on the node that holds the target, so the bytes never pass through the controller
+        targetFilePath.act(new DownloadSignedArtifactCallable(
+                organizationId,
+                signingRequestID,
+                credentials.getApiToken(),
+                apiConfiguration,
+                buildUserAgent()));
+    }
+
     private Map<String, String> buildOriginData(SigningRequestOriginModel origin) {
         Map<String, String> originParameters = new HashMap<>();
 
@@ -157,7 +225,10 @@ public class SignPathClientFacade implements SignPathFacade {
         return originParameters;
     }
 
-    private String buildUserAgent(){
+    /**
+     * @return the user agent the plugin identifies itself with towards SignPath
+     */
+    public static String buildUserAgent(){
         return String.format("SignPath.Plugins.Jenkins/%1$s (OpenJDK %2$s; Jenkins %3$s)",
                 SignPathClientFacade.class.getPackage().getImplementationVersion(),
                 System.getProperty("java.version"),
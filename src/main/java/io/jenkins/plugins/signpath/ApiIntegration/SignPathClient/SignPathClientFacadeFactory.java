@@ -4,24 +4,22 @@ import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacadeFactory;
-import io.signpath.signpathclient.SignPathClientSimpleLogger;
-
-import java.io.PrintStream;
+import io.jenkins.plugins.signpath.SignPathClientLogger;
 
 /**
  * @see SignPathFacadeFactory
  */
 public class SignPathClientFacadeFactory implements SignPathFacadeFactory {
     private final ApiConfiguration apiConfiguration;
-    private final SignPathClientSimpleLogger logger;
+    private final SignPathClientLogger logger;
 
-    public SignPathClientFacadeFactory(ApiConfiguration apiConfiguration, SignPathClientSimpleLogger logger) {
+    public SignPathClientFacadeFactory(ApiConfiguration apiConfiguration, SignPathClientLogger logger) {
         this.apiConfiguration = apiConfiguration;
         this.logger = logger;
     }
 
     @Override
     public SignPathFacade create(SignPathCredentials credentials) {
-        return new SignPathClientFacade(credentials, apiConfiguration, logger);
+        return SignPathFacadeFactory.decorate(new SignPathClientFacade(credentials, apiConfiguration, logger), credentials, apiConfiguration);
     }
-}
\ No newline at end of file
+}
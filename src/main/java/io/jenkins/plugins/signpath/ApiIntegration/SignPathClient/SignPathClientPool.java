@@ -0,0 +1,304 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.signpath.signpathclient.SignPathClient;
+import io.signpath.signpathclient.SignPathClientSettings;
+import io.signpath.signpathclient.SignPathClientSimpleLogger;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shares SignPath clients (and with them their HTTP connections) between all steps running in this JVM
+ * Clients are keyed by API URL and client settings, credentials are passed with every call and never stored in a
+ * client. A client that has not been leased for the idle timeout is evicted in the background.
+ * Since a client is created with a single logger, its log output is routed to the logger of the lease that is active
+ * on the calling thread (or to the Jenkins log if there is none).
+ * The pool also releases the plain HTTP connections opened next to the clients (status queries, streamed uploads and
+ * downloads): a connection whose response has been read completely is left open, whether it is actually reused is up
+ * to the keep-alive cache of the JDK's HttpURLConnection (which the pool cannot observe), any other one is closed.
+ */
+public final class SignPathClientPool {
+    private static final Logger LOGGER = Logger.getLogger(SignPathClientPool.class.getName());
+
+    static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private static final SignPathClientPool INSTANCE = new SignPathClientPool(DEFAULT_IDLE_TIMEOUT_MILLIS, System::nanoTime);
+
+    private final long idleTimeoutNanos;
+    private final Supplier<Long> nanoClock;
+    private final Map<ClientKey, PooledClient> clients = new HashMap<>();
+    private final ThreadLocal<SignPathClientSimpleLogger> currentLogger = new ThreadLocal<>();
+    private ScheduledExecutorService evictionScheduler;
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong reusedCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong fullyReadResponseCount = new AtomicLong();
+    private final AtomicLong closedConnectionCount = new AtomicLong();
+
+    SignPathClientPool(long idleTimeoutMillis, Supplier<Long> nanoClock) {
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return the pool of this JVM (the controller or an agent)
+     */
+    public static SignPathClientPool get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Leases the shared client for the given configuration, it must be returned by closing the lease
+     * The lease belongs to the calling thread, the client must not be handed to other threads.
+     *
+     * @param apiConfiguration the configuration (API URL and timeouts) of the client
+     * @param userAgent        the user agent the client sends
+     * @param logger           receives the log output of the client while the lease is open
+     * @return the lease of the client
+     */
+    public Lease lease(ApiConfiguration apiConfiguration, String userAgent, SignPathClientSimpleLogger logger) {
+        ClientKey key = new ClientKey(apiConfiguration, userAgent);
+        PooledClient pooledClient;
+        synchronized (this) {
+            pooledClient = clients.get(key);
+            if (pooledClient == null) {
+                pooledClient = new PooledClient(createClient(key));
+                clients.put(key, pooledClient);
+                createdCount.incrementAndGet();
+                scheduleEviction();
+            } else {
+                reusedCount.incrementAndGet();
+            }
+            pooledClient.leaseCount++;
+        }
+
+        return new Lease(pooledClient, currentLogger.get(), logger);
+    }
+
+    /**
+     * Releases a connection once its response has been handled
+     * If the response body has been read completely (and closed), the connection is left to the keep-alive cache of
+     * HttpURLConnection for further requests, otherwise it is closed.
+     *
+     * @param connection   the connection
+     * @param bodyConsumed whether the response body has been read to the end and closed
+     */
+    public void release(HttpURLConnection connection, boolean bodyConsumed) {
+        if (bodyConsumed) {
+            fullyReadResponseCount.incrementAndGet();
+        } else {
+            closedConnectionCount.incrementAndGet();
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Reads the rest of the response body, so the connection can be kept alive
+     *
+     * @param connection the connection with a successful response
+     * @return whether the body has been read completely
+     */
+    public static boolean consumeBody(HttpURLConnection connection) {
+        try (InputStream responseBody = connection.getInputStream()) {
+            IOUtils.consume(responseBody);
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Evicts all clients that have not been leased for the idle timeout
+     */
+    public synchronized void evictIdleClients() {
+        long now = nanoClock.get();
+        Iterator<PooledClient> iterator = clients.values().iterator();
+        while (iterator.hasNext()) {
+            PooledClient pooledClient = iterator.next();
+            if (pooledClient.leaseCount == 0 && now - pooledClient.lastReturnedNanos >= idleTimeoutNanos) {
+                // the client has no close method, its connections are closed by its own idle handling once unreferenced
+                iterator.remove();
+                evictedCount.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized int getClientCount() {
+        return clients.size();
+    }
+
+    public synchronized int getLeaseCount() {
+        return clients.values().stream().mapToInt(c -> c.leaseCount).sum();
+    }
+
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    public long getReusedCount() {
+        return reusedCount.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    /**
+     * @return the number of released connections whose response has been read completely (not necessarily reused)
+     */
+    public long getFullyReadResponseCount() {
+        return fullyReadResponseCount.get();
+    }
+
+    public long getClosedConnectionCount() {
+        return closedConnectionCount.get();
+    }
+
+    private SignPathClient createClient(ClientKey key) {
+        SignPathClientSimpleLogger routingLogger = new SignPathClientSimpleLogger() {
+            @Override
+            public void log(String message, Throwable ex) {
+                SignPathClientSimpleLogger logger = currentLogger.get();
+                if (logger != null) {
+                    logger.log(message, ex);
+                } else {
+                    LOGGER.log(Level.INFO, message, ex);
+                }
+            }
+
+            @Override
+            public void log(String message) {
+                log(message, null);
+            }
+        };
+
+        return new SignPathClient(key.baseUrl, routingLogger,
+                new SignPathClientSettings(
+                        key.serviceUnavailableTimeoutInSeconds,
+                        key.uploadAndDownloadRequestTimeoutInSeconds,
+                        key.waitForCompletionTimeoutInSeconds,
+                        key.waitBetweenReadinessChecksInSeconds,
+                        key.userAgent
+                ), key.serviceUnavailableTimeoutInSeconds);
+    }
+
+    private void scheduleEviction() {
+        if (evictionScheduler != null) {
+            return;
+        }
+
+        evictionScheduler = Executors.newSingleThreadScheduledExecutor(
+                new NamingThreadFactory(new DaemonThreadFactory(), "SignPath client pool eviction"));
+        long periodNanos = Math.max(TimeUnit.SECONDS.toNanos(1), idleTimeoutNanos / 2);
+        evictionScheduler.scheduleWithFixedDelay(this::evictIdleClients, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void giveBack(PooledClient pooledClient) {
+        pooledClient.leaseCount--;
+        pooledClient.lastReturnedNanos = nanoClock.get();
+    }
+
+    /**
+     * A client leased from the pool, closing it returns the client
+     */
+    public final class Lease implements AutoCloseable {
+        private final PooledClient pooledClient;
+        private final SignPathClientSimpleLogger previousLogger;
+        private boolean closed;
+
+        private Lease(PooledClient pooledClient, SignPathClientSimpleLogger previousLogger, SignPathClientSimpleLogger logger) {
+            this.pooledClient = pooledClient;
+            this.previousLogger = previousLogger;
+            currentLogger.set(logger);
+        }
+
+        public SignPathClient getClient() {
+            return pooledClient.client;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            // leases may be nested (i.e. a facade call within a facade call)
+            if (previousLogger != null) {
+                currentLogger.set(previousLogger);
+            } else {
+                currentLogger.remove();
+            }
+            giveBack(pooledClient);
+        }
+    }
+
+    private static final class PooledClient {
+        private final SignPathClient client;
+        private int leaseCount;
+        private long lastReturnedNanos;
+
+        private PooledClient(SignPathClient client) {
+            this.client = client;
+        }
+    }
+
+    private static final class ClientKey {
+        private final String baseUrl;
+        private final int serviceUnavailableTimeoutInSeconds;
+        private final int uploadAndDownloadRequestTimeoutInSeconds;
+        private final int waitForCompletionTimeoutInSeconds;
+        private final int waitBetweenReadinessChecksInSeconds;
+        private final String userAgent;
+
+        private ClientKey(ApiConfiguration apiConfiguration, String userAgent) {
+            String url = apiConfiguration.getApiUrl().toString();
+            this.baseUrl = url.endsWith("/") ? url : url + "/";
+            this.serviceUnavailableTimeoutInSeconds = apiConfiguration.getServiceUnavailableTimeoutInSeconds();
+            this.uploadAndDownloadRequestTimeoutInSeconds = apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds();
+            this.waitForCompletionTimeoutInSeconds = apiConfiguration.getWaitForCompletionTimeoutInSeconds();
+            this.waitBetweenReadinessChecksInSeconds = apiConfiguration.getWaitBetweenReadinessChecksInSeconds();
+            this.userAgent = userAgent;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ClientKey)) {
+                return false;
+            }
+            ClientKey other = (ClientKey) o;
+            return baseUrl.equals(other.baseUrl)
+                    && serviceUnavailableTimeoutInSeconds == other.serviceUnavailableTimeoutInSeconds
+                    && uploadAndDownloadRequestTimeoutInSeconds == other.uploadAndDownloadRequestTimeoutInSeconds
+                    && waitForCompletionTimeoutInSeconds == other.waitForCompletionTimeoutInSeconds
+                    && waitBetweenReadinessChecksInSeconds == other.waitBetweenReadinessChecksInSeconds
+                    && Objects.equals(userAgent, other.userAgent);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(baseUrl, serviceUnavailableTimeoutInSeconds, uploadAndDownloadRequestTimeoutInSeconds,
+                    waitForCompletionTimeoutInSeconds, waitBetweenReadinessChecksInSeconds, userAgent);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.ReadinessCheckPolicy;
+import io.jenkins.plugins.signpath.ApiIntegration.ServiceUnavailableRetry;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactHasher;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Opens the signed artifact of a completed signing request as a stream
+ * In contrast to the SignPath client (which only downloads into files) the content can be written to its final
+ * destination directly, without a temporary copy. As with the SignPath client, the request is repeated while
+ * SignPath is (temporarily) unavailable, for up to serviceUnavailableTimeoutInSeconds (see {@link ServiceUnavailableRetry}).
+ * It is used for all streamed downloads, whichever facade calls SignPath otherwise.
+ * If the connection breaks while the content is read, the download is resumed after the bytes already read
+ * (HTTP range request) up to downloadRetryCount times. The length and, if SignPath sends one, the SHA-256 digest
+ * of the content are verified once the end is reached.
+ */
+public class SignedArtifactDownload {
+    // RFC 3230 "Digest: sha-256=<base64>" and RFC 9530 "Repr-Digest: sha-256=:<base64>:"
+    private static final Pattern SHA256_DIGEST = Pattern.compile("(?i)(?:^|,)\\s*sha-256=:?([A-Za-z0-9+/=]+):?");
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-\\d+/(\\d+|\\*)");
+
+    private final ApiConfiguration apiConfiguration;
+    private final String userAgent;
+
+    public SignedArtifactDownload(ApiConfiguration apiConfiguration, String userAgent) {
+        this.apiConfiguration = apiConfiguration;
+        this.userAgent = userAgent;
+    }
+
+    /**
+     * @param apiToken         the plain text api token
+     * @param organizationId   the organization ID where the signing request resides
+     * @param signingRequestId the ID of a completed signing request
+     * @return the content of the signed artifact, closing it releases the connection
+     * @throws IOException                 occurs if SignPath cannot be reached within the service unavailable timeout
+     * @throws SignPathFacadeCallException occurs if SignPath rejects the download (i.e. misconfiguration)
+     */
+    public InputStream open(String apiToken, UUID organizationId, UUID signingRequestId) throws IOException, SignPathFacadeCallException {
+        String baseUrl = apiConfiguration.getApiUrl().toString();
+        if (!baseUrl.endsWith("/")) {
+            baseUrl = baseUrl + "/";
+        }
+        URL signedArtifactUrl = new URL(String.format("%sv1/%s/SigningRequests/%s/SignedArtifact", baseUrl, organizationId, signingRequestId));
+
+        return new ResumingInputStream(apiToken, signedArtifactUrl, signingRequestId,
+                connect(apiToken, signedArtifactUrl, signingRequestId, 0, null));
+    }
+
+    private HttpURLConnection connect(String apiToken, URL signedArtifactUrl, UUID signingRequestId, long rangeStart, String entityTag)
+            throws IOException, SignPathFacadeCallException {
+        ServiceUnavailableRetry serviceUnavailableRetry = new ServiceUnavailableRetry(apiConfiguration);
+
+        while (true) {
+            HttpURLConnection connection = (HttpURLConnection) signedArtifactUrl.openConnection();
+            int timeoutInMillis = (int) TimeUnit.SECONDS.toMillis(apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds());
+            connection.setConnectTimeout(timeoutInMillis);
+            connection.setReadTimeout(timeoutInMillis);
+            connection.setRequestProperty("Authorization", "Bearer " + apiToken);
+            connection.setRequestProperty("User-Agent", userAgent);
+            if (rangeStart > 0) {
+                connection.setRequestProperty("Range", "bytes=" + rangeStart + "-");
+                if (entityTag != null) {
+                    // the server answers with the whole (new) content instead of the range if the artifact has changed
+                    connection.setRequestProperty("If-Range", entityTag);
+                }
+            }
+
+            IOException failure;
+            try {
+                int statusCode = connection.getResponseCode();
+                if (statusCode >= 200 && statusCode < 300) {
+                    return connection;
+                }
+
+                String message = String.format("Downloading the signed artifact of signing request %s failed with status code %d %s.",
+                        signingRequestId, statusCode, connection.getResponseMessage());
+                long retryAfterInSeconds = ReadinessCheckPolicy.parseRetryAfterInSeconds(connection.getHeaderField("Retry-After"));
+                connection.disconnect();
+                if (statusCode < 500 && statusCode != 429) {
+                    throw new SignPathFacadeCallException(message);
+                }
+                failure = new ServiceUnavailableException(message, retryAfterInSeconds);
+            } catch (IOException ex) {
+                connection.disconnect();
+                failure = ex;
+            }
+
+            long waitInSeconds = serviceUnavailableRetry.getWaitInSeconds(failure);
+            if (waitInSeconds < 0) {
+                throw failure;
+            }
+
+            sleep(TimeUnit.SECONDS.toMillis(waitInSeconds));
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry the signed artifact download");
+        }
+    }
+
+    private static String getExpectedSha256Hex(HttpURLConnection connection) {
+        for (String header : new String[]{"Repr-Digest", "Digest"}) {
+            String value = connection.getHeaderField(header);
+            if (value == null) {
+                continue;
+            }
+
+            Matcher matcher = SHA256_DIGEST.matcher(value);
+            if (matcher.find()) {
+                try {
+                    return Hex.encodeHexString(Base64.getDecoder().decode(matcher.group(1)));
+                } catch (IllegalArgumentException ex) {
+                    // not a digest we understand, the length is still verified
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The content of the signed artifact, transparently resumed if the connection breaks
+     */
+    private final class ResumingInputStream extends InputStream {
+        private final String apiToken;
+        private final URL signedArtifactUrl;
+        private final UUID signingRequestId;
+        private final String entityTag;
+        private final long contentLength;
+        private final String expectedSha256Hex;
+        private final MessageDigest sha256 = ArtifactHasher.newSha256Digest();
+
+        private HttpURLConnection connection;
+        private InputStream content;
+        private long position;
+        private int resumeCount;
+        private boolean verified;
+
+        private ResumingInputStream(String apiToken, URL signedArtifactUrl, UUID signingRequestId, HttpURLConnection connection) throws IOException {
+            this.apiToken = apiToken;
+            this.signedArtifactUrl = signedArtifactUrl;
+            this.signingRequestId = signingRequestId;
+            this.entityTag = connection.getHeaderField("ETag");
+            this.contentLength = connection.getContentLengthLong();
+            this.expectedSha256Hex = getExpectedSha256Hex(connection);
+            this.connection = connection;
+            this.content = connection.getInputStream();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+
+            while (true) {
+                int read;
+                try {
+                    read = content.read(buffer, offset, length);
+                } catch (IOException ex) {
+                    resume(ex);
+                    continue;
+                }
+
+                if (read == -1) {
+                    if (contentLength >= 0 && position < contentLength) {
+                        // the connection was closed cleanly, but before all bytes arrived
+                        resume(new IOException(String.format("The download of the signed artifact of signing request %s ended after %d of %d bytes.",
+                                signingRequestId, position, contentLength)));
+                        continue;
+                    }
+                    verify();
+                    return -1;
+                }
+
+                sha256.update(buffer, offset, read);
+                position += read;
+                return read;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            boolean bodyConsumed = false;
+            try {
+                content.close();
+                // only a connection whose response has been read to the end can be used for another request
+                bodyConsumed = verified;
+            } finally {
+                SignPathClientPool.get().release(connection, bodyConsumed);
+            }
+        }
+
+        private void resume(IOException cause) throws IOException {
+            if (Thread.currentThread().isInterrupted() || resumeCount >= Math.max(0, apiConfiguration.getDownloadRetryCount())) {
+                throw cause;
+            }
+            resumeCount++;
+
+            try {
+                close();
+            } catch (IOException ex) {
+                // the connection is broken anyway
+                cause.addSuppressed(ex);
+            }
+            // linear back off, as for uploads: a connection that just dropped often needs a moment before it is usable again
+            sleep(TimeUnit.SECONDS.toMillis(apiConfiguration.getWaitBetweenTransferRetriesInSeconds()) * resumeCount);
+
+            HttpURLConnection resumed;
+            try {
+                resumed = connect(apiToken, signedArtifactUrl, signingRequestId, position, entityTag);
+            } catch (SignPathFacadeCallException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+
+            connection = resumed;
+            content = resumed.getInputStream();
+            if (position == 0) {
+                // nothing has been read yet, so this is simply a new download
+                return;
+            }
+
+            if (resumed.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+                // the server does not support ranges (or the artifact changed), the bytes already read cannot be taken back
+                throw new IOException(String.format("Resuming the download of the signed artifact of signing request %s failed: "
+                        + "the server answered with status code %d instead of a partial response.", signingRequestId, resumed.getResponseCode()), cause);
+            }
+
+            Matcher contentRange = CONTENT_RANGE.matcher(String.valueOf(resumed.getHeaderField("Content-Range")));
+            if (!contentRange.matches() || Long.parseLong(contentRange.group(1)) != position) {
+                throw new IOException(String.format("Resuming the download of the signed artifact of signing request %s failed: "
+                        + "unexpected content range '%s' for position %d.", signingRequestId, resumed.getHeaderField("Content-Range"), position), cause);
+            }
+        }
+
+        private void verify() throws IOException {
+            if (verified) {
+                return;
+            }
+            verified = true;
+
+            if (contentLength >= 0 && position != contentLength) {
+                throw new IOException(String.format("The signed artifact of signing request %s has %d bytes, but %d were expected.",
+                        signingRequestId, position, contentLength));
+            }
+
+            if (expectedSha256Hex != null) {
+                String actualSha256Hex = Hex.encodeHexString(sha256.digest());
+                if (!expectedSha256Hex.equalsIgnoreCase(actualSha256Hex)) {
+                    throw new IOException(String.format("The SHA-256 hash of the signed artifact of signing request %s is %s, but %s was expected.",
+                            signingRequestId, actualSha256Hex, expectedSha256Hex));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.ApiIntegration.ReadinessCheckPolicy;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries the status of a signing request exactly once
+ * The SignPath client only offers waitForFinalSigningRequestStatus, which blocks the calling thread
+ * (polling internally) until the request is final - this is what the asynchronous executions need to avoid.
+ */
+public class SigningRequestStatusQuery {
+    private final ApiConfiguration apiConfiguration;
+    private final String userAgent;
+
+    public SigningRequestStatusQuery(ApiConfiguration apiConfiguration, String userAgent) {
+        this.apiConfiguration = apiConfiguration;
+        this.userAgent = userAgent;
+    }
+
+    /**
+     * @param apiToken         the plain text api token
+     * @param organizationId   the organization ID where the signing request resides
+     * @param signingRequestId the signing request ID
+     * @return the current status
+     * @throws IOException                 occurs if the connection fails or SignPath is (temporarily) unavailable, the query can be repeated
+     * @throws SignPathFacadeCallException occurs if SignPath rejects the query (i.e. misconfiguration), repeating it will not help
+     */
+    public SigningRequestStatus query(String apiToken, UUID organizationId, UUID signingRequestId) throws IOException, SignPathFacadeCallException {
+        String baseUrl = apiConfiguration.getApiUrl().toString();
+        if (!baseUrl.endsWith("/")) {
+            baseUrl = baseUrl + "/";
+        }
+        URL statusUrl = new URL(String.format("%sv1/%s/SigningRequests/%s/Status", baseUrl, organizationId, signingRequestId));
+
+        HttpURLConnection connection = (HttpURLConnection) statusUrl.openConnection();
+        boolean bodyConsumed = false;
+        try {
+            int timeoutInMillis = (int) TimeUnit.SECONDS.toMillis(apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds());
+            connection.setConnectTimeout(timeoutInMillis);
+            connection.setReadTimeout(timeoutInMillis);
+            connection.setRequestProperty("Authorization", "Bearer " + apiToken);
+            connection.setRequestProperty("Accept", "application/json");
+            connection.setRequestProperty("User-Agent", userAgent);
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode >= 400 && statusCode < 500 && statusCode != 429) {
+                throw new SignPathFacadeCallException(String.format(
+                        "Querying the status of signing request %s failed with status code %d %s.",
+                        signingRequestId, statusCode, connection.getResponseMessage()));
+            }
+            long retryAfterInSeconds = ReadinessCheckPolicy.parseRetryAfterInSeconds(connection.getHeaderField("Retry-After"));
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new ServiceUnavailableException(String.format(
+                        "Querying the status of signing request %s failed with status code %d %s.",
+                        signingRequestId, statusCode, connection.getResponseMessage()), retryAfterInSeconds);
+            }
+
+            String body;
+            try (InputStream responseBody = connection.getInputStream()) {
+                body = IOUtils.toString(responseBody, StandardCharsets.UTF_8);
+            }
+            bodyConsumed = true;
+            return parse(body, retryAfterInSeconds);
+        } finally {
+            // status checks are frequent, a fully read response leaves the connection open for the next one
+            SignPathClientPool.get().release(connection, bodyConsumed);
+        }
+    }
+
+    /**
+     * @param body                the JSON response of the status route
+     * @param retryAfterInSeconds the Retry-After hint sent with the response, 0 if there was none
+     * @return the status
+     * @throws IOException occurs if the response cannot be read
+     */
+    public static SigningRequestStatus parse(String body, long retryAfterInSeconds) throws IOException {
+        try {
+            JSONObject json = JSONObject.fromObject(body);
+            return new SigningRequestStatus(
+                    json.optString("status", null),
+                    json.optString("workflowStatus", null),
+                    json.optBoolean("isFinalStatus", false),
+                    retryAfterInSeconds);
+        } catch (JSONException ex) {
+            throw new IOException("The signing request status could not be read: " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.ReadinessCheckPolicy;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads the unsigned artifact by writing the given stream directly into the HTTP request body
+ * In contrast to the SignPath client (which only uploads files) the content does not have to be buffered
+ * in a temporary file first. Only a small, fixed size buffer is held in memory: as the request body is
+ * written in fixed-length streaming mode, a slow connection blocks the copy loop and thus the reading side.
+ */
+public class StreamingArtifactUpload {
+    // same size the JDK uses internally for Files.copy / InputStream.transferTo
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ApiConfiguration apiConfiguration;
+    private final String userAgent;
+
+    public StreamingArtifactUpload(ApiConfiguration apiConfiguration, String userAgent) {
+        this.apiConfiguration = apiConfiguration;
+        this.userAgent = userAgent;
+    }
+
+    /**
+     * @param apiToken       the plain text api token
+     * @param uploadLink     the upload URL as returned by the SubmitWithoutArtifact route
+     * @param artifactStream the artifact content, it is not closed by this method
+     * @param contentLength  the exact number of bytes the stream will provide
+     * @throws ServiceUnavailableException occurs if SignPath is unavailable or asks to slow down (5xx/429)
+     * @throws IOException                 occurs if the stream cannot be read, the connection fails or SignPath rejected
+     *                                     the upload (caused by a {@link SignPathFacadeCallException} then)
+     */
+    public void upload(String apiToken, String uploadLink, InputStream artifactStream, long contentLength) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(uploadLink).openConnection();
+        boolean bodyConsumed = false;
+        try {
+            int timeoutInMillis = (int) TimeUnit.SECONDS.toMillis(apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds());
+            connection.setConnectTimeout(timeoutInMillis);
+            connection.setReadTimeout(timeoutInMillis);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(contentLength);
+            connection.setRequestProperty("Authorization", "Bearer " + apiToken);
+            connection.setRequestProperty("Content-Type", "application/octet-stream");
+            connection.setRequestProperty("User-Agent", userAgent);
+
+            // the fixed length mode makes the connection fail if the stream provides more or fewer bytes
+            // (i.e. the artifact changed after its size was determined)
+            try (OutputStream requestBody = connection.getOutputStream()) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = artifactStream.read(buffer)) != -1) {
+                    requestBody.write(buffer, 0, read);
+                }
+            }
+
+            int statusCode = connection.getResponseCode();
+            if (statusCode < 200 || statusCode >= 300) {
+                String message = String.format("Uploading the artifact failed with status code %d %s.", statusCode, connection.getResponseMessage());
+                if (statusCode < 500 && statusCode != 429) {
+                    // same as the JDK client: the upload link is only valid once and for a short time, repeating does not help
+                    throw new IOException(message, new SignPathFacadeCallException(message));
+                }
+                throw new ServiceUnavailableException(message,
+                        ReadinessCheckPolicy.parseRetryAfterInSeconds(connection.getHeaderField("Retry-After")));
+            }
+            bodyConsumed = SignPathClientPool.consumeBody(connection);
+        } finally {
+            SignPathClientPool.get().release(connection, bodyConsumed);
+        }
+    }
+}
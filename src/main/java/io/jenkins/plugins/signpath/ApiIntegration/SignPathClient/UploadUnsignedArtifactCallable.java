@@ -0,0 +1,53 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.SignPathClientLogger;
+import io.signpath.signpathclient.SignPathClientException;
+import org.jenkinsci.remoting.RoleChecker;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A {@link FilePath.FileCallable} that runs on the agent and uploads the unsigned artifact
+ * directly to the SignPath upload link. The artifact never passes through the Jenkins controller.
+ */
+public class UploadUnsignedArtifactCallable implements FilePath.FileCallable<Void> {
+    private static final long serialVersionUID = 1L;
+
+    private final String uploadLink;
+    private final Secret apiToken;
+    private final ApiConfiguration apiConfiguration;
+    private final SignPathClientLogger logger;
+    private final String userAgent;
+
+    public UploadUnsignedArtifactCallable(String uploadLink,
+                                          Secret apiToken,
+                                          ApiConfiguration apiConfiguration,
+                                          SignPathClientLogger logger,
+                                          String userAgent) {
+        this.uploadLink = uploadLink;
+        this.apiToken = apiToken;
+        this.apiConfiguration = apiConfiguration;
+        this.logger = logger;
+        this.userAgent = userAgent;
+    }
+
+    @Override
+    public void checkRoles(RoleChecker checker) {
+        // No role restrictions: this callable only reads the artifact and sends it to SignPath
+    }
+
+    @Override
+    public Void invoke(File artifact, VirtualChannel channel) throws IOException, InterruptedException {
+        try (SignPathClientPool.Lease lease = SignPathClientFacade.leaseClient(apiConfiguration, logger, userAgent)) {
+            RetryingArtifactUpload.upload(lease.getClient(), apiToken.getPlainText(), uploadLink, artifact, apiConfiguration, logger);
+        } catch (SignPathClientException ex) {
+            throw new IOException("Uploading the artifact from the agent failed: " + ex.getMessage(), ex);
+        }
+        return null;
+    }
+}
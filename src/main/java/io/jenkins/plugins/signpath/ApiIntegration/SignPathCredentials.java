@@ -1,6 +1,12 @@
 package io.jenkins.plugins.signpath.ApiIntegration;
 
 import hudson.util.Secret;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactHasher;
+import org.apache.commons.codec.binary.Hex;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 
 /**
  * Holds all necessary credentials to authenticate against the SignPath API endpoints, exposed by the
@@ -24,6 +30,19 @@ public class SignPathCredentials {
         return trustedBuildSystemToken;
     }
 
+    /**
+     * @param apiUrl the SignPath API the credentials are used with
+     * @return identifies the API token and the API it is used with, without revealing the token (i.e. to keep
+     * apart what builds with different credentials may see)
+     */
+    public String getApiTokenIdentity(URL apiUrl) {
+        MessageDigest sha256 = ArtifactHasher.newSha256Digest();
+        sha256.update(apiUrl.toString().getBytes(StandardCharsets.UTF_8));
+        sha256.update((byte) '\n');
+        sha256.update(apiToken.getPlainText().getBytes(StandardCharsets.UTF_8));
+        return Hex.encodeHexString(sha256.digest());
+    }
+
     public Secret toCredentialString() {
         return Secret.fromString(String.format("%s:%s", apiToken.getPlainText(), trustedBuildSystemToken.getPlainText()));
     }
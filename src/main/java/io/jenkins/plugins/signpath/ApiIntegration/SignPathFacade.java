@@ -1,10 +1,11 @@
 package io.jenkins.plugins.signpath.ApiIntegration;
 
+import hudson.FilePath;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
 import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithArtifactRetrievalLinkModel;
 import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithoutArtifactModel;
 import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithArtifactRetrievalLinkResult;
 import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithoutArtifactResult;
-import io.jenkins.plugins.signpath.Common.TemporaryFile;
 import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
 
 import java.io.IOException;
@@ -49,13 +50,72 @@ public interface SignPathFacade {
     void uploadUnsignedArtifact(String uploadLink, InputStream artifactStream) throws IOException, SignPathFacadeCallException;
 
     /**
-     * Downloads a signed artifact from SignPath
+     * Uploads an unsigned artifact to SignPath directly from the node where the artifact resides.
+     * In contrast to {@link #uploadUnsignedArtifact(String, InputStream)} the artifact content never
+     * passes through the Jenkins controller.
+     *
+     * @param uploadLink       the upload URL as returned by the SubmitWithoutArtifact route
+     * @param artifactFilePath the artifact on the agent (or controller) file system
+     * @throws IOException          occurs if the artifact cannot be read or the upload request fails
+     * @throws InterruptedException occurs if the remote call to the agent is interrupted
+     */
+    void uploadUnsignedArtifact(String uploadLink, FilePath artifactFilePath) throws IOException, InterruptedException;
+
+    /**
+     * Uploads an unsigned artifact to SignPath by streaming its content directly into the upload request.
+     * In contrast to {@link #uploadUnsignedArtifact(String, InputStream)} the content is not buffered in a temporary file.
+     *
+     * @param uploadLink             the upload URL as returned by the SubmitWithoutArtifact route
+     * @param artifactStreamProvider opens the artifact content, it is called again if the upload has to be repeated
+     * @param contentLength          the size of the artifact in bytes
+     * @throws IOException          occurs if the artifact cannot be read or the upload request fails
+     * @throws InterruptedException occurs if opening the artifact is interrupted
+     */
+    void uploadUnsignedArtifact(String uploadLink, UnsignedArtifactStreamProvider artifactStreamProvider, long contentLength) throws IOException, InterruptedException;
+
+    /**
+     * Waits for the signing request to reach a final status
+     *
+     * @param organizationId   the organization ID where the signing request resides
+     * @param signingRequestID the signing request ID as returned by submitSigningRequestWithoutArtifact
+     * @throws IOException                 occurs if the status cannot be retrieved or waiting is interrupted
+     * @throws SignPathFacadeCallException occurs if any user error has been made (i.e. misconfiguration) or the signing request did not complete successfully
+     */
+    void waitForCompletion(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException;
+
+    /**
+     * Queries the current status of a signing request once, without waiting for it to become final
      *
      * @param organizationId   the organization ID where the signing request resides
      * @param signingRequestID the signing request ID as returned by submitSigningRequestWithoutArtifact
-     * @return the signed artifact in form of a TemporaryFile
-     * @throws IOException                 occurs if any necessary intermediate file cannot be successfully created
+     * @return the current status of the signing request
+     * @throws IOException                 occurs if SignPath cannot be reached, the query can be repeated
      * @throws SignPathFacadeCallException occurs if any user error has been made (i.e. misconfiguration)
      */
-    TemporaryFile getSignedArtifact(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException;
+    SigningRequestStatus getSigningRequestStatus(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException;
+
+    /**
+     * Opens the signed artifact of a completed signing request
+     * This does not wait for the signing request to complete, see {@link #waitForCompletion(UUID, UUID)}
+     *
+     * @param organizationId   the organization ID where the signing request resides
+     * @param signingRequestID the signing request ID of a completed signing request
+     * @return the content of the signed artifact, it has to be closed by the caller
+     * @throws IOException                 occurs if the download cannot be started
+     * @throws SignPathFacadeCallException occurs if the download is rejected
+     */
+    InputStream downloadSignedArtifact(UUID organizationId, UUID signingRequestID) throws IOException, SignPathFacadeCallException;
+
+    /**
+     * Downloads the signed artifact of a completed signing request directly on the node where the target resides.
+     * In contrast to {@link #downloadSignedArtifact(UUID, UUID)} the artifact content never passes through the
+     * Jenkins controller.
+     *
+     * @param organizationId   the organization ID where the signing request resides
+     * @param signingRequestID the signing request ID of a completed signing request
+     * @param targetFilePath   the file on the agent (or controller) file system, it is replaced if it exists
+     * @throws IOException          occurs if the download fails or the target cannot be written
+     * @throws InterruptedException occurs if the remote call to the agent is interrupted
+     */
+    void downloadSignedArtifact(UUID organizationId, UUID signingRequestID, FilePath targetFilePath) throws IOException, InterruptedException;
 }
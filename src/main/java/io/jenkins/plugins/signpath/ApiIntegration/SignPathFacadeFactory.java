@@ -10,4 +10,29 @@ public interface SignPathFacadeFactory {
      * @return The created facade
      */
     SignPathFacade create(SignPathCredentials credentials);
+
+    /**
+     * Adds the controller-wide behavior that is configured globally to a newly created facade
+     * The circuit breaker comes before the rate limiter, so refused calls do not wait for a slot; the cache comes
+     * first, so cache hits are neither refused nor limited.
+     *
+     * @param signPathFacade   the facade that calls the SignPath API
+     * @param credentials      the credentials the facade was created with
+     * @param apiConfiguration the configuration the facade was created with
+     * @return the facade to use
+     */
+    static SignPathFacade decorate(SignPathFacade signPathFacade, SignPathCredentials credentials, ApiConfiguration apiConfiguration) {
+        ApiRateLimiter rateLimiter = ApiRateLimiter.get();
+        if (rateLimiter.isEnabled()) {
+            signPathFacade = new RateLimitedSignPathFacade(signPathFacade, rateLimiter);
+        }
+        ApiCircuitBreaker circuitBreaker = ApiCircuitBreaker.get();
+        if (circuitBreaker.isEnabled()) {
+            signPathFacade = new CircuitBreakingSignPathFacade(signPathFacade, circuitBreaker);
+        }
+        SignedArtifactCache cache = SignedArtifactCache.get();
+        return cache.isEnabled()
+                ? new CachingSignPathFacade(signPathFacade, cache, credentials.getApiTokenIdentity(apiConfiguration.getApiUrl()))
+                : signPathFacade;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,362 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import io.jenkins.plugins.signpath.Artifacts.ArtifactDigest;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactHasher;
+import jenkins.model.Jenkins;
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A disk-backed LRU cache of signed artifacts on the controller (below JENKINS_HOME), keyed by signing request and
+ * API token: a cached artifact is only served to builds that use the same API token as the build that downloaded
+ * it, knowing the IDs of a signing request must not be enough to get its signed artifact.
+ * The signed artifact of a completed signing request never changes, so entries do not expire; they are only evicted
+ * (least recently used first) to stay within the configured size. The SHA-256 hash of every entry is recorded when it
+ * is stored and verified while it is served: an entry whose file is gone (i.e. evicted concurrently) or has the wrong
+ * size is treated as a miss, reading an entry whose content does not match fails and discards it.
+ *
+ * @see CachingSignPathFacade
+ */
+public final class SignedArtifactCache {
+    private static final Logger LOGGER = Logger.getLogger(SignedArtifactCache.class.getName());
+
+    private static final String INDEX_FILE_NAME = "index";
+    private static final long BYTES_PER_MEGABYTE = 1024L * 1024;
+
+    private static SignedArtifactCache instance;
+
+    private final Path directory;
+    private final Path indexFile;
+    // access order => the eldest entry is the least recently used one
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long maxSizeInBytes;
+    private long sizeInBytes;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    SignedArtifactCache(Path directory, long maxSizeInBytes) {
+        this.directory = directory;
+        this.indexFile = directory.resolve(INDEX_FILE_NAME);
+        this.maxSizeInBytes = maxSizeInBytes;
+        load();
+    }
+
+    /**
+     * @return the cache of this controller (the size is configured globally)
+     */
+    public static synchronized SignedArtifactCache get() {
+        if (instance == null) {
+            Path directory = Jenkins.get().getRootDir().toPath().resolve("signpath-signed-artifact-cache");
+            instance = new SignedArtifactCache(directory, 0);
+        }
+        return instance;
+    }
+
+    public synchronized void setMaxSizeInMegabytes(int maxSizeInMegabytes) {
+        this.maxSizeInBytes = Math.max(0, maxSizeInMegabytes) * BYTES_PER_MEGABYTE;
+        evict();
+        save();
+    }
+
+    public synchronized boolean isEnabled() {
+        return maxSizeInBytes > 0;
+    }
+
+    /**
+     * @param credentialIdentity the identity of the API token of the caller, see {@link SignPathCredentials#getApiTokenIdentity}
+     * @param organizationId     the organization ID where the signing request resides
+     * @param signingRequestId   the ID of the signing request
+     * @return whether the signed artifact is cached for this API token (does not count as hit or miss)
+     */
+    public synchronized boolean contains(String credentialIdentity, UUID organizationId, UUID signingRequestId) {
+        return entries.containsKey(getKey(credentialIdentity, organizationId, signingRequestId));
+    }
+
+    /**
+     * @param credentialIdentity the identity of the API token of the caller, see {@link SignPathCredentials#getApiTokenIdentity}
+     * @param organizationId     the organization ID where the signing request resides
+     * @param signingRequestId   the ID of the signing request
+     * @return the cached signed artifact (its hash is verified when it is read to the end) or null if it is not cached
+     * @throws IOException occurs if the cached copy cannot be read
+     */
+    public InputStream open(String credentialIdentity, UUID organizationId, UUID signingRequestId) throws IOException {
+        String key = getKey(credentialIdentity, organizationId, signingRequestId);
+        CacheEntry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            // opened only once: once opened, a concurrent eviction cannot take the content away anymore
+            FileChannel channel;
+            try {
+                channel = FileChannel.open(directory.resolve(key), StandardOpenOption.READ);
+            } catch (NoSuchFileException ex) {
+                discard(key, entry);
+                missCount.incrementAndGet();
+                return null;
+            }
+
+            boolean handedOver = false;
+            try {
+                if (channel.size() == entry.size) {
+                    hitCount.incrementAndGet();
+                    InputStream cached = new VerifyingInputStream(Channels.newInputStream(channel), key, entry, signingRequestId);
+                    handedOver = true;
+                    return cached;
+                }
+            } finally {
+                if (!handedOver) {
+                    channel.close();
+                }
+            }
+
+            LOGGER.log(Level.WARNING, "Discarding the corrupted cached signed artifact of signing request {0}", signingRequestId);
+            discard(key, entry);
+        }
+
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores the signed artifact and returns its content
+     * If the artifact is larger than the whole cache, it is not cached and the returned stream removes the copy once it is closed.
+     *
+     * @param credentialIdentity the identity of the API token the artifact was downloaded with
+     * @param organizationId     the organization ID where the signing request resides
+     * @param signingRequestId   the ID of the signing request
+     * @param signedArtifact     the signed artifact as downloaded from SignPath, it is read to the end but not closed
+     * @return the content of the signed artifact
+     * @throws IOException occurs if the artifact cannot be read or written to the cache directory
+     */
+    public InputStream store(String credentialIdentity, UUID organizationId, UUID signingRequestId, InputStream signedArtifact) throws IOException {
+        String key = getKey(credentialIdentity, organizationId, signingRequestId);
+        Files.createDirectories(directory);
+
+        Path partialFile = Files.createTempFile(directory, key, ".partial");
+        boolean handedOver = false;
+        try {
+            ArtifactDigest digest;
+            try (OutputStream out = Files.newOutputStream(partialFile)) {
+                digest = ArtifactDigest.start().copy(signedArtifact, out);
+            }
+            long size = Files.size(partialFile);
+
+            synchronized (this) {
+                if (size > maxSizeInBytes) {
+                    InputStream uncached = Files.newInputStream(partialFile, StandardOpenOption.DELETE_ON_CLOSE);
+                    handedOver = true;
+                    return uncached;
+                }
+
+                // a previous copy (i.e. from a concurrent download of the same artifact) is replaced
+                remove(key);
+                Path file = directory.resolve(key);
+                Files.move(partialFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                entries.put(key, new CacheEntry(size, digest.getSha256Hex()));
+                sizeInBytes += size;
+                evict();
+                save();
+                return Files.newInputStream(file);
+            }
+        } finally {
+            if (!handedOver) {
+                Files.deleteIfExists(partialFile);
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    private static String getKey(String credentialIdentity, UUID organizationId, UUID signingRequestId) {
+        return organizationId + "_" + signingRequestId + "_" + credentialIdentity;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, CacheEntry>> leastRecentlyUsed = entries.entrySet().iterator();
+        while (sizeInBytes > maxSizeInBytes && leastRecentlyUsed.hasNext()) {
+            Map.Entry<String, CacheEntry> entry = leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+            sizeInBytes -= entry.getValue().size;
+            deleteFile(entry.getKey());
+        }
+    }
+
+    private synchronized void discard(String key, CacheEntry entry) {
+        // unless it has been replaced by a concurrent download of the same artifact in the meantime
+        if (entries.get(key) == entry) {
+            remove(key);
+            save();
+        }
+    }
+
+    private void remove(String key) {
+        CacheEntry entry = entries.remove(key);
+        if (entry == null) {
+            return;
+        }
+
+        sizeInBytes -= entry.size;
+        deleteFile(key);
+    }
+
+    private void deleteFile(String key) {
+        try {
+            Files.deleteIfExists(directory.resolve(key));
+        } catch (IOException ex) {
+            // i.e. still opened by a reader on Windows, the file is overwritten or cleaned up with the next load
+            LOGGER.log(Level.FINE, "Could not delete the cached signed artifact " + key, ex);
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(indexFile)) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length != 3 || !Files.isRegularFile(directory.resolve(parts[0]))) {
+                    continue;
+                }
+                CacheEntry entry = new CacheEntry(Long.parseLong(parts[1]), parts[2]);
+                entries.put(parts[0], entry);
+                sizeInBytes += entry.size;
+            }
+        } catch (IOException | NumberFormatException ex) {
+            // the cache is an optimization only, a broken index just means we start over
+            LOGGER.log(Level.WARNING, "Could not read the signed artifact cache index " + indexFile, ex);
+            entries.clear();
+            sizeInBytes = 0;
+        }
+    }
+
+    private void save() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try {
+            Path tempFile = Files.createTempFile(directory, INDEX_FILE_NAME, ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                // written in LRU order, so the order survives a restart
+                for (Map.Entry<String, CacheEntry> entry : entries.entrySet()) {
+                    writer.write(String.join("\t", entry.getKey(), Long.toString(entry.getValue().size), entry.getValue().sha256Hex));
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not write the signed artifact cache index " + indexFile, ex);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final long size;
+        private final String sha256Hex;
+
+        private CacheEntry(long size, String sha256Hex) {
+            this.size = size;
+            this.sha256Hex = sha256Hex;
+        }
+    }
+
+    /**
+     * The content of a cache entry, verified against the recorded hash when it has been read to the end
+     * A cache must never hand out different bytes than the ones SignPath signed.
+     */
+    private final class VerifyingInputStream extends InputStream {
+        private final InputStream content;
+        private final String key;
+        private final CacheEntry entry;
+        private final UUID signingRequestId;
+        private final MessageDigest sha256 = ArtifactHasher.newSha256Digest();
+        private boolean verified;
+
+        private VerifyingInputStream(InputStream content, String key, CacheEntry entry, UUID signingRequestId) {
+            this.content = content;
+            this.key = key;
+            this.entry = entry;
+            this.signingRequestId = signingRequestId;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = content.read(buffer, offset, length);
+            if (read == -1) {
+                verify();
+            } else {
+                sha256.update(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            content.close();
+        }
+
+        private void verify() throws IOException {
+            if (verified) {
+                return;
+            }
+            verified = true;
+
+            String actualSha256Hex = Hex.encodeHexString(sha256.digest());
+            if (!entry.sha256Hex.equals(actualSha256Hex)) {
+                // closed first, an opened file cannot be deleted on Windows
+                close();
+                LOGGER.log(Level.WARNING, "Discarding the corrupted cached signed artifact of signing request {0}", signingRequestId);
+                discard(key, entry);
+                throw new IOException(String.format("The cached signed artifact of signing request %s has the SHA-256 hash %s instead of %s.",
+                        signingRequestId, actualSha256Hex, entry.sha256Hex));
+            }
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import hudson.init.Terminator;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the status of all signing requests that builds on this controller are waiting for
+ * <ul>
+ * <li>waiting costs no thread: each status check is a scheduled task, the HTTP call itself runs on a shared pool
+ * whose threads only exist while there is something to do</li>
+ * <li>blocking work of the steps (submitting, uploading and downloading) runs on a separate pool of at most
+ * {@link #setMaxConcurrentTransfers(int)} threads; further work is queued, so many builds finishing at the same
+ * time neither start a thread each nor delay the status checks of the others</li>
+ * <li>all waiters of the same signing request with the same API token share a single status check</li>
+ * <li>checks are spread out by a random first delay and a jittered interval, so requests submitted at the
+ * same time are not checked at the same time forever after</li>
+ * <li>the interval starts short and backs off exponentially, honoring Retry-After hints (see {@link ReadinessCheckPolicy})</li>
+ * <li>the status checks of all builds share the {@link ApiRateLimiter.CallType#STATUS} limit of the
+ * {@link ApiRateLimiter}, checks above the limit are delayed (not dropped) without holding a thread</li>
+ * <li>while the {@link ApiCircuitBreaker} is open, no status is checked; the waiters stay parked (they do not
+ * fail before their timeout) and the first check after the open duration probes whether SignPath is back</li>
+ * <li>a completion callback ({@link #notifyCompleted(UUID, UUID)}) triggers the next check right away; while
+ * callbacks are enabled, the scheduled checks are only a slow fallback for lost callbacks</li>
+ * </ul>
+ */
+public final class SigningRequestPollingService {
+    public static final int DEFAULT_MAX_CONCURRENT_TRANSFERS = 8;
+
+    private static final SigningRequestPollingService INSTANCE = new SigningRequestPollingService();
+
+    // the scheduler thread only hands tasks over to the worker pool, so a single one is enough
+    private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1,
+            new NamingThreadFactory(new DaemonThreadFactory(), "SignPath signing request scheduler"));
+    // status checks are short and limited by the STATUS rate limit, so they get as many threads as they need
+    private final ExecutorService workers = Executors.newCachedThreadPool(
+            new NamingThreadFactory(new DaemonThreadFactory(), "SignPath signing request worker"));
+    // transfers may take minutes each, their threads are bounded and idle ones are released
+    private final ThreadPoolExecutor transfers = new ThreadPoolExecutor(
+            DEFAULT_MAX_CONCURRENT_TRANSFERS, DEFAULT_MAX_CONCURRENT_TRANSFERS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new NamingThreadFactory(new DaemonThreadFactory(), "SignPath signing request transfer"));
+
+    private final ConcurrentMap<PollKey, PolledSigningRequest> polledSigningRequests = new ConcurrentHashMap<>();
+
+    private volatile boolean completionCallbacksEnabled;
+
+    private final ApiRateLimiter rateLimiter;
+    private final ApiCircuitBreaker circuitBreaker;
+
+    SigningRequestPollingService() {
+        this(ApiRateLimiter.get(), ApiCircuitBreaker.get());
+    }
+
+    SigningRequestPollingService(ApiRateLimiter rateLimiter, ApiCircuitBreaker circuitBreaker) {
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        // the timeout of every waiter is a scheduled task, they are cancelled long before they are due
+        scheduler.setRemoveOnCancelPolicy(true);
+        transfers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return the polling service of this controller
+     */
+    public static SigningRequestPollingService get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Runs blocking work (i.e. submitting or downloading) on the shared transfer pool
+     * If {@link #getMaxConcurrentTransfers()} tasks are running already, the task waits in the queue.
+     *
+     * @param task the work to run
+     * @return the future of the task, can be used to cancel (interrupt) it, also while it is still queued
+     */
+    public Future<?> execute(Runnable task) {
+        return transfers.submit(task);
+    }
+
+    /**
+     * @param maxConcurrentTransfers how many submits, uploads and downloads of all builds may run at the same time
+     */
+    public synchronized void setMaxConcurrentTransfers(int maxConcurrentTransfers) {
+        int threads = Math.max(1, maxConcurrentTransfers);
+        // the core size must never exceed the maximum size, so the order depends on the direction
+        if (threads > transfers.getMaximumPoolSize()) {
+            transfers.setMaximumPoolSize(threads);
+            transfers.setCorePoolSize(threads);
+        } else {
+            transfers.setCorePoolSize(threads);
+            transfers.setMaximumPoolSize(threads);
+        }
+    }
+
+    public int getMaxConcurrentTransfers() {
+        return transfers.getMaximumPoolSize();
+    }
+
+    /**
+     * @return the number of transfers currently running
+     */
+    public int getActiveTransferCount() {
+        return transfers.getActiveCount();
+    }
+
+    /**
+     * @return the number of transfers waiting for a free thread
+     */
+    public int getQueuedTransferCount() {
+        return transfers.getQueue().size();
+    }
+
+    /**
+     * Checks the status of the signing request (as defined by the {@link ReadinessCheckPolicy}) until it is final
+     * or waitForCompletionTimeoutInSeconds have passed
+     * Transient failures (SignPath not reachable) are retried with the next check, the returned future is
+     * only completed exceptionally if the request is rejected or the timeout expires.
+     * If the signing request is already being polled for another waiter with the same API token, the status checks
+     * are shared; they are made with the facade of the longest waiting waiter that is still waiting, so a build that
+     * stopped waiting is neither called back nor logged to anymore. Waiters with different API tokens are polled
+     * separately: one token must neither fail nor reveal the status to the builds of another one.
+     *
+     * @param signPathFacade   the facade used to query the status
+     * @param credentials      the credentials the facade was created with
+     * @param organizationId   the organization ID where the signing request resides
+     * @param signingRequestId the signing request ID
+     * @param apiConfiguration provides the timeout and the intervals between status checks
+     * @param logger           the build log
+     * @return the final status; cancelling the future stops waiting
+     */
+    public CompletableFuture<SigningRequestStatus> awaitFinalStatus(SignPathFacade signPathFacade,
+                                                                    SignPathCredentials credentials,
+                                                                    UUID organizationId,
+                                                                    UUID signingRequestId,
+                                                                    ApiConfiguration apiConfiguration,
+                                                                    PrintStream logger) {
+        Waiter waiter = new Waiter(signPathFacade, logger);
+        PollKey key = new PollKey(organizationId, signingRequestId, credentials.getApiTokenIdentity(apiConfiguration.getApiUrl()));
+        ReadinessCheckPolicy policy = getReadinessCheckPolicy(apiConfiguration);
+
+        while (true) {
+            PolledSigningRequest polled = polledSigningRequests.computeIfAbsent(key,
+                    k -> new PolledSigningRequest(k, policy));
+            if (polled.addWaiter(waiter)) {
+                // every waiter times out on its own, the next status check may be minutes away
+                waiter.timeout = scheduler.schedule(
+                        () -> waiter.result.completeExceptionally(new SignPathFacadeCallException("Timeout expired while waiting for signing request to complete")),
+                        apiConfiguration.getWaitForCompletionTimeoutInSeconds(), TimeUnit.SECONDS);
+                waiter.result.whenComplete((status, ex) -> polled.removeWaiter(waiter));
+                return waiter.result;
+            }
+            // the existing entry was just finished, try again with a fresh one
+            polledSigningRequests.remove(key, polled);
+        }
+    }
+
+    /**
+     * Checks the status of the signing request right away instead of waiting for the next scheduled check
+     * The status is still queried from SignPath, so a (forged or replayed) notification cannot complete a wait.
+     *
+     * @param organizationId   the organization ID where the signing request resides
+     * @param signingRequestId the signing request ID
+     * @return true if a build is waiting for the signing request
+     */
+    public boolean notifyCompleted(UUID organizationId, UUID signingRequestId) {
+        // builds with different API tokens poll the same signing request separately, all of them are woken
+        boolean waiting = false;
+        for (PolledSigningRequest polled : polledSigningRequests.values()) {
+            if (polled.key.isFor(organizationId, signingRequestId) && polled.wake()) {
+                waiting = true;
+            }
+        }
+        return waiting;
+    }
+
+    /**
+     * @param apiConfiguration provides the intervals between status checks
+     * @return the policy used for status checks started now
+     */
+    public ReadinessCheckPolicy getReadinessCheckPolicy(ApiConfiguration apiConfiguration) {
+        return new ReadinessCheckPolicy(apiConfiguration, completionCallbacksEnabled);
+    }
+
+    public boolean getCompletionCallbacksEnabled() {
+        return completionCallbacksEnabled;
+    }
+
+    /**
+     * @param completionCallbacksEnabled whether SignPath notifies this controller of completed signing requests,
+     *                                   status checks started afterwards back off to a slow fallback interval
+     */
+    public void setCompletionCallbacksEnabled(boolean completionCallbacksEnabled) {
+        this.completionCallbacksEnabled = completionCallbacksEnabled;
+    }
+
+    /**
+     * Stops polling when the controller shuts down
+     * Waiting executions are not failed by this: they are persisted with their pipeline and register again when resumed.
+     */
+    @Terminator
+    public static void cancelAllOnShutdown() {
+        INSTANCE.cancelAll();
+    }
+
+    void cancelAll() {
+        for (PolledSigningRequest polled : polledSigningRequests.values()) {
+            for (Waiter waiter : polled.finishAndGetWaiters()) {
+                waiter.result.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return the number of distinct signing requests currently being polled
+     */
+    public int getQueueDepth() {
+        return polledSigningRequests.size();
+    }
+
+    /**
+     * @return the number of waiters (i.e. steps) currently waiting for a signing request
+     */
+    public int getWaiterCount() {
+        int count = 0;
+        for (PolledSigningRequest polled : polledSigningRequests.values()) {
+            count += polled.getWaiterCount();
+        }
+        return count;
+    }
+
+    private final class PolledSigningRequest {
+        private final PollKey key;
+        private final ReadinessCheckPolicy policy;
+        private final List<Waiter> waiters = new ArrayList<>();
+        private boolean finished;
+        private ScheduledFuture<?> nextCheck;
+        // set if a notification arrives while a check is already running, the next check then follows right away
+        private boolean wakeRequested;
+        // only accessed by the (single) running check
+        private int checkCount;
+
+        private PolledSigningRequest(PollKey key, ReadinessCheckPolicy policy) {
+            this.key = key;
+            this.policy = policy;
+        }
+
+        private synchronized boolean addWaiter(Waiter waiter) {
+            if (finished) {
+                return false;
+            }
+
+            waiters.add(waiter);
+            if (waiters.size() == 1) {
+                schedule(policy.getFirstDelayNanos());
+            }
+            return true;
+        }
+
+        // stops polling once the last waiter is done (i.e. timed out or cancelled)
+        private void removeWaiter(Waiter waiter) {
+            waiter.timeout.cancel(false);
+            synchronized (this) {
+                if (waiters.remove(waiter) && waiters.isEmpty() && !finished) {
+                    finished = true;
+                    polledSigningRequests.remove(key, this);
+                    if (nextCheck != null) {
+                        nextCheck.cancel(false);
+                    }
+                }
+            }
+        }
+
+        private synchronized int getWaiterCount() {
+            return waiters.size();
+        }
+
+        private synchronized boolean wake() {
+            if (finished) {
+                return false;
+            }
+
+            // a check that has not started yet is replaced by an immediate one, a running check is followed by one
+            if (nextCheck != null && nextCheck.cancel(false)) {
+                schedule(0);
+            } else {
+                wakeRequested = true;
+            }
+            return true;
+        }
+
+        private void schedule(long delayNanos) {
+            RejectedExecutionException rejected;
+            synchronized (this) {
+                if (wakeRequested) {
+                    wakeRequested = false;
+                    delayNanos = 0;
+                }
+                try {
+                    nextCheck = scheduler.schedule(() -> {
+                        // the slot is reserved right away, the check is then scheduled for it instead of waiting on a thread
+                        long rateLimitDelayNanos = rateLimiter.reserve(ApiRateLimiter.CallType.STATUS);
+                        if (rateLimitDelayNanos > 0) {
+                            scheduler.schedule(this::dispatch, rateLimitDelayNanos, TimeUnit.NANOSECONDS);
+                        } else {
+                            dispatch();
+                        }
+                    }, delayNanos, TimeUnit.NANOSECONDS);
+                    return;
+                } catch (RejectedExecutionException ex) {
+                    rejected = ex;
+                }
+            }
+            finish(rejected);
+        }
+
+        private void dispatch() {
+            try {
+                workers.execute(this::check);
+            } catch (RejectedExecutionException ex) {
+                finish(ex);
+            }
+        }
+
+        private void check() {
+            List<Waiter> currentWaiters = removeDoneWaiters();
+            if (currentWaiters.isEmpty()) {
+                return;
+            }
+
+            checkCount++;
+            long retryAfterInSeconds = 0;
+            if (!circuitBreaker.tryAcquirePermission()) {
+                // SignPath seems to be unavailable, park until a probe call may be made
+                retryAfterInSeconds = TimeUnit.NANOSECONDS.toSeconds(circuitBreaker.getRemainingOpenNanos()) + 1;
+                for (Waiter waiter : currentWaiters) {
+                    waiter.logger.printf("SignPath seems to be unavailable, checking the status of signing request %s again in %d seconds%n",
+                            key.signingRequestId, retryAfterInSeconds);
+                }
+            } else {
+                try {
+                    // all waiters use the same API token, the longest waiting one makes the call
+                    SigningRequestStatus status = currentWaiters.get(0).signPathFacade.getSigningRequestStatus(key.organizationId, key.signingRequestId);
+                    circuitBreaker.onSuccess();
+                    if (status.isFinalStatus()) {
+                        finish(status);
+                        return;
+                    }
+                    retryAfterInSeconds = status.getRetryAfterInSeconds();
+                } catch (IOException ex) {
+                    if (ex instanceof InterruptedIOException) {
+                        circuitBreaker.onIgnored();
+                    } else {
+                        circuitBreaker.onFailure();
+                    }
+                    if (ex instanceof ServiceUnavailableException) {
+                        retryAfterInSeconds = ((ServiceUnavailableException) ex).getRetryAfterInSeconds();
+                    }
+                    for (Waiter waiter : currentWaiters) {
+                        waiter.logger.printf("Checking the status of signing request %s failed, retrying: %s%n", key.signingRequestId, ex.getMessage());
+                    }
+                } catch (SignPathFacadeCallException | RuntimeException ex) {
+                    circuitBreaker.onIgnored();
+                    finish(ex);
+                    return;
+                }
+            }
+
+            if (!removeDoneWaiters().isEmpty()) {
+                schedule(policy.getIntervalNanos(checkCount, retryAfterInSeconds));
+            }
+        }
+
+        // removes waiters that are done (i.e. cancelled) and unregisters this signing request if none are left
+        private synchronized List<Waiter> removeDoneWaiters() {
+            waiters.removeIf(waiter -> waiter.result.isDone());
+            if (waiters.isEmpty()) {
+                finished = true;
+                polledSigningRequests.remove(key, this);
+            }
+            return new ArrayList<>(waiters);
+        }
+
+        private void finish(SigningRequestStatus status) {
+            for (Waiter waiter : finishAndGetWaiters()) {
+                waiter.result.complete(status);
+            }
+        }
+
+        private void finish(Throwable ex) {
+            for (Waiter waiter : finishAndGetWaiters()) {
+                waiter.result.completeExceptionally(ex);
+            }
+        }
+
+        private synchronized List<Waiter> finishAndGetWaiters() {
+            finished = true;
+            polledSigningRequests.remove(key, this);
+            List<Waiter> finishedWaiters = new ArrayList<>(waiters);
+            waiters.clear();
+            return finishedWaiters;
+        }
+    }
+
+    private static final class Waiter {
+        private final SignPathFacade signPathFacade;
+        private final PrintStream logger;
+        private final CompletableFuture<SigningRequestStatus> result = new CompletableFuture<>();
+        // set before the waiter is removed on completion, see awaitFinalStatus
+        private volatile ScheduledFuture<?> timeout;
+
+        private Waiter(SignPathFacade signPathFacade, PrintStream logger) {
+            this.signPathFacade = signPathFacade;
+            this.logger = logger;
+        }
+    }
+
+    private static final class PollKey {
+        private final UUID organizationId;
+        private final UUID signingRequestId;
+        // see SignPathCredentials.getApiTokenIdentity
+        private final String credentialIdentity;
+
+        private PollKey(UUID organizationId, UUID signingRequestId, String credentialIdentity) {
+            this.organizationId = organizationId;
+            this.signingRequestId = signingRequestId;
+            this.credentialIdentity = credentialIdentity;
+        }
+
+        private boolean isFor(UUID organizationId, UUID signingRequestId) {
+            return this.organizationId.equals(organizationId) && this.signingRequestId.equals(signingRequestId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PollKey)) return false;
+            PollKey that = (PollKey) o;
+            return isFor(that.organizationId, that.signingRequestId) && credentialIdentity.equals(that.credentialIdentity);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(organizationId, signingRequestId, credentialIdentity);
+        }
+    }
+}
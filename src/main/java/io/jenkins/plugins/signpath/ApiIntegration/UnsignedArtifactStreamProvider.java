@@ -0,0 +1,19 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Opens a new stream of the unsigned artifact content
+ * A provider (instead of a single stream) is needed so that a failed upload can be repeated from the start
+ */
+@FunctionalInterface
+public interface UnsignedArtifactStreamProvider {
+
+    /**
+     * @return a new stream positioned at the start of the artifact, the caller is responsible for closing it
+     * @throws IOException          occurs if the artifact cannot be opened
+     * @throws InterruptedException occurs if opening a remote artifact is interrupted
+     */
+    InputStream open() throws IOException, InterruptedException;
+}
@@ -0,0 +1,110 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes the MD5 (used by Jenkins fingerprints) and the SHA-256 hash of an artifact in a single pass
+ * The digests and the copy buffer are allocated once per thread and reused for every artifact, the content is
+ * always processed in bulk (never byte by byte).
+ * An instance belongs to the calling thread and must not be used again before its result has been retrieved.
+ */
+public final class ArtifactDigest {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ArtifactDigest> CURRENT_THREAD = ThreadLocal.withInitial(ArtifactDigest::new);
+
+    private final MessageDigest md5;
+    private final MessageDigest sha256;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private String md5Hex;
+    private String sha256Hex;
+
+    private ArtifactDigest() {
+        try {
+            this.md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform is required to support MD5
+            throw new IllegalStateException(ex);
+        }
+        this.sha256 = ArtifactHasher.newSha256Digest();
+    }
+
+    /**
+     * @return the (reset) digest of the current thread
+     */
+    public static ArtifactDigest start() {
+        ArtifactDigest digest = CURRENT_THREAD.get();
+        digest.md5.reset();
+        digest.sha256.reset();
+        digest.md5Hex = null;
+        digest.sha256Hex = null;
+        return digest;
+    }
+
+    /**
+     * @param file the file to digest
+     * @return the finished digest of the file content
+     * @throws IOException occurs if the file cannot be read
+     */
+    public static ArtifactDigest of(File file) throws IOException {
+        ArtifactDigest digest = start();
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(digest.buffer)) != -1) {
+                digest.update(digest.buffer, 0, read);
+            }
+        }
+        return digest.finish();
+    }
+
+    /**
+     * Copies the content to the output and digests it on the way
+     *
+     * @param in  the content, it is read to the end but not closed
+     * @param out the target, it is not closed
+     * @return this digest, finished
+     * @throws IOException occurs if reading or writing fails
+     */
+    public ArtifactDigest copy(InputStream in, OutputStream out) throws IOException {
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            update(buffer, 0, read);
+        }
+        return finish();
+    }
+
+    private ArtifactDigest finish() {
+        md5Hex = Hex.encodeHexString(md5.digest());
+        sha256Hex = Hex.encodeHexString(sha256.digest());
+        return this;
+    }
+
+    /**
+     * @return the 32-character lowercase hex MD5 hash, as used by Jenkins fingerprints
+     */
+    public String getMd5Hex() {
+        return md5Hex;
+    }
+
+    /**
+     * @return the 64-character lowercase hex SHA-256 hash
+     */
+    public String getSha256Hex() {
+        return sha256Hex;
+    }
+
+    private void update(byte[] content, int offset, int length) {
+        md5.update(content, offset, length);
+        sha256.update(content, offset, length);
+    }
+}
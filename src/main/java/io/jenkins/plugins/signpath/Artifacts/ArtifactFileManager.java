@@ -5,6 +5,7 @@ import io.jenkins.plugins.signpath.Exceptions.ArtifactNotFoundException;
 import jenkins.model.ArtifactManager;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.NoSuchAlgorithmException;
 
 /**
@@ -33,4 +34,25 @@ public interface ArtifactFileManager {
      * @throws NoSuchAlgorithmException occurs if something goes wrong with storing the artifact on Jenkins
      */
     void storeArtifact(TemporaryFile artifact, String targetArtifactPath) throws IOException, InterruptedException, NoSuchAlgorithmException;
+
+    /**
+     * Stores the given artifact content on the Jenkins Master-Node
+     * The stream is read exactly once, the fingerprint is computed while the content is written
+     *
+     * @param artifactContent    the artifact content to store on Jenkins, it is not closed
+     * @param targetArtifactPath the target path of the artifact
+     * @throws IOException          occurs if something goes wrong with storing the artifact on Jenkins
+     * @throws InterruptedException occurs if something goes wrong with storing the artifact on Jenkins
+     * @throws NoSuchAlgorithmException occurs if something goes wrong with storing the artifact on Jenkins
+     */
+    void storeArtifact(InputStream artifactContent, String targetArtifactPath) throws IOException, InterruptedException, NoSuchAlgorithmException;
+
+    /**
+     * Adds the hash of a submitted artifact to the SHA256SUMS manifest of the build, which is archived once the build completes
+     *
+     * @param artifactPath the path of the artifact in the workspace
+     * @param sha256Hex    the SHA-256 hex hash of the artifact
+     * @throws IOException occurs if the hash cannot be recorded
+     */
+    void appendToHashManifest(String artifactPath, String sha256Hex) throws IOException;
 }
@@ -0,0 +1,295 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An LRU cache of artifact SHA-256 hashes that lives on the agent and survives across builds
+ * (and, via a small index file below the root directory of the agent, across agent restarts).
+ * Entries are keyed by the canonical path and are only valid as long as size, modification time, change time
+ * and file key (i.e. the inode on unix systems) of the artifact are unchanged. The change time is set by the
+ * operating system on every write and cannot be restored like the modification time (e.g. by builds that use
+ * SOURCE_DATE_EPOCH), so an artifact rewritten in place is hashed again. File systems without a change time
+ * (i.e. on Windows) are never cached.
+ * The index file is a journal: stores and lookups append a line (so the LRU order survives a restart) and the
+ * file is only rewritten once it has grown to a multiple of the cache size.
+ */
+public final class ArtifactHashCache {
+    private static final Logger LOGGER = Logger.getLogger(ArtifactHashCache.class.getName());
+
+    // files modified within this window might still be written to without changing their modification time
+    // (coarse file system timestamps), so we do not cache them - same idea as git's "racily clean" check
+    private static final long RACY_WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(2);
+    // the journal is compacted once it holds this many lines per cache entry
+    private static final int JOURNAL_LINES_PER_ENTRY = 4;
+
+    private static final Map<Path, ArtifactHashCache> INSTANCES = new HashMap<>();
+
+    private final Path indexFile;
+    private final LinkedHashMap<String, CacheEntry> entries;
+    private int maxEntries;
+    private Writer journal;
+    private int journalLines;
+
+    public ArtifactHashCache(Path indexFile, int maxEntries) {
+        this.indexFile = indexFile;
+        this.maxEntries = maxEntries;
+        // access order => the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > ArtifactHashCache.this.maxEntries;
+            }
+        };
+        load();
+    }
+
+    /**
+     * Returns the cache of the given index file, which is shared by all builds running on the agent
+     *
+     * @param indexFile  the index file below the root directory of the agent
+     * @param maxEntries the maximum number of hashes to keep, the least recently used ones are evicted first
+     * @return the cache instance
+     */
+    public static synchronized ArtifactHashCache forIndexFile(Path indexFile, int maxEntries) {
+        ArtifactHashCache cache = INSTANCES.get(indexFile);
+        if (cache == null) {
+            cache = new ArtifactHashCache(indexFile, maxEntries);
+            INSTANCES.put(indexFile, cache);
+        } else {
+            cache.resize(maxEntries);
+        }
+        return cache;
+    }
+
+    /**
+     * @param artifact the artifact to look up
+     * @return the cached SHA-256 hex hash or null if the artifact is unknown or has changed since it was hashed
+     * @throws IOException occurs if the file attributes cannot be read
+     */
+    public synchronized String lookup(File artifact) throws IOException {
+        FileIdentity identity = FileIdentity.of(artifact);
+        CacheEntry entry = entries.get(identity.canonicalPath);
+        if (entry == null) {
+            return null;
+        }
+
+        if (!entry.identity.equals(identity)) {
+            // the stale line in the journal is dropped by the next compaction (or fails this check again after a restart)
+            entries.remove(identity.canonicalPath);
+            return null;
+        }
+
+        // the entry moved to the most recently used end, appending it again keeps that order across restarts
+        append(entry);
+        return entry.sha256Hex;
+    }
+
+    /**
+     * Stores the hash of the artifact if it has not changed since the given identity has been taken
+     *
+     * @param identity  the identity of the artifact, taken before the hash was computed
+     * @param sha256Hex the SHA-256 hex hash of the artifact
+     * @throws IOException occurs if the file attributes cannot be read
+     */
+    public synchronized void store(FileIdentity identity, String sha256Hex) throws IOException {
+        FileIdentity currentIdentity = FileIdentity.of(new File(identity.canonicalPath));
+        if (!currentIdentity.equals(identity) || identity.isRacy() || !identity.hasChangeTime()) {
+            return;
+        }
+
+        CacheEntry entry = new CacheEntry(identity, sha256Hex);
+        entries.put(identity.canonicalPath, entry);
+        append(entry);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void resize(int maxEntries) {
+        this.maxEntries = maxEntries;
+        while (entries.size() > maxEntries) {
+            entries.remove(entries.keySet().iterator().next());
+        }
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(indexFile)) {
+            return;
+        }
+
+        // replaying the journal in order restores the LRU order, later lines win
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                journalLines++;
+                String[] parts = line.split("\t", 6);
+                if (parts.length != 6) {
+                    continue;
+                }
+                FileIdentity identity = new FileIdentity(parts[5], Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                        Long.parseLong(parts[3]), parts[4]);
+                entries.put(identity.canonicalPath, new CacheEntry(identity, parts[0]));
+            }
+        } catch (IOException | NumberFormatException ex) {
+            // the cache is an optimization only, a broken index just means we start over
+            LOGGER.log(Level.WARNING, "Could not read the artifact hash cache " + indexFile, ex);
+            entries.clear();
+            journalLines = Integer.MAX_VALUE;
+        }
+    }
+
+    private void append(CacheEntry entry) {
+        try {
+            if (journalLines >= Math.max(16, maxEntries * JOURNAL_LINES_PER_ENTRY)) {
+                compact();
+                return;
+            }
+
+            if (journal == null) {
+                Files.createDirectories(indexFile.getParent());
+                journal = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+            }
+            write(journal, entry);
+            journal.flush();
+            journalLines++;
+        } catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not write the artifact hash cache " + indexFile, ex);
+            closeJournal();
+        }
+    }
+
+    private void compact() throws IOException {
+        closeJournal();
+        Files.createDirectories(indexFile.getParent());
+        Path tempFile = Files.createTempFile(indexFile.getParent(), "artifact-hash-cache", ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            // written in LRU order, so the order survives a reload
+            for (CacheEntry entry : entries.values()) {
+                write(writer, entry);
+            }
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journalLines = entries.size();
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+
+        try {
+            journal.close();
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Could not close the artifact hash cache " + indexFile, ex);
+        }
+        journal = null;
+    }
+
+    private static void write(Writer writer, CacheEntry entry) throws IOException {
+        writer.write(String.join("\t",
+                entry.sha256Hex,
+                Long.toString(entry.identity.size),
+                Long.toString(entry.identity.lastModifiedMillis),
+                Long.toString(entry.identity.changeTimeNanos),
+                entry.identity.fileKey,
+                entry.identity.canonicalPath));
+        writer.write('\n');
+    }
+
+    /**
+     * Everything we know about a file that has to stay the same for a cached hash to remain valid
+     */
+    public static final class FileIdentity {
+        private final String canonicalPath;
+        private final long size;
+        private final long lastModifiedMillis;
+        // -1 if the file system does not provide it
+        private final long changeTimeNanos;
+        private final String fileKey;
+
+        private FileIdentity(String canonicalPath, long size, long lastModifiedMillis, long changeTimeNanos, String fileKey) {
+            this.canonicalPath = canonicalPath;
+            this.size = size;
+            this.lastModifiedMillis = lastModifiedMillis;
+            this.changeTimeNanos = changeTimeNanos;
+            this.fileKey = fileKey;
+        }
+
+        public static FileIdentity of(File file) throws IOException {
+            File canonicalFile = file.getCanonicalFile();
+            BasicFileAttributes attributes = Files.readAttributes(canonicalFile.toPath(), BasicFileAttributes.class);
+            // the file key contains device and inode on unix systems and is not available on windows
+            Object fileKey = attributes.fileKey();
+            return new FileIdentity(
+                    canonicalFile.getPath(),
+                    attributes.size(),
+                    attributes.lastModifiedTime().toMillis(),
+                    readChangeTimeNanos(canonicalFile.toPath()),
+                    fileKey == null ? "" : fileKey.toString());
+        }
+
+        private static long readChangeTimeNanos(Path file) throws IOException {
+            try {
+                return ((FileTime) Files.getAttribute(file, "unix:ctime")).to(TimeUnit.NANOSECONDS);
+            } catch (UnsupportedOperationException | IllegalArgumentException ex) {
+                // no unix attribute view, i.e. on windows
+                return -1;
+            }
+        }
+
+        private boolean isRacy() {
+            return System.currentTimeMillis() - lastModifiedMillis < RACY_WINDOW_MILLIS;
+        }
+
+        private boolean hasChangeTime() {
+            return changeTimeNanos >= 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FileIdentity)) return false;
+            FileIdentity that = (FileIdentity) o;
+            return size == that.size
+                    && lastModifiedMillis == that.lastModifiedMillis
+                    && changeTimeNanos == that.changeTimeNanos
+                    && canonicalPath.equals(that.canonicalPath)
+                    && fileKey.equals(that.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(canonicalPath, size, lastModifiedMillis, changeTimeNanos, fileKey);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final FileIdentity identity;
+        private final String sha256Hex;
+
+        private CacheEntry(FileIdentity identity, String sha256Hex) {
+            this.identity = identity;
+            this.sha256Hex = sha256Hex;
+        }
+    }
+}
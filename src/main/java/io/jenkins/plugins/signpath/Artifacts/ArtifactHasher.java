@@ -0,0 +1,209 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import org.apache.commons.codec.binary.Hex;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Computes SHA-256 hashes of (potentially very large) artifact files
+ * Large files are memory-mapped window by window, so the digest reads straight from the page cache without
+ * copying the content into the Java heap. Every window is unmapped as soon as it is hashed: otherwise the mappings
+ * (and on Windows the lock on the file) would be kept until they are garbage collected. If the JVM does not allow
+ * unmapping, a large direct buffer is used instead.
+ * If multiple security providers offer SHA-256, the fastest one is chosen once per JVM.
+ */
+public final class ArtifactHasher {
+    private static final Logger LOGGER = Logger.getLogger(ArtifactHasher.class.getName());
+
+    private static final String ALGORITHM = "SHA-256";
+
+    // a single mapping is limited to 2 GB by the ByteBuffer API, a smaller window keeps the address space usage low
+    private static final long MAPPED_WINDOW_SIZE = 256L * 1024 * 1024;
+    // mapping has a fixed setup cost, which does not pay off for small files
+    private static final long MIN_MAPPED_FILE_SIZE = 4L * 1024 * 1024;
+    private static final int DIRECT_BUFFER_SIZE = 1024 * 1024;
+
+    // releases a mapping right away, null if the JVM does not support that
+    private static final MethodHandle UNMAPPER = findUnmapper();
+
+    private ArtifactHasher() {
+    }
+
+    /**
+     * @param file the file to hash
+     * @return the 64-character lowercase hex SHA-256 hash of the file
+     * @throws IOException occurs if the file cannot be read
+     */
+    public static String sha256Hex(File file) throws IOException {
+        MessageDigest digest = newSha256Digest();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (UNMAPPER != null && size >= MIN_MAPPED_FILE_SIZE) {
+                updateMapped(digest, channel, size);
+            } else {
+                updateBuffered(digest, channel);
+            }
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    /**
+     * @return a new SHA-256 digest of the fastest available provider
+     */
+    public static MessageDigest newSha256Digest() {
+        try {
+            Provider provider = FastestProvider.INSTANCE;
+            return provider == null ? MessageDigest.getInstance(ALGORITHM) : MessageDigest.getInstance(ALGORITHM, provider);
+        } catch (NoSuchAlgorithmException ex) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void updateMapped(MessageDigest digest, FileChannel channel, long size) throws IOException {
+        for (long position = 0; position < size; position += MAPPED_WINDOW_SIZE) {
+            long windowSize = Math.min(MAPPED_WINDOW_SIZE, size - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+            try {
+                digest.update(window);
+            } finally {
+                // the window must not be used afterwards, the digest does not keep a reference to it
+                unmap(window);
+            }
+        }
+    }
+
+    private static void unmap(MappedByteBuffer window) throws IOException {
+        try {
+            UNMAPPER.invokeExact((ByteBuffer) window);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IOException("The memory-mapped artifact could not be released", ex);
+        }
+    }
+
+    private static MethodHandle findUnmapper() {
+        try {
+            // sun.misc.Unsafe#invokeCleaner (Java 9+, module jdk.unsupported) is the only way to unmap before a GC
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            LOGGER.log(Level.FINE, "Memory-mapped hashing is not available, falling back to buffered reads", ex);
+            return null;
+        }
+    }
+
+    private static void updateBuffered(MessageDigest digest, FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DIRECT_BUFFER_SIZE);
+        while (channel.read(buffer) != -1) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Lazily determines the fastest SHA-256 provider of this JVM (the lookup only happens on first use)
+     * Each provider is measured several times, interleaved with the others so a slow phase of the machine
+     * (e.g. JIT compilation or another process) does not hit a single provider, and the best run counts.
+     * The default provider is only replaced by one that is clearly faster, otherwise noise would decide.
+     */
+    private static final class FastestProvider {
+        private static final Provider INSTANCE = calibrate();
+
+        private static final int SAMPLE_SIZE = 1024 * 1024;
+        private static final int WARM_UP_ROUNDS = 4;
+        private static final int MEASURED_RUNS = 7;
+        private static final int ROUNDS_PER_RUN = 4;
+        // another provider has to be at least this much faster than the default one
+        private static final double MIN_SPEEDUP = 1.2;
+
+        private static Provider calibrate() {
+            Provider[] providers = Security.getProviders("MessageDigest." + ALGORITHM);
+            if (providers == null || providers.length == 0) {
+                return null;
+            }
+            if (providers.length == 1) {
+                return providers[0];
+            }
+
+            byte[] sample = new byte[SAMPLE_SIZE];
+            Arrays.fill(sample, (byte) 0x5A);
+
+            MessageDigest[] digests = new MessageDigest[providers.length];
+            long[] bestNanos = new long[providers.length];
+            for (int p = 0; p < providers.length; p++) {
+                try {
+                    digests[p] = MessageDigest.getInstance(ALGORITHM, providers[p]);
+                    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+                        digests[p].update(sample);
+                    }
+                    digests[p].reset();
+                } catch (NoSuchAlgorithmException | RuntimeException ex) {
+                    LOGGER.log(Level.FINE, "Skipping SHA-256 provider " + providers[p].getName(), ex);
+                    digests[p] = null;
+                }
+                bestNanos[p] = Long.MAX_VALUE;
+            }
+
+            for (int run = 0; run < MEASURED_RUNS; run++) {
+                for (int p = 0; p < providers.length; p++) {
+                    if (digests[p] == null) {
+                        continue;
+                    }
+
+                    try {
+                        long start = System.nanoTime();
+                        for (int i = 0; i < ROUNDS_PER_RUN; i++) {
+                            digests[p].update(sample);
+                        }
+                        digests[p].digest();
+                        bestNanos[p] = Math.min(bestNanos[p], System.nanoTime() - start);
+                    } catch (RuntimeException ex) {
+                        LOGGER.log(Level.FINE, "Skipping SHA-256 provider " + providers[p].getName(), ex);
+                        digests[p] = null;
+                    }
+                }
+            }
+
+            // the providers are in preference order, the first usable one is what MessageDigest.getInstance would pick
+            Provider fastest = null;
+            long fastestNanos = Long.MAX_VALUE;
+            for (int p = 0; p < providers.length; p++) {
+                if (digests[p] == null) {
+                    continue;
+                }
+                if (fastest == null || bestNanos[p] * MIN_SPEEDUP < fastestNanos) {
+                    fastest = providers[p];
+                    fastestNanos = bestNanos[p];
+                }
+            }
+
+            if (fastest != null) {
+                LOGGER.log(Level.FINE, "Using SHA-256 provider {0}", fastest.getName());
+            }
+            return fastest;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+/**
+ * Defines how an unsigned artifact travels from the workspace to SignPath
+ */
+public enum ArtifactTransferMode {
+    /**
+     * The artifact is streamed from the agent to the controller, which uploads it to SignPath
+     */
+    CONTROLLER("Upload via the Jenkins controller"),
+
+    /**
+     * Like {@link #CONTROLLER}, but the artifact is compressed on the agent and decompressed on the controller
+     * to save bandwidth on the (shared) remoting channel
+     */
+    COMPRESSED_CONTROLLER("Upload via the Jenkins controller, compressed between agent and controller"),
+
+    /**
+     * The agent uploads the artifact to SignPath itself, the controller only submits the signing request
+     */
+    AGENT("Upload directly from the agent");
+
+    private final String displayName;
+
+    ArtifactTransferMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
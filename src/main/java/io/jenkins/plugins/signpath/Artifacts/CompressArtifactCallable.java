@@ -0,0 +1,45 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import hudson.FilePath;
+import hudson.remoting.Pipe;
+import hudson.remoting.VirtualChannel;
+import org.jenkinsci.remoting.RoleChecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+
+/**
+ * A {@link FilePath.FileCallable} that runs on the agent and writes the compressed artifact into a pipe
+ * that is read (and decompressed) on the controller
+ * @see CompressedArtifactTransfer
+ */
+public class CompressArtifactCallable implements FilePath.FileCallable<Void> {
+    private static final long serialVersionUID = 1L;
+
+    private final Pipe pipe;
+    private final TransferCompression compression;
+    private final int compressionLevel;
+
+    public CompressArtifactCallable(Pipe pipe, TransferCompression compression, int compressionLevel) {
+        this.pipe = pipe;
+        this.compression = compression;
+        this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public void checkRoles(RoleChecker checker) {
+        // No role restrictions: this callable only reads the artifact and sends it back to the controller
+    }
+
+    @Override
+    public Void invoke(File artifact, VirtualChannel channel) throws IOException {
+        try (InputStream in = Files.newInputStream(artifact.toPath());
+             OutputStream out = compression.compress(pipe.getOut(), compressionLevel)) {
+            in.transferTo(out);
+        }
+        return null;
+    }
+}
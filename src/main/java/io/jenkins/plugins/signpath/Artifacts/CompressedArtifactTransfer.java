@@ -0,0 +1,134 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import hudson.FilePath;
+import hudson.remoting.Pipe;
+import io.jenkins.plugins.signpath.ApiIntegration.UnsignedArtifactStreamProvider;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides the content of an artifact on an agent, which is compressed on the agent and decompressed on the controller
+ * Only the compressed bytes travel over the remoting channel; the statistics of the last completed transfer
+ * can be reported to the build log afterwards
+ */
+public class CompressedArtifactTransfer implements UnsignedArtifactStreamProvider {
+    private final FilePath artifactFilePath;
+    private final TransferCompression compression;
+    private final int compressionLevel;
+
+    private volatile String lastTransferSummary;
+
+    public CompressedArtifactTransfer(FilePath artifactFilePath, TransferCompression compression, int compressionLevel) {
+        this.artifactFilePath = artifactFilePath;
+        this.compression = compression;
+        this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public InputStream open() throws IOException, InterruptedException {
+        Pipe pipe = Pipe.createRemoteToLocal();
+        Future<Void> agentSide = artifactFilePath.actAsync(new CompressArtifactCallable(pipe, compression, compressionLevel));
+
+        CountingInputStream compressedStream = new CountingInputStream(pipe.getIn());
+        return new TransferInputStream(compression.decompress(compressedStream), compressedStream, agentSide);
+    }
+
+    /**
+     * @return a human readable summary (sizes, ratio and throughput) of the last completely read transfer or null if there is none
+     */
+    public String getLastTransferSummary() {
+        return lastTransferSummary;
+    }
+
+    private static String toMegabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        protected long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    private class TransferInputStream extends CountingInputStream {
+        private final CountingInputStream compressedStream;
+        private final Future<Void> agentSide;
+        private final long startNanos = System.nanoTime();
+        private boolean endOfStream;
+
+        TransferInputStream(InputStream decompressedStream, CountingInputStream compressedStream, Future<Void> agentSide) {
+            super(decompressedStream);
+            this.compressedStream = compressedStream;
+            this.agentSide = agentSide;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            endOfStream |= b == -1;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            endOfStream |= read == -1;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+
+            if (!endOfStream) {
+                // the reader gave up (e.g. a failed upload), there is no point in letting the agent continue
+                agentSide.cancel(true);
+                return;
+            }
+
+            try {
+                // surfaces errors of the agent side, which would otherwise only show up as a truncated stream
+                agentSide.get();
+            } catch (ExecutionException ex) {
+                throw new IOException("Compressing the artifact on the agent failed: " + ex.getCause().getMessage(), ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the agent to finish the artifact transfer");
+            }
+
+            double seconds = Math.max(System.nanoTime() - startNanos, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+            lastTransferSummary = String.format("Transferred artifact from the agent compressed with %s: %s -> %s (ratio %.2f), throughput %s/s",
+                    compression.getDisplayName(),
+                    toMegabytes(count),
+                    toMegabytes(compressedStream.count),
+                    compressedStream.count == 0 ? 1.0 : count / (double) compressedStream.count,
+                    toMegabytes((long) (count / seconds)));
+        }
+    }
+}
@@ -1,21 +1,50 @@
 package io.jenkins.plugins.signpath.Artifacts;
 
 import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.Node;
 import hudson.remoting.VirtualChannel;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.jenkinsci.remoting.RoleChecker;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * A {@link FilePath.FileCallable} that runs on the agent and computes the SHA-256 hex hash
  * of the artifact file. The result is a 64-character lowercase hex string.
+ * If a hash cache size and index file are given, hashes of unchanged artifacts are served from the agent's
+ * {@link ArtifactHashCache}.
  */
 public class ComputeArtifactHashCallable implements FilePath.FileCallable<String> {
     private static final long serialVersionUID = 1L;
 
+    private final int hashCacheSize;
+    private final String hashCacheIndexFile;
+
+    public ComputeArtifactHashCallable() {
+        this(0, null);
+    }
+
+    public ComputeArtifactHashCallable(int hashCacheSize, String hashCacheIndexFile) {
+        this.hashCacheSize = hashCacheSize;
+        this.hashCacheIndexFile = hashCacheIndexFile;
+    }
+
+    /**
+     * Runs on the controller
+     *
+     * @param workspace any path on the node that holds the artifacts
+     * @return the index file of the hash cache below the root directory of that node (JENKINS_HOME for the
+     * built-in node), null if the node is not known anymore (no cache is used then)
+     */
+    public static String getHashCacheIndexFile(FilePath workspace) {
+        Computer computer = workspace.toComputer();
+        Node node = computer == null ? null : computer.getNode();
+        FilePath rootPath = node == null ? null : node.getRootPath();
+        return rootPath == null ? null : rootPath.child("signpath").child("artifact-hash-cache").getRemote();
+    }
+
     @Override
     public void checkRoles(RoleChecker checker) {
         // No role restrictions: this callable only reads file content and computes a hash
@@ -23,8 +52,33 @@ public class ComputeArtifactHashCallable implements FilePath.FileCallable<String
 
     @Override
     public String invoke(File artifact, VirtualChannel channel) throws IOException {
-        try (FileInputStream fis = new FileInputStream(artifact)) {
-            return DigestUtils.sha256Hex(fis);
+        return computeHash(artifact, hashCacheSize, hashCacheIndexFile);
+    }
+
+    /**
+     * Computes the SHA-256 hex hash of the given local file
+     *
+     * @param artifact      the artifact on the current node
+     * @param hashCacheSize      the size of the agent's hash cache, 0 disables the cache
+     * @param hashCacheIndexFile the index file of the agent's hash cache, null disables the cache
+     * @return the 64-character lowercase hex hash
+     * @throws IOException occurs if the artifact cannot be read
+     */
+    static String computeHash(File artifact, int hashCacheSize, String hashCacheIndexFile) throws IOException {
+        if (hashCacheSize <= 0 || hashCacheIndexFile == null) {
+            return ArtifactHasher.sha256Hex(artifact);
         }
+
+        ArtifactHashCache cache = ArtifactHashCache.forIndexFile(Paths.get(hashCacheIndexFile), hashCacheSize);
+        String cachedHash = cache.lookup(artifact);
+        if (cachedHash != null) {
+            return cachedHash;
+        }
+
+        // the identity is taken before hashing, so a modification while we read the file is never cached
+        ArtifactHashCache.FileIdentity identity = ArtifactHashCache.FileIdentity.of(artifact);
+        String hash = ArtifactHasher.sha256Hex(artifact);
+        cache.store(identity, hash);
+        return hash;
     }
 }
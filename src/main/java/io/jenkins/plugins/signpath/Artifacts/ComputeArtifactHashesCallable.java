@@ -0,0 +1,72 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import org.jenkinsci.remoting.RoleChecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link FilePath.FileCallable} that runs on the agent and computes the SHA-256 hex hashes of multiple artifacts in parallel
+ * It is invoked on the workspace; the artifact paths are relative to it
+ * @see ComputeArtifactHashCallable
+ */
+public class ComputeArtifactHashesCallable implements FilePath.FileCallable<Map<String, String>> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> artifactPaths;
+    private final int hashCacheSize;
+    private final String hashCacheIndexFile;
+
+    public ComputeArtifactHashesCallable(List<String> artifactPaths, int hashCacheSize, String hashCacheIndexFile) {
+        this.artifactPaths = new ArrayList<>(artifactPaths);
+        this.hashCacheSize = hashCacheSize;
+        this.hashCacheIndexFile = hashCacheIndexFile;
+    }
+
+    @Override
+    public void checkRoles(RoleChecker checker) {
+        // No role restrictions: this callable only reads file content and computes hashes
+    }
+
+    @Override
+    public Map<String, String> invoke(File workspace, VirtualChannel channel) throws IOException, InterruptedException {
+        // hashing is mostly bound by disk and CPU, more threads than cores do not help
+        int threads = Math.max(1, Math.min(artifactPaths.size(), Runtime.getRuntime().availableProcessors()));
+        // plain threads on purpose: this runs on the agent, where the jenkins core thread factories are not available
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "SignPath artifact hashing");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Map<String, Future<String>> futures = new LinkedHashMap<>();
+            for (String artifactPath : artifactPaths) {
+                File artifact = new File(workspace, artifactPath);
+                futures.put(artifactPath, executor.submit(() -> ComputeArtifactHashCallable.computeHash(artifact, hashCacheSize, hashCacheIndexFile)));
+            }
+
+            Map<String, String> hashes = new LinkedHashMap<>();
+            for (Map.Entry<String, Future<String>> future : futures.entrySet()) {
+                try {
+                    hashes.put(future.getKey(), future.getValue().get());
+                } catch (ExecutionException ex) {
+                    throw new IOException(String.format("Computing the hash of '%s' failed: %s", future.getKey(), ex.getCause().getMessage()), ex.getCause());
+                }
+            }
+            return hashes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
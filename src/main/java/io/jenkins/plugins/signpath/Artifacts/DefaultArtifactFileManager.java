@@ -2,29 +2,38 @@ package io.jenkins.plugins.signpath.Artifacts;
 
 import hudson.FilePath;
 import hudson.Launcher;
-import hudson.Util;
 import hudson.model.FingerprintMap;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import io.jenkins.plugins.signpath.Common.TemporaryFile;
 import io.jenkins.plugins.signpath.Exceptions.ArtifactNotFoundException;
 import jenkins.model.ArtifactManager;
+import jenkins.model.StandardArtifactManager;
 import jenkins.util.BuildListenerAdapter;
 import jenkins.util.VirtualFile;
 import org.apache.commons.lang.StringUtils;
 
 import java.io.*;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * The default implementation of the
+ * Artifacts can be stored concurrently: the artifacts directory of the standard artifact manager is written
+ * through unique partial files that are moved into place, only archiving via other artifact managers is serialized
+ * per build.
  *
  * @see ArtifactFileManager interface
  */
 public class DefaultArtifactFileManager implements ArtifactFileManager {
+    // archiving into the same build is not safe to do concurrently, all managers of a build share its lock
+    private static final Map<Run<?, ?>, Object> ARCHIVE_LOCKS = Collections.synchronizedMap(new WeakHashMap<>());
+
     private final FingerprintMap fingerprintMap;
     private final Run<?, ?> run;
     private final Launcher launcher;
@@ -63,15 +72,83 @@ public class DefaultArtifactFileManager implements ArtifactFileManager {
             throw new IllegalAccessError("targetArtifactPath cannot be in parent directory.");
 
         ArtifactManager artifactManager = run.pickArtifactManager();
+        if (isStandardArtifactManager(artifactManager)) {
+            // one pass for copy and fingerprint instead of archiving first and reading the file again afterwards
+            try (InputStream in = new FileInputStream(artifact.getFile())) {
+                storeInArtifactsDir(in, targetArtifactPath);
+            }
+            return;
+        }
 
-        String normalizedArtifactPath = getNormalizedPath(targetArtifactPath);
-        artifactManager.archive(
-                new FilePath(artifact.getFile().getParentFile()),
-                launcher,
-                BuildListenerAdapter.wrap(listener),
-                Collections.singletonMap(normalizedArtifactPath, artifact.getFile().getName()));
+        archive(artifactManager, artifact, targetArtifactPath);
+        recordFingerprint(ArtifactDigest.of(artifact.getFile()), targetArtifactPath);
+    }
+
+    @Override
+    public void storeArtifact(InputStream artifactContent, String targetArtifactPath) throws IOException, InterruptedException, NoSuchAlgorithmException {
+        if(targetArtifactPath.contains(".."))
+            throw new IllegalAccessError("targetArtifactPath cannot be in parent directory.");
 
-        createFingerprint(artifact, targetArtifactPath);
+        ArtifactManager artifactManager = run.pickArtifactManager();
+        if (isStandardArtifactManager(artifactManager)) {
+            storeInArtifactsDir(artifactContent, targetArtifactPath);
+            return;
+        }
+
+        // other artifact managers (i.e. cloud storage) can only archive files, but at least the fingerprint is
+        // computed while the temporary file is written
+        ArtifactDigest digest;
+        try (TemporaryFile artifact = new TemporaryFile(getFileName(targetArtifactPath))) {
+            try (OutputStream out = new FileOutputStream(artifact.getFile())) {
+                digest = ArtifactDigest.start().copy(artifactContent, out);
+            }
+            archive(artifactManager, artifact, targetArtifactPath);
+        }
+        recordFingerprint(digest, targetArtifactPath);
+    }
+
+    @Override
+    public void appendToHashManifest(String artifactPath, String sha256Hex) throws IOException {
+        SigningManifest.append(run, artifactPath, sha256Hex);
+    }
+
+    private static boolean isStandardArtifactManager(ArtifactManager artifactManager) {
+        // subclasses might archive differently, so only the plain implementation is bypassed
+        return artifactManager.getClass() == StandardArtifactManager.class;
+    }
+
+    private void storeInArtifactsDir(InputStream artifactContent, String targetArtifactPath) throws IOException {
+        // this is exactly where the StandardArtifactManager archives to and serves its root() from
+        Path targetFile = run.getArtifactsDir().toPath().resolve(getNormalizedPath(targetArtifactPath));
+        Files.createDirectories(targetFile.getParent());
+
+        // written next to the target and moved into place, so a failed download never leaves a truncated artifact
+        ArtifactDigest digest;
+        Path partialFile = Files.createTempFile(targetFile.getParent(), targetFile.getFileName().toString(), ".partial");
+        try {
+            try (OutputStream out = Files.newOutputStream(partialFile)) {
+                digest = ArtifactDigest.start().copy(artifactContent, out);
+            }
+            // byte-identical artifacts of other builds share a single copy on disk, if enabled
+            if (!SignedArtifactBlobStore.get().link(partialFile, digest.getSha256Hex(), targetFile)) {
+                Files.move(partialFile, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            Files.deleteIfExists(partialFile);
+        }
+
+        recordFingerprint(digest, targetArtifactPath);
+    }
+
+    private void archive(ArtifactManager artifactManager, TemporaryFile artifact, String targetArtifactPath) throws IOException, InterruptedException {
+        String normalizedArtifactPath = getNormalizedPath(targetArtifactPath);
+        synchronized (ARCHIVE_LOCKS.computeIfAbsent(run, r -> new Object())) {
+            artifactManager.archive(
+                    new FilePath(artifact.getFile().getParentFile()),
+                    launcher,
+                    BuildListenerAdapter.wrap(listener),
+                    Collections.singletonMap(normalizedArtifactPath, artifact.getFile().getName()));
+        }
     }
 
     private String getFileName(String artifactPath) {
@@ -87,25 +164,10 @@ public class DefaultArtifactFileManager implements ArtifactFileManager {
         return StringUtils.strip(artifactPath.replace("\\", "/"), "/");
     }
 
-    private void createFingerprint(TemporaryFile artifact, String targetArtifactPath) throws NoSuchAlgorithmException, IOException {
-        String targetFileName = getFileName(targetArtifactPath);
-        MessageDigest md5 = MessageDigest.getInstance("MD5");
-        String digest = Util.toHexString(digest(artifact.getFile(), md5));
-        fingerprintMap.getOrCreate(run, targetFileName, digest);
-    }
-
-    private static byte[] digest(final File file, MessageDigest algorithm) throws IOException {
-        algorithm.reset();
-        try (FileInputStream fis = new FileInputStream(file)) {
-            try (BufferedInputStream bis = new BufferedInputStream(fis)) {
-                try (DigestInputStream dis = new DigestInputStream(bis, algorithm)) {
-                    // This is the best way to read a DigestInputStream in Java according to our current knowledge
-                    //noinspection StatementWithEmptyBody
-                    while (dis.read() != -1) {
-                    }
-                    return algorithm.digest();
-                }
-            }
-        }
+    private void recordFingerprint(ArtifactDigest digest, String targetArtifactPath) throws IOException {
+        // written in the background (but before the build completes), that is disk I/O under Jenkins' locks
+        FingerprintBatchWriter.get().record(run, getFileName(targetArtifactPath), digest.getMd5Hex(), fingerprintMap::getOrCreate);
+        // computed in the same pass as the fingerprint, so users can verify the archived artifact at no extra cost
+        listener.getLogger().printf("Archived %s (SHA-256: %s)%n", getNormalizedPath(targetArtifactPath), digest.getSha256Hex());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import hudson.Extension;
+import hudson.init.Terminator;
+import hudson.model.FingerprintMap;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the fingerprints of archived artifacts in the background
+ * Writing a fingerprint means disk I/O under the locks of the {@link FingerprintMap}, so instead of doing it on the
+ * step's thread for every artifact, records are queued and written in batches shortly afterwards. A batch writes
+ * each fingerprint once: further records of the same content (e.g. one artifact archived under several names, or by
+ * several builds) are coalesced, as they would only look up the fingerprint created by the first one. All records of
+ * a build are written at the latest when the build completes (see {@link FlushOnCompletion}); records for builds
+ * that are no longer running are written right away.
+ */
+public final class FingerprintBatchWriter {
+    private static final Logger LOGGER = Logger.getLogger(FingerprintBatchWriter.class.getName());
+
+    static final long DEFAULT_FLUSH_DELAY_MILLIS = 500;
+
+    private static final FingerprintBatchWriter INSTANCE = new FingerprintBatchWriter(DEFAULT_FLUSH_DELAY_MILLIS);
+
+    /**
+     * Where a fingerprint ends up, usually {@link FingerprintMap#getOrCreate(Run, String, String)}
+     * Like that, writing a fingerprint that exists already must not change it: only the first record of a fingerprint
+     * within a batch is written.
+     */
+    public interface FingerprintSink {
+        void write(Run<?, ?> run, String fileName, String md5Hex) throws IOException;
+    }
+
+    private final long flushDelayMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new NamingThreadFactory(new DaemonThreadFactory(), "SignPath fingerprint writer"));
+
+    // guards pending and flushScheduled, only held for queue operations
+    private final Object queueLock = new Object();
+    // held while a batch is written, so a flush for a build cannot overtake a batch that is already being written
+    private final Object writeLock = new Object();
+
+    private final Map<Run<?, ?>, List<PendingFingerprint>> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    FingerprintBatchWriter(long flushDelayMillis) {
+        this.flushDelayMillis = flushDelayMillis;
+    }
+
+    public static FingerprintBatchWriter get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param run      the build that archived the artifact
+     * @param fileName the file name of the artifact (without directories)
+     * @param md5Hex   the MD5 hex hash of the artifact
+     * @param sink     writes the fingerprint
+     * @throws IOException occurs if the build is no longer running and the fingerprint cannot be written right away
+     */
+    public void record(Run<?, ?> run, String fileName, String md5Hex, FingerprintSink sink) throws IOException {
+        if (!run.isBuilding()) {
+            // nothing would flush the record later on
+            sink.write(run, fileName, md5Hex);
+            return;
+        }
+
+        synchronized (queueLock) {
+            pending.computeIfAbsent(run, r -> new ArrayList<>()).add(new PendingFingerprint(fileName, md5Hex, sink));
+            if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(this::flushAll, flushDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Writes all queued fingerprints of the given build before returning
+     *
+     * @param run the build
+     */
+    public void flush(Run<?, ?> run) {
+        synchronized (writeLock) {
+            List<PendingFingerprint> batch;
+            synchronized (queueLock) {
+                batch = pending.remove(run);
+            }
+            if (batch != null) {
+                write(Collections.singletonMap(run, batch));
+            }
+        }
+    }
+
+    /**
+     * Writes all queued fingerprints before returning
+     */
+    public void flushAll() {
+        synchronized (writeLock) {
+            Map<Run<?, ?>, List<PendingFingerprint>> batches;
+            synchronized (queueLock) {
+                batches = new LinkedHashMap<>(pending);
+                pending.clear();
+                flushScheduled = false;
+            }
+            write(batches);
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (queueLock) {
+            return pending.values().stream().mapToInt(List::size).sum();
+        }
+    }
+
+    @Terminator
+    public static void flushOnShutdown() {
+        INSTANCE.flushAll();
+    }
+
+    private static void write(Map<Run<?, ?>, List<PendingFingerprint>> batches) {
+        // one write per fingerprint, in the order the records arrived
+        Set<String> writtenMd5Hexes = new HashSet<>();
+        for (Map.Entry<Run<?, ?>, List<PendingFingerprint>> batch : batches.entrySet()) {
+            Run<?, ?> run = batch.getKey();
+            for (PendingFingerprint fingerprint : batch.getValue()) {
+                if (!writtenMd5Hexes.add(fingerprint.md5Hex)) {
+                    continue;
+                }
+
+                try {
+                    fingerprint.sink.write(run, fingerprint.fileName, fingerprint.md5Hex);
+                } catch (IOException | RuntimeException ex) {
+                    // the artifact itself has been archived, a missing fingerprint must not break the other records
+                    LOGGER.log(Level.WARNING, String.format("Could not record the fingerprint of %s for %s",
+                            fingerprint.fileName, run.getFullDisplayName()), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the remaining fingerprints of a build before it is reported as completed
+     */
+    @Extension
+    public static class FlushOnCompletion extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(Run<?, ?> run, TaskListener listener) {
+            get().flush(run);
+        }
+    }
+
+    private static final class PendingFingerprint {
+        private final String fileName;
+        private final String md5Hex;
+        private final FingerprintSink sink;
+
+        private PendingFingerprint(String fileName, String md5Hex, FingerprintSink sink) {
+            this.fileName = fileName;
+            this.md5Hex = md5Hex;
+            this.sink = sink;
+        }
+    }
+}
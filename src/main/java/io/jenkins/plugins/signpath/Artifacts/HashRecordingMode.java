@@ -0,0 +1,29 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+/**
+ * Defines how the SHA-256 hashes of submitted artifacts are archived with the build
+ */
+public enum HashRecordingMode {
+    /**
+     * A &lt;artifact&gt;.sha256 file (base64-encoded hash) is archived next to every submitted artifact
+     */
+    SIDECAR_FILE("One .sha256 file per artifact"),
+
+    /**
+     * All hashes of a build are collected in a single SHA256SUMS file (sha256sum format) that is archived
+     * once when the build completes
+     *
+     * @see SigningManifest
+     */
+    MANIFEST("One SHA256SUMS manifest per build");
+
+    private final String displayName;
+
+    HashRecordingMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
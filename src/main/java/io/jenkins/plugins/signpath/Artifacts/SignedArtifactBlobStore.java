@@ -0,0 +1,187 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import jenkins.model.Jenkins;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A content-addressed store for archived signed artifacts on the controller (below JENKINS_HOME)
+ * Instead of a fresh copy per build, an archived artifact becomes a hard link to the blob with the same SHA-256 hash,
+ * so byte-identical artifacts of many builds (i.e. nightly rebuilds of unchanged components) share their disk space.
+ * The archived files stay ordinary files for Jenkins; the file system link count is the reference count, so a
+ * blob is garbage-collected once no build links to it anymore (see {@link SweepOnDeletion}).
+ * Linking needs the blobs and the builds on the same file system and link counts (not available on Windows);
+ * otherwise artifacts are simply archived as copies.
+ */
+public final class SignedArtifactBlobStore {
+    private static final Logger LOGGER = Logger.getLogger(SignedArtifactBlobStore.class.getName());
+
+    // deleted builds are only removed from disk after the listeners are notified
+    static final long SWEEP_DELAY_SECONDS = 60;
+
+    // without link counts (i.e. on Windows) unused blobs could never be found again
+    private static final boolean SUPPORTS_LINK_COUNT = FileSystems.getDefault().supportedFileAttributeViews().contains("unix");
+
+    private static SignedArtifactBlobStore instance;
+
+    private final Path directory;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new NamingThreadFactory(new DaemonThreadFactory(), "SignPath artifact blob sweeper"));
+
+    private volatile boolean enabled;
+    private boolean sweepScheduled;
+
+    SignedArtifactBlobStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the blob store of this controller (enabled globally)
+     */
+    public static synchronized SignedArtifactBlobStore get() {
+        if (instance == null) {
+            instance = new SignedArtifactBlobStore(Jenkins.get().getRootDir().toPath().resolve("signpath-artifact-blobs"));
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Puts the content at the target path as a link to the blob with the given hash
+     * The file itself becomes the blob if there is no such blob yet.
+     *
+     * @param file       the complete artifact (next to the target), it is removed if this method returns true
+     * @param sha256Hex  the SHA-256 hex hash of the file
+     * @param targetFile the path of the archived artifact, replaced if it exists
+     * @return false if the artifact cannot be linked (the file is left in place and must be archived as a copy)
+     */
+    public boolean link(Path file, String sha256Hex, Path targetFile) {
+        if (!enabled || !SUPPORTS_LINK_COUNT) {
+            return false;
+        }
+
+        Path blob = getBlob(sha256Hex);
+        Path link = targetFile.resolveSibling(targetFile.getFileName() + "." + sha256Hex + ".link");
+        try {
+            synchronized (this) {
+                if (!Files.isRegularFile(blob)) {
+                    Files.createDirectories(blob.getParent());
+                    Files.createLink(blob, file);
+                    // shared by all links, an archived artifact must never be changed in place
+                    if (!blob.toFile().setReadOnly()) {
+                        LOGGER.log(Level.FINE, "Could not make the artifact blob {0} read-only", blob);
+                    }
+                }
+
+                // linked next to the target and moved into place, so an existing artifact is replaced atomically
+                Files.deleteIfExists(link);
+                Files.createLink(link, blob);
+            }
+            Files.move(link, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(file);
+            return true;
+        } catch (IOException | UnsupportedOperationException ex) {
+            // i.e. the builds are on a different file system than JENKINS_HOME
+            LOGGER.log(Level.FINE, "Could not link the archived artifact " + targetFile + " to its blob, archiving a copy", ex);
+            deleteQuietly(link);
+            return false;
+        }
+    }
+
+    /**
+     * Removes all blobs that are no longer linked by any build
+     *
+     * @return the number of removed blobs
+     */
+    public synchronized int sweep() {
+        int removed = 0;
+        if (!Files.isDirectory(directory)) {
+            return removed;
+        }
+
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(directory)) {
+            for (Path prefix : prefixes) {
+                try (DirectoryStream<Path> blobs = Files.newDirectoryStream(prefix)) {
+                    for (Path blob : blobs) {
+                        // the store itself holds one link
+                        if (getLinkCount(blob) <= 1) {
+                            blob.toFile().setWritable(true);
+                            Files.deleteIfExists(blob);
+                            removed++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException | UnsupportedOperationException ex) {
+            LOGGER.log(Level.WARNING, "Could not remove unused artifact blobs from " + directory, ex);
+        }
+        return removed;
+    }
+
+    void scheduleSweep() {
+        synchronized (scheduler) {
+            if (sweepScheduled) {
+                return;
+            }
+            sweepScheduled = true;
+        }
+
+        scheduler.schedule(() -> {
+            synchronized (scheduler) {
+                sweepScheduled = false;
+            }
+            int removed = sweep();
+            LOGGER.log(Level.FINE, "Removed {0} unused artifact blobs", removed);
+        }, SWEEP_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private Path getBlob(String sha256Hex) {
+        // two levels, so a single directory does not end up with millions of entries
+        return directory.resolve(sha256Hex.substring(0, 2)).resolve(sha256Hex);
+    }
+
+    private static int getLinkCount(Path blob) throws IOException {
+        return (Integer) Files.getAttribute(blob, "unix:nlink");
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            LOGGER.log(Level.FINE, "Could not delete " + file, ex);
+        }
+    }
+
+    /**
+     * Removes the blobs of deleted builds (shortly after they are deleted)
+     */
+    @Extension
+    public static class SweepOnDeletion extends RunListener<Run<?, ?>> {
+        @Override
+        public void onDeleted(Run<?, ?> run) {
+            get().scheduleSweep();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import hudson.Extension;
+import hudson.Launcher;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import jenkins.model.Jenkins;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Collects the SHA-256 hashes of all artifacts submitted by a build in a single SHA256SUMS manifest
+ * Lines are appended to a file in the build directory as artifacts are submitted (so they survive a controller
+ * restart), the manifest is archived only once, when the build completes (see {@link ArchiveOnCompletion}).
+ * This saves a full archive operation (and fingerprint) per artifact compared to {@link HashRecordingMode#SIDECAR_FILE}.
+ */
+public final class SigningManifest {
+    public static final String ARTIFACT_PATH = "SHA256SUMS";
+
+    private static final String PENDING_FILE_NAME = "signpath-SHA256SUMS";
+
+    private SigningManifest() {
+    }
+
+    /**
+     * @param run          the build that submitted the artifact
+     * @param artifactPath the path of the artifact in the workspace
+     * @param sha256Hex    the SHA-256 hex hash of the artifact
+     * @throws IOException occurs if the line cannot be written to the build directory
+     */
+    public static void append(Run<?, ?> run, String artifactPath, String sha256Hex) throws IOException {
+        // the same format as sha256sum, so the archived manifest can be checked with "sha256sum -c SHA256SUMS"
+        byte[] line = String.format("%s  %s%n", sha256Hex, artifactPath.replace('\\', '/')).getBytes(StandardCharsets.UTF_8);
+        Path pendingFile = getPendingFile(run);
+
+        // steps of the same build can submit concurrently
+        synchronized (SigningManifest.class) {
+            Files.write(pendingFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Archives the collected hashes as {@link #ARTIFACT_PATH}, if there are any
+     *
+     * @param run                 the build
+     * @param artifactFileManager archives into the given build
+     * @return whether a manifest has been archived
+     * @throws IOException              occurs if the manifest cannot be read or archived
+     * @throws InterruptedException     occurs if archiving is interrupted
+     * @throws NoSuchAlgorithmException occurs if the fingerprint of the manifest cannot be computed
+     */
+    public static boolean archive(Run<?, ?> run, ArtifactFileManager artifactFileManager)
+            throws IOException, InterruptedException, NoSuchAlgorithmException {
+        Path pendingFile = getPendingFile(run);
+
+        synchronized (SigningManifest.class) {
+            if (!Files.isRegularFile(pendingFile)) {
+                return false;
+            }
+
+            try (InputStream manifest = Files.newInputStream(pendingFile)) {
+                artifactFileManager.storeArtifact(manifest, ARTIFACT_PATH);
+            }
+            Files.delete(pendingFile);
+            return true;
+        }
+    }
+
+    private static Path getPendingFile(Run<?, ?> run) {
+        return new File(run.getRootDir(), PENDING_FILE_NAME).toPath();
+    }
+
+    /**
+     * Archives the manifest of a build before it is reported as completed
+     */
+    @Extension
+    public static class ArchiveOnCompletion extends RunListener<Run<?, ?>> {
+        @Override
+        public void onCompleted(Run<?, ?> run, TaskListener listener) {
+            try {
+                // the workspace may already be gone, the manifest is archived from the build directory on the controller
+                ArtifactFileManager artifactFileManager = new DefaultArtifactFileManager(
+                        Jenkins.get().getFingerprintMap(), run, new Launcher.LocalLauncher(listener), listener);
+                if (archive(run, artifactFileManager)) {
+                    listener.getLogger().println("SHA-256 manifest archived: " + ARTIFACT_PATH);
+                }
+            } catch (IOException | NoSuchAlgorithmException | RuntimeException ex) {
+                listener.getLogger().println("Archiving the SHA-256 manifest failed: " + ex.getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The codecs available to compress an artifact on its way from the agent to the controller
+ * @see ArtifactTransferMode#COMPRESSED_CONTROLLER
+ */
+public enum TransferCompression {
+    GZIP("GZIP") {
+        @Override
+        public OutputStream compress(OutputStream out, int level) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+    },
+
+    DEFLATE("Deflate") {
+        @Override
+        public OutputStream compress(OutputStream out, int level) {
+            // the deflater is owned by the stream, but as it is passed in explicitly it has to be released by us
+            Deflater deflater = new Deflater(level);
+            return new DeflaterOutputStream(out, deflater, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        deflater.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) {
+            Inflater inflater = new Inflater();
+            return new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            };
+        }
+    };
+
+    public static final int MIN_LEVEL = Deflater.BEST_SPEED;
+    public static final int MAX_LEVEL = Deflater.BEST_COMPRESSION;
+    public static final int DEFAULT_LEVEL = 6;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String displayName;
+
+    TransferCompression(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @param out   the stream the compressed data is written to, it is closed together with the returned stream
+     * @param level the compression level between {@link #MIN_LEVEL} and {@link #MAX_LEVEL}
+     * @return a stream that compresses everything written to it
+     * @throws IOException occurs if the codec header cannot be written
+     */
+    public abstract OutputStream compress(OutputStream out, int level) throws IOException;
+
+    /**
+     * @param in the compressed data, it is closed together with the returned stream
+     * @return a stream that provides the decompressed data
+     * @throws IOException occurs if the codec header cannot be read
+     */
+    public abstract InputStream decompress(InputStream in) throws IOException;
+}
@@ -0,0 +1,71 @@
+package io.jenkins.plugins.signpath;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+
+import java.io.PrintStream;
+import java.util.UUID;
+
+/**
+ * The asynchronous, resumable step-execution for the
+ * @see GetSignedArtifactStep
+ */
+public class AsyncGetSignedArtifactStepExecution extends AsyncSigningRequestStepExecution {
+    private static final long serialVersionUID = 1L;
+
+    private final GetSignedArtifactStepInput input;
+
+    protected AsyncGetSignedArtifactStepExecution(GetSignedArtifactStepInput input,
+                                                  ApiConfiguration apiConfiguration,
+                                                  SignPathContainer container) {
+        super(apiConfiguration, container);
+        this.input = input;
+    }
+
+    @Override
+    protected UUID submit(SignPathContainer container, SignPathFacade signPathFacade, PrintStream logger) {
+        // the signing request already exists, we only wait for it
+        logger.printf("Downloading signed artifact for organization: %s and signingRequest: %s%n", input.getOrganizationId(), input.getSigningRequestId());
+        return input.getSigningRequestId();
+    }
+
+    @Override
+    protected Object getResult(UUID signingRequestId) {
+        return null;
+    }
+
+    @Override
+    protected UUID getOrganizationId() {
+        return input.getOrganizationId();
+    }
+
+    @Override
+    protected String getTrustedBuildSystemTokenCredentialId() {
+        return input.getTrustedBuildSystemTokenCredentialId();
+    }
+
+    @Override
+    protected String getApiTokenCredentialId() {
+        return input.getApiTokenCredentialId();
+    }
+
+    @Override
+    protected String getOutputArtifactPath() {
+        return input.getOutputArtifactPath();
+    }
+
+    @Override
+    protected String getOutputWorkspacePath() {
+        return input.getOutputWorkspacePath();
+    }
+
+    @Override
+    protected String getFailureMessage() {
+        return "Downloading signed artifact failed";
+    }
+
+    @Override
+    protected String getSuccessMessage() {
+        return "Downloading signed artifact succeeded";
+    }
+}
@@ -0,0 +1,230 @@
+package io.jenkins.plugins.signpath;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import hudson.FilePath;
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.ApiIntegration.SigningRequestPollingService;
+import io.jenkins.plugins.signpath.Exceptions.SecretNotFoundException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathStepFailedException;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+
+import java.io.PrintStream;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A common base class for step executions that wait for a signing request and download the signed artifact
+ * without holding a thread while waiting
+ * In contrast to the synchronous executions, the signing request ID and the current phase are persisted with the
+ * pipeline: after a controller restart, the execution continues waiting for (and downloading) the same signing
+ * request instead of failing the build. Steps only use these executions if the global asynchronous wait option is
+ * enabled (see {@link SignPathPluginGlobalConfiguration#getAsynchronousWaitForCompletion()}).
+ *
+ * @see SigningRequestPollingService
+ */
+public abstract class AsyncSigningRequestStepExecution extends StepExecution {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(AsyncSigningRequestStepExecution.class.getName());
+
+    enum Phase {
+        // a restart in this phase cannot be resumed, we do not know whether the signing request has been created
+        SUBMITTING,
+        WAITING,
+        DOWNLOADING
+    }
+
+    private final ApiConfiguration apiConfiguration;
+    private volatile Phase phase;
+    private volatile UUID signingRequestId;
+
+    // the container holds Jenkins services that cannot be persisted, it is rebuilt after a restart
+    private transient volatile SignPathContainer container;
+    // whatever is currently pending (a blocking task or the wait for the final status), used to stop the step
+    private transient volatile Future<?> pendingWork;
+    private transient volatile boolean stopped;
+
+    protected AsyncSigningRequestStepExecution(ApiConfiguration apiConfiguration, SignPathContainer container) {
+        super(container.getStepContext());
+        this.apiConfiguration = apiConfiguration;
+        this.container = container;
+    }
+
+    /**
+     * Creates the signing request to wait for, runs on a transfer thread of the polling service
+     *
+     * @param container      the container of this execution
+     * @param signPathFacade the facade for the credentials of this step
+     * @param logger         the build log
+     * @return the ID of the signing request to wait for
+     * @throws Exception occurs if the signing request cannot be created, fails the step
+     */
+    protected abstract UUID submit(SignPathContainer container, SignPathFacade signPathFacade, PrintStream logger) throws Exception;
+
+    /**
+     * @param signingRequestId the ID of the completed signing request
+     * @return the return value of the step
+     */
+    protected abstract Object getResult(UUID signingRequestId);
+
+    protected abstract UUID getOrganizationId();
+
+    protected abstract String getTrustedBuildSystemTokenCredentialId();
+
+    protected abstract String getApiTokenCredentialId();
+
+    protected abstract String getOutputArtifactPath();
+
+    protected abstract String getOutputWorkspacePath();
+
+    /**
+     * @return the prefix of failure messages, i.e. "Signing step failed"
+     */
+    protected abstract String getFailureMessage();
+
+    /**
+     * @return the message logged once the signed artifact has been stored
+     */
+    protected abstract String getSuccessMessage();
+
+    @Override
+    public boolean start() {
+        phase = Phase.SUBMITTING;
+        pendingWork = SigningRequestPollingService.get().execute(this::submitAndWait);
+        return false;
+    }
+
+    @Override
+    public void onResume() {
+        if (phase == Phase.SUBMITTING || signingRequestId == null) {
+            getContext().onFailure(new SignPathStepFailedException(getFailureMessage()
+                    + ": the controller was restarted while the signing request was being submitted", null));
+            return;
+        }
+
+        pendingWork = SigningRequestPollingService.get().execute(this::resume);
+    }
+
+    @Override
+    public void stop(Throwable cause) throws Exception {
+        stopped = true;
+        Future<?> work = pendingWork;
+        if (work != null) {
+            work.cancel(true);
+        }
+        getContext().onFailure(cause);
+    }
+
+    @Override
+    public String getStatus() {
+        UUID id = signingRequestId;
+        return id == null
+                ? "submitting signing request"
+                : String.format("%s signing request %s (%d signing requests being polled)",
+                        phase == Phase.DOWNLOADING ? "downloading the signed artifact of" : "waiting for",
+                        id, SigningRequestPollingService.get().getQueueDepth());
+    }
+
+    private void submitAndWait() {
+        PrintStream logger = container.getTaskListener().getLogger();
+
+        try {
+            SignPathCredentials credentials = retrieveCredentials();
+            SignPathFacade signPathFacade = container.getSignPathFacadeFactory().create(credentials);
+            UUID id = submit(container, signPathFacade, logger);
+            signingRequestId = id;
+            enterPhase(Phase.WAITING);
+
+            logger.printf("Waiting for signing request %s to complete (checking %s)...%n",
+                    id, SigningRequestPollingService.get().getReadinessCheckPolicy(apiConfiguration).getDescription());
+            awaitAndDownload(signPathFacade, credentials, id, logger);
+        } catch (Exception ex) {
+            fail(logger, ex);
+        }
+    }
+
+    private void resume() {
+        PrintStream logger = null;
+
+        try {
+            container = SignPathContainer.build(getContext(), apiConfiguration);
+            logger = container.getTaskListener().getLogger();
+            logger.printf("Resuming to wait for signing request %s after a restart...%n", signingRequestId);
+            SignPathCredentials credentials = retrieveCredentials();
+            awaitAndDownload(container.getSignPathFacadeFactory().create(credentials), credentials, signingRequestId, logger);
+        } catch (Exception ex) {
+            fail(logger, ex);
+        }
+    }
+
+    private void awaitAndDownload(SignPathFacade signPathFacade, SignPathCredentials credentials, UUID id, PrintStream logger) {
+        CompletableFuture<SigningRequestStatus> finalStatus = SigningRequestPollingService.get().awaitFinalStatus(
+                signPathFacade, credentials, getOrganizationId(), id, apiConfiguration, logger);
+        pendingWork = finalStatus;
+        finalStatus.whenComplete((status, ex) -> {
+            if (ex != null) {
+                fail(logger, ex);
+            } else {
+                pendingWork = SigningRequestPollingService.get().execute(() -> download(signPathFacade, id, status, logger));
+            }
+        });
+    }
+
+    private void download(SignPathFacade signPathFacade, UUID id, SigningRequestStatus status, PrintStream logger) {
+        try {
+            if (!status.isCompleted()) {
+                throw new SignPathFacadeCallException(String.format(
+                        "Signing request %s finished with status '%s'", id, status.getStatus()));
+            }
+
+            enterPhase(Phase.DOWNLOADING);
+            new SignedArtifactStore(signPathFacade, container.getArtifactFileManager(), logger).store(
+                    getOrganizationId(), id, getContext().get(FilePath.class), getOutputWorkspacePath(), getOutputArtifactPath());
+            logger.println(getSuccessMessage());
+            getContext().onSuccess(getResult(id));
+        } catch (Exception ex) {
+            fail(logger, ex);
+        }
+    }
+
+    private SignPathCredentials retrieveCredentials() throws SecretNotFoundException {
+        Secret trustedBuildSystemToken = container.getSecretRetriever().retrieveSecret(getTrustedBuildSystemTokenCredentialId());
+        Secret apiToken = container.getSecretRetriever().retrieveSecret(getApiTokenCredentialId(), new CredentialsScope[]{CredentialsScope.SYSTEM, CredentialsScope.GLOBAL});
+        return new SignPathCredentials(apiToken, trustedBuildSystemToken);
+    }
+
+    // persists the new phase right away, the pipeline would otherwise only be saved at its next step
+    private void enterPhase(Phase newPhase) throws InterruptedException {
+        phase = newPhase;
+        try {
+            getContext().saveState().get();
+        } catch (ExecutionException ex) {
+            LOGGER.log(Level.WARNING, "Could not save the state of the signing step", ex);
+        }
+    }
+
+    private void fail(PrintStream logger, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (stopped || cause instanceof CancellationException) {
+            // the step has been stopped (i.e. the build was aborted) and the context has already been notified,
+            // or the controller is shutting down and the execution will be resumed after the restart
+            return;
+        }
+
+        if (logger != null) {
+            logger.printf("%n%s: %s%n", getFailureMessage(), cause.getMessage());
+        }
+        getContext().onFailure(new SignPathStepFailedException(getFailureMessage() + ": " + cause.getMessage(),
+                cause instanceof Exception ? (Exception) cause : new RuntimeException(cause)));
+    }
+}
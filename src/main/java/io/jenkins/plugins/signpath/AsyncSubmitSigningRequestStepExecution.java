@@ -0,0 +1,90 @@
+package io.jenkins.plugins.signpath;
+
+import hudson.FilePath;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.Artifacts.ComputeArtifactHashCallable;
+import io.jenkins.plugins.signpath.Exceptions.ArtifactNotFoundException;
+
+import java.io.PrintStream;
+import java.util.UUID;
+
+/**
+ * The asynchronous, resumable step-execution for the
+ * @see SubmitSigningRequestStep
+ * in case waitForCompletion is set
+ */
+public class AsyncSubmitSigningRequestStepExecution extends AsyncSigningRequestStepExecution {
+    private static final long serialVersionUID = 1L;
+
+    private final SubmitSigningRequestStepInput input;
+
+    protected AsyncSubmitSigningRequestStepExecution(SubmitSigningRequestStepInput input,
+                                                     ApiConfiguration apiConfiguration,
+                                                     SignPathContainer container) {
+        super(apiConfiguration, container);
+        this.input = input;
+    }
+
+    @Override
+    protected UUID submit(SignPathContainer container, SignPathFacade signPathFacade, PrintStream logger) throws Exception {
+        logger.printf("Submitting signing request for organization: %s (waiting for completion asynchronously)%n", input.getOrganizationId());
+
+        FilePath workspace = getContext().get(FilePath.class);
+        if (workspace == null) {
+            throw new ArtifactNotFoundException("Could not obtain workspace from step context.");
+        }
+        FilePath artifactFilePath = workspace.child(input.getInputArtifactPath());
+        if (!artifactFilePath.exists()) {
+            throw new ArtifactNotFoundException(String.format(
+                    "The artifact at path '%s' was not found in the workspace.", input.getInputArtifactPath()));
+        }
+
+        logger.println("Computing SHA-256 hash of artifact on agent...");
+        String sha256Hex = artifactFilePath.act(new ComputeArtifactHashCallable(input.getArtifactHashCacheSize(),
+                ComputeArtifactHashCallable.getHashCacheIndexFile(workspace)));
+
+        SigningRequestSubmitter submitter = new SigningRequestSubmitter(signPathFacade, container.getOriginRetriever(), container.getArtifactFileManager(), logger);
+        return submitter.submitWithoutWaiting(input, artifactFilePath, sha256Hex);
+    }
+
+    @Override
+    protected Object getResult(UUID signingRequestId) {
+        return signingRequestId.toString();
+    }
+
+    @Override
+    protected UUID getOrganizationId() {
+        return input.getOrganizationId();
+    }
+
+    @Override
+    protected String getTrustedBuildSystemTokenCredentialId() {
+        return input.getTrustedBuildSystemTokenCredentialId();
+    }
+
+    @Override
+    protected String getApiTokenCredentialId() {
+        return input.getApiTokenCredentialId();
+    }
+
+    @Override
+    protected String getOutputArtifactPath() {
+        return input.getOutputArtifactPath();
+    }
+
+    @Override
+    protected String getOutputWorkspacePath() {
+        return input.getOutputWorkspacePath();
+    }
+
+    @Override
+    protected String getFailureMessage() {
+        return "Signing step failed";
+    }
+
+    @Override
+    protected String getSuccessMessage() {
+        return "Signing step succeeded";
+    }
+}
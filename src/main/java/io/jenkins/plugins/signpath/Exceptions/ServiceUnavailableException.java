@@ -0,0 +1,23 @@
+package io.jenkins.plugins.signpath.Exceptions;
+
+import java.io.IOException;
+
+/**
+ * Occurs when SignPath is (temporarily) unavailable or asks to slow down (HTTP 429 or 5xx)
+ * The call can be repeated, if SignPath sent a Retry-After hint it should not be repeated before that.
+ */
+public class ServiceUnavailableException extends IOException {
+    private final long retryAfterInSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterInSeconds) {
+        super(message);
+        this.retryAfterInSeconds = retryAfterInSeconds;
+    }
+
+    /**
+     * @return the seconds to wait before the next call as requested by SignPath, 0 if there was no hint
+     */
+    public long getRetryAfterInSeconds() {
+        return retryAfterInSeconds;
+    }
+}
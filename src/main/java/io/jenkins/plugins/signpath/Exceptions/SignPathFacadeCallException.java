@@ -10,5 +10,13 @@ public class SignPathFacadeCallException extends Exception {
     public SignPathFacadeCallException(String message) {
         super(message);
     }
+
+    /**
+     * @param message the message
+     * @param cause   why the call failed, i.e. an {@link java.io.IOException} if SignPath could not be reached or is unavailable
+     */
+    public SignPathFacadeCallException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
 
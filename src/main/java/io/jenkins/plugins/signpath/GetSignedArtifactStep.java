@@ -22,6 +22,9 @@ import java.util.Set;
 
 /**
  * Represents the getSignedArtifact step that is executable via pipeline-script
+ * Waiting for the signing request only survives a controller restart if the global "wait for signing requests
+ * asynchronously" option ({@link SignPathPluginGlobalConfiguration#getAsynchronousWaitForCompletion()}) is enabled,
+ * which it is not by default.
  * For a how-to use example see *EndToEnd tests
  */
 public class GetSignedArtifactStep extends SignPathStepBase {
@@ -32,6 +35,7 @@ public class GetSignedArtifactStep extends SignPathStepBase {
     private String organizationId;
     private String signingRequestId;
     private String outputArtifactPath;
+    private String outputWorkspacePath;
 
     @DataBoundConstructor
     public GetSignedArtifactStep() {
@@ -40,15 +44,23 @@ public class GetSignedArtifactStep extends SignPathStepBase {
 
     @Override
     public StepExecution start(StepContext context) throws IOException, InterruptedException, SignPathStepInvalidArgumentException {
+        ensureSignedArtifactOutput(getOutputArtifactPath(), getOutputWorkspacePath());
+
         GetSignedArtifactStepInput input =  new GetSignedArtifactStepInput(
                 ensureValidUUID(getOrganizationIdWithGlobal(), "organizationId"),
                 ensureValidUUID(getSigningRequestId(), "signingRequestId"),
                 ensureNotNull(getTrustedBuildSystemTokenCredentialId(), "trustedBuildSystemTokenCredentialId"),
                 ensureNotNull(getApiTokenCredentialId(), "apiTokenCredentialId"),
-                ensureNotNull(getOutputArtifactPath(), "outputArtifactPath"));
+                getOutputArtifactPath(),
+                getOutputWorkspacePath());
 
         ApiConfiguration apiConfiguration = getAndValidateApiConfiguration();
         SignPathContainer container = SignPathContainer.build(context, apiConfiguration);
+
+        if (getSignPathConfig().getAsynchronousWaitForCompletion()) {
+            return new AsyncGetSignedArtifactStepExecution(input, apiConfiguration, container);
+        }
+
         return new GetSignedArtifactStepExecution(input,
                 container.getSecretRetriever(),
                 container.getArtifactFileManager(),
@@ -102,6 +114,10 @@ public class GetSignedArtifactStep extends SignPathStepBase {
         return outputArtifactPath;
     }
 
+    public String getOutputWorkspacePath() {
+        return outputWorkspacePath;
+    }
+
     @Deprecated
     @DataBoundSetter
     public void setOrganizationId(String organizationId) {
@@ -117,4 +133,9 @@ public class GetSignedArtifactStep extends SignPathStepBase {
     public void setOutputArtifactPath(String outputArtifactPath) {
         this.outputArtifactPath = outputArtifactPath;
     }
+
+    @DataBoundSetter
+    public void setOutputWorkspacePath(String outputWorkspacePath) {
+        this.outputWorkspacePath = outputWorkspacePath;
+    }
 }
@@ -1,13 +1,14 @@
 package io.jenkins.plugins.signpath;
 
 import com.cloudbees.plugins.credentials.CredentialsScope;
+import hudson.FilePath;
 import hudson.model.TaskListener;
 import hudson.util.Secret;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacadeFactory;
 import io.jenkins.plugins.signpath.Artifacts.ArtifactFileManager;
-import io.jenkins.plugins.signpath.Common.TemporaryFile;
+import io.jenkins.plugins.signpath.Exceptions.ArtifactNotFoundException;
 import io.jenkins.plugins.signpath.Exceptions.SecretNotFoundException;
 import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
 import io.jenkins.plugins.signpath.Exceptions.SignPathStepFailedException;
@@ -58,11 +59,15 @@ public class GetSignedArtifactStepExecution extends SynchronousNonBlockingStepEx
             Secret apiToken = secretRetriever.retrieveSecret(input.getApiTokenCredentialId(), new CredentialsScope[] { CredentialsScope.SYSTEM, CredentialsScope.GLOBAL });
             SignPathCredentials credentials = new SignPathCredentials(apiToken, trustedBuildSystemToken);
             SignPathFacade signPathFacade = signPathFacadeFactory.create(credentials);
-            try (TemporaryFile signedArtifact = signPathFacade.getSignedArtifact(input.getOrganizationId(), input.getSigningRequestId())) {
-                artifactFileManager.storeArtifact(signedArtifact, input.getOutputArtifactPath());
-                logger.println("Downloading signed artifact succeeded");
-            }
-        } catch (SecretNotFoundException | SignPathFacadeCallException | IOException | InterruptedException | NoSuchAlgorithmException ex) {
+            signPathFacade.waitForCompletion(input.getOrganizationId(), input.getSigningRequestId());
+            new SignedArtifactStore(signPathFacade, artifactFileManager, logger).store(
+                    input.getOrganizationId(),
+                    input.getSigningRequestId(),
+                    getContext().get(FilePath.class),
+                    input.getOutputWorkspacePath(),
+                    input.getOutputArtifactPath());
+            logger.println("Downloading signed artifact succeeded");
+        } catch (SecretNotFoundException | SignPathFacadeCallException | ArtifactNotFoundException | IOException | InterruptedException | NoSuchAlgorithmException ex) {
             logger.printf("Downloading signed artifact failed %s%n", ex.getMessage());
             throw new SignPathStepFailedException("Downloading signed artifact failed: " + ex.getMessage(), ex);
         }
@@ -16,13 +16,15 @@ public class GetSignedArtifactStepInput implements Serializable {
     private final String trustedBuildSystemTokenCredentialId;
     private final String apiTokenCredentialId;
     private final String outputArtifactPath;
+    private final String outputWorkspacePath;
 
-    public GetSignedArtifactStepInput(UUID organizationId, UUID signingRequestId, String trustedBuildSystemTokenCredentialId, String apiTokenCredentialId, String outputArtifactPath) {
+    public GetSignedArtifactStepInput(UUID organizationId, UUID signingRequestId, String trustedBuildSystemTokenCredentialId, String apiTokenCredentialId, String outputArtifactPath, String outputWorkspacePath) {
         this.organizationId = organizationId;
         this.signingRequestId = signingRequestId;
         this.trustedBuildSystemTokenCredentialId = trustedBuildSystemTokenCredentialId;
         this.apiTokenCredentialId = apiTokenCredentialId;
         this.outputArtifactPath = outputArtifactPath;
+        this.outputWorkspacePath = outputWorkspacePath;
     }
 
     public UUID getOrganizationId() {
@@ -44,4 +46,8 @@ public class GetSignedArtifactStepInput implements Serializable {
     public String getOutputArtifactPath() {
         return outputArtifactPath;
     }
+
+    public String getOutputWorkspacePath() {
+        return outputWorkspacePath;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package io.jenkins.plugins.signpath;
+
+import com.google.common.collect.ImmutableSet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.Exceptions.SignPathStepInvalidArgumentException;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Represents the getSignedArtifacts step that is executable via pipeline-script
+ * It downloads the signed artifacts of many signing requests at once: all signing requests are waited for concurrently
+ * and each signed artifact is downloaded as soon as its signing request is completed (up to maxConcurrentDownloads at a time)
+ * signingRequestIds maps the artifact path (relative to the output directories) to the signing request ID, so the
+ * result of submitSigningRequests can be passed in directly
+ * The step returns a map from artifact path to its result
+ * For a how-to use example see *EndToEnd tests
+ */
+public class GetSignedArtifactsStep extends SignPathStepBase {
+    private final static String FunctionName = "getSignedArtifacts";
+    private final static String DisplayName = "Download SignPath Signed Artifacts of multiple signing requests";
+
+    private String organizationId;
+    private Map<String, String> signingRequestIds;
+    private String outputArtifactDirectory;
+    private String outputWorkspaceDirectory;
+    private int maxConcurrentDownloads = 4;
+    private boolean failOnError = true;
+
+    @DataBoundConstructor
+    public GetSignedArtifactsStep() {
+        super();
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws IOException, InterruptedException, SignPathStepInvalidArgumentException {
+        if (getOutputArtifactDirectory() == null && getOutputWorkspaceDirectory() == null) {
+            throw new SignPathStepInvalidArgumentException("outputArtifactDirectory or outputWorkspaceDirectory must be set");
+        }
+
+        if (getSigningRequestIds() == null || getSigningRequestIds().isEmpty()) {
+            throw new SignPathStepInvalidArgumentException("signingRequestIds must be set");
+        }
+
+        if (getMaxConcurrentDownloads() < 1) {
+            throw new SignPathStepInvalidArgumentException("maxConcurrentDownloads must be at least 1");
+        }
+
+        UUID organizationId = ensureValidUUID(getOrganizationIdWithGlobal(), "organizationId");
+        String trustedBuildSystemTokenCredentialId = ensureNotNull(getTrustedBuildSystemTokenCredentialIdWithGlobal(), "trustedBuildSystemTokenCredentialId");
+        String apiTokenCredentialId = ensureNotNull(getApiTokenCredentialId(), "apiTokenCredentialId");
+
+        Map<String, GetSignedArtifactStepInput> inputs = new LinkedHashMap<>();
+        for (Map.Entry<String, String> signingRequest : getSigningRequestIds().entrySet()) {
+            String artifactPath = signingRequest.getKey();
+            String outputArtifactPath = SignedArtifactStore.resolvePath(getOutputArtifactDirectory(), artifactPath);
+            String outputWorkspacePath = SignedArtifactStore.resolvePath(getOutputWorkspaceDirectory(), artifactPath);
+            ensureSignedArtifactOutput(outputArtifactPath, outputWorkspacePath);
+
+            inputs.put(artifactPath, new GetSignedArtifactStepInput(
+                    organizationId,
+                    ensureValidUUID(signingRequest.getValue(), "signingRequestIds['" + artifactPath + "']"),
+                    trustedBuildSystemTokenCredentialId,
+                    apiTokenCredentialId,
+                    outputArtifactPath,
+                    outputWorkspacePath));
+        }
+
+        ApiConfiguration apiConfiguration = getAndValidateApiConfiguration();
+        SignPathContainer container = SignPathContainer.build(context, apiConfiguration);
+
+        return new GetSignedArtifactsStepExecution(inputs,
+                getMaxConcurrentDownloads(),
+                getFailOnError(),
+                apiConfiguration,
+                container.getSecretRetriever(),
+                container.getArtifactFileManager(),
+                container.getSignPathFacadeFactory(),
+                container.getTaskListener(),
+                container.getStepContext());
+    }
+
+    @Override
+    public DescriptorImpl getDescriptor() {
+        return (DescriptorImpl) super.getDescriptor();
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(FilePath.class, Run.class, Launcher.class, TaskListener.class, EnvVars.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return FunctionName;
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return DisplayName;
+        }
+    }
+
+    public String getOrganizationId() {
+        return organizationId;
+    }
+
+    public String getOrganizationIdWithGlobal() throws SignPathStepInvalidArgumentException {
+        return getWithGlobalConfig(
+            organizationId,
+            SignPathPluginGlobalConfiguration::getOrganizationId,
+            "organizationId", true);
+    }
+
+    public Map<String, String> getSigningRequestIds() {
+        return signingRequestIds;
+    }
+
+    public String getOutputArtifactDirectory() {
+        return outputArtifactDirectory;
+    }
+
+    public String getOutputWorkspaceDirectory() {
+        return outputWorkspaceDirectory;
+    }
+
+    public int getMaxConcurrentDownloads() {
+        return maxConcurrentDownloads;
+    }
+
+    public boolean getFailOnError() {
+        return failOnError;
+    }
+
+    @DataBoundSetter
+    public void setOrganizationId(String organizationId) {
+        this.organizationId = organizationId;
+    }
+
+    @DataBoundSetter
+    public void setSigningRequestIds(Map<String, String> signingRequestIds) {
+        this.signingRequestIds = signingRequestIds;
+    }
+
+    @DataBoundSetter
+    public void setOutputArtifactDirectory(String outputArtifactDirectory) {
+        this.outputArtifactDirectory = outputArtifactDirectory;
+    }
+
+    @DataBoundSetter
+    public void setOutputWorkspaceDirectory(String outputWorkspaceDirectory) {
+        this.outputWorkspaceDirectory = outputWorkspaceDirectory;
+    }
+
+    @DataBoundSetter
+    public void setMaxConcurrentDownloads(int maxConcurrentDownloads) {
+        this.maxConcurrentDownloads = maxConcurrentDownloads;
+    }
+
+    @DataBoundSetter
+    public void setFailOnError(boolean failOnError) {
+        this.failOnError = failOnError;
+    }
+}
@@ -0,0 +1,181 @@
+package io.jenkins.plugins.signpath;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacadeFactory;
+import io.jenkins.plugins.signpath.ApiIntegration.SigningRequestPollingService;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactFileManager;
+import io.jenkins.plugins.signpath.Exceptions.SecretNotFoundException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathStepFailedException;
+import io.jenkins.plugins.signpath.SecretRetrieval.SecretRetriever;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The step-execution for the
+ *
+ * @see GetSignedArtifactsStep
+ */
+public class GetSignedArtifactsStepExecution extends SynchronousNonBlockingStepExecution<Map<String, String>> {
+    static final String SUCCEEDED = "Completed";
+
+    // We do not support resuming execution and therefore can mark our fields as transient (=> not serialized)
+    private transient final Map<String, GetSignedArtifactStepInput> inputs;
+    private transient final int maxConcurrentDownloads;
+    private transient final boolean failOnError;
+    private transient final ApiConfiguration apiConfiguration;
+    private transient final SecretRetriever secretRetriever;
+    private transient final ArtifactFileManager artifactFileManager;
+    private transient final SignPathFacadeFactory signPathFacadeFactory;
+    private transient final TaskListener taskListener;
+
+    protected GetSignedArtifactsStepExecution(Map<String, GetSignedArtifactStepInput> inputs,
+                                              int maxConcurrentDownloads,
+                                              boolean failOnError,
+                                              ApiConfiguration apiConfiguration,
+                                              SecretRetriever secretRetriever,
+                                              ArtifactFileManager artifactFileManager,
+                                              SignPathFacadeFactory signPathFacadeFactory,
+                                              TaskListener taskListener,
+                                              StepContext stepContext) {
+        super(stepContext);
+        this.inputs = inputs;
+        this.maxConcurrentDownloads = maxConcurrentDownloads;
+        this.failOnError = failOnError;
+        this.apiConfiguration = apiConfiguration;
+        this.secretRetriever = secretRetriever;
+        this.artifactFileManager = artifactFileManager;
+        this.signPathFacadeFactory = signPathFacadeFactory;
+        this.taskListener = taskListener;
+    }
+
+    @Override
+    protected Map<String, String> run() throws SignPathStepFailedException {
+        PrintStream logger = taskListener.getLogger();
+
+        try {
+            // all inputs share the organization and the credentials
+            GetSignedArtifactStepInput anyInput = inputs.values().iterator().next();
+            Secret trustedBuildSystemToken = secretRetriever.retrieveSecret(anyInput.getTrustedBuildSystemTokenCredentialId());
+            Secret apiToken = secretRetriever.retrieveSecret(anyInput.getApiTokenCredentialId(), new CredentialsScope[]{CredentialsScope.SYSTEM, CredentialsScope.GLOBAL});
+            SignPathCredentials credentials = new SignPathCredentials(apiToken, trustedBuildSystemToken);
+            SignPathFacade signPathFacade = signPathFacadeFactory.create(credentials);
+
+            logger.printf("Downloading signed artifacts of %d signing requests for organization: %s (max. concurrent downloads: %d)%n",
+                    inputs.size(), anyInput.getOrganizationId(), maxConcurrentDownloads);
+
+            Map<String, String> results = downloadAll(signPathFacade, credentials, getContext().get(FilePath.class), logger);
+
+            List<String> failures = new ArrayList<>();
+            for (Map.Entry<String, String> result : results.entrySet()) {
+                if (!SUCCEEDED.equals(result.getValue())) {
+                    failures.add(String.format("'%s': %s", result.getKey(), result.getValue()));
+                }
+            }
+
+            if (failures.isEmpty()) {
+                logger.println("Downloading signed artifacts succeeded");
+            } else {
+                String message = String.format("Downloading failed for %d of %d signed artifacts: %s",
+                        failures.size(), results.size(), String.join("; ", failures));
+                logger.printf("%n%s%n", message);
+                if (failOnError) {
+                    throw new SignPathStepFailedException("Downloading signed artifacts failed: " + message, null);
+                }
+            }
+            return results;
+        } catch (SecretNotFoundException | IOException | InterruptedException ex) {
+            logger.printf("Downloading signed artifacts failed %s%n", ex.getMessage());
+            throw new SignPathStepFailedException("Downloading signed artifacts failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    private Map<String, String> downloadAll(SignPathFacade signPathFacade, SignPathCredentials credentials, FilePath workspace, PrintStream logger) throws InterruptedException {
+        // waiting does not hold a thread per signing request (they are all polled by the polling service),
+        // only the downloads run on this pool
+        ExecutorService downloadExecutor = Executors.newFixedThreadPool(
+                Math.min(maxConcurrentDownloads, inputs.size()),
+                new NamingThreadFactory(new DaemonThreadFactory(), "SignPath signed artifact download"));
+        SignedArtifactStore signedArtifactStore = new SignedArtifactStore(signPathFacade, artifactFileManager, logger);
+        List<CompletableFuture<SigningRequestStatus>> finalStatuses = new ArrayList<>();
+
+        try {
+            Map<String, CompletableFuture<String>> downloads = new LinkedHashMap<>();
+            for (Map.Entry<String, GetSignedArtifactStepInput> entry : inputs.entrySet()) {
+                String artifactPath = entry.getKey();
+                GetSignedArtifactStepInput input = entry.getValue();
+
+                CompletableFuture<SigningRequestStatus> finalStatus = SigningRequestPollingService.get().awaitFinalStatus(
+                        signPathFacade, credentials, input.getOrganizationId(), input.getSigningRequestId(), apiConfiguration, logger);
+                finalStatuses.add(finalStatus);
+
+                // downloaded in the order the signing requests complete, not in the order they were given
+                downloads.put(artifactPath, finalStatus
+                        .thenApplyAsync(status -> download(signedArtifactStore, workspace, input, status), downloadExecutor)
+                        .handle((result, ex) -> {
+                            String outcome = ex == null ? result : getMessage(ex);
+                            logger.printf("%s (signing request %s): %s%n", artifactPath, input.getSigningRequestId(), outcome);
+                            return outcome;
+                        }));
+            }
+
+            // failures are part of the result, so this only ends early if the step is interrupted
+            CompletableFuture.allOf(downloads.values().toArray(new CompletableFuture[0])).get();
+
+            Map<String, String> results = new LinkedHashMap<>();
+            for (Map.Entry<String, CompletableFuture<String>> download : downloads.entrySet()) {
+                results.put(download.getKey(), download.getValue().join());
+            }
+            return results;
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Unexpected failure while downloading signed artifacts", ex);
+        } finally {
+            // stops waiting for the remaining signing requests if the step has been interrupted
+            for (CompletableFuture<SigningRequestStatus> finalStatus : finalStatuses) {
+                finalStatus.cancel(true);
+            }
+            downloadExecutor.shutdownNow();
+        }
+    }
+
+    private String download(SignedArtifactStore signedArtifactStore, FilePath workspace, GetSignedArtifactStepInput input, SigningRequestStatus status) {
+        try {
+            if (!status.isCompleted()) {
+                throw new SignPathFacadeCallException(String.format(
+                        "Signing request %s finished with status '%s'", input.getSigningRequestId(), status.getStatus()));
+            }
+
+            signedArtifactStore.store(input.getOrganizationId(), input.getSigningRequestId(), workspace,
+                    input.getOutputWorkspacePath(), input.getOutputArtifactPath());
+            return SUCCEEDED;
+        } catch (Exception ex) {
+            throw new CompletionException(ex);
+        }
+    }
+
+    private static String getMessage(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return "Failed: " + cause.getMessage();
+    }
+}
@@ -1,26 +1,39 @@
 package io.jenkins.plugins.signpath;
 
 import java.io.PrintStream;
+import java.io.Serializable;
 
+import hudson.model.TaskListener;
 import io.signpath.signpathclient.SignPathClientSimpleLogger;
 
-public class SignPathClientLogger implements SignPathClientSimpleLogger {
-    private final PrintStream printStream;
+/**
+ * Forwards the log output of the SignPath client to the build log
+ * It only holds on to the (remotable) TaskListener so that it can be shipped to agents
+ */
+public class SignPathClientLogger implements SignPathClientSimpleLogger, Serializable {
+    private static final long serialVersionUID = 1L;
 
-    public SignPathClientLogger(PrintStream printStream) {
-        this.printStream = printStream;
+    private final TaskListener listener;
+
+    public SignPathClientLogger(TaskListener listener) {
+        this.listener = listener;
+    }
+
+    public PrintStream getLogger() {
+        return listener.getLogger();
     }
 
     @Override
     public void log(String message, Throwable ex) {
+        PrintStream printStream = listener.getLogger();
         printStream.println(message);
         if(ex != null) {
-            ex.printStackTrace(this.printStream);
+            ex.printStackTrace(printStream);
         }
     }
 
     @Override
     public void log(String message) {
-        printStream.println(message);
+        listener.getLogger().println(message);
     }
 }
@@ -2,7 +2,9 @@ package io.jenkins.plugins.signpath;
 
 import hudson.Launcher;
 import hudson.model.*;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiClientImplementation;
 import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.JdkHttpClient.JdkHttpClientFacadeFactory;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.SignPathClientFacadeFactory;
 import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacadeFactory;
 import io.jenkins.plugins.signpath.Artifacts.ArtifactFileManager;
@@ -13,7 +15,7 @@ import io.jenkins.plugins.signpath.OriginRetrieval.GitOriginRetriever;
 import io.jenkins.plugins.signpath.OriginRetrieval.OriginRetriever;
 import io.jenkins.plugins.signpath.SecretRetrieval.CredentialBasedSecretRetriever;
 import io.jenkins.plugins.signpath.SecretRetrieval.SecretRetriever;
-import io.signpath.signpathclient.SignPathClientSimpleLogger;
+import jenkins.model.GlobalConfiguration;
 import jenkins.model.Jenkins;
 import jenkins.model.JenkinsLocationConfiguration;
 import org.jenkinsci.plugins.workflow.steps.StepContext;
@@ -86,7 +88,7 @@ public class SignPathContainer {
         assert listener != null;
         Run<?, ?> run = context.get(Run.class);
         Launcher launcher = context.get(Launcher.class);
-        SignPathClientSimpleLogger logger = new SignPathClientLogger(listener.getLogger());
+        SignPathClientLogger logger = new SignPathClientLogger(listener);
         Jenkins jenkins = Jenkins.get();
         FingerprintMap fingerprintMap = jenkins.getFingerprintMap();
         JenkinsLocationConfiguration config = JenkinsLocationConfiguration.get();
@@ -101,7 +103,13 @@ public class SignPathContainer {
         OriginRetriever originRetriever = new GitOriginRetriever(new DefaultConfigFileProvider(run), run, jenkinsRootUrl);
         ArtifactFileManager artifactFileManager = new DefaultArtifactFileManager(fingerprintMap, run, launcher, listener);
 
-        SignPathFacadeFactory signPathFacadeFactory = new SignPathClientFacadeFactory(apiConfiguration, logger);
+        SignPathPluginGlobalConfiguration signPathConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        ApiClientImplementation apiClientImplementation = signPathConfig == null
+                ? ApiClientImplementation.SIGNPATH_CLIENT
+                : signPathConfig.getApiClientImplementation();
+        SignPathFacadeFactory signPathFacadeFactory = apiClientImplementation == ApiClientImplementation.JDK_HTTP_CLIENT
+                ? new JdkHttpClientFacadeFactory(apiConfiguration, logger)
+                : new SignPathClientFacadeFactory(apiConfiguration, logger);
 
         return new SignPathContainer(context, run, listener, secretRetriever, originRetriever, artifactFileManager, signPathFacadeFactory);
     }
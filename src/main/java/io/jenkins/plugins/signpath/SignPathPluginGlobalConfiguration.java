@@ -5,6 +5,16 @@ import hudson.Extension;
 import jenkins.model.GlobalConfiguration;
 import org.kohsuke.stapler.DataBoundSetter;
 import hudson.util.FormValidation;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiCircuitBreaker;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiClientImplementation;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiRateLimiter;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.SignPathClientPool;
+import io.jenkins.plugins.signpath.ApiIntegration.SignedArtifactCache;
+import io.jenkins.plugins.signpath.ApiIntegration.SigningRequestPollingService;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactTransferMode;
+import io.jenkins.plugins.signpath.Artifacts.HashRecordingMode;
+import io.jenkins.plugins.signpath.Artifacts.SignedArtifactBlobStore;
+import io.jenkins.plugins.signpath.Artifacts.TransferCompression;
 import io.jenkins.plugins.signpath.Common.PluginConstants;
 import io.jenkins.plugins.signpath.Exceptions.SecretNotFoundException;
 import io.jenkins.plugins.signpath.SecretRetrieval.CredentialBasedSecretRetriever;
@@ -26,8 +36,54 @@ public class SignPathPluginGlobalConfiguration extends GlobalConfiguration {
     private String trustedBuildSystemCredentialId = PluginConstants.DEFAULT_TBS_TOKEN_CREDENTIAL_ID;
     private String organizationId;
 
+    private ArtifactTransferMode artifactTransferMode = ArtifactTransferMode.CONTROLLER;
+
+    // only used with ArtifactTransferMode.COMPRESSED_CONTROLLER
+    private TransferCompression artifactTransferCompression = TransferCompression.GZIP;
+    private int artifactTransferCompressionLevel = TransferCompression.DEFAULT_LEVEL;
+
+    private HashRecordingMode hashRecordingMode = HashRecordingMode.SIDECAR_FILE;
+
+    // 0 disables the agent-side hash cache
+    private int artifactHashCacheSize = 0;
+
+    // waits for signing requests via scheduled status checks instead of a blocked thread per build
+    private boolean asynchronousWaitForCompletion = false;
+
+    // 0 disables the controller-side cache of downloaded signed artifacts
+    private int signedArtifactCacheSizeInMegabytes = 0;
+
+    // byte-identical archived signed artifacts share a single copy below JENKINS_HOME
+    private boolean deduplicateArchivedArtifacts = false;
+
+    private ApiClientImplementation apiClientImplementation = ApiClientImplementation.SIGNPATH_CLIENT;
+
+    // secret text shared with SignPath to sign completion callbacks, none disables them
+    private String completionCallbackCredentialId;
+
+    // shared by all builds of this controller, 0 = unlimited
+    private int maxSubmitCallsPerMinute = 0;
+    private int maxStatusCallsPerMinute = ApiRateLimiter.DEFAULT_MAX_STATUS_CALLS_PER_MINUTE;
+    private int maxTransferCallsPerMinute = 0;
+
+    // submits, uploads and downloads of asynchronously waiting builds running at the same time
+    private int maxConcurrentTransfers = SigningRequestPollingService.DEFAULT_MAX_CONCURRENT_TRANSFERS;
+
+    // share of failed SignPath calls (in percent) that opens the circuit breaker, 0 disables it
+    private int circuitBreakerFailureRateThresholdPercent = 0;
+    private int circuitBreakerOpenDurationInSeconds = ApiCircuitBreaker.DEFAULT_OPEN_DURATION_IN_SECONDS;
+
     public SignPathPluginGlobalConfiguration() {
         load();
+        SigningRequestPollingService.get().setCompletionCallbacksEnabled(isCompletionCallbackEnabled());
+        SigningRequestPollingService.get().setMaxConcurrentTransfers(getMaxConcurrentTransfers());
+        ApiRateLimiter.get().setMaxCallsPerMinute(ApiRateLimiter.CallType.SUBMIT, maxSubmitCallsPerMinute);
+        ApiRateLimiter.get().setMaxCallsPerMinute(ApiRateLimiter.CallType.STATUS, maxStatusCallsPerMinute);
+        ApiRateLimiter.get().setMaxCallsPerMinute(ApiRateLimiter.CallType.TRANSFER, maxTransferCallsPerMinute);
+        ApiCircuitBreaker.get().setFailureRateThresholdPercent(circuitBreakerFailureRateThresholdPercent);
+        ApiCircuitBreaker.get().setOpenDurationInSeconds(getCircuitBreakerOpenDurationInSeconds());
+        SignedArtifactCache.get().setMaxSizeInMegabytes(signedArtifactCacheSizeInMegabytes);
+        SignedArtifactBlobStore.get().setEnabled(deduplicateArchivedArtifacts);
     }
 
     // ApiURL
@@ -111,6 +167,383 @@ public class SignPathPluginGlobalConfiguration extends GlobalConfiguration {
         return FormValidation.ok();
     }
     
+    // ArtifactTransferMode
+
+    public ArtifactTransferMode getArtifactTransferMode() {
+        // configurations saved by older versions do not contain this field
+        return artifactTransferMode == null ? ArtifactTransferMode.CONTROLLER : artifactTransferMode;
+    }
+
+    @DataBoundSetter
+    public void setArtifactTransferMode(ArtifactTransferMode artifactTransferMode) {
+        this.artifactTransferMode = artifactTransferMode;
+        save();
+    }
+
+    // ArtifactTransferCompression
+
+    public TransferCompression getArtifactTransferCompression() {
+        return artifactTransferCompression == null ? TransferCompression.GZIP : artifactTransferCompression;
+    }
+
+    @DataBoundSetter
+    public void setArtifactTransferCompression(TransferCompression artifactTransferCompression) {
+        this.artifactTransferCompression = artifactTransferCompression;
+        save();
+    }
+
+    // ArtifactTransferCompressionLevel
+
+    public int getArtifactTransferCompressionLevel() {
+        return artifactTransferCompressionLevel;
+    }
+
+    @DataBoundSetter
+    public void setArtifactTransferCompressionLevel(int artifactTransferCompressionLevel) {
+        // an invalid level would only fail later, when the deflater of the first transfer is created
+        this.artifactTransferCompressionLevel = Math.max(TransferCompression.MIN_LEVEL,
+                Math.min(TransferCompression.MAX_LEVEL, artifactTransferCompressionLevel));
+        save();
+    }
+
+    public FormValidation doCheckArtifactTransferCompressionLevel(@QueryParameter String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return FormValidation.ok();
+        }
+
+        try {
+            int level = Integer.parseInt(value.trim());
+            if (level < TransferCompression.MIN_LEVEL || level > TransferCompression.MAX_LEVEL) {
+                return FormValidation.error(String.format("Compression level must be between %d and %d.",
+                        TransferCompression.MIN_LEVEL, TransferCompression.MAX_LEVEL));
+            }
+            return FormValidation.ok();
+        } catch (NumberFormatException ex) {
+            return FormValidation.error("Compression level must be a number.");
+        }
+    }
+
+    // HashRecordingMode
+
+    public HashRecordingMode getHashRecordingMode() {
+        // configurations saved by older versions do not contain this field
+        return hashRecordingMode == null ? HashRecordingMode.SIDECAR_FILE : hashRecordingMode;
+    }
+
+    @DataBoundSetter
+    public void setHashRecordingMode(HashRecordingMode hashRecordingMode) {
+        this.hashRecordingMode = hashRecordingMode;
+        save();
+    }
+
+    // ArtifactHashCacheSize
+
+    public int getArtifactHashCacheSize() {
+        return artifactHashCacheSize;
+    }
+
+    @DataBoundSetter
+    public void setArtifactHashCacheSize(int artifactHashCacheSize) {
+        this.artifactHashCacheSize = artifactHashCacheSize;
+        save();
+    }
+
+    public FormValidation doCheckArtifactHashCacheSize(@QueryParameter String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return FormValidation.ok();
+        }
+
+        try {
+            if (Integer.parseInt(value.trim()) < 0) {
+                return FormValidation.error("Artifact hash cache size must not be negative.");
+            }
+            return FormValidation.ok();
+        } catch (NumberFormatException ex) {
+            return FormValidation.error("Artifact hash cache size must be a number.");
+        }
+    }
+
+    // AsynchronousWaitForCompletion
+
+    public boolean getAsynchronousWaitForCompletion() {
+        return asynchronousWaitForCompletion;
+    }
+
+    @DataBoundSetter
+    public void setAsynchronousWaitForCompletion(boolean asynchronousWaitForCompletion) {
+        this.asynchronousWaitForCompletion = asynchronousWaitForCompletion;
+        save();
+    }
+
+    // StatusPollingQueueDepth
+
+    public int getStatusPollingQueueDepth() {
+        return SigningRequestPollingService.get().getQueueDepth();
+    }
+
+    // MaxConcurrentTransfers
+
+    public int getMaxConcurrentTransfers() {
+        // configurations saved by older versions do not contain this field
+        return maxConcurrentTransfers <= 0 ? SigningRequestPollingService.DEFAULT_MAX_CONCURRENT_TRANSFERS : maxConcurrentTransfers;
+    }
+
+    @DataBoundSetter
+    public void setMaxConcurrentTransfers(int maxConcurrentTransfers) {
+        this.maxConcurrentTransfers = maxConcurrentTransfers;
+        SigningRequestPollingService.get().setMaxConcurrentTransfers(getMaxConcurrentTransfers());
+        save();
+    }
+
+    public FormValidation doCheckMaxConcurrentTransfers(@QueryParameter String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return FormValidation.ok();
+        }
+
+        try {
+            if (Integer.parseInt(value.trim()) < 1) {
+                return FormValidation.error("At least one transfer must be allowed.");
+            }
+            return FormValidation.ok();
+        } catch (NumberFormatException ex) {
+            return FormValidation.error("Max. concurrent transfers must be a number.");
+        }
+    }
+
+    public String getTransferStatistics() {
+        SigningRequestPollingService pollingService = SigningRequestPollingService.get();
+        return String.format("%d running, %d queued", pollingService.getActiveTransferCount(), pollingService.getQueuedTransferCount());
+    }
+
+    // SignedArtifactCacheSize
+
+    public int getSignedArtifactCacheSizeInMegabytes() {
+        return signedArtifactCacheSizeInMegabytes;
+    }
+
+    @DataBoundSetter
+    public void setSignedArtifactCacheSizeInMegabytes(int signedArtifactCacheSizeInMegabytes) {
+        this.signedArtifactCacheSizeInMegabytes = signedArtifactCacheSizeInMegabytes;
+        SignedArtifactCache.get().setMaxSizeInMegabytes(signedArtifactCacheSizeInMegabytes);
+        save();
+    }
+
+    public FormValidation doCheckSignedArtifactCacheSizeInMegabytes(@QueryParameter String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return FormValidation.ok();
+        }
+
+        try {
+            if (Integer.parseInt(value.trim()) < 0) {
+                return FormValidation.error("Cache size must not be negative.");
+            }
+            return FormValidation.ok();
+        } catch (NumberFormatException ex) {
+            return FormValidation.error("Cache size must be a number.");
+        }
+    }
+
+    public String getSignedArtifactCacheStatistics() {
+        SignedArtifactCache cache = SignedArtifactCache.get();
+        return String.format("%d artifacts (%d MB), %d hits, %d misses",
+                cache.getEntryCount(), cache.getSizeInBytes() / (1024 * 1024), cache.getHitCount(), cache.getMissCount());
+    }
+
+    // DeduplicateArchivedArtifacts
+
+    public boolean getDeduplicateArchivedArtifacts() {
+        return deduplicateArchivedArtifacts;
+    }
+
+    @DataBoundSetter
+    public void setDeduplicateArchivedArtifacts(boolean deduplicateArchivedArtifacts) {
+        this.deduplicateArchivedArtifacts = deduplicateArchivedArtifacts;
+        SignedArtifactBlobStore.get().setEnabled(deduplicateArchivedArtifacts);
+        save();
+    }
+
+    // ApiClientImplementation
+
+    public ApiClientImplementation getApiClientImplementation() {
+        // configurations saved by older versions do not contain this field
+        return apiClientImplementation == null ? ApiClientImplementation.SIGNPATH_CLIENT : apiClientImplementation;
+    }
+
+    @DataBoundSetter
+    public void setApiClientImplementation(ApiClientImplementation apiClientImplementation) {
+        this.apiClientImplementation = apiClientImplementation;
+        save();
+    }
+
+    // CompletionCallbackCredential
+
+    public String getCompletionCallbackCredentialId() {
+        return completionCallbackCredentialId;
+    }
+
+    @DataBoundSetter
+    public void setCompletionCallbackCredentialId(String completionCallbackCredentialId) {
+        this.completionCallbackCredentialId = completionCallbackCredentialId;
+        SigningRequestPollingService.get().setCompletionCallbacksEnabled(isCompletionCallbackEnabled());
+        save();
+    }
+
+    public FormValidation doCheckCompletionCallbackCredentialId(@QueryParameter String value) {
+        // same requirements as the trusted build system token: a secret text in SYSTEM scope
+        return doCheckTrustedBuildSystemCredentialId(value);
+    }
+
+    private boolean isCompletionCallbackEnabled() {
+        return completionCallbackCredentialId != null && !completionCallbackCredentialId.trim().isEmpty();
+    }
+
+    // ApiRateLimiter
+
+    public int getMaxSubmitCallsPerMinute() {
+        return maxSubmitCallsPerMinute;
+    }
+
+    @DataBoundSetter
+    public void setMaxSubmitCallsPerMinute(int maxSubmitCallsPerMinute) {
+        this.maxSubmitCallsPerMinute = maxSubmitCallsPerMinute;
+        ApiRateLimiter.get().setMaxCallsPerMinute(ApiRateLimiter.CallType.SUBMIT, maxSubmitCallsPerMinute);
+        save();
+    }
+
+    public FormValidation doCheckMaxSubmitCallsPerMinute(@QueryParameter String value) {
+        return checkMaxCallsPerMinute(value);
+    }
+
+    public int getMaxStatusCallsPerMinute() {
+        return maxStatusCallsPerMinute;
+    }
+
+    @DataBoundSetter
+    public void setMaxStatusCallsPerMinute(int maxStatusCallsPerMinute) {
+        this.maxStatusCallsPerMinute = maxStatusCallsPerMinute;
+        ApiRateLimiter.get().setMaxCallsPerMinute(ApiRateLimiter.CallType.STATUS, maxStatusCallsPerMinute);
+        save();
+    }
+
+    public FormValidation doCheckMaxStatusCallsPerMinute(@QueryParameter String value) {
+        return checkMaxCallsPerMinute(value);
+    }
+
+    public int getMaxTransferCallsPerMinute() {
+        return maxTransferCallsPerMinute;
+    }
+
+    @DataBoundSetter
+    public void setMaxTransferCallsPerMinute(int maxTransferCallsPerMinute) {
+        this.maxTransferCallsPerMinute = maxTransferCallsPerMinute;
+        ApiRateLimiter.get().setMaxCallsPerMinute(ApiRateLimiter.CallType.TRANSFER, maxTransferCallsPerMinute);
+        save();
+    }
+
+    public FormValidation doCheckMaxTransferCallsPerMinute(@QueryParameter String value) {
+        return checkMaxCallsPerMinute(value);
+    }
+
+    public String getApiRateLimiterStatistics() {
+        ApiRateLimiter rateLimiter = ApiRateLimiter.get();
+        StringBuilder statistics = new StringBuilder();
+        for (ApiRateLimiter.CallType callType : ApiRateLimiter.CallType.values()) {
+            if (statistics.length() > 0) {
+                statistics.append("; ");
+            }
+            statistics.append(String.format("%s: %d waiting, next call in %d ms", callType.getDisplayName(),
+                    rateLimiter.getQueueLength(callType), rateLimiter.getWaitTimeMillis(callType)));
+        }
+        return statistics.toString();
+    }
+
+    private static FormValidation checkMaxCallsPerMinute(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return FormValidation.ok();
+        }
+
+        try {
+            if (Integer.parseInt(value.trim()) < 0) {
+                return FormValidation.error("Calls per minute must not be negative.");
+            }
+            return FormValidation.ok();
+        } catch (NumberFormatException ex) {
+            return FormValidation.error("Calls per minute must be a number.");
+        }
+    }
+
+    // ApiCircuitBreaker
+
+    public int getCircuitBreakerFailureRateThresholdPercent() {
+        return circuitBreakerFailureRateThresholdPercent;
+    }
+
+    @DataBoundSetter
+    public void setCircuitBreakerFailureRateThresholdPercent(int circuitBreakerFailureRateThresholdPercent) {
+        this.circuitBreakerFailureRateThresholdPercent = circuitBreakerFailureRateThresholdPercent;
+        ApiCircuitBreaker.get().setFailureRateThresholdPercent(circuitBreakerFailureRateThresholdPercent);
+        save();
+    }
+
+    public FormValidation doCheckCircuitBreakerFailureRateThresholdPercent(@QueryParameter String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return FormValidation.ok();
+        }
+
+        try {
+            int percent = Integer.parseInt(value.trim());
+            if (percent < 0 || percent > 100) {
+                return FormValidation.error("Failure rate must be between 0 and 100 percent.");
+            }
+            return FormValidation.ok();
+        } catch (NumberFormatException ex) {
+            return FormValidation.error("Failure rate must be a number.");
+        }
+    }
+
+    public int getCircuitBreakerOpenDurationInSeconds() {
+        // configurations saved by older versions do not contain this field
+        return circuitBreakerOpenDurationInSeconds <= 0 ? ApiCircuitBreaker.DEFAULT_OPEN_DURATION_IN_SECONDS : circuitBreakerOpenDurationInSeconds;
+    }
+
+    @DataBoundSetter
+    public void setCircuitBreakerOpenDurationInSeconds(int circuitBreakerOpenDurationInSeconds) {
+        this.circuitBreakerOpenDurationInSeconds = circuitBreakerOpenDurationInSeconds;
+        ApiCircuitBreaker.get().setOpenDurationInSeconds(getCircuitBreakerOpenDurationInSeconds());
+        save();
+    }
+
+    public FormValidation doCheckCircuitBreakerOpenDurationInSeconds(@QueryParameter String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return FormValidation.ok();
+        }
+
+        try {
+            if (Integer.parseInt(value.trim()) < 1) {
+                return FormValidation.error("Open duration must be at least 1 second.");
+            }
+            return FormValidation.ok();
+        } catch (NumberFormatException ex) {
+            return FormValidation.error("Open duration must be a number.");
+        }
+    }
+
+    public String getApiCircuitBreakerStatistics() {
+        ApiCircuitBreaker circuitBreaker = ApiCircuitBreaker.get();
+        return String.format("%s, %d%% of the recent calls failed, opened %d times, %d calls refused",
+                circuitBreaker.getState().getDisplayName(), circuitBreaker.getFailureRatePercent(),
+                circuitBreaker.getTripCount(), circuitBreaker.getRefusedCount());
+    }
+
+    // SignPathClientPool
+
+    public String getSignPathClientPoolStatistics() {
+        SignPathClientPool pool = SignPathClientPool.get();
+        return String.format("%d clients (%d in use), %d created, %d reused, %d evicted; %d responses read completely, %d connections closed",
+                pool.getClientCount(), pool.getLeaseCount(), pool.getCreatedCount(), pool.getReusedCount(), pool.getEvictedCount(),
+                pool.getFullyReadResponseCount(), pool.getClosedConnectionCount());
+    }
+
     protected boolean isValidUUID(String input) {
         try {
             UUID.fromString(input);
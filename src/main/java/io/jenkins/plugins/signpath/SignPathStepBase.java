@@ -31,6 +31,14 @@ public abstract class SignPathStepBase extends Step {
     private int uploadAndDownloadRequestTimeoutInSeconds = (int) TimeUnit.MINUTES.toSeconds(5);
     private int waitForCompletionTimeoutInSeconds = (int) TimeUnit.MINUTES.toSeconds(10);
     private int waitBetweenReadinessChecksInSeconds = (int) TimeUnit.SECONDS.toSeconds(5);
+    // status checks start fast and back off up to this interval, 0 checks every waitBetweenReadinessChecksInSeconds
+    private int maxWaitBetweenReadinessChecksInSeconds = (int) TimeUnit.MINUTES.toSeconds(1);
+    // a failed upload is repeated as a whole, as the upload link does not support resuming
+    private int uploadRetryCount = 2;
+    // an interrupted download is resumed where it stopped (HTTP range request)
+    private int downloadRetryCount = 3;
+    // the wait before the first retry of an upload or download, it grows with every further retry
+    private int waitBetweenTransferRetriesInSeconds = 2;
 
     private String apiUrl;
     private String trustedBuildSystemTokenCredentialId;
@@ -78,6 +86,22 @@ public abstract class SignPathStepBase extends Step {
         return waitBetweenReadinessChecksInSeconds;
     }
 
+    public int getMaxWaitBetweenReadinessChecksInSeconds() {
+        return maxWaitBetweenReadinessChecksInSeconds;
+    }
+
+    public int getUploadRetryCount() {
+        return uploadRetryCount;
+    }
+
+    public int getDownloadRetryCount() {
+        return downloadRetryCount;
+    }
+
+    public int getWaitBetweenTransferRetriesInSeconds() {
+        return waitBetweenTransferRetriesInSeconds;
+    }
+
     @DataBoundSetter
     public void setApiUrl(String apiUrl) {
         this.apiUrl = apiUrl;
@@ -108,13 +132,37 @@ public abstract class SignPathStepBase extends Step {
         this.waitForCompletionTimeoutInSeconds = waitForCompletionTimeoutInSeconds;
     }
 
+    @DataBoundSetter
+    public void setMaxWaitBetweenReadinessChecksInSeconds(int maxWaitBetweenReadinessChecksInSeconds) {
+        this.maxWaitBetweenReadinessChecksInSeconds = maxWaitBetweenReadinessChecksInSeconds;
+    }
+
+    @DataBoundSetter
+    public void setUploadRetryCount(int uploadRetryCount) {
+        this.uploadRetryCount = uploadRetryCount;
+    }
+
+    @DataBoundSetter
+    public void setDownloadRetryCount(int downloadRetryCount) {
+        this.downloadRetryCount = downloadRetryCount;
+    }
+
+    @DataBoundSetter
+    public void setWaitBetweenTransferRetriesInSeconds(int waitBetweenTransferRetriesInSeconds) {
+        this.waitBetweenTransferRetriesInSeconds = waitBetweenTransferRetriesInSeconds;
+    }
+
     public ApiConfiguration getAndValidateApiConfiguration() throws SignPathStepInvalidArgumentException {
         return new ApiConfiguration(
                 ensureValidURL(getApiUrlWithGlobal()),
                 getServiceUnavailableTimeoutInSeconds(),
                 getUploadAndDownloadRequestTimeoutInSeconds(),
                 getWaitForCompletionTimeoutInSeconds(),
-                getWaitBetweenReadinessChecksInSeconds());
+                getWaitBetweenReadinessChecksInSeconds(),
+                getUploadRetryCount(),
+                getDownloadRetryCount(),
+                getMaxWaitBetweenReadinessChecksInSeconds(),
+                getWaitBetweenTransferRetriesInSeconds());
     }
 
     protected UUID ensureValidUUID(String input, String name) throws SignPathStepInvalidArgumentException {
@@ -125,6 +173,17 @@ public abstract class SignPathStepBase extends Step {
         }
     }
 
+    /**
+     * The signed artifact can be archived, stored in the workspace or both, but it has to go somewhere
+     */
+    protected void ensureSignedArtifactOutput(String outputArtifactPath, String outputWorkspacePath) throws SignPathStepInvalidArgumentException {
+        if (outputArtifactPath == null && outputWorkspacePath == null)
+            throw new SignPathStepInvalidArgumentException("outputArtifactPath or outputWorkspacePath must be set");
+
+        if (outputWorkspacePath != null && outputWorkspacePath.contains(".."))
+            throw new SignPathStepInvalidArgumentException("outputWorkspacePath cannot be in parent directory");
+    }
+
     protected String ensureNotNull(String input, String name) throws SignPathStepInvalidArgumentException {
         if (input == null)
             throw new SignPathStepInvalidArgumentException(name + " must be set");
@@ -0,0 +1,89 @@
+package io.jenkins.plugins.signpath;
+
+import hudson.FilePath;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactFileManager;
+import io.jenkins.plugins.signpath.Exceptions.ArtifactNotFoundException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Puts the signed artifact of a completed signing request where the step asked for it:
+ * into the workspace of the current node (downloaded on that node) and / or into the archived artifacts of the build
+ * It is shared by all steps that download signed artifacts; a single instance can be used by multiple threads concurrently
+ */
+public class SignedArtifactStore {
+    private final SignPathFacade signPathFacade;
+    private final ArtifactFileManager artifactFileManager;
+    private final PrintStream logger;
+
+    public SignedArtifactStore(SignPathFacade signPathFacade, ArtifactFileManager artifactFileManager, PrintStream logger) {
+        this.signPathFacade = signPathFacade;
+        this.artifactFileManager = artifactFileManager;
+        this.logger = logger;
+    }
+
+    /**
+     * @param organizationId      the organization ID where the signing request resides
+     * @param signingRequestId    the ID of a completed signing request
+     * @param workspace           the workspace of the step, only used if outputWorkspacePath is set
+     * @param outputWorkspacePath the target path relative to the workspace or null to not store it in the workspace
+     * @param outputArtifactPath  the target path of the archived artifact or null to not archive it
+     * @throws SignPathFacadeCallException occurs if the download is rejected
+     * @throws ArtifactNotFoundException   occurs if the workspace is not available
+     * @throws IOException                 occurs if the download fails or the artifact cannot be stored
+     * @throws InterruptedException        occurs if a remote call to the agent is interrupted
+     * @throws NoSuchAlgorithmException    occurs if the fingerprint of the archived artifact cannot be computed
+     */
+    public void store(UUID organizationId, UUID signingRequestId, FilePath workspace, String outputWorkspacePath, String outputArtifactPath)
+            throws SignPathFacadeCallException, ArtifactNotFoundException, IOException, InterruptedException, NoSuchAlgorithmException {
+        if (outputWorkspacePath == null) {
+            try (InputStream signedArtifact = signPathFacade.downloadSignedArtifact(organizationId, signingRequestId)) {
+                archive(signedArtifact, outputArtifactPath);
+            }
+            return;
+        }
+
+        if (workspace == null) {
+            throw new ArtifactNotFoundException("Could not obtain workspace from step context.");
+        }
+
+        FilePath targetFilePath = workspace.child(outputWorkspacePath);
+        signPathFacade.downloadSignedArtifact(organizationId, signingRequestId, targetFilePath);
+        logger.println("Signed artifact downloaded to workspace: " + outputWorkspacePath);
+
+        if (outputArtifactPath != null) {
+            // archiving is optional in this mode, if requested the bytes cross the wire once (agent to controller)
+            try (InputStream signedArtifact = targetFilePath.read()) {
+                archive(signedArtifact, outputArtifactPath);
+            }
+        }
+    }
+
+    /**
+     * @param directory    the output directory (of the workspace or the archived artifacts) or null
+     * @param relativePath the path of the artifact within that directory
+     * @return the path of the artifact or null if no directory is given
+     */
+    public static String resolvePath(String directory, String relativePath) {
+        if (directory == null) {
+            return null;
+        }
+
+        String normalizedDirectory = directory.replace('\\', '/');
+        return normalizedDirectory.isEmpty() || normalizedDirectory.endsWith("/")
+                ? normalizedDirectory + relativePath
+                : normalizedDirectory + "/" + relativePath;
+    }
+
+    private void archive(InputStream signedArtifact, String outputArtifactPath) throws IOException, InterruptedException, NoSuchAlgorithmException {
+        // streamed straight into the archive without a lock, so concurrent downloads overlap
+        // (the artifact file manager serializes whatever is not safe to do concurrently)
+        artifactFileManager.storeArtifact(signedArtifact, outputArtifactPath);
+    }
+}
@@ -0,0 +1,169 @@
+package io.jenkins.plugins.signpath;
+
+import hudson.Extension;
+import hudson.model.UnprotectedRootAction;
+import hudson.security.csrf.CrumbExclusion;
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.SigningRequestPollingService;
+import io.jenkins.plugins.signpath.Exceptions.SecretNotFoundException;
+import io.jenkins.plugins.signpath.SecretRetrieval.CredentialBasedSecretRetriever;
+import jenkins.model.GlobalConfiguration;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+import org.apache.commons.codec.binary.Hex;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Receives notifications about completed signing requests, so waiting steps continue right away instead of at
+ * the next status check
+ * SignPath (or a relay) posts {"organizationId": "...", "signingRequestId": "..."} to JENKINS_URL/signpath-webhook/
+ * with the header X-SignPath-Signature: sha256=HEX, where HEX is the HMAC-SHA256 of the body keyed with the secret
+ * text of the configured completion callback credential.
+ * A notification only triggers a status check (see {@link SigningRequestPollingService#notifyCompleted(UUID, UUID)}),
+ * it cannot complete a wait by itself. The signature keeps others from causing status checks at will.
+ */
+@Extension
+public class SigningRequestCompletedWebhook implements UnprotectedRootAction {
+    private static final Logger LOGGER = Logger.getLogger(SigningRequestCompletedWebhook.class.getName());
+
+    public static final String URL_NAME = "signpath-webhook";
+    static final String SIGNATURE_HEADER = "X-SignPath-Signature";
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    // a notification only contains two IDs
+    static final int MAX_PAYLOAD_SIZE = 4096;
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    @RequirePOST
+    public HttpResponse doIndex(StaplerRequest request) throws IOException {
+        SignPathPluginGlobalConfiguration config = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        String credentialId = config == null ? null : config.getCompletionCallbackCredentialId();
+        if (credentialId == null || credentialId.trim().isEmpty()) {
+            return HttpResponses.notFound();
+        }
+
+        Secret secret;
+        try {
+            // SYSTEM scope only, like the trusted build system token
+            secret = new CredentialBasedSecretRetriever(Jenkins.get()).retrieveSecret(credentialId);
+        } catch (SecretNotFoundException ex) {
+            LOGGER.log(Level.WARNING, "Rejected a signing request completion callback: {0}", ex.getMessage());
+            return HttpResponses.notFound();
+        }
+
+        byte[] payload;
+        try (InputStream body = request.getInputStream()) {
+            payload = body.readNBytes(MAX_PAYLOAD_SIZE + 1);
+        }
+        return HttpResponses.status(handle(secret, payload, request.getHeader(SIGNATURE_HEADER)));
+    }
+
+    /**
+     * @param secret    the shared secret of the callbacks
+     * @param payload   the request body
+     * @param signature the value of the signature header, null if there was none
+     * @return the HTTP status code of the response
+     */
+    int handle(Secret secret, byte[] payload, String signature) {
+        if (payload.length > MAX_PAYLOAD_SIZE) {
+            return HttpURLConnection.HTTP_ENTITY_TOO_LARGE;
+        }
+        if (!isValidSignature(secret, payload, signature)) {
+            LOGGER.log(Level.WARNING, "Rejected a signing request completion callback with a missing or invalid signature");
+            return HttpURLConnection.HTTP_FORBIDDEN;
+        }
+
+        UUID organizationId;
+        UUID signingRequestId;
+        try {
+            JSONObject json = JSONObject.fromObject(new String(payload, StandardCharsets.UTF_8));
+            organizationId = UUID.fromString(json.getString("organizationId"));
+            signingRequestId = UUID.fromString(json.getString("signingRequestId"));
+        } catch (JSONException | IllegalArgumentException ex) {
+            return HttpURLConnection.HTTP_BAD_REQUEST;
+        }
+
+        boolean waiting = SigningRequestPollingService.get().notifyCompleted(organizationId, signingRequestId);
+        LOGGER.log(Level.FINE, "Signing request {0} completed, {1}", new Object[]{signingRequestId,
+                waiting ? "checking its status now" : "no build is waiting for it"});
+        return HttpURLConnection.HTTP_ACCEPTED;
+    }
+
+    /**
+     * @param secret  the shared secret of the callbacks
+     * @param payload the request body
+     * @return the value of the signature header for the payload
+     */
+    static String sign(Secret secret, byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getPlainText().getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return SIGNATURE_PREFIX + Hex.encodeHexString(mac.doFinal(payload));
+        } catch (GeneralSecurityException ex) {
+            // HmacSHA256 is available on every Java platform
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static boolean isValidSignature(Secret secret, byte[] payload, String signature) {
+        if (signature == null || secret.getPlainText().isEmpty()) {
+            return false;
+        }
+
+        // constant-time comparison, so the signature cannot be guessed byte by byte
+        return MessageDigest.isEqual(
+                sign(secret, payload).getBytes(StandardCharsets.UTF_8),
+                signature.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The callbacks come from outside of Jenkins, so they cannot carry a crumb
+     */
+    @Extension
+    public static class WebhookCrumbExclusion extends CrumbExclusion {
+        @Override
+        public boolean process(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+            String pathInfo = request.getPathInfo();
+            if (pathInfo != null && (pathInfo.equals("/" + URL_NAME) || pathInfo.startsWith("/" + URL_NAME + "/"))) {
+                chain.doFilter(request, response);
+                return true;
+            }
+            return false;
+        }
+    }
+}
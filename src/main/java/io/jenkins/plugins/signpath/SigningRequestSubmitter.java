@@ -0,0 +1,199 @@
+package io.jenkins.plugins.signpath;
+
+import hudson.FilePath;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestOriginModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithArtifactRetrievalLinkModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithoutArtifactModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithArtifactRetrievalLinkResult;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithoutArtifactResult;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactFileManager;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactTransferMode;
+import io.jenkins.plugins.signpath.Artifacts.CompressedArtifactTransfer;
+import io.jenkins.plugins.signpath.Artifacts.HashRecordingMode;
+import io.jenkins.plugins.signpath.Artifacts.SigningManifest;
+import io.jenkins.plugins.signpath.Exceptions.ArtifactNotFoundException;
+import io.jenkins.plugins.signpath.Exceptions.OriginNotRetrievableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.jenkins.plugins.signpath.OriginRetrieval.OriginRetriever;
+import org.apache.commons.codec.DecoderException;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.FilenameUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Submits a single, already hashed artifact to SignPath: records the hash, submits the signing request,
+ * uploads the artifact and (optionally) waits for and stores the signed artifact
+ * It is shared by the single and the bulk submit steps; a single instance can be used by multiple threads concurrently
+ *
+ * @see SubmitSigningRequestStepExecution
+ * @see SubmitSigningRequestsStepExecution
+ */
+public class SigningRequestSubmitter {
+    private final SignPathFacade signPathFacade;
+    private final OriginRetriever originRetriever;
+    private final ArtifactFileManager artifactFileManager;
+    private final PrintStream logger;
+
+    public SigningRequestSubmitter(SignPathFacade signPathFacade,
+                                   OriginRetriever originRetriever,
+                                   ArtifactFileManager artifactFileManager,
+                                   PrintStream logger) {
+        this.signPathFacade = signPathFacade;
+        this.originRetriever = originRetriever;
+        this.artifactFileManager = artifactFileManager;
+        this.logger = logger;
+    }
+
+    /**
+     * @param input     the input for this artifact
+     * @param workspace the workspace that contains the artifact (and receives the signed artifact, if requested)
+     * @param sha256Hex the SHA-256 hex hash of the artifact
+     * @return the ID of the submitted signing request
+     * @throws OriginNotRetrievableException occurs if the origin (repository / build) data cannot be determined
+     * @throws SignPathFacadeCallException   occurs if a SignPath API call fails
+     * @throws ArtifactNotFoundException     occurs if the workspace is not available for the signed artifact
+     * @throws IOException                   occurs if the artifact cannot be read or archived
+     * @throws InterruptedException          occurs if a remote call to the agent is interrupted
+     * @throws NoSuchAlgorithmException      occurs if the fingerprint of an archived artifact cannot be computed
+     * @throws DecoderException              occurs if the given hash is not a valid hex string
+     */
+    public UUID submit(SubmitSigningRequestStepInput input, FilePath workspace, String sha256Hex)
+            throws OriginNotRetrievableException, SignPathFacadeCallException, ArtifactNotFoundException, IOException,
+            InterruptedException, NoSuchAlgorithmException, DecoderException {
+        UUID signingRequestId = submitWithoutWaiting(input, workspace.child(input.getInputArtifactPath()), sha256Hex);
+
+        if (input.getWaitForCompletion()) {
+            signPathFacade.waitForCompletion(input.getOrganizationId(), signingRequestId);
+            new SignedArtifactStore(signPathFacade, artifactFileManager, logger).store(
+                    input.getOrganizationId(), signingRequestId, workspace, input.getOutputWorkspacePath(), input.getOutputArtifactPath());
+            logger.println("Signing step succeeded");
+        }
+
+        return signingRequestId;
+    }
+
+    /**
+     * Same as {@link #submit(SubmitSigningRequestStepInput, FilePath, String)} but always returns as soon as the
+     * artifact has been handed over to SignPath, regardless of {@link SubmitSigningRequestStepInput#getWaitForCompletion()}
+     *
+     * @param input            the input for this artifact
+     * @param artifactFilePath the artifact in the workspace
+     * @param sha256Hex        the SHA-256 hex hash of the artifact
+     * @return the ID of the submitted signing request
+     * @throws OriginNotRetrievableException occurs if the origin (repository / build) data cannot be determined
+     * @throws SignPathFacadeCallException   occurs if a SignPath API call fails
+     * @throws IOException                   occurs if the artifact cannot be read or archived
+     * @throws InterruptedException          occurs if a remote call to the agent is interrupted
+     * @throws NoSuchAlgorithmException      occurs if the fingerprint of an archived artifact cannot be computed
+     * @throws DecoderException              occurs if the given hash is not a valid hex string
+     */
+    public UUID submitWithoutWaiting(SubmitSigningRequestStepInput input, FilePath artifactFilePath, String sha256Hex)
+            throws OriginNotRetrievableException, SignPathFacadeCallException, IOException, InterruptedException,
+            NoSuchAlgorithmException, DecoderException {
+        recordHash(input, sha256Hex);
+
+        // Submit signing request and optionally wait for completion
+        try (SigningRequestOriginModel originModel = originRetriever.retrieveOrigin()) {
+            String fileName = FilenameUtils.getName(input.getInputArtifactPath());
+            UUID signingRequestId;
+            String webLink;
+
+            if (input.hasArtifactRetrievalUrl()) {
+                // Retrieval link path: SignPath downloads the artifact from the provided URL
+                logger.printf("Submitting signing request with artifact retrieval URL '%s'...%n", input.getInputArtifactRetrievalUrl());
+                SigningRequestWithArtifactRetrievalLinkModel model = new SigningRequestWithArtifactRetrievalLinkModel(
+                        input.getOrganizationId(),
+                        fileName,
+                        sha256Hex,
+                        input.getProjectSlug(),
+                        input.getArtifactConfigurationSlug(),
+                        input.getSigningPolicySlug(),
+                        input.getDescription(),
+                        originModel,
+                        input.getParameters(),
+                        input.getInputArtifactRetrievalUrl(),
+                        input.getInputArtifactRetrievalHttpHeaders());
+
+                SubmitSigningRequestWithArtifactRetrievalLinkResult submitResult = signPathFacade.submitSigningRequestWithArtifactRetrievalLink(model);
+                signingRequestId = submitResult.getSigningRequestId();
+                webLink = submitResult.getWebLink();
+            } else {
+                // Direct upload path: artifact is uploaded from the agent to SignPath
+                SigningRequestWithoutArtifactModel model = new SigningRequestWithoutArtifactModel(
+                        input.getOrganizationId(),
+                        fileName,
+                        sha256Hex,
+                        input.getProjectSlug(),
+                        input.getArtifactConfigurationSlug(),
+                        input.getSigningPolicySlug(),
+                        input.getDescription(),
+                        originModel,
+                        input.getParameters());
+
+                SubmitSigningRequestWithoutArtifactResult submitResult = signPathFacade.submitSigningRequestWithoutArtifact(model);
+                signingRequestId = submitResult.getSigningRequestId();
+                webLink = submitResult.getWebLink();
+
+                // Upload the artifact to SignPath
+                if (input.getArtifactTransferMode() == ArtifactTransferMode.AGENT) {
+                    logger.printf("Uploading artifact '%s' to SignPath directly from the agent...%n", input.getInputArtifactPath());
+                    signPathFacade.uploadUnsignedArtifact(submitResult.getUploadLink(), artifactFilePath);
+                } else if (input.getArtifactTransferMode() == ArtifactTransferMode.COMPRESSED_CONTROLLER && artifactFilePath.isRemote()) {
+                    logger.printf("Uploading artifact '%s' to SignPath (compressed between agent and controller)...%n", input.getInputArtifactPath());
+                    CompressedArtifactTransfer transfer = new CompressedArtifactTransfer(
+                            artifactFilePath,
+                            input.getArtifactTransferCompression(),
+                            input.getArtifactTransferCompressionLevel());
+                    signPathFacade.uploadUnsignedArtifact(submitResult.getUploadLink(), transfer, artifactFilePath.length());
+                    if (transfer.getLastTransferSummary() != null) {
+                        logger.println(transfer.getLastTransferSummary());
+                    }
+                } else {
+                    // artifacts on the controller itself are never compressed, there is no remoting channel involved
+                    logger.printf("Uploading artifact '%s' to SignPath...%n", input.getInputArtifactPath());
+                    // the content is streamed from the workspace into the request, without a temporary copy on the controller
+                    signPathFacade.uploadUnsignedArtifact(submitResult.getUploadLink(), artifactFilePath::read, artifactFilePath.length());
+                }
+            }
+
+            if (webLink != null && !webLink.isEmpty()) {
+                logger.printf("Signing request URL: %s%n", webLink);
+            } else {
+                logger.println("WARNING: Signing request URL was not provided by the server.");
+            }
+
+            return signingRequestId;
+        }
+    }
+
+    private void recordHash(SubmitSigningRequestStepInput input, String sha256Hex)
+            throws IOException, InterruptedException, NoSuchAlgorithmException, DecoderException {
+        if (input.getHashRecordingMode() == HashRecordingMode.MANIFEST) {
+            // a single line instead of a whole archive operation, the manifest is archived when the build completes
+            artifactFileManager.appendToHashManifest(input.getInputArtifactPath(), sha256Hex);
+            logger.printf("SHA-256 hash added to %s: %s%n", SigningManifest.ARTIFACT_PATH, input.getInputArtifactPath());
+            return;
+        }
+
+        // Archive the .sha256 file (base64-encoded hash) to the Jenkins server
+        byte[] sha256Bytes = Hex.decodeHex(sha256Hex);
+        String sha256Base64 = Base64.getEncoder().encodeToString(sha256Bytes);
+        String sha256ArtifactPath = input.getInputArtifactPath() + ".sha256";
+        storeArtifact(new ByteArrayInputStream(sha256Base64.getBytes(StandardCharsets.UTF_8)), sha256ArtifactPath);
+        logger.println("SHA-256 hash file archived: " + sha256ArtifactPath);
+    }
+
+    private void storeArtifact(InputStream artifact, String targetArtifactPath) throws IOException, InterruptedException, NoSuchAlgorithmException {
+        // safe to call concurrently, the artifact file manager serializes archiving into the same build where needed
+        artifactFileManager.storeArtifact(artifact, targetArtifactPath);
+    }
+}
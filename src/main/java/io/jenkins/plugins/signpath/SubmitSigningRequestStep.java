@@ -24,6 +24,9 @@ import java.util.Set;
  * Represents the submitSigningRequestStep step that is executable via pipeline-script
  * Encapsulates both the sync and async version of the step
  * -&gt; thus the waitForCompletion param is used to toggle between the two modes
+ * Waiting only survives a controller restart if the global "wait for signing requests asynchronously" option
+ * ({@link SignPathPluginGlobalConfiguration#getAsynchronousWaitForCompletion()}) is enabled, which it is not by
+ * default; otherwise the waiting build holds a thread and fails when the controller restarts.
  * For a how-to use example see *EndToEnd tests
  */
 public class SubmitSigningRequestStep extends SignPathStepBase {
@@ -38,6 +41,7 @@ public class SubmitSigningRequestStep extends SignPathStepBase {
     private String description;
     private boolean waitForCompletion = false;
     private String outputArtifactPath;
+    private String outputWorkspacePath;
     private Map<String, String> parameters;
     private String inputArtifactRetrievalUrl;
     private Map<String, String> inputArtifactRetrievalHttpHeaders;
@@ -50,7 +54,11 @@ public class SubmitSigningRequestStep extends SignPathStepBase {
     @Override
     public StepExecution start(StepContext context) throws IOException, InterruptedException, SignPathStepInvalidArgumentException {
         boolean waitForCompletion = getWaitForCompletion();
-        String outputArtifactPath = waitForCompletion ? ensureNotNull(getOutputArtifactPath(), "outputArtifactPath") : null;
+        String outputArtifactPath = waitForCompletion ? getOutputArtifactPath() : null;
+        String outputWorkspacePath = waitForCompletion ? getOutputWorkspacePath() : null;
+        if (waitForCompletion) {
+            ensureSignedArtifactOutput(outputArtifactPath, outputWorkspacePath);
+        }
 
         if (getInputArtifactRetrievalHttpHeaders() != null && !getInputArtifactRetrievalHttpHeaders().isEmpty()
                 && (getInputArtifactRetrievalUrl() == null || getInputArtifactRetrievalUrl().isEmpty())) {
@@ -67,16 +75,26 @@ public class SubmitSigningRequestStep extends SignPathStepBase {
                 ensureNotNull(getInputArtifactPath(), "inputArtifactPath"),
                 getDescription(),
                 outputArtifactPath,
+                outputWorkspacePath,
                 getParameters(),
                 waitForCompletion,
                 getInputArtifactRetrievalUrl(),
-                getInputArtifactRetrievalHttpHeaders());
+                getInputArtifactRetrievalHttpHeaders(),
+                getSignPathConfig().getArtifactTransferMode(),
+                getSignPathConfig().getArtifactHashCacheSize(),
+                getSignPathConfig().getArtifactTransferCompression(),
+                getSignPathConfig().getArtifactTransferCompressionLevel(),
+                getSignPathConfig().getHashRecordingMode());
 
         ApiConfiguration apiConfiguration = getAndValidateApiConfiguration();
         SignPathContainer container = SignPathContainer.build(context, apiConfiguration);
 
         CheckDeprecatedParametersUsage(container);
 
+        if (waitForCompletion && getSignPathConfig().getAsynchronousWaitForCompletion()) {
+            return new AsyncSubmitSigningRequestStepExecution(input, apiConfiguration, container);
+        }
+
         return new SubmitSigningRequestStepExecution(input,
                 container.getSecretRetriever(),
                 container.getOriginRetriever(),
@@ -149,6 +167,10 @@ public class SubmitSigningRequestStep extends SignPathStepBase {
     public String getOutputArtifactPath() {
         return outputArtifactPath;
     }
+
+    public String getOutputWorkspacePath() {
+        return outputWorkspacePath;
+    }
     
     public Map<String, String> getParameters () {
         return parameters;
@@ -201,6 +223,11 @@ public class SubmitSigningRequestStep extends SignPathStepBase {
     public void setOutputArtifactPath(String outputArtifactPath) {
         this.outputArtifactPath = outputArtifactPath;
     }
+
+    @DataBoundSetter
+    public void setOutputWorkspacePath(String outputWorkspacePath) {
+        this.outputWorkspacePath = outputWorkspacePath;
+    }
     
     @DataBoundSetter
     public void setParameters (Map<String, String> parameters) {
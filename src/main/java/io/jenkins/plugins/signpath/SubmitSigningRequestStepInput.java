@@ -1,5 +1,9 @@
 package io.jenkins.plugins.signpath;
 
+import io.jenkins.plugins.signpath.Artifacts.ArtifactTransferMode;
+import io.jenkins.plugins.signpath.Artifacts.HashRecordingMode;
+import io.jenkins.plugins.signpath.Artifacts.TransferCompression;
+
 import java.io.Serializable;
 import java.util.Map;
 import java.util.UUID;
@@ -21,10 +25,16 @@ public class SubmitSigningRequestStepInput implements Serializable {
     private final String inputArtifactPath;
     private final String description;
     private final String outputArtifactPath;
+    private final String outputWorkspacePath;
     private final boolean waitForCompletion;
     private final Map<String, String> parameters;
     private final String inputArtifactRetrievalUrl;
     private final Map<String, String> inputArtifactRetrievalHttpHeaders;
+    private final ArtifactTransferMode artifactTransferMode;
+    private final int artifactHashCacheSize;
+    private final TransferCompression artifactTransferCompression;
+    private final int artifactTransferCompressionLevel;
+    private final HashRecordingMode hashRecordingMode;
 
     public SubmitSigningRequestStepInput(UUID organizationId,
                                          String trustedBuildSystemTokenCredentialId,
@@ -35,10 +45,16 @@ public class SubmitSigningRequestStepInput implements Serializable {
                                          String inputArtifactPath,
                                          String description,
                                          String outputArtifactPath,
+                                         String outputWorkspacePath,
                                          Map<String, String> parameters,
                                          boolean waitForCompletion,
                                          String inputArtifactRetrievalUrl,
-                                         Map<String, String> inputArtifactRetrievalHttpHeaders) {
+                                         Map<String, String> inputArtifactRetrievalHttpHeaders,
+                                         ArtifactTransferMode artifactTransferMode,
+                                         int artifactHashCacheSize,
+                                         TransferCompression artifactTransferCompression,
+                                         int artifactTransferCompressionLevel,
+                                         HashRecordingMode hashRecordingMode) {
         this.organizationId = organizationId;
         this.trustedBuildSystemTokenCredentialId = trustedBuildSystemTokenCredentialId;
         this.apiTokenCredentialId = apiTokenCredentialId;
@@ -48,10 +64,16 @@ public class SubmitSigningRequestStepInput implements Serializable {
         this.inputArtifactPath = inputArtifactPath;
         this.description = description;
         this.outputArtifactPath = outputArtifactPath;
+        this.outputWorkspacePath = outputWorkspacePath;
         this.parameters = parameters;
         this.waitForCompletion = waitForCompletion;
         this.inputArtifactRetrievalUrl = inputArtifactRetrievalUrl;
         this.inputArtifactRetrievalHttpHeaders = inputArtifactRetrievalHttpHeaders;
+        this.artifactTransferMode = artifactTransferMode;
+        this.artifactHashCacheSize = artifactHashCacheSize;
+        this.artifactTransferCompression = artifactTransferCompression;
+        this.artifactTransferCompressionLevel = artifactTransferCompressionLevel;
+        this.hashRecordingMode = hashRecordingMode;
     }
 
     public UUID getOrganizationId() {
@@ -93,6 +115,10 @@ public class SubmitSigningRequestStepInput implements Serializable {
     public String getOutputArtifactPath() {
         return outputArtifactPath;
     }
+
+    public String getOutputWorkspacePath() {
+        return outputWorkspacePath;
+    }
     
     public Map<String, String> getParameters() {
         return parameters;
@@ -106,7 +132,58 @@ public class SubmitSigningRequestStepInput implements Serializable {
         return inputArtifactRetrievalHttpHeaders;
     }
 
+    public ArtifactTransferMode getArtifactTransferMode() {
+        return artifactTransferMode;
+    }
+
+    public int getArtifactHashCacheSize() {
+        return artifactHashCacheSize;
+    }
+
+    public TransferCompression getArtifactTransferCompression() {
+        return artifactTransferCompression;
+    }
+
+    public int getArtifactTransferCompressionLevel() {
+        return artifactTransferCompressionLevel;
+    }
+
+    public HashRecordingMode getHashRecordingMode() {
+        // inputs persisted by older versions do not contain this field
+        return hashRecordingMode == null ? HashRecordingMode.SIDECAR_FILE : hashRecordingMode;
+    }
+
     public boolean hasArtifactRetrievalUrl() {
         return inputArtifactRetrievalUrl != null && !inputArtifactRetrievalUrl.isEmpty();
     }
+
+    /**
+     * Creates a copy of this input for another artifact (used by the bulk step, which shares all other settings)
+     *
+     * @param inputArtifactPath  the artifact path relative to the workspace
+     * @param outputArtifactPath the path of the signed artifact, only used when waiting for completion
+     * @return the input for the given artifact (the signed artifact is only archived, not stored in the workspace)
+     */
+    public SubmitSigningRequestStepInput forArtifact(String inputArtifactPath, String outputArtifactPath) {
+        return new SubmitSigningRequestStepInput(
+                organizationId,
+                trustedBuildSystemTokenCredentialId,
+                apiTokenCredentialId,
+                projectSlug,
+                artifactConfigurationSlug,
+                signingPolicySlug,
+                inputArtifactPath,
+                description,
+                outputArtifactPath,
+                null,
+                parameters,
+                waitForCompletion,
+                inputArtifactRetrievalUrl,
+                inputArtifactRetrievalHttpHeaders,
+                artifactTransferMode,
+                artifactHashCacheSize,
+                artifactTransferCompression,
+                artifactTransferCompressionLevel,
+                hashRecordingMode);
+    }
 }
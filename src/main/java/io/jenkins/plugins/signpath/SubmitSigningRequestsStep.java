@@ -0,0 +1,235 @@
+package io.jenkins.plugins.signpath;
+
+import com.google.common.collect.ImmutableSet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.Exceptions.SignPathStepInvalidArgumentException;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents the submitSigningRequests step that is executable via pipeline-script
+ * It submits many artifacts (given as list and / or glob) at once: all artifacts are hashed in parallel on the agent,
+ * then up to maxConcurrentSubmissions signing requests are submitted and uploaded concurrently
+ * The step returns a map from artifact path to signing request ID
+ * For a how-to use example see *EndToEnd tests
+ */
+public class SubmitSigningRequestsStep extends SignPathStepBase {
+    private final static String FunctionName = "submitSigningRequests";
+    private final static String DisplayName = "Submit SignPath Signing Requests for multiple artifacts";
+
+    private String organizationId;
+    private String projectSlug;
+    private String artifactConfigurationSlug;
+    private String signingPolicySlug;
+    private List<String> inputArtifactPaths;
+    private String inputArtifactGlob;
+    private String description;
+    private boolean waitForCompletion = false;
+    private String outputArtifactDirectory;
+    private Map<String, String> parameters;
+    private int maxConcurrentSubmissions = 4;
+
+    @DataBoundConstructor
+    public SubmitSigningRequestsStep() {
+        super();
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws IOException, InterruptedException, SignPathStepInvalidArgumentException {
+        boolean waitForCompletion = getWaitForCompletion();
+        String outputArtifactDirectory = waitForCompletion ? ensureNotNull(getOutputArtifactDirectory(), "outputArtifactDirectory") : null;
+
+        boolean hasPaths = getInputArtifactPaths() != null && !getInputArtifactPaths().isEmpty();
+        boolean hasGlob = getInputArtifactGlob() != null && !getInputArtifactGlob().isEmpty();
+        if (!hasPaths && !hasGlob) {
+            throw new SignPathStepInvalidArgumentException("inputArtifactPaths or inputArtifactGlob must be set");
+        }
+
+        if (getMaxConcurrentSubmissions() < 1) {
+            throw new SignPathStepInvalidArgumentException("maxConcurrentSubmissions must be at least 1");
+        }
+
+        // the artifact specific values are filled in per artifact by the execution
+        SubmitSigningRequestStepInput input = new SubmitSigningRequestStepInput(
+                ensureValidUUID(getOrganizationIdWithGlobal(), "organizationId"),
+                ensureNotNull(getTrustedBuildSystemTokenCredentialIdWithGlobal(), "trustedBuildSystemTokenCredentialId"),
+                ensureNotNull(getApiTokenCredentialId(), "apiTokenCredentialId"),
+                ensureNotNull(getProjectSlug(), "projectSlug"),
+                getArtifactConfigurationSlug(),
+                ensureNotNull(getSigningPolicySlug(), "signingPolicySlug"),
+                null,
+                getDescription(),
+                null,
+                null,
+                getParameters(),
+                waitForCompletion,
+                null,
+                null,
+                getSignPathConfig().getArtifactTransferMode(),
+                getSignPathConfig().getArtifactHashCacheSize(),
+                getSignPathConfig().getArtifactTransferCompression(),
+                getSignPathConfig().getArtifactTransferCompressionLevel(),
+                getSignPathConfig().getHashRecordingMode());
+
+        ApiConfiguration apiConfiguration = getAndValidateApiConfiguration();
+        SignPathContainer container = SignPathContainer.build(context, apiConfiguration);
+
+        return new SubmitSigningRequestsStepExecution(input,
+                getInputArtifactPaths(),
+                getInputArtifactGlob(),
+                outputArtifactDirectory,
+                getMaxConcurrentSubmissions(),
+                container.getSecretRetriever(),
+                container.getOriginRetriever(),
+                container.getArtifactFileManager(),
+                container.getSignPathFacadeFactory(),
+                container.getTaskListener(),
+                container.getStepContext());
+    }
+
+    @Override
+    public DescriptorImpl getDescriptor() {
+        return (DescriptorImpl) super.getDescriptor();
+    }
+
+    @Extension
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(FilePath.class, Run.class, Launcher.class, TaskListener.class, EnvVars.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return FunctionName;
+        }
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return DisplayName;
+        }
+    }
+
+    public String getOrganizationId() {
+        return organizationId;
+    }
+
+    public String getOrganizationIdWithGlobal() throws SignPathStepInvalidArgumentException {
+        return getWithGlobalConfig(
+            organizationId,
+            SignPathPluginGlobalConfiguration::getOrganizationId,
+            "organizationId", true);
+    }
+
+    public String getProjectSlug() {
+        return projectSlug;
+    }
+
+    public String getArtifactConfigurationSlug() {
+        return artifactConfigurationSlug;
+    }
+
+    public String getSigningPolicySlug() {
+        return signingPolicySlug;
+    }
+
+    public List<String> getInputArtifactPaths() {
+        return inputArtifactPaths;
+    }
+
+    public String getInputArtifactGlob() {
+        return inputArtifactGlob;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean getWaitForCompletion() {
+        return waitForCompletion;
+    }
+
+    public String getOutputArtifactDirectory() {
+        return outputArtifactDirectory;
+    }
+
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    public int getMaxConcurrentSubmissions() {
+        return maxConcurrentSubmissions;
+    }
+
+    @DataBoundSetter
+    public void setOrganizationId(String organizationId) {
+        this.organizationId = organizationId;
+    }
+
+    @DataBoundSetter
+    public void setProjectSlug(String projectSlug) {
+        this.projectSlug = projectSlug;
+    }
+
+    @DataBoundSetter
+    public void setArtifactConfigurationSlug(String artifactConfigurationSlug) {
+        this.artifactConfigurationSlug = artifactConfigurationSlug;
+    }
+
+    @DataBoundSetter
+    public void setSigningPolicySlug(String signingPolicySlug) {
+        this.signingPolicySlug = signingPolicySlug;
+    }
+
+    @DataBoundSetter
+    public void setInputArtifactPaths(List<String> inputArtifactPaths) {
+        this.inputArtifactPaths = inputArtifactPaths;
+    }
+
+    @DataBoundSetter
+    public void setInputArtifactGlob(String inputArtifactGlob) {
+        this.inputArtifactGlob = inputArtifactGlob;
+    }
+
+    @DataBoundSetter
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    @DataBoundSetter
+    public void setWaitForCompletion(boolean waitForCompletion) {
+        this.waitForCompletion = waitForCompletion;
+    }
+
+    @DataBoundSetter
+    public void setOutputArtifactDirectory(String outputArtifactDirectory) {
+        this.outputArtifactDirectory = outputArtifactDirectory;
+    }
+
+    @DataBoundSetter
+    public void setParameters(Map<String, String> parameters) {
+        this.parameters = parameters;
+    }
+
+    @DataBoundSetter
+    public void setMaxConcurrentSubmissions(int maxConcurrentSubmissions) {
+        this.maxConcurrentSubmissions = maxConcurrentSubmissions;
+    }
+}
@@ -0,0 +1,197 @@
+package io.jenkins.plugins.signpath;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacadeFactory;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactFileManager;
+import io.jenkins.plugins.signpath.Artifacts.ComputeArtifactHashCallable;
+import io.jenkins.plugins.signpath.Artifacts.ComputeArtifactHashesCallable;
+import io.jenkins.plugins.signpath.Exceptions.ArtifactNotFoundException;
+import io.jenkins.plugins.signpath.Exceptions.SecretNotFoundException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathStepFailedException;
+import io.jenkins.plugins.signpath.OriginRetrieval.OriginRetriever;
+import io.jenkins.plugins.signpath.SecretRetrieval.SecretRetriever;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.SynchronousNonBlockingStepExecution;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The step-execution for the
+ * @see SubmitSigningRequestsStep
+ */
+public class SubmitSigningRequestsStepExecution extends SynchronousNonBlockingStepExecution<Map<String, String>> {
+    // We do not support resuming execution and therefore can mark our fields as transient (=> not serialized)
+    private transient final SubmitSigningRequestStepInput input;
+    private transient final List<String> inputArtifactPaths;
+    private transient final String inputArtifactGlob;
+    private transient final String outputArtifactDirectory;
+    private transient final int maxConcurrentSubmissions;
+    private transient final SecretRetriever secretRetriever;
+    private transient final OriginRetriever originRetriever;
+    private transient final ArtifactFileManager artifactFileManager;
+    private transient final SignPathFacadeFactory signPathFacadeFactory;
+    private transient final TaskListener taskListener;
+
+    protected SubmitSigningRequestsStepExecution(SubmitSigningRequestStepInput input,
+                                                 List<String> inputArtifactPaths,
+                                                 String inputArtifactGlob,
+                                                 String outputArtifactDirectory,
+                                                 int maxConcurrentSubmissions,
+                                                 SecretRetriever secretRetriever,
+                                                 OriginRetriever originRetriever,
+                                                 ArtifactFileManager artifactFileManager,
+                                                 SignPathFacadeFactory signPathFacadeFactory,
+                                                 TaskListener taskListener,
+                                                 StepContext stepContext) {
+        super(stepContext);
+        this.input = input;
+        this.inputArtifactPaths = inputArtifactPaths;
+        this.inputArtifactGlob = inputArtifactGlob;
+        this.outputArtifactDirectory = outputArtifactDirectory;
+        this.maxConcurrentSubmissions = maxConcurrentSubmissions;
+        this.secretRetriever = secretRetriever;
+        this.originRetriever = originRetriever;
+        this.artifactFileManager = artifactFileManager;
+        this.signPathFacadeFactory = signPathFacadeFactory;
+        this.taskListener = taskListener;
+    }
+
+    @Override
+    protected Map<String, String> run() throws SignPathStepFailedException {
+        PrintStream logger = taskListener.getLogger();
+
+        try {
+            Secret trustedBuildSystemToken = secretRetriever.retrieveSecret(input.getTrustedBuildSystemTokenCredentialId());
+            Secret apiToken = secretRetriever.retrieveSecret(input.getApiTokenCredentialId(), new CredentialsScope[]{CredentialsScope.SYSTEM, CredentialsScope.GLOBAL});
+            SignPathFacade signPathFacade = signPathFacadeFactory.create(new SignPathCredentials(apiToken, trustedBuildSystemToken));
+
+            FilePath workspace = getContext().get(FilePath.class);
+            if (workspace == null) {
+                throw new ArtifactNotFoundException("Could not obtain workspace from step context.");
+            }
+
+            List<String> artifactPaths = resolveArtifactPaths(workspace);
+            logger.printf("Submitting %d signing requests for organization: %s (waiting for completion: %s, max. concurrent submissions: %d)%n",
+                    artifactPaths.size(), input.getOrganizationId(), input.getWaitForCompletion(), maxConcurrentSubmissions);
+
+            logger.println("Computing SHA-256 hashes of artifacts on agent...");
+            Map<String, String> hashes = workspace.act(new ComputeArtifactHashesCallable(artifactPaths, input.getArtifactHashCacheSize(),
+                    ComputeArtifactHashCallable.getHashCacheIndexFile(workspace)));
+
+            SigningRequestSubmitter submitter = new SigningRequestSubmitter(signPathFacade, originRetriever, artifactFileManager, logger);
+            return submitAll(submitter, workspace, artifactPaths, hashes);
+        } catch (SecretNotFoundException | ArtifactNotFoundException | IOException | InterruptedException ex) {
+            logger.printf("%nSigning step failed: %s%n", ex.getMessage());
+            throw new SignPathStepFailedException("Signing step failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    private Map<String, String> submitAll(SigningRequestSubmitter submitter,
+                                          FilePath workspace,
+                                          List<String> artifactPaths,
+                                          Map<String, String> hashes) throws InterruptedException, SignPathStepFailedException {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(maxConcurrentSubmissions, artifactPaths.size()),
+                new NamingThreadFactory(new DaemonThreadFactory(), "SignPath signing request submission"));
+
+        try {
+            Map<String, Future<UUID>> submissions = new LinkedHashMap<>();
+            for (String artifactPath : artifactPaths) {
+                SubmitSigningRequestStepInput artifactInput = input.forArtifact(artifactPath, SignedArtifactStore.resolvePath(outputArtifactDirectory, artifactPath));
+                String sha256Hex = hashes.get(artifactPath);
+                submissions.put(artifactPath, executor.submit(() -> submitter.submit(artifactInput, workspace, sha256Hex)));
+            }
+
+            // all submissions run to the end, so that the log shows every failed artifact and not just the first one
+            Map<String, String> signingRequestIds = new LinkedHashMap<>();
+            List<String> failures = new ArrayList<>();
+            Exception firstFailure = null;
+            try {
+                for (Map.Entry<String, Future<UUID>> submission : submissions.entrySet()) {
+                    try {
+                        signingRequestIds.put(submission.getKey(), submission.getValue().get().toString());
+                    } catch (ExecutionException ex) {
+                        Exception cause = ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+                        failures.add(String.format("'%s': %s", submission.getKey(), cause.getMessage()));
+                        if (firstFailure == null) {
+                            firstFailure = cause;
+                        }
+                    }
+                }
+            } finally {
+                // also if the step fails: these signing requests exist in SignPath, the log is the only place to find them
+                for (Map.Entry<String, String> signingRequest : signingRequestIds.entrySet()) {
+                    taskListener.getLogger().printf("%s -> %s%n", signingRequest.getKey(), signingRequest.getValue());
+                }
+            }
+
+            if (!failures.isEmpty()) {
+                String message = String.format("Signing failed for %d of %d artifacts: %s",
+                        failures.size(), artifactPaths.size(), String.join("; ", failures));
+                taskListener.getLogger().printf("%nSigning step failed: %s%n", message);
+                throw new SignPathStepFailedException("Signing step failed: " + message, firstFailure);
+            }
+
+            return signingRequestIds;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<String> resolveArtifactPaths(FilePath workspace) throws IOException, InterruptedException, ArtifactNotFoundException {
+        // sorted and without duplicates, so the order of submissions (and of the log) is stable
+        TreeSet<String> artifactPaths = new TreeSet<>();
+
+        if (inputArtifactPaths != null) {
+            for (String artifactPath : inputArtifactPaths) {
+                if (!workspace.child(artifactPath).exists()) {
+                    throw new ArtifactNotFoundException(String.format(
+                            "The artifact at path '%s' was not found in the workspace.", artifactPath));
+                }
+                artifactPaths.add(artifactPath);
+            }
+        }
+
+        if (inputArtifactGlob != null && !inputArtifactGlob.isEmpty()) {
+            for (FilePath match : workspace.list(inputArtifactGlob)) {
+                artifactPaths.add(getRelativePath(workspace, match));
+            }
+        }
+
+        if (artifactPaths.isEmpty()) {
+            throw new ArtifactNotFoundException(String.format(
+                    "No artifacts matched '%s' in the workspace.", inputArtifactGlob));
+        }
+
+        return new ArrayList<>(artifactPaths);
+    }
+
+    private static String getRelativePath(FilePath workspace, FilePath file) {
+        String root = workspace.getRemote();
+        String path = file.getRemote();
+        String relativePath = path.startsWith(root) ? path.substring(root.length()) : path;
+        relativePath = relativePath.replace('\\', '/');
+        while (relativePath.startsWith("/")) {
+            relativePath = relativePath.substring(1);
+        }
+        return relativePath;
+    }
+}
@@ -0,0 +1,149 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiCircuitBreaker.State;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ApiCircuitBreakerTest {
+    private final AtomicLong nanoTime = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+    private ApiCircuitBreaker sut;
+
+    @Before
+    public void setup() {
+        sut = new ApiCircuitBreaker(nanoTime::get);
+        sut.setFailureRateThresholdPercent(50);
+        sut.setOpenDurationInSeconds(30);
+    }
+
+    @Test
+    public void onFailure_disabled_neverOpens() {
+        sut.setFailureRateThresholdPercent(0);
+
+        // ACT
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sut.tryAcquirePermission());
+            sut.onFailure();
+        }
+
+        // ASSERT
+        assertFalse(sut.isEnabled());
+        assertEquals(State.CLOSED, sut.getState());
+    }
+
+    @Test
+    public void onFailure_belowMinimumCalls_staysClosed() {
+        // ACT
+        recordFailures(ApiCircuitBreaker.MINIMUM_CALLS - 1);
+
+        // ASSERT
+        assertEquals(State.CLOSED, sut.getState());
+        assertTrue(sut.tryAcquirePermission());
+    }
+
+    @Test
+    public void onFailure_thresholdReached_opensAndRefusesCalls() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(sut.tryAcquirePermission());
+            sut.onSuccess();
+        }
+        recordFailures(4);
+        assertEquals(State.CLOSED, sut.getState());
+
+        // ACT
+        recordFailures(1);
+
+        // ASSERT
+        assertEquals(State.OPEN, sut.getState());
+        assertTrue(sut.isOpen());
+        assertFalse(sut.tryAcquirePermission());
+        assertEquals(TimeUnit.SECONDS.toNanos(30), sut.getRemainingOpenNanos());
+        assertEquals(1, sut.getTripCount());
+        assertEquals(1, sut.getRefusedCount());
+    }
+
+    @Test
+    public void onIgnored_doesNotCountAsFailure() {
+        // ACT
+        for (int i = 0; i < 20; i++) {
+            assertTrue(sut.tryAcquirePermission());
+            sut.onIgnored();
+        }
+
+        // ASSERT
+        assertEquals(State.CLOSED, sut.getState());
+        assertEquals(0, sut.getFailureRatePercent());
+    }
+
+    @Test
+    public void tryAcquirePermission_afterOpenDuration_letsSingleProbeThrough() {
+        recordFailures(ApiCircuitBreaker.MINIMUM_CALLS);
+
+        // ACT
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        boolean probe = sut.tryAcquirePermission();
+        boolean secondCall = sut.tryAcquirePermission();
+
+        // ASSERT
+        assertTrue(probe);
+        assertFalse(secondCall);
+        assertEquals(State.HALF_OPEN, sut.getState());
+        assertFalse(sut.isOpen());
+    }
+
+    @Test
+    public void tryAcquireTransferPermission_afterOpenDuration_refusesAndLeavesProbeToOtherCalls() {
+        recordFailures(ApiCircuitBreaker.MINIMUM_CALLS);
+
+        // ACT
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        boolean transfer = sut.tryAcquireTransferPermission();
+        boolean probe = sut.tryAcquirePermission();
+
+        // ASSERT
+        assertFalse(transfer);
+        assertTrue(probe);
+        assertEquals(State.HALF_OPEN, sut.getState());
+    }
+
+    @Test
+    public void onSuccess_probeSucceeds_closes() {
+        recordFailures(ApiCircuitBreaker.MINIMUM_CALLS);
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertTrue(sut.tryAcquirePermission());
+
+        // ACT
+        sut.onSuccess();
+
+        // ASSERT
+        assertEquals(State.CLOSED, sut.getState());
+        assertEquals(0, sut.getFailureRatePercent());
+        assertTrue(sut.tryAcquirePermission());
+    }
+
+    @Test
+    public void onFailure_probeFails_opensAgain() {
+        recordFailures(ApiCircuitBreaker.MINIMUM_CALLS);
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertTrue(sut.tryAcquirePermission());
+
+        // ACT
+        sut.onFailure();
+
+        // ASSERT
+        assertEquals(State.OPEN, sut.getState());
+        assertFalse(sut.tryAcquirePermission());
+        assertEquals(2, sut.getTripCount());
+    }
+
+    private void recordFailures(int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(sut.tryAcquirePermission());
+            sut.onFailure();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiRateLimiter.CallType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ApiRateLimiterTest {
+    private final AtomicLong nanoTime = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+    private ApiRateLimiter sut;
+
+    @Before
+    public void setup() {
+        sut = new ApiRateLimiter(nanoTime::get);
+    }
+
+    @Test
+    public void reserve_unlimited_neverWaits() {
+        // ACT & ASSERT
+        assertFalse(sut.isEnabled());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, sut.reserve(CallType.SUBMIT));
+        }
+    }
+
+    @Test
+    public void reserve_aboveBurst_queuesCallersInOrder() {
+        // 60 calls per minute => one per second, a burst of 10
+        sut.setMaxCallsPerMinute(CallType.SUBMIT, 60);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, sut.reserve(CallType.SUBMIT));
+        }
+
+        // ACT
+        long first = sut.reserve(CallType.SUBMIT);
+        long second = sut.reserve(CallType.SUBMIT);
+        long waitTimeMillis = sut.getWaitTimeMillis(CallType.SUBMIT);
+
+        // ASSERT
+        assertEquals(TimeUnit.SECONDS.toNanos(1), first);
+        assertEquals(TimeUnit.SECONDS.toNanos(2), second);
+        assertEquals(3000, waitTimeMillis);
+    }
+
+    @Test
+    public void reserve_afterIdle_refillsBucket() {
+        sut.setMaxCallsPerMinute(CallType.STATUS, 60);
+        for (int i = 0; i < 12; i++) {
+            sut.reserve(CallType.STATUS);
+        }
+
+        // ACT
+        nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        long waitNanos = sut.reserve(CallType.STATUS);
+
+        // ASSERT
+        assertEquals(0, waitNanos);
+        assertEquals(0, sut.getWaitTimeMillis(CallType.STATUS));
+    }
+
+    @Test
+    public void reserve_callTypes_areLimitedSeparately() {
+        sut.setMaxCallsPerMinute(CallType.TRANSFER, 6);
+        sut.reserve(CallType.TRANSFER);
+
+        // ACT
+        long transferWaitNanos = sut.reserve(CallType.TRANSFER);
+        long statusWaitNanos = sut.reserve(CallType.STATUS);
+
+        // ASSERT
+        assertTrue(sut.isEnabled());
+        assertEquals(TimeUnit.SECONDS.toNanos(10), transferWaitNanos);
+        assertEquals(0, statusWaitNanos);
+    }
+
+    @Test
+    public void acquire_belowLimit_doesNotQueue() throws InterruptedException {
+        sut.setMaxCallsPerMinute(CallType.SUBMIT, 60);
+
+        // ACT
+        sut.acquire(CallType.SUBMIT);
+
+        // ASSERT
+        assertEquals(0, sut.getQueueLength(CallType.SUBMIT));
+    }
+}
@@ -0,0 +1,82 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import hudson.FilePath;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class CachingSignPathFacadeTest {
+    private static final UUID ORGANIZATION_ID = UUID.randomUUID();
+    private static final String CREDENTIAL_IDENTITY = "0123456789abcdef";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SignPathFacade signPathFacade;
+    private SignedArtifactCache cache;
+    private CachingSignPathFacade sut;
+
+    @Before
+    public void setUp() {
+        signPathFacade = mock(SignPathFacade.class);
+        cache = new SignedArtifactCache(temporaryFolder.getRoot().toPath().resolve("cache"), 100);
+        sut = new CachingSignPathFacade(signPathFacade, cache, CREDENTIAL_IDENTITY);
+    }
+
+    @Test
+    public void downloadSignedArtifactToFilePath_notCached_downloadsOnAgentWithoutCaching() throws Exception {
+        UUID signingRequestId = UUID.randomUUID();
+        FilePath target = new FilePath(new File(temporaryFolder.getRoot(), "signed.exe"));
+
+        // ACT
+        sut.downloadSignedArtifact(ORGANIZATION_ID, signingRequestId, target);
+
+        // ASSERT
+        verify(signPathFacade).downloadSignedArtifact(ORGANIZATION_ID, signingRequestId, target);
+        verify(signPathFacade, never()).downloadSignedArtifact(any(UUID.class), any(UUID.class));
+        assertFalse(cache.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void downloadSignedArtifactToFilePath_cached_copiesFromCache() throws Exception {
+        UUID signingRequestId = UUID.randomUUID();
+        cache.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId,
+                new ByteArrayInputStream("signed".getBytes(StandardCharsets.UTF_8))).close();
+        File targetFile = new File(temporaryFolder.getRoot(), "signed.exe");
+        FilePath target = new FilePath(targetFile);
+
+        // ACT
+        sut.downloadSignedArtifact(ORGANIZATION_ID, signingRequestId, target);
+
+        // ASSERT
+        assertEquals("signed", new String(Files.readAllBytes(targetFile.toPath()), StandardCharsets.UTF_8));
+        verify(signPathFacade, never()).downloadSignedArtifact(eq(ORGANIZATION_ID), eq(signingRequestId), any(FilePath.class));
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void downloadSignedArtifact_notCached_storesInCache() throws Exception {
+        UUID signingRequestId = UUID.randomUUID();
+        when(signPathFacade.downloadSignedArtifact(ORGANIZATION_ID, signingRequestId))
+                .thenReturn(new ByteArrayInputStream("signed".getBytes(StandardCharsets.UTF_8)));
+
+        // ACT
+        sut.downloadSignedArtifact(ORGANIZATION_ID, signingRequestId).close();
+
+        // ASSERT
+        assertTrue(cache.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId));
+    }
+}
@@ -0,0 +1,245 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.JdkHttpClient.JdkHttpClientFacade;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.RepositoryMetadataModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestOriginModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithoutArtifactModel;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathClient.SignPathClientFacade;
+import io.jenkins.plugins.signpath.Common.TemporaryFile;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.jenkins.plugins.signpath.SignPathClientLogger;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+@RunWith(Theories.class)
+public class CircuitBreakingSignPathFacadeTest {
+    private static final UUID ORGANIZATION_ID = UUID.randomUUID();
+    private static final UUID SIGNING_REQUEST_ID = UUID.randomUUID();
+    private static final byte[] UNSIGNED_ARTIFACT = "unsigned".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The facades that call SignPath, the SignPath client is the default
+     */
+    public enum Backend {
+        SIGNPATH_CLIENT,
+        JDK_HTTP_CLIENT
+    }
+
+    @DataPoints
+    public static final Backend[] BACKENDS = Backend.values();
+
+    private final AtomicLong nanoTime = new AtomicLong(-TimeUnit.HOURS.toNanos(1));
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger statusRequestCount = new AtomicInteger();
+    // the stand-in for SignPath toggles between unavailable and healthy
+    private volatile boolean available;
+    private volatile boolean rejectUploads;
+
+    private HttpServer server;
+    private ApiConfiguration apiConfiguration;
+    private SignPathCredentials credentials;
+    private ApiCircuitBreaker circuitBreaker;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        apiConfiguration = new ApiConfiguration(
+                new URL(String.format("http://localhost:%d/", server.getAddress().getPort())), 0, 10, 10, 1, 0, 0, 0, 0);
+        credentials = new SignPathCredentials(Secret.fromString(Some.stringNonEmpty()), Secret.fromString(Some.stringNonEmpty()));
+        circuitBreaker = new ApiCircuitBreaker(nanoTime::get);
+        circuitBreaker.setFailureRateThresholdPercent(50);
+        circuitBreaker.setOpenDurationInSeconds(30);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Theory
+    public void downloadSignedArtifact_serviceUnavailable_failsFastOnceOpen(Backend backend) {
+        CircuitBreakingSignPathFacade sut = createSut(backend);
+        openBreaker(sut);
+
+        // ACT
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> sut.downloadSignedArtifact(ORGANIZATION_ID, SIGNING_REQUEST_ID));
+
+        // ASSERT
+        assertEquals(ApiCircuitBreaker.MINIMUM_CALLS, requestCount.get());
+        assertEquals(30, ex.getRetryAfterInSeconds());
+        assertTrue(ex.getMessage().contains("circuit breaker open"));
+    }
+
+    @Theory
+    public void downloadSignedArtifact_serviceRecovered_probesWithStatusQueryAndCloses(Backend backend) throws Exception {
+        CircuitBreakingSignPathFacade sut = createSut(backend);
+        openBreaker(sut);
+        available = true;
+        assertThrows(ServiceUnavailableException.class, () -> sut.downloadSignedArtifact(ORGANIZATION_ID, SIGNING_REQUEST_ID));
+
+        // ACT
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        String content;
+        try (InputStream signedArtifact = sut.downloadSignedArtifact(ORGANIZATION_ID, SIGNING_REQUEST_ID)) {
+            content = IOUtils.toString(signedArtifact, StandardCharsets.UTF_8);
+        }
+
+        // ASSERT
+        assertEquals("signed", content);
+        assertEquals(ApiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        // the probe is the status query, the download itself only follows once it succeeded
+        assertEquals(1, statusRequestCount.get());
+        assertEquals(ApiCircuitBreaker.MINIMUM_CALLS + 2, requestCount.get());
+    }
+
+    @Theory
+    public void downloadSignedArtifact_probeFails_opensAgainWithoutDownloading(Backend backend) {
+        CircuitBreakingSignPathFacade sut = createSut(backend);
+        openBreaker(sut);
+
+        // ACT
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThrows(IOException.class, () -> sut.downloadSignedArtifact(ORGANIZATION_ID, SIGNING_REQUEST_ID));
+
+        // ASSERT
+        assertEquals(ApiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(2, circuitBreaker.getTripCount());
+        assertEquals(1, statusRequestCount.get());
+        assertEquals(ApiCircuitBreaker.MINIMUM_CALLS + 1, requestCount.get());
+    }
+
+    @Theory
+    public void uploadUnsignedArtifact_halfOpen_isNotUsedAsProbe(Backend backend) {
+        CircuitBreakingSignPathFacade sut = createSut(backend);
+        openBreaker(sut);
+        available = true;
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // ACT
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> upload(sut));
+
+        // ASSERT
+        assertTrue(ex.getMessage().contains("circuit breaker half open"));
+        assertEquals(ApiCircuitBreaker.MINIMUM_CALLS, requestCount.get());
+        assertEquals(ApiCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Theory
+    public void uploadUnsignedArtifact_rejected_doesNotOpen(Backend backend) {
+        CircuitBreakingSignPathFacade sut = createSut(backend);
+        available = true;
+        rejectUploads = true;
+
+        // ACT
+        for (int i = 0; i < ApiCircuitBreaker.MINIMUM_CALLS; i++) {
+            assertThrows(IOException.class, () -> upload(sut));
+        }
+
+        // ASSERT
+        assertEquals(ApiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getFailureRatePercent());
+        assertEquals(ApiCircuitBreaker.MINIMUM_CALLS, requestCount.get());
+    }
+
+    @Theory
+    public void submitSigningRequestWithoutArtifact_serviceUnavailable_opensAndFailsFast(Backend backend) throws Exception {
+        CircuitBreakingSignPathFacade sut = createSut(backend);
+        try (TemporaryFile buildSettingsFile = new TemporaryFile()) {
+            buildSettingsFile.copyFrom(new ByteArrayInputStream("build settings".getBytes(StandardCharsets.UTF_8)));
+            SigningRequestWithoutArtifactModel submitModel = new SigningRequestWithoutArtifactModel(ORGANIZATION_ID, "unsigned.exe",
+                    Some.sha1Hash(), Some.stringNonEmpty(), null, Some.stringNonEmpty(), null,
+                    new SigningRequestOriginModel(new RepositoryMetadataModel("git", Some.url(), "main", Some.sha1Hash()), Some.url(), buildSettingsFile),
+                    Collections.emptyMap());
+            for (int i = 0; i < ApiCircuitBreaker.MINIMUM_CALLS; i++) {
+                assertThrows(SignPathFacadeCallException.class, () -> sut.submitSigningRequestWithoutArtifact(submitModel));
+            }
+
+            // ACT
+            SignPathFacadeCallException ex = assertThrows(SignPathFacadeCallException.class,
+                    () -> sut.submitSigningRequestWithoutArtifact(submitModel));
+
+            // ASSERT
+            assertEquals(ApiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+            assertEquals(ApiCircuitBreaker.MINIMUM_CALLS, requestCount.get());
+            assertTrue(ex.getMessage().contains("circuit breaker open"));
+        }
+    }
+
+    private CircuitBreakingSignPathFacade createSut(Backend backend) {
+        SignPathClientLogger logger = mock(SignPathClientLogger.class);
+        SignPathFacade signPathFacade = backend == Backend.SIGNPATH_CLIENT
+                ? new SignPathClientFacade(credentials, apiConfiguration, logger)
+                : new JdkHttpClientFacade(credentials, apiConfiguration, logger);
+        return new CircuitBreakingSignPathFacade(signPathFacade, circuitBreaker);
+    }
+
+    private void openBreaker(CircuitBreakingSignPathFacade sut) {
+        for (int i = 0; i < ApiCircuitBreaker.MINIMUM_CALLS; i++) {
+            assertThrows(IOException.class, () -> sut.downloadSignedArtifact(ORGANIZATION_ID, SIGNING_REQUEST_ID));
+        }
+        assertEquals(ApiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void upload(CircuitBreakingSignPathFacade sut) throws Exception {
+        String uploadLink = String.format("http://localhost:%d/upload", server.getAddress().getPort());
+        sut.uploadUnsignedArtifact(uploadLink, () -> new ByteArrayInputStream(UNSIGNED_ARTIFACT), UNSIGNED_ARTIFACT.length);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        IOUtils.toByteArray(exchange.getRequestBody());
+        boolean statusRequest = exchange.getRequestURI().getPath().endsWith("/Status");
+        if (statusRequest) {
+            statusRequestCount.incrementAndGet();
+        }
+
+        if (!available) {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        if (rejectUploads && exchange.getRequestURI().getPath().equals("/upload")) {
+            exchange.sendResponseHeaders(403, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = (statusRequest ? "{status: 'Completed', workflowStatus: 'Completed', isFinalStatus: true}" : "signed")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package io.jenkins.plugins.signpath.ApiIntegration.JdkHttpClient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.RepositoryMetadataModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestOriginModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestWithoutArtifactModel;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SubmitSigningRequestWithoutArtifactResult;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
+import io.jenkins.plugins.signpath.Common.TemporaryFile;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.jenkins.plugins.signpath.SignPathClientLogger;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class JdkHttpClientFacadeTest {
+    private static final UUID ORGANIZATION_ID = UUID.randomUUID();
+    private static final UUID SIGNING_REQUEST_ID = UUID.randomUUID();
+
+    private final List<RecordedRequest> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private JdkHttpClientFacade sut;
+
+    // configures the stand-in for SignPath, per test
+    private final AtomicInteger unavailableResponses = new AtomicInteger();
+    private final AtomicInteger droppedConnections = new AtomicInteger();
+    private volatile int statusCode = 200;
+    private volatile String responseBody = "";
+    private volatile String retryAfter;
+    private volatile String digest;
+
+    private String apiToken;
+    private String trustedBuildSystemToken;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        apiToken = Some.stringNonEmpty();
+        trustedBuildSystemToken = Some.stringNonEmpty();
+        ApiConfiguration apiConfiguration = new ApiConfiguration(
+                new URL(String.format("http://localhost:%d/", server.getAddress().getPort())), 10, 10, 10, 1, 0, 0, 0, 0);
+        SignPathCredentials credentials = new SignPathCredentials(Secret.fromString(apiToken), Secret.fromString(trustedBuildSystemToken));
+        sut = new JdkHttpClientFacade(HttpClient.newHttpClient(), credentials, apiConfiguration, mock(SignPathClientLogger.class), "agent");
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void getSigningRequestStatus_returnsParsedStatus() throws Exception {
+        responseBody = "{status: 'Completed', workflowStatus: 'Completed', isFinalStatus: true}";
+
+        // ACT
+        SigningRequestStatus status = sut.getSigningRequestStatus(ORGANIZATION_ID, SIGNING_REQUEST_ID);
+
+        // ASSERT
+        assertTrue(status.isCompleted());
+        assertEquals(1, requests.size());
+        assertEquals(String.format("/v1/%s/SigningRequests/%s/Status", ORGANIZATION_ID, SIGNING_REQUEST_ID), requests.get(0).path);
+        assertEquals("Bearer " + apiToken, requests.get(0).authorization);
+    }
+
+    @Test
+    public void getSigningRequestStatus_serviceUnavailable_failsWithoutRetry() {
+        unavailableResponses.set(1);
+
+        // ACT
+        assertThrows(IOException.class, () -> sut.getSigningRequestStatus(ORGANIZATION_ID, SIGNING_REQUEST_ID));
+
+        // ASSERT
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void getSigningRequestStatus_serviceUnavailableWithRetryAfter_reportsRetryAfter() {
+        unavailableResponses.set(1);
+        retryAfter = "120";
+
+        // ACT
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> sut.getSigningRequestStatus(ORGANIZATION_ID, SIGNING_REQUEST_ID));
+
+        // ASSERT
+        assertEquals(120, ex.getRetryAfterInSeconds());
+    }
+
+    @Test
+    public void downloadSignedArtifact_serviceUnavailableOnce_retriesAndStreamsContent() throws Exception {
+        unavailableResponses.set(1);
+        responseBody = "signed";
+
+        // ACT
+        String content;
+        try (InputStream signedArtifact = sut.downloadSignedArtifact(ORGANIZATION_ID, SIGNING_REQUEST_ID)) {
+            content = IOUtils.toString(signedArtifact, StandardCharsets.UTF_8);
+        }
+
+        // ASSERT
+        assertEquals("signed", content);
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void downloadSignedArtifact_digestMismatch_fails() {
+        responseBody = "signed";
+        digest = "sha-256=" + Base64.getEncoder().encodeToString(DigestUtils.sha256("something else"));
+
+        // ACT
+        IOException ex = assertThrows(IOException.class, () -> {
+            try (InputStream signedArtifact = sut.downloadSignedArtifact(ORGANIZATION_ID, SIGNING_REQUEST_ID)) {
+                IOUtils.toByteArray(signedArtifact);
+            }
+        });
+
+        // ASSERT
+        assertTrue(ex.getMessage(), ex.getMessage().contains("SHA-256 hash"));
+    }
+
+    @Test
+    public void downloadSignedArtifact_notFound_throwsSignPathFacadeCallException() {
+        statusCode = 404;
+
+        // ACT
+        assertThrows(SignPathFacadeCallException.class, () -> sut.downloadSignedArtifact(ORGANIZATION_ID, SIGNING_REQUEST_ID));
+
+        // ASSERT
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void submitSigningRequestWithoutArtifact_sendsMultipartForm() throws Exception {
+        String uploadLink = Some.url();
+        responseBody = String.format("{\"signingRequestId\": \"%s\", \"uploadLink\": \"%s\"}", SIGNING_REQUEST_ID, uploadLink);
+        statusCode = 201;
+        String projectSlug = Some.stringNonEmpty();
+        String signingPolicySlug = Some.stringNonEmpty();
+
+        SubmitSigningRequestWithoutArtifactResult result;
+        try (TemporaryFile buildSettingsFile = new TemporaryFile()) {
+            buildSettingsFile.copyFrom(new ByteArrayInputStream("build settings".getBytes(StandardCharsets.UTF_8)));
+            SigningRequestOriginModel origin = new SigningRequestOriginModel(
+                    new RepositoryMetadataModel("git", Some.url(), "main", Some.sha1Hash()), Some.url(), buildSettingsFile);
+            Map<String, String> parameters = Collections.singletonMap("version", "1.0");
+
+            // ACT
+            result = sut.submitSigningRequestWithoutArtifact(new SigningRequestWithoutArtifactModel(ORGANIZATION_ID, "unsigned.exe",
+                    Some.sha1Hash(), projectSlug, null, signingPolicySlug, null, origin, parameters));
+        }
+
+        // ASSERT
+        assertEquals(SIGNING_REQUEST_ID, result.getSigningRequestId());
+        assertEquals(uploadLink, result.getUploadLink());
+        RecordedRequest request = requests.get(0);
+        assertEquals(String.format("/v1/%s/SigningRequests/SubmitWithoutArtifact", ORGANIZATION_ID), request.path);
+        assertEquals("Bearer " + apiToken + ":" + trustedBuildSystemToken, request.authorization);
+        assertTrue(request.body.contains("name=\"unsignedArtifactMetadata.fileName\"\r\n\r\nunsigned.exe\r\n"));
+        assertTrue(request.body.contains("name=\"ProjectSlug\"\r\n\r\n" + projectSlug + "\r\n"));
+        assertTrue(request.body.contains("name=\"SigningPolicySlug\"\r\n\r\n" + signingPolicySlug + "\r\n"));
+        assertTrue(request.body.contains("name=\"Parameters.version\"\r\n\r\n1.0\r\n"));
+        assertTrue(request.body.contains("build settings"));
+        assertFalse(request.body.contains("ArtifactConfigurationSlug"));
+    }
+
+    @Test
+    public void submitSigningRequestWithoutArtifact_serviceUnavailableOnce_retries() throws Exception {
+        unavailableResponses.set(1);
+        responseBody = String.format("{\"signingRequestId\": \"%s\", \"uploadLink\": \"%s\"}", SIGNING_REQUEST_ID, Some.url());
+        statusCode = 201;
+
+        // ACT
+        SubmitSigningRequestWithoutArtifactResult result = submitSigningRequestWithoutArtifact();
+
+        // ASSERT
+        assertEquals(SIGNING_REQUEST_ID, result.getSigningRequestId());
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void submitSigningRequestWithoutArtifact_connectionDroppedAfterSending_failsWithoutRetry() {
+        // SignPath may have created the signing request already, repeating the submit could create a second one
+        droppedConnections.set(1);
+        responseBody = String.format("{\"signingRequestId\": \"%s\", \"uploadLink\": \"%s\"}", SIGNING_REQUEST_ID, Some.url());
+        statusCode = 201;
+
+        // ACT
+        SignPathFacadeCallException ex = assertThrows(SignPathFacadeCallException.class, this::submitSigningRequestWithoutArtifact);
+
+        // ASSERT
+        assertTrue(ex.getCause() instanceof IOException);
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void isNotConnected_connectFailures_returnsTrue() {
+        assertTrue(JdkHttpClientFacade.isNotConnected(new ConnectException("Connection refused")));
+        assertTrue(JdkHttpClientFacade.isNotConnected(new IOException(new HttpConnectTimeoutException("HTTP connect timed out"))));
+        assertFalse(JdkHttpClientFacade.isNotConnected(new HttpTimeoutException("request timed out")));
+        assertFalse(JdkHttpClientFacade.isNotConnected(new IOException("Connection reset")));
+    }
+
+    private SubmitSigningRequestWithoutArtifactResult submitSigningRequestWithoutArtifact() throws Exception {
+        try (TemporaryFile buildSettingsFile = new TemporaryFile()) {
+            SigningRequestOriginModel origin = new SigningRequestOriginModel(
+                    new RepositoryMetadataModel("git", Some.url(), "main", Some.sha1Hash()), Some.url(), buildSettingsFile);
+            return sut.submitSigningRequestWithoutArtifact(new SigningRequestWithoutArtifactModel(ORGANIZATION_ID, "unsigned.exe",
+                    Some.sha1Hash(), Some.stringNonEmpty(), null, Some.stringNonEmpty(), null, origin, Collections.emptyMap()));
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            requests.add(new RecordedRequest(exchange.getRequestURI().getPath(),
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    IOUtils.toString(requestBody, StandardCharsets.UTF_8)));
+        }
+
+        if (droppedConnections.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+            // the request was received, but the connection is closed without a response
+            exchange.close();
+            return;
+        }
+
+        if (unavailableResponses.getAndUpdate(remaining -> Math.max(0, remaining - 1)) > 0) {
+            if (retryAfter != null) {
+                exchange.getResponseHeaders().add("Retry-After", retryAfter);
+            }
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+
+        if (digest != null) {
+            exchange.getResponseHeaders().add("Digest", digest);
+        }
+        byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(statusCode, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static final class RecordedRequest {
+        private final String path;
+        private final String authorization;
+        private final String body;
+
+        private RecordedRequest(String path, String authorization, String body) {
+            this.path = path;
+            this.authorization = authorization;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ReadinessCheckPolicyTest {
+
+    @Test
+    public void getIntervalNanos_backsOffUpToMaxWait() throws MalformedURLException {
+        ReadinessCheckPolicy sut = new ReadinessCheckPolicy(apiConfiguration(5, 8));
+
+        // ACT & ASSERT
+        assertInterval(1, sut.getIntervalNanos(1, 0));
+        assertInterval(2, sut.getIntervalNanos(2, 0));
+        assertInterval(4, sut.getIntervalNanos(3, 0));
+        assertInterval(8, sut.getIntervalNanos(4, 0));
+        assertInterval(8, sut.getIntervalNanos(100, 0));
+    }
+
+    @Test
+    public void getIntervalNanos_noMaxWait_usesFixedInterval() throws MalformedURLException {
+        ReadinessCheckPolicy sut = new ReadinessCheckPolicy(apiConfiguration(5, 0));
+
+        // ACT & ASSERT
+        assertInterval(5, sut.getIntervalNanos(1, 0));
+        assertInterval(5, sut.getIntervalNanos(10, 0));
+        assertEquals("every 5 seconds", sut.getDescription());
+    }
+
+    @Test
+    public void getIntervalNanos_completionCallbacks_backsOffToFallbackInterval() throws MalformedURLException {
+        ReadinessCheckPolicy sut = new ReadinessCheckPolicy(apiConfiguration(5, 8), true);
+
+        // ACT & ASSERT
+        assertInterval(1, sut.getIntervalNanos(1, 0));
+        assertInterval(16, sut.getIntervalNanos(5, 0));
+        assertInterval(ReadinessCheckPolicy.CALLBACK_FALLBACK_INTERVAL_SECONDS, sut.getIntervalNanos(100, 0));
+    }
+
+    @Test
+    public void getIntervalNanos_retryAfter_isNeverUndercut() throws MalformedURLException {
+        ReadinessCheckPolicy sut = new ReadinessCheckPolicy(apiConfiguration(5, 8));
+
+        // ACT
+        long intervalNanos = sut.getIntervalNanos(1, 30);
+
+        // ASSERT
+        assertEquals(TimeUnit.SECONDS.toNanos(30), intervalNanos);
+    }
+
+    @Test
+    public void getFirstDelayNanos_isWithinFirstInterval() throws MalformedURLException {
+        ReadinessCheckPolicy sut = new ReadinessCheckPolicy(apiConfiguration(5, 8));
+
+        // ACT
+        long delayNanos = sut.getFirstDelayNanos();
+
+        // ASSERT
+        assertTrue(delayNanos >= 0);
+        assertTrue(delayNanos < TimeUnit.MILLISECONDS.toNanos(ReadinessCheckPolicy.INITIAL_INTERVAL_MILLIS));
+    }
+
+    @Test
+    public void parseRetryAfterInSeconds() {
+        String inOneMinute = ZonedDateTime.now(ZoneOffset.UTC).plusMinutes(1).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+        String oneMinuteAgo = ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(1).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+
+        // ACT & ASSERT
+        assertEquals(120, ReadinessCheckPolicy.parseRetryAfterInSeconds("120"));
+        assertEquals(120, ReadinessCheckPolicy.parseRetryAfterInSeconds(" 120 "));
+        long untilDate = ReadinessCheckPolicy.parseRetryAfterInSeconds(inOneMinute);
+        assertTrue("Retry-After date should be about a minute away, but was " + untilDate, untilDate >= 58 && untilDate <= 60);
+        assertEquals(0, ReadinessCheckPolicy.parseRetryAfterInSeconds(oneMinuteAgo));
+        assertEquals(0, ReadinessCheckPolicy.parseRetryAfterInSeconds("-5"));
+        assertEquals(0, ReadinessCheckPolicy.parseRetryAfterInSeconds("soon"));
+        assertEquals(0, ReadinessCheckPolicy.parseRetryAfterInSeconds(null));
+    }
+
+    private static void assertInterval(long expectedSeconds, long actualNanos) {
+        long expectedNanos = TimeUnit.SECONDS.toNanos(expectedSeconds);
+        assertTrue(String.format("Interval should be about %d seconds, but was %d ns.", expectedSeconds, actualNanos),
+                actualNanos >= expectedNanos * 0.8 && actualNanos <= expectedNanos * 1.2);
+    }
+
+    private static ApiConfiguration apiConfiguration(int waitBetweenReadinessChecksInSeconds, int maxWaitBetweenReadinessChecksInSeconds) throws MalformedURLException {
+        return new ApiConfiguration(new URL(Some.url()), 10, 10, 10, waitBetweenReadinessChecksInSeconds, 0, 0, maxWaitBetweenReadinessChecksInSeconds, 0);
+    }
+}
@@ -0,0 +1,153 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.Exceptions.ServiceUnavailableException;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import io.signpath.signpathclient.SignPathClientException;
+import io.signpath.signpathclient.SignPathClientSimpleLogger;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class RetryingArtifactUploadTest {
+    private static final byte[] ARTIFACT = {1, 2, 3, 4};
+
+    private final SignPathClientSimpleLogger logger = mock(SignPathClientSimpleLogger.class);
+
+    // the stand-in for the SignPath upload link answers with these status codes in order, then with 200
+    private final Queue<Integer> uploadStatusCodes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger uploads = new AtomicInteger();
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handleUpload);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void run_connectionFailsOnce_retries() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+
+        // ACT
+        RetryingArtifactUpload.run(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException("Connection reset");
+            }
+        }, apiConfiguration(2), logger);
+
+        // ASSERT
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void run_rejectedBySignPath_failsWithoutRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+        SignPathFacadeCallException rejected = new SignPathFacadeCallException("Uploading the artifact failed with status code 403.");
+
+        // ACT
+        IOException ex = assertThrows(IOException.class, () -> RetryingArtifactUpload.run(() -> {
+            attempts.incrementAndGet();
+            throw new IOException(rejected.getMessage(), rejected);
+        }, apiConfiguration(2), logger));
+
+        // ASSERT
+        assertSame(rejected, ex.getCause());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void run_streamingUploadRejected_failsWithoutRetry() throws Exception {
+        uploadStatusCodes.add(403);
+
+        // ACT
+        IOException ex = assertThrows(IOException.class, () -> streamingUpload(apiConfiguration(2)));
+
+        // ASSERT
+        assertTrue(ex.getCause() instanceof SignPathFacadeCallException);
+        assertEquals(1, uploads.get());
+    }
+
+    @Test
+    public void run_streamingUploadUnavailableOnce_retries() throws Exception {
+        uploadStatusCodes.add(503);
+
+        // ACT
+        streamingUpload(apiConfiguration(2));
+
+        // ASSERT
+        assertEquals(2, uploads.get());
+    }
+
+    @Test
+    public void run_clientFailureWithoutIOError_failsWithoutRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        // ACT
+        assertThrows(SignPathClientException.class, () -> RetryingArtifactUpload.run(() -> {
+            attempts.incrementAndGet();
+            throw new SignPathClientException("Unauthorized");
+        }, apiConfiguration(2), logger));
+
+        // ASSERT
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void isRetryable_classifiesFailures() {
+        SignPathClientException clientIOFailure = new SignPathClientException("Upload failed");
+        clientIOFailure.initCause(new IOException("Broken pipe"));
+
+        assertTrue(RetryingArtifactUpload.isRetryable(new IOException("Connection reset")));
+        assertTrue(RetryingArtifactUpload.isRetryable(new SocketTimeoutException("Read timed out")));
+        assertTrue(RetryingArtifactUpload.isRetryable(new ServiceUnavailableException("503", 0)));
+        assertFalse(RetryingArtifactUpload.isRetryable(new IOException("403", new SignPathFacadeCallException("403"))));
+        assertTrue(RetryingArtifactUpload.isRetryable(clientIOFailure));
+        assertFalse(RetryingArtifactUpload.isRetryable(new InterruptedIOException()));
+        assertFalse(RetryingArtifactUpload.isRetryable(new SignPathClientException("Forbidden")));
+    }
+
+    private void streamingUpload(ApiConfiguration apiConfiguration) throws Exception {
+        StreamingArtifactUpload upload = new StreamingArtifactUpload(apiConfiguration, "agent");
+        String uploadLink = String.format("http://localhost:%d/upload", server.getAddress().getPort());
+        RetryingArtifactUpload.run(
+                () -> upload.upload(Some.stringNonEmpty(), uploadLink, new ByteArrayInputStream(ARTIFACT), ARTIFACT.length),
+                apiConfiguration, logger);
+    }
+
+    private void handleUpload(HttpExchange exchange) throws IOException {
+        uploads.incrementAndGet();
+        IOUtils.toByteArray(exchange.getRequestBody());
+        Integer statusCode = uploadStatusCodes.poll();
+        exchange.sendResponseHeaders(statusCode == null ? 200 : statusCode, -1);
+        exchange.close();
+    }
+
+    private static ApiConfiguration apiConfiguration(int uploadRetryCount) throws Exception {
+        return new ApiConfiguration(new URL(Some.url()), 1, 1, 1, 1, uploadRetryCount, 0, 0, 0);
+    }
+}
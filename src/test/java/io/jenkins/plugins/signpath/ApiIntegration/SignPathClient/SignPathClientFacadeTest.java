@@ -0,0 +1,49 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiCircuitBreaker;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import org.junit.Test;
+
+import java.net.URL;
+
+import static org.junit.Assert.*;
+
+public class SignPathClientFacadeTest {
+
+    @Test
+    public void getSubmitApiConfiguration_circuitBreakerDisabled_keepsServiceUnavailableTimeout() throws Exception {
+        ApiConfiguration apiConfiguration = apiConfiguration(600);
+        ApiCircuitBreaker circuitBreaker = ApiCircuitBreaker.get();
+        circuitBreaker.setFailureRateThresholdPercent(0);
+
+        // ACT
+        ApiConfiguration submitApiConfiguration = SignPathClientFacade.getSubmitApiConfiguration(apiConfiguration, circuitBreaker);
+
+        // ASSERT
+        assertSame(apiConfiguration, submitApiConfiguration);
+    }
+
+    @Test
+    public void getSubmitApiConfiguration_circuitBreakerEnabled_capsServiceUnavailableTimeout() throws Exception {
+        ApiConfiguration apiConfiguration = apiConfiguration(600);
+        ApiCircuitBreaker circuitBreaker = ApiCircuitBreaker.get();
+        circuitBreaker.setFailureRateThresholdPercent(50);
+
+        try {
+            // ACT
+            ApiConfiguration submitApiConfiguration = SignPathClientFacade.getSubmitApiConfiguration(apiConfiguration, circuitBreaker);
+
+            // ASSERT
+            assertEquals(ApiCircuitBreaker.MAX_SERVICE_UNAVAILABLE_TIMEOUT_IN_SECONDS, submitApiConfiguration.getServiceUnavailableTimeoutInSeconds());
+            assertEquals(apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds(), submitApiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds());
+            assertEquals(apiConfiguration.getApiUrl(), submitApiConfiguration.getApiUrl());
+        } finally {
+            circuitBreaker.setFailureRateThresholdPercent(0);
+        }
+    }
+
+    private static ApiConfiguration apiConfiguration(int serviceUnavailableTimeoutInSeconds) throws Exception {
+        return new ApiConfiguration(new URL(Some.url()), serviceUnavailableTimeoutInSeconds, 30, 60, 1, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,159 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.SignPathClientLogger;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import io.signpath.signpathclient.SignPathClient;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class SignPathClientPoolTest {
+    private static final long IDLE_TIMEOUT_MILLIS = 1000;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private SignPathClientPool sut;
+    private ApiConfiguration apiConfiguration;
+    private SignPathClientLogger logger;
+
+    @Before
+    public void setup() throws MalformedURLException {
+        sut = new SignPathClientPool(IDLE_TIMEOUT_MILLIS, nanoTime::get);
+        apiConfiguration = Some.apiConfiguration();
+        logger = mock(SignPathClientLogger.class);
+    }
+
+    @Test
+    public void lease_sameConfiguration_reusesClient() {
+        SignPathClient first;
+        try (SignPathClientPool.Lease lease = sut.lease(apiConfiguration, "agent", logger)) {
+            first = lease.getClient();
+        }
+
+        // ACT
+        SignPathClient second;
+        try (SignPathClientPool.Lease lease = sut.lease(apiConfiguration, "agent", logger)) {
+            second = lease.getClient();
+        }
+
+        // ASSERT
+        assertSame(first, second);
+        assertEquals(1, sut.getClientCount());
+        assertEquals(1, sut.getCreatedCount());
+        assertEquals(1, sut.getReusedCount());
+        assertEquals(0, sut.getLeaseCount());
+    }
+
+    @Test
+    public void lease_differentApiUrl_createsSeparateClients() throws MalformedURLException {
+        ApiConfiguration otherApiConfiguration = new ApiConfiguration(
+                new URL(Some.url()),
+                apiConfiguration.getServiceUnavailableTimeoutInSeconds(),
+                apiConfiguration.getUploadAndDownloadRequestTimeoutInSeconds(),
+                apiConfiguration.getWaitForCompletionTimeoutInSeconds(),
+                apiConfiguration.getWaitBetweenReadinessChecksInSeconds(),
+                apiConfiguration.getUploadRetryCount(),
+                apiConfiguration.getDownloadRetryCount(),
+                apiConfiguration.getMaxWaitBetweenReadinessChecksInSeconds(),
+                apiConfiguration.getWaitBetweenTransferRetriesInSeconds());
+
+        // ACT
+        try (SignPathClientPool.Lease lease = sut.lease(apiConfiguration, "agent", logger);
+             SignPathClientPool.Lease otherLease = sut.lease(otherApiConfiguration, "agent", logger)) {
+
+            // ASSERT
+            assertNotSame(lease.getClient(), otherLease.getClient());
+            assertEquals(2, sut.getLeaseCount());
+        }
+        assertEquals(2, sut.getCreatedCount());
+        assertEquals(0, sut.getReusedCount());
+    }
+
+    @Test
+    public void evictIdleClients_afterIdleTimeout_evictsOnlyClientsNotInUse() throws MalformedURLException {
+        try (SignPathClientPool.Lease lease = sut.lease(apiConfiguration, "idle", logger)) {
+            assertNotNull(lease.getClient());
+        }
+        SignPathClientPool.Lease activeLease = sut.lease(apiConfiguration, "active", logger);
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_MILLIS));
+
+        // ACT
+        sut.evictIdleClients();
+
+        // ASSERT
+        assertEquals(1, sut.getClientCount());
+        assertEquals(1, sut.getEvictedCount());
+        activeLease.close();
+    }
+
+    @Test
+    public void evictIdleClients_beforeIdleTimeout_keepsClients() {
+        try (SignPathClientPool.Lease lease = sut.lease(apiConfiguration, "agent", logger)) {
+            assertNotNull(lease.getClient());
+        }
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_MILLIS) - 1);
+
+        // ACT
+        sut.evictIdleClients();
+
+        // ASSERT
+        assertEquals(1, sut.getClientCount());
+        assertEquals(0, sut.getEvictedCount());
+    }
+
+    @Test
+    public void release_bodyConsumed_countsFullyReadResponseAndLeavesConnectionOpen() throws MalformedURLException {
+        RecordingConnection connection = new RecordingConnection();
+
+        // ACT
+        sut.release(connection, true);
+
+        // ASSERT
+        assertFalse(connection.disconnected);
+        assertEquals(1, sut.getFullyReadResponseCount());
+        assertEquals(0, sut.getClosedConnectionCount());
+    }
+
+    @Test
+    public void release_bodyNotConsumed_closesConnection() throws MalformedURLException {
+        RecordingConnection connection = new RecordingConnection();
+
+        // ACT
+        sut.release(connection, false);
+
+        // ASSERT
+        assertTrue(connection.disconnected);
+        assertEquals(0, sut.getFullyReadResponseCount());
+        assertEquals(1, sut.getClosedConnectionCount());
+    }
+
+    private static final class RecordingConnection extends HttpURLConnection {
+        private boolean disconnected;
+
+        private RecordingConnection() throws MalformedURLException {
+            super(new URL(Some.url()));
+        }
+
+        @Override
+        public void disconnect() {
+            disconnected = true;
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+
+        @Override
+        public void connect() {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package io.jenkins.plugins.signpath.ApiIntegration.SignPathClient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class SignedArtifactDownloadTest {
+    private static final int CONTENT_LENGTH = 256 * 1024;
+
+    private final byte[] signedArtifact = new byte[CONTENT_LENGTH];
+    private final List<String> rangeHeaders = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+
+    // configures the stand-in for SignPath, per test
+    private volatile int cutConnections;
+    private volatile boolean supportsRanges = true;
+    private volatile String digest;
+
+    @Before
+    public void setUp() throws IOException {
+        new Random(42).nextBytes(signedArtifact);
+        digest = "sha-256=" + Base64.getEncoder().encodeToString(DigestUtils.sha256(signedArtifact));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void open_connectionCutMidBody_resumesAfterBytesAlreadyRead() throws Exception {
+        cutConnections = 2;
+
+        // ACT
+        byte[] content = download(3);
+
+        // ASSERT
+        assertArrayEquals(signedArtifact, content);
+        assertEquals(3, rangeHeaders.size());
+        assertEquals("", rangeHeaders.get(0));
+        assertEquals("bytes=" + CONTENT_LENGTH / 2 + "-", rangeHeaders.get(1));
+        assertEquals("bytes=" + (CONTENT_LENGTH / 2 + CONTENT_LENGTH / 4) + "-", rangeHeaders.get(2));
+    }
+
+    @Test
+    public void open_connectionCutMoreOftenThanRetries_fails() {
+        cutConnections = 3;
+
+        // ACT
+        assertThrows(IOException.class, () -> download(2));
+
+        // ASSERT
+        assertEquals(3, rangeHeaders.size());
+    }
+
+    @Test
+    public void open_serverIgnoresRange_fails() {
+        cutConnections = 1;
+        supportsRanges = false;
+
+        // ACT
+        IOException ex = assertThrows(IOException.class, () -> download(3));
+
+        // ASSERT
+        assertTrue(ex.getMessage(), ex.getMessage().contains("instead of a partial response"));
+    }
+
+    @Test
+    public void open_digestMismatch_fails() {
+        digest = "sha-256=" + Base64.getEncoder().encodeToString(DigestUtils.sha256("something else"));
+
+        // ACT
+        IOException ex = assertThrows(IOException.class, () -> download(3));
+
+        // ASSERT
+        assertTrue(ex.getMessage(), ex.getMessage().contains("SHA-256 hash"));
+    }
+
+    private byte[] download(int downloadRetryCount) throws Exception {
+        URL apiUrl = new URL("http://localhost:" + server.getAddress().getPort() + "/");
+        ApiConfiguration apiConfiguration = new ApiConfiguration(apiUrl, 1, 5, 1, 0, 0, downloadRetryCount, 0, 0);
+        SignedArtifactDownload sut = new SignedArtifactDownload(apiConfiguration, Some.stringNonEmpty());
+
+        try (InputStream in = sut.open(Some.stringNonEmpty(), UUID.randomUUID(), UUID.randomUUID())) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        rangeHeaders.add(range == null ? "" : range);
+
+        int start = range != null && supportsRanges ? Integer.parseInt(range.substring("bytes=".length(), range.length() - 1)) : 0;
+        int length = CONTENT_LENGTH - start;
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        exchange.getResponseHeaders().add("Digest", digest);
+        if (start > 0) {
+            exchange.getResponseHeaders().add("Content-Range", String.format("bytes %d-%d/%d", start, CONTENT_LENGTH - 1, CONTENT_LENGTH));
+        }
+        exchange.sendResponseHeaders(start > 0 ? 206 : 200, length);
+
+        OutputStream body = exchange.getResponseBody();
+        if (cutConnections > 0) {
+            cutConnections--;
+            // only half of the remaining content, then the connection is dropped
+            body.write(signedArtifact, start, length / 2);
+            body.flush();
+            closeAbruptly(exchange);
+            return;
+        }
+
+        body.write(signedArtifact, start, length);
+        exchange.close();
+    }
+
+    private static void closeAbruptly(HttpExchange exchange) {
+        try {
+            // closing with missing bytes makes the server drop the connection
+            exchange.close();
+        } catch (RuntimeException ex) {
+            // expected, the response is incomplete
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class SignedArtifactCacheTest {
+    private static final UUID ORGANIZATION_ID = UUID.randomUUID();
+    private static final String CREDENTIAL_IDENTITY = "0123456789abcdef";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void open_afterStore_returnsContentAndCountsHit() throws IOException {
+        SignedArtifactCache sut = new SignedArtifactCache(cacheDirectory(), 100);
+        UUID signingRequestId = UUID.randomUUID();
+        assertEquals("signed", read(sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId, content("signed"))));
+
+        // ACT
+        InputStream cached = sut.open(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId);
+
+        // ASSERT
+        assertNotNull(cached);
+        assertEquals("signed", read(cached));
+        assertEquals(1, sut.getHitCount());
+        assertEquals(0, sut.getMissCount());
+    }
+
+    @Test
+    public void open_unknownSigningRequest_returnsNullAndCountsMiss() throws IOException {
+        SignedArtifactCache sut = new SignedArtifactCache(cacheDirectory(), 100);
+
+        // ACT
+        InputStream cached = sut.open(CREDENTIAL_IDENTITY, ORGANIZATION_ID, UUID.randomUUID());
+
+        // ASSERT
+        assertNull(cached);
+        assertEquals(0, sut.getHitCount());
+        assertEquals(1, sut.getMissCount());
+    }
+
+    @Test
+    public void open_otherApiToken_returnsNull() throws IOException {
+        SignedArtifactCache sut = new SignedArtifactCache(cacheDirectory(), 100);
+        UUID signingRequestId = UUID.randomUUID();
+        sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId, content("signed")).close();
+
+        // ACT
+        InputStream cached = sut.open("fedcba9876543210", ORGANIZATION_ID, signingRequestId);
+
+        // ASSERT
+        assertNull(cached);
+        assertFalse(sut.contains("fedcba9876543210", ORGANIZATION_ID, signingRequestId));
+        assertTrue(sut.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId));
+    }
+
+    @Test
+    public void open_corruptedEntry_returnsNullAndRemovesIt() throws IOException {
+        Path directory = cacheDirectory();
+        SignedArtifactCache sut = new SignedArtifactCache(directory, 100);
+        UUID signingRequestId = UUID.randomUUID();
+        sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId, content("signed")).close();
+        Files.write(directory.resolve(ORGANIZATION_ID + "_" + signingRequestId + "_" + CREDENTIAL_IDENTITY), "tampered".getBytes(StandardCharsets.UTF_8));
+
+        // ACT
+        InputStream cached = sut.open(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId);
+
+        // ASSERT
+        assertNull(cached);
+        assertFalse(sut.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId));
+        assertEquals(1, sut.getMissCount());
+    }
+
+    @Test
+    public void open_tamperedEntryOfSameSize_failsWhenReadAndRemovesIt() throws IOException {
+        Path directory = cacheDirectory();
+        SignedArtifactCache sut = new SignedArtifactCache(directory, 100);
+        UUID signingRequestId = UUID.randomUUID();
+        sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId, content("signed")).close();
+        Files.write(directory.resolve(ORGANIZATION_ID + "_" + signingRequestId + "_" + CREDENTIAL_IDENTITY), "tamper".getBytes(StandardCharsets.UTF_8));
+        InputStream cached = sut.open(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId);
+
+        // ACT
+        IOException ex = assertThrows(IOException.class, () -> read(cached));
+
+        // ASSERT
+        assertTrue(ex.getMessage(), ex.getMessage().contains("SHA-256 hash"));
+        assertFalse(sut.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId));
+    }
+
+    @Test
+    public void open_fileDeleted_returnsNullAndCountsMiss() throws IOException {
+        Path directory = cacheDirectory();
+        SignedArtifactCache sut = new SignedArtifactCache(directory, 100);
+        UUID signingRequestId = UUID.randomUUID();
+        sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId, content("signed")).close();
+        Files.delete(directory.resolve(ORGANIZATION_ID + "_" + signingRequestId + "_" + CREDENTIAL_IDENTITY));
+
+        // ACT
+        InputStream cached = sut.open(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId);
+
+        // ASSERT
+        assertNull(cached);
+        assertFalse(sut.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId));
+        assertEquals(1, sut.getMissCount());
+    }
+
+    @Test
+    public void open_evictedWhileOpen_stillReturnsContent() throws IOException {
+        SignedArtifactCache sut = new SignedArtifactCache(cacheDirectory(), 6);
+        UUID signingRequestId = UUID.randomUUID();
+        sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId, content("signed")).close();
+        InputStream cached = sut.open(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId);
+
+        // ACT
+        sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, UUID.randomUUID(), content("other")).close();
+
+        // ASSERT
+        assertFalse(sut.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId));
+        assertEquals("signed", read(cached));
+    }
+
+    @Test
+    public void store_exceedingMaxSize_evictsLeastRecentlyUsed() throws IOException {
+        SignedArtifactCache sut = new SignedArtifactCache(cacheDirectory(), 10);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, first, content("aaaa")).close();
+        sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, second, content("bbbb")).close();
+        sut.open(CREDENTIAL_IDENTITY, ORGANIZATION_ID, first).close();
+
+        // ACT
+        sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, third, content("cccc")).close();
+
+        // ASSERT
+        assertTrue(sut.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, first));
+        assertFalse(sut.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, second));
+        assertTrue(sut.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, third));
+        assertEquals(8, sut.getSizeInBytes());
+    }
+
+    @Test
+    public void store_largerThanMaxSize_returnsContentWithoutCachingIt() throws IOException {
+        Path directory = cacheDirectory();
+        SignedArtifactCache sut = new SignedArtifactCache(directory, 3);
+        UUID signingRequestId = UUID.randomUUID();
+
+        // ACT
+        String content = read(sut.store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId, content("signed")));
+
+        // ASSERT
+        assertEquals("signed", content);
+        assertFalse(sut.contains(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId));
+        assertEquals(0, sut.getEntryCount());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".partial")));
+        }
+    }
+
+    @Test
+    public void constructor_existingIndex_restoresEntries() throws IOException {
+        Path directory = cacheDirectory();
+        UUID signingRequestId = UUID.randomUUID();
+        new SignedArtifactCache(directory, 100).store(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId, content("signed")).close();
+
+        // ACT
+        SignedArtifactCache sut = new SignedArtifactCache(directory, 100);
+
+        // ASSERT
+        assertEquals(1, sut.getEntryCount());
+        assertEquals("signed", read(sut.open(CREDENTIAL_IDENTITY, ORGANIZATION_ID, signingRequestId)));
+    }
+
+    private Path cacheDirectory() {
+        return temporaryFolder.getRoot().toPath().resolve("cache");
+    }
+
+    private static InputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+}
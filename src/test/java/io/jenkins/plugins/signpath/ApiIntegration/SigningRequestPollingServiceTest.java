@@ -0,0 +1,295 @@
+package io.jenkins.plugins.signpath.ApiIntegration;
+
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.Exceptions.SignPathFacadeCallException;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.URL;
+import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SigningRequestPollingServiceTest {
+    private static final SigningRequestStatus IN_PROGRESS = new SigningRequestStatus("InProgress", "Processing", false);
+    private static final SigningRequestStatus COMPLETED = new SigningRequestStatus("Completed", "Completed", true);
+
+    private final PrintStream logger = new PrintStream(new ByteArrayOutputStream());
+    private final SignPathCredentials credentials = credentials();
+
+    @Test
+    public void awaitFinalStatus_sameSigningRequest_sharesStatusChecks() throws Exception {
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), new ApiCircuitBreaker(System::nanoTime));
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(IN_PROGRESS, COMPLETED);
+        ApiConfiguration apiConfiguration = apiConfiguration(10);
+
+        // ACT
+        CompletableFuture<SigningRequestStatus> first = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration, logger);
+        CompletableFuture<SigningRequestStatus> second = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration, logger);
+        int queueDepth = sut.getQueueDepth();
+        int waiterCount = sut.getWaiterCount();
+
+        // ASSERT
+        assertEquals(1, queueDepth);
+        assertEquals(2, waiterCount);
+        assertSame(COMPLETED, first.get(10, TimeUnit.SECONDS));
+        assertSame(COMPLETED, second.get(10, TimeUnit.SECONDS));
+        verify(facade, times(2)).getSigningRequestStatus(organizationId, signingRequestId);
+        assertEquals(0, sut.getQueueDepth());
+    }
+
+    @Test
+    public void awaitFinalStatus_oneWaiterCancelled_otherWaiterStillCompletes() throws Exception {
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), new ApiCircuitBreaker(System::nanoTime));
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(IN_PROGRESS, COMPLETED);
+        ApiConfiguration apiConfiguration = apiConfiguration(10);
+
+        CompletableFuture<SigningRequestStatus> cancelled = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration, logger);
+        CompletableFuture<SigningRequestStatus> remaining = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration, logger);
+
+        // ACT
+        cancelled.cancel(false);
+
+        // ASSERT
+        assertSame(COMPLETED, remaining.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void awaitFinalStatus_differentApiTokens_pollsSeparately() throws Exception {
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), new ApiCircuitBreaker(System::nanoTime));
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade rejectedFacade = mock(SignPathFacade.class);
+        when(rejectedFacade.getSigningRequestStatus(organizationId, signingRequestId)).thenThrow(new SignPathFacadeCallException("Unauthorized"));
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(COMPLETED);
+
+        // ACT
+        CompletableFuture<SigningRequestStatus> rejected = sut.awaitFinalStatus(rejectedFacade, credentials(), organizationId, signingRequestId, apiConfiguration(10), logger);
+        CompletableFuture<SigningRequestStatus> result = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration(10), logger);
+        int queueDepth = sut.getQueueDepth();
+
+        // ASSERT
+        assertEquals(2, queueDepth);
+        assertSame(COMPLETED, result.get(10, TimeUnit.SECONDS));
+        try {
+            rejected.get(10, TimeUnit.SECONDS);
+            fail("Expected the wait with the rejected API token to fail");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof SignPathFacadeCallException);
+        }
+    }
+
+    @Test
+    public void awaitFinalStatus_firstWaiterCancelled_checksWithFacadeOfRemainingWaiter() throws Exception {
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), new ApiCircuitBreaker(System::nanoTime));
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade cancelledFacade = mock(SignPathFacade.class);
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(COMPLETED);
+        // status checks every 10 minutes, the notification triggers the first one
+        ApiConfiguration apiConfiguration = new ApiConfiguration(new URL(Some.url()), 1, 1, 3600, 600, 0, 0, 0, 0);
+        CompletableFuture<SigningRequestStatus> cancelled = sut.awaitFinalStatus(cancelledFacade, credentials, organizationId, signingRequestId, apiConfiguration, logger);
+        CompletableFuture<SigningRequestStatus> remaining = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration, logger);
+
+        // ACT
+        cancelled.cancel(false);
+        sut.notifyCompleted(organizationId, signingRequestId);
+
+        // ASSERT
+        assertSame(COMPLETED, remaining.get(10, TimeUnit.SECONDS));
+        verify(cancelledFacade, never()).getSigningRequestStatus(organizationId, signingRequestId);
+    }
+
+    @Test
+    public void awaitFinalStatus_timeoutExpires_fails() throws Exception {
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), new ApiCircuitBreaker(System::nanoTime));
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(IN_PROGRESS);
+
+        // ACT
+        CompletableFuture<SigningRequestStatus> result = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration(1), logger);
+
+        // ASSERT
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            fail("Expected the wait to time out");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof SignPathFacadeCallException);
+        }
+        assertEquals(0, sut.getQueueDepth());
+    }
+
+    @Test
+    public void awaitFinalStatus_timeoutBeforeNextCheck_failsAtTimeout() throws Exception {
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), new ApiCircuitBreaker(System::nanoTime));
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(IN_PROGRESS);
+        // status checks every 10 minutes, a timeout of 1 second
+        ApiConfiguration apiConfiguration = new ApiConfiguration(new URL(Some.url()), 1, 1, 1, 600, 0, 0, 0, 0);
+
+        // ACT
+        CompletableFuture<SigningRequestStatus> result = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration, logger);
+
+        // ASSERT
+        try {
+            result.get(10, TimeUnit.SECONDS);
+            fail("Expected the wait to time out");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof SignPathFacadeCallException);
+        }
+        assertEquals(0, sut.getQueueDepth());
+    }
+
+    @Test
+    public void notifyCompleted_waitingSigningRequest_checksRightAway() throws Exception {
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), new ApiCircuitBreaker(System::nanoTime));
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(IN_PROGRESS, COMPLETED);
+        // status checks every 10 minutes
+        ApiConfiguration apiConfiguration = new ApiConfiguration(new URL(Some.url()), 1, 1, 3600, 600, 0, 0, 0, 0);
+        CompletableFuture<SigningRequestStatus> result = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration, logger);
+
+        // ACT
+        boolean firstNotification = sut.notifyCompleted(organizationId, signingRequestId);
+        verify(facade, timeout(10000)).getSigningRequestStatus(organizationId, signingRequestId);
+        boolean secondNotification = sut.notifyCompleted(organizationId, signingRequestId);
+
+        // ASSERT
+        assertTrue(firstNotification);
+        assertTrue(secondNotification);
+        assertSame(COMPLETED, result.get(10, TimeUnit.SECONDS));
+        assertFalse(sut.notifyCompleted(organizationId, signingRequestId));
+    }
+
+    @Test
+    public void awaitFinalStatus_circuitBreakerOpen_parksWithoutCheckingStatus() throws Exception {
+        ApiCircuitBreaker circuitBreaker = new ApiCircuitBreaker(() -> 0L);
+        circuitBreaker.setFailureRateThresholdPercent(50);
+        for (int i = 0; i < ApiCircuitBreaker.MINIMUM_CALLS; i++) {
+            circuitBreaker.tryAcquirePermission();
+            circuitBreaker.onFailure();
+        }
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), circuitBreaker);
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(COMPLETED);
+
+        // ACT
+        CompletableFuture<SigningRequestStatus> result = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration(10), logger);
+        Thread.sleep(500);
+
+        // ASSERT
+        assertFalse(result.isDone());
+        verify(facade, never()).getSigningRequestStatus(organizationId, signingRequestId);
+        result.cancel(false);
+    }
+
+    @Test
+    public void execute_moreTasksThanMaxConcurrentTransfers_queuesTheRest() throws Exception {
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), new ApiCircuitBreaker(System::nanoTime));
+        sut.setMaxConcurrentTransfers(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // ACT
+        for (int i = 0; i < 5; i++) {
+            tasks.add(sut.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            }));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (sut.getActiveTransferCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        int activeTransferCount = sut.getActiveTransferCount();
+        int queuedTransferCount = sut.getQueuedTransferCount();
+        release.countDown();
+
+        // ASSERT
+        for (Future<?> task : tasks) {
+            task.get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(2, activeTransferCount);
+        assertEquals(3, queuedTransferCount);
+        assertEquals(2, maxRunning.get());
+        assertEquals(2, sut.getMaxConcurrentTransfers());
+    }
+
+    @Test
+    public void notifyCompleted_noWaiter_returnsFalse() {
+        SigningRequestPollingService sut = new SigningRequestPollingService(new ApiRateLimiter(System::nanoTime), new ApiCircuitBreaker(System::nanoTime));
+
+        // ACT
+        boolean waiting = sut.notifyCompleted(Some.uuid(), Some.uuid());
+
+        // ASSERT
+        assertFalse(waiting);
+    }
+
+    @Test
+    public void awaitFinalStatus_statusLimitUsedUp_delaysCheckWithoutFailing() throws Exception {
+        // 60 status calls per minute and the burst is used up already => the next check is due in about a second
+        ApiRateLimiter rateLimiter = new ApiRateLimiter(System::nanoTime);
+        rateLimiter.setMaxCallsPerMinute(ApiRateLimiter.CallType.STATUS, 60);
+        for (int i = 0; i < ApiRateLimiter.BURST_SECONDS; i++) {
+            rateLimiter.reserve(ApiRateLimiter.CallType.STATUS);
+        }
+        SigningRequestPollingService sut = new SigningRequestPollingService(rateLimiter, new ApiCircuitBreaker(System::nanoTime));
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(COMPLETED);
+
+        // ACT
+        CompletableFuture<SigningRequestStatus> result = sut.awaitFinalStatus(facade, credentials, organizationId, signingRequestId, apiConfiguration(10), logger);
+        Thread.sleep(300);
+
+        // ASSERT
+        verify(facade, never()).getSigningRequestStatus(organizationId, signingRequestId);
+        assertSame(COMPLETED, result.get(10, TimeUnit.SECONDS));
+        verify(facade, times(1)).getSigningRequestStatus(organizationId, signingRequestId);
+    }
+
+    private static SignPathCredentials credentials() {
+        return new SignPathCredentials(Secret.fromString(Some.stringNonEmpty()), Secret.fromString(Some.stringNonEmpty()));
+    }
+
+    private static ApiConfiguration apiConfiguration(int waitForCompletionTimeoutInSeconds) throws Exception {
+        return new ApiConfiguration(new URL(Some.url()), 1, 1, waitForCompletionTimeoutInSeconds, 1, 0, 0, 0, 0);
+    }
+}
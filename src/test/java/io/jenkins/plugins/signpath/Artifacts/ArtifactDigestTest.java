@@ -0,0 +1,77 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Rule;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.FromDataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@RunWith(Theories.class)
+public class ArtifactDigestTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Theory
+    public void of_matchesReferenceImplementation(@FromDataPoints("allSizes") int size) throws Exception {
+        byte[] content = randomContent(size);
+        File artifact = temporaryFolder.newFile();
+        Files.write(artifact.toPath(), content);
+
+        // ACT
+        ArtifactDigest digest = ArtifactDigest.of(artifact);
+
+        // ASSERT
+        assertEquals(DigestUtils.md5Hex(content), digest.getMd5Hex());
+        assertEquals(DigestUtils.sha256Hex(content), digest.getSha256Hex());
+    }
+
+    @Theory
+    public void copy_copiesAndMatchesReferenceImplementation(@FromDataPoints("allSizes") int size) throws Exception {
+        byte[] content = randomContent(size);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // ACT
+        ArtifactDigest digest = ArtifactDigest.start().copy(new ByteArrayInputStream(content), out);
+
+        // ASSERT
+        assertArrayEquals(content, out.toByteArray());
+        assertEquals(DigestUtils.md5Hex(content), digest.getMd5Hex());
+        assertEquals(DigestUtils.sha256Hex(content), digest.getSha256Hex());
+    }
+
+    @Theory
+    public void start_resetsThePreviousDigest() throws Exception {
+        byte[] content = randomContent(1024);
+        ArtifactDigest.start().copy(new ByteArrayInputStream(randomContent(4096)), new ByteArrayOutputStream());
+
+        // ACT
+        ArtifactDigest digest = ArtifactDigest.start().copy(new ByteArrayInputStream(content), new ByteArrayOutputStream());
+
+        // ASSERT
+        assertEquals(DigestUtils.md5Hex(content), digest.getMd5Hex());
+        assertEquals(DigestUtils.sha256Hex(content), digest.getSha256Hex());
+    }
+
+    @DataPoints("allSizes")
+    public static int[] allSizes() {
+        // empty, smaller than the buffer, exactly the buffer and not a multiple of the buffer
+        return new int[]{0, 1, 64 * 1024, 3 * 64 * 1024 + 17};
+    }
+
+    private static byte[] randomContent(int size) {
+        byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+}
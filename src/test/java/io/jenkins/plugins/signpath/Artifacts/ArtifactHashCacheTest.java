@@ -0,0 +1,207 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ArtifactHashCacheTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void lookup_afterStore_returnsHash() throws IOException {
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile(), 10);
+        File artifact = createArtifact("a.exe", "content");
+        sut.store(ArtifactHashCache.FileIdentity.of(artifact), DigestUtils.sha256Hex("content"));
+
+        // ACT
+        String hash = sut.lookup(artifact);
+
+        // ASSERT
+        assertEquals(DigestUtils.sha256Hex("content"), hash);
+    }
+
+    @Test
+    public void lookup_unknownArtifact_returnsNull() throws IOException {
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile(), 10);
+        File artifact = createArtifact("a.exe", "content");
+
+        // ACT
+        String hash = sut.lookup(artifact);
+
+        // ASSERT
+        assertNull(hash);
+    }
+
+    @Test
+    public void lookup_changedArtifact_returnsNull() throws IOException {
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile(), 10);
+        File artifact = createArtifact("a.exe", "content");
+        sut.store(ArtifactHashCache.FileIdentity.of(artifact), DigestUtils.sha256Hex("content"));
+        long lastModified = artifact.lastModified();
+        Files.write(artifact.toPath(), "changed content".getBytes(StandardCharsets.UTF_8));
+        assertTrue(artifact.setLastModified(lastModified));
+
+        // ACT
+        String hash = sut.lookup(artifact);
+
+        // ASSERT
+        assertNull(hash);
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    public void lookup_rewrittenInPlaceWithSameSizeAndModificationTime_returnsNull() throws Exception {
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile(), 10);
+        File artifact = createArtifact("a.exe", "content");
+        sut.store(ArtifactHashCache.FileIdentity.of(artifact), DigestUtils.sha256Hex("content"));
+        long lastModified = artifact.lastModified();
+        // e.g. a reproducible build (SOURCE_DATE_EPOCH) writing an artifact of the same size to the same file
+        Thread.sleep(10);
+        Files.write(artifact.toPath(), "CONTENT".getBytes(StandardCharsets.UTF_8));
+        assertTrue(artifact.setLastModified(lastModified));
+
+        // ACT
+        String hash = sut.lookup(artifact);
+
+        // ASSERT
+        assertNull(hash);
+    }
+
+    @Test
+    public void store_recentlyModifiedArtifact_isNotCached() throws IOException {
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile(), 10);
+        File artifact = temporaryFolder.newFile("a.exe");
+        Files.write(artifact.toPath(), "content".getBytes(StandardCharsets.UTF_8));
+
+        // ACT
+        sut.store(ArtifactHashCache.FileIdentity.of(artifact), DigestUtils.sha256Hex("content"));
+
+        // ASSERT
+        assertNull(sut.lookup(artifact));
+    }
+
+    @Test
+    public void store_exceedingMaxEntries_evictsLeastRecentlyUsed() throws IOException {
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile(), 2);
+        File first = createArtifact("first.exe", "first");
+        File second = createArtifact("second.exe", "second");
+        File third = createArtifact("third.exe", "third");
+        sut.store(ArtifactHashCache.FileIdentity.of(first), DigestUtils.sha256Hex("first"));
+        sut.store(ArtifactHashCache.FileIdentity.of(second), DigestUtils.sha256Hex("second"));
+        // touch the first entry, so the second one becomes the least recently used
+        sut.lookup(first);
+
+        // ACT
+        sut.store(ArtifactHashCache.FileIdentity.of(third), DigestUtils.sha256Hex("third"));
+
+        // ASSERT
+        assertEquals(2, sut.size());
+        assertNotNull(sut.lookup(first));
+        assertNull(sut.lookup(second));
+        assertNotNull(sut.lookup(third));
+    }
+
+    @Test
+    public void newInstance_readsIndexFile() throws IOException {
+        Path indexFile = indexFile();
+        File artifact = createArtifact("a.exe", "content");
+        new ArtifactHashCache(indexFile, 10).store(ArtifactHashCache.FileIdentity.of(artifact), DigestUtils.sha256Hex("content"));
+
+        // ACT
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile, 10);
+
+        // ASSERT
+        assertEquals(DigestUtils.sha256Hex("content"), sut.lookup(artifact));
+    }
+
+    @Test
+    public void store_appendsToIndexFile() throws IOException {
+        Path indexFile = indexFile();
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile, 10);
+        File first = createArtifact("first.exe", "first");
+        sut.store(ArtifactHashCache.FileIdentity.of(first), DigestUtils.sha256Hex("first"));
+        String firstLine = Files.readAllLines(indexFile, StandardCharsets.UTF_8).get(0);
+
+        // ACT
+        sut.store(ArtifactHashCache.FileIdentity.of(createArtifact("second.exe", "second")), DigestUtils.sha256Hex("second"));
+
+        // ASSERT
+        List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals(firstLine, lines.get(0));
+    }
+
+    @Test
+    public void store_journalExceedsLimit_compactsIndexFile() throws IOException {
+        Path indexFile = indexFile();
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile, 2);
+        File artifact = createArtifact("a.exe", "content");
+        sut.store(ArtifactHashCache.FileIdentity.of(artifact), DigestUtils.sha256Hex("content"));
+
+        // ACT
+        for (int i = 0; i < 20; i++) {
+            sut.lookup(artifact);
+        }
+
+        // ASSERT
+        assertTrue(Files.readAllLines(indexFile, StandardCharsets.UTF_8).size() <= 16);
+        assertEquals(DigestUtils.sha256Hex("content"), new ArtifactHashCache(indexFile, 2).lookup(artifact));
+    }
+
+    @Test
+    public void newInstance_restoresLeastRecentlyUsedOrder() throws IOException {
+        Path indexFile = indexFile();
+        File first = createArtifact("first.exe", "first");
+        File second = createArtifact("second.exe", "second");
+        ArtifactHashCache previous = new ArtifactHashCache(indexFile, 2);
+        previous.store(ArtifactHashCache.FileIdentity.of(first), DigestUtils.sha256Hex("first"));
+        previous.store(ArtifactHashCache.FileIdentity.of(second), DigestUtils.sha256Hex("second"));
+        // touch the first entry, so the second one becomes the least recently used
+        previous.lookup(first);
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile, 2);
+
+        // ACT
+        sut.store(ArtifactHashCache.FileIdentity.of(createArtifact("third.exe", "third")), DigestUtils.sha256Hex("third"));
+
+        // ASSERT
+        assertNotNull(sut.lookup(first));
+        assertNull(sut.lookup(second));
+    }
+
+    @Test
+    public void newInstance_brokenIndexFile_startsEmpty() throws IOException {
+        Path indexFile = indexFile();
+        Files.createDirectories(indexFile.getParent());
+        Files.write(indexFile, "hash\tnot-a-number\t0\t0\t\t/some/path".getBytes(StandardCharsets.UTF_8));
+
+        // ACT
+        ArtifactHashCache sut = new ArtifactHashCache(indexFile, 10);
+
+        // ASSERT
+        assertEquals(0, sut.size());
+    }
+
+    private Path indexFile() {
+        return temporaryFolder.getRoot().toPath().resolve("index").resolve("artifact-hash-cache");
+    }
+
+    private File createArtifact(String name, String content) throws IOException {
+        File artifact = temporaryFolder.newFile(name);
+        Files.write(artifact.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        // move the modification time out of the racy window
+        assertTrue(artifact.setLastModified(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1)));
+        return artifact;
+    }
+}
@@ -0,0 +1,62 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.FromDataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(Theories.class)
+public class ArtifactHasherTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Theory
+    public void sha256Hex_matchesReferenceImplementation(@FromDataPoints("allFileSizes") int fileSize) throws Exception {
+        byte[] content = new byte[fileSize];
+        new Random(fileSize).nextBytes(content);
+        File artifact = temporaryFolder.newFile();
+        Files.write(artifact.toPath(), content);
+
+        // ACT
+        String hash = ArtifactHasher.sha256Hex(artifact);
+
+        // ASSERT
+        assertEquals(DigestUtils.sha256Hex(content), hash);
+    }
+
+    @Test
+    public void sha256Hex_largeFile_releasesMappedWindows() throws Exception {
+        Path maps = Paths.get("/proc/self/maps");
+        assumeTrue("The mappings of the process can only be inspected on linux", Files.isReadable(maps));
+        File artifact = temporaryFolder.newFile();
+        Files.write(artifact.toPath(), new byte[5 * 1024 * 1024]);
+
+        // ACT
+        ArtifactHasher.sha256Hex(artifact);
+
+        // ASSERT
+        String mappings = new String(Files.readAllBytes(maps), StandardCharsets.UTF_8);
+        assertFalse(mappings.contains(artifact.getCanonicalPath()));
+    }
+
+    @DataPoints("allFileSizes")
+    public static int[] allFileSizes() {
+        // empty, smaller than a buffer, not a multiple of the buffer and large enough to be memory-mapped
+        return new int[]{0, 1, 1024 * 1024 + 17, 5 * 1024 * 1024 + 3};
+    }
+}
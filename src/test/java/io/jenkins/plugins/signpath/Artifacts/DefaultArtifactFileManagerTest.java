@@ -19,6 +19,7 @@ import org.junit.experimental.theories.Theory;
 import org.junit.function.ThrowingRunnable;
 import org.junit.runner.RunWith;
 
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.Assert.*;
@@ -141,6 +142,40 @@ public class DefaultArtifactFileManagerTest {
         assertEquals(expectedHash, fingerprint.getHashString());
     }
 
+    @Theory
+    public void storeArtifact_fromStream(@FromDataPoints("allFileNames") String[] fileNames) throws Exception {
+        String fileNameToStore = fileNames[1];
+        String expectedFileName = fileNames[2];
+
+        DefaultArtifactFileManager sut = runJob("");
+
+        byte[] artifactContent = Some.bytes();
+
+        // ACT
+        sut.storeArtifact(new ByteArrayInputStream(artifactContent), fileNameToStore);
+
+        // ASSERT
+        TemporaryFile retrievedArtifact = sut.retrieveArtifact(fileNames[0]);
+        assertArrayEquals(artifactContent, TemporaryFileUtil.getContentAndDispose(retrievedArtifact));
+
+        String expectedHash = TemporaryFileUtil.getDigestAndDispose(TemporaryFileUtil.create(artifactContent));
+        Fingerprint fingerprint = j.jenkins.getFingerprintMap().get(expectedHash);
+        assertNotNull(fingerprint);
+        assertEquals(expectedFileName, fingerprint.getFileName());
+    }
+
+    @Theory
+    public void storeArtifact_fromStream_inParent_throws() throws Exception {
+        DefaultArtifactFileManager sut = runJob("");
+
+        // ACT
+        ThrowingRunnable act = () -> sut.storeArtifact(new ByteArrayInputStream(Some.bytes()), "../Please store me in parent.txt");
+
+        // ASSERT
+        Throwable ex = assertThrows(IllegalAccessError.class, act);
+        assertEquals("targetArtifactPath cannot be in parent directory.", ex.getMessage());
+    }
+
     @Theory
     public void storeArtifact_inParent_throws() throws Exception {
         DefaultArtifactFileManager sut = runJob("");
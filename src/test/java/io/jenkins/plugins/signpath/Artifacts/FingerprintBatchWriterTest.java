@@ -0,0 +1,110 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import hudson.model.Run;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class FingerprintBatchWriterTest {
+    private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+    private final FingerprintBatchWriter.FingerprintSink sink = (run, fileName, md5Hex) -> written.add(fileName + ":" + md5Hex);
+
+    @Test
+    public void record_completedBuild_writesImmediately() throws Exception {
+        FingerprintBatchWriter sut = new FingerprintBatchWriter(60_000);
+        Run<?, ?> run = mockRun(false);
+
+        // ACT
+        sut.record(run, "signed.exe", "md5", sink);
+
+        // ASSERT
+        assertEquals(Collections.singletonList("signed.exe:md5"), written);
+        assertEquals(0, sut.getPendingCount());
+    }
+
+    @Test
+    public void record_runningBuild_isDeferredUntilFlush() throws Exception {
+        FingerprintBatchWriter sut = new FingerprintBatchWriter(60_000);
+        Run<?, ?> run = mockRun(true);
+        Run<?, ?> otherRun = mockRun(true);
+        sut.record(run, "first.exe", "md5-1", sink);
+        sut.record(otherRun, "other.exe", "md5-2", sink);
+        sut.record(run, "second.exe", "md5-3", sink);
+        int pendingCount = sut.getPendingCount();
+
+        // ACT
+        sut.flush(run);
+
+        // ASSERT
+        assertEquals(3, pendingCount);
+        assertEquals(Arrays.asList("first.exe:md5-1", "second.exe:md5-3"), written);
+        assertEquals(1, sut.getPendingCount());
+    }
+
+    @Test
+    public void record_runningBuild_isWrittenInTheBackground() throws Exception {
+        FingerprintBatchWriter sut = new FingerprintBatchWriter(10);
+        Run<?, ?> run = mockRun(true);
+
+        // ACT
+        for (int i = 0; i < 10; i++) {
+            sut.record(run, "artifact" + i + ".exe", Some.stringNonEmpty(), sink);
+        }
+
+        // ASSERT
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (written.size() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(10, written.size());
+        assertEquals(0, sut.getPendingCount());
+    }
+
+    @Test
+    public void flushAll_sameContentRecordedRepeatedly_writesFingerprintOnce() throws Exception {
+        FingerprintBatchWriter sut = new FingerprintBatchWriter(60_000);
+        Run<?, ?> run = mockRun(true);
+        Run<?, ?> otherRun = mockRun(true);
+        sut.record(run, "signed.exe", "md5-1", sink);
+        sut.record(run, "copy-of-signed.exe", "md5-1", sink);
+        sut.record(otherRun, "signed.exe", "md5-1", sink);
+        sut.record(otherRun, "other.exe", "md5-2", sink);
+
+        // ACT
+        sut.flushAll();
+
+        // ASSERT
+        assertEquals(Arrays.asList("signed.exe:md5-1", "other.exe:md5-2"), written);
+        assertEquals(0, sut.getPendingCount());
+    }
+
+    @Test
+    public void flush_failingRecord_writesTheOthers() throws Exception {
+        FingerprintBatchWriter sut = new FingerprintBatchWriter(60_000);
+        Run<?, ?> run = mockRun(true);
+        sut.record(run, "broken.exe", "md5-1", (r, fileName, md5Hex) -> {
+            throw new IOException("disk full");
+        });
+        sut.record(run, "signed.exe", "md5-2", sink);
+
+        // ACT
+        sut.flush(run);
+
+        // ASSERT
+        assertEquals(Collections.singletonList("signed.exe:md5-2"), written);
+    }
+
+    private static Run<?, ?> mockRun(boolean building) {
+        Run<?, ?> run = mock(Run.class);
+        when(run.isBuilding()).thenReturn(building);
+        return run;
+    }
+}
@@ -0,0 +1,90 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class SignedArtifactBlobStoreTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private SignedArtifactBlobStore sut;
+
+    @Before
+    public void setUp() throws IOException {
+        assumeTrue("hard links with link counts are not available", FileSystems.getDefault().supportedFileAttributeViews().contains("unix"));
+        sut = new SignedArtifactBlobStore(temporaryFolder.newFolder("blobs").toPath());
+        sut.setEnabled(true);
+    }
+
+    @Test
+    public void link_identicalArtifactsOfTwoBuilds_shareOneBlob() throws IOException {
+        Path firstTarget = archive("build1", "signed");
+        Path secondTarget = temporaryFolder.newFolder("build2").toPath().resolve("signed.exe");
+        Path file = createFile("build2", "signed");
+
+        // ACT
+        boolean linked = sut.link(file, DigestUtils.sha256Hex("signed"), secondTarget);
+
+        // ASSERT
+        assertTrue(linked);
+        assertTrue(Files.isSameFile(firstTarget, secondTarget));
+        assertEquals("signed", new String(Files.readAllBytes(secondTarget), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void link_disabled_returnsFalseAndKeepsFile() throws IOException {
+        sut.setEnabled(false);
+        Path file = createFile("build1", "signed");
+
+        // ACT
+        boolean linked = sut.link(file, DigestUtils.sha256Hex("signed"), file.resolveSibling("signed.exe"));
+
+        // ASSERT
+        assertFalse(linked);
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    public void sweep_removesOnlyBlobsWithoutBuilds() throws IOException {
+        Path deletedBuildArtifact = archive("build1", "first");
+        Path keptBuildArtifact = archive("build2", "second");
+        Files.delete(deletedBuildArtifact);
+
+        // ACT
+        int removed = sut.sweep();
+
+        // ASSERT
+        assertEquals(1, removed);
+        assertEquals("second", new String(Files.readAllBytes(keptBuildArtifact), StandardCharsets.UTF_8));
+        assertTrue(sut.link(createFile("build3", "second"), DigestUtils.sha256Hex("second"), temporaryFolder.getRoot().toPath().resolve("build3/signed.exe")));
+        assertTrue(Files.isSameFile(keptBuildArtifact, temporaryFolder.getRoot().toPath().resolve("build3/signed.exe")));
+    }
+
+    private Path archive(String build, String content) throws IOException {
+        Path file = createFile(build, content);
+        Path target = file.resolveSibling("signed.exe");
+        assertTrue(sut.link(file, DigestUtils.sha256Hex(content), target));
+        return target;
+    }
+
+    private Path createFile(String build, String content) throws IOException {
+        Path directory = temporaryFolder.getRoot().toPath().resolve(build);
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "signed.exe", ".partial");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,63 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import hudson.model.Run;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SigningManifestTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void archive_afterAppend_storesAllHashesOnce() throws Exception {
+        Run<?, ?> run = mockRun();
+        SigningManifest.append(run, "bin/first.exe", "aaaa");
+        SigningManifest.append(run, "bin\\second.exe", "bbbb");
+
+        AtomicReference<String> archived = new AtomicReference<>();
+        ArtifactFileManager artifactFileManager = mock(ArtifactFileManager.class);
+        doAnswer(invocation -> {
+            archived.set(IOUtils.toString((InputStream) invocation.getArguments()[0], StandardCharsets.UTF_8));
+            return null;
+        }).when(artifactFileManager).storeArtifact(any(InputStream.class), eq(SigningManifest.ARTIFACT_PATH));
+
+        // ACT
+        boolean firstArchive = SigningManifest.archive(run, artifactFileManager);
+        boolean secondArchive = SigningManifest.archive(run, artifactFileManager);
+
+        // ASSERT
+        assertTrue(firstArchive);
+        assertFalse(secondArchive);
+        assertEquals(String.format("aaaa  bin/first.exe%nbbbb  bin/second.exe%n"), archived.get());
+        verify(artifactFileManager, times(1)).storeArtifact(any(InputStream.class), eq(SigningManifest.ARTIFACT_PATH));
+    }
+
+    @Test
+    public void archive_withoutHashes_storesNothing() throws Exception {
+        ArtifactFileManager artifactFileManager = mock(ArtifactFileManager.class);
+
+        // ACT
+        boolean archived = SigningManifest.archive(mockRun(), artifactFileManager);
+
+        // ASSERT
+        assertFalse(archived);
+        verifyZeroInteractions(artifactFileManager);
+    }
+
+    private Run<?, ?> mockRun() throws Exception {
+        Run<?, ?> run = mock(Run.class);
+        when(run.getRootDir()).thenReturn(temporaryFolder.newFolder());
+        return run;
+    }
+}
@@ -0,0 +1,71 @@
+package io.jenkins.plugins.signpath.Artifacts;
+
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.FromDataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+@RunWith(Theories.class)
+public class TransferCompressionTest {
+
+    @Theory
+    public void compress_decompress_roundTrip(@FromDataPoints("allCompressions") TransferCompression sut) throws IOException {
+        byte[] content = Some.bytes();
+
+        // ACT
+        byte[] compressed = compress(sut, content, TransferCompression.DEFAULT_LEVEL);
+        byte[] decompressed = decompress(sut, compressed);
+
+        // ASSERT
+        assertArrayEquals(content, decompressed);
+    }
+
+    @Theory
+    public void compress_repetitiveContent_isSmallerAtAllLevels(@FromDataPoints("allCompressions") TransferCompression sut) throws IOException {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            script.append("Write-Host \"Signing artifact ").append(i).append("\"\n");
+        }
+        byte[] content = script.toString().getBytes(StandardCharsets.UTF_8);
+
+        // ACT
+        byte[] fastest = compress(sut, content, TransferCompression.MIN_LEVEL);
+        byte[] smallest = compress(sut, content, TransferCompression.MAX_LEVEL);
+
+        // ASSERT
+        assertTrue(fastest.length < content.length / 2);
+        assertTrue(smallest.length < content.length / 2);
+        assertArrayEquals(content, decompress(sut, fastest));
+        assertArrayEquals(content, decompress(sut, smallest));
+    }
+
+    @DataPoints("allCompressions")
+    public static TransferCompression[] allCompressions() {
+        return TransferCompression.values();
+    }
+
+    private static byte[] compress(TransferCompression compression, byte[] content, int level) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = compression.compress(compressed, level)) {
+            out.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decompress(TransferCompression compression, byte[] compressed) throws IOException {
+        try (InputStream in = compression.decompress(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.jenkins.plugins.signpath.Benchmarks;
+
+import io.jenkins.plugins.signpath.Artifacts.ArtifactHasher;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the SHA-256 hashing of artifacts via {@link ArtifactHasher} with the previous
+ * commons-codec implementation (stream with a small default buffer)
+ * The throughput in MB/s is fileSizeInMegabytes / (ms/op / 1000)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ArtifactHashingBenchmark {
+    private static final int BLOCK_SIZE = 1024 * 1024;
+
+    @Param({"100", "1024", "8192"})
+    public int fileSizeInMegabytes;
+
+    private File artifact;
+
+    @Setup(Level.Trial)
+    public void createArtifact() throws IOException {
+        artifact = File.createTempFile("SignPathHashingBenchmark", ".bin");
+        // random content, so neither the file system nor the disk can take shortcuts (e.g. sparse files or compression)
+        byte[] block = new byte[BLOCK_SIZE];
+        Random random = new Random(42);
+        try (OutputStream out = Files.newOutputStream(artifact.toPath())) {
+            for (int i = 0; i < fileSizeInMegabytes; i++) {
+                random.nextBytes(block);
+                out.write(block);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteArtifact() throws IOException {
+        Files.deleteIfExists(artifact.toPath());
+    }
+
+    @Benchmark
+    public String commonsCodecStream() throws IOException {
+        try (FileInputStream fis = new FileInputStream(artifact)) {
+            return DigestUtils.sha256Hex(fis);
+        }
+    }
+
+    @Benchmark
+    public String artifactHasher() throws IOException {
+        return ArtifactHasher.sha256Hex(artifact);
+    }
+}
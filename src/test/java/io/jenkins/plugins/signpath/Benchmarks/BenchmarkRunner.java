@@ -0,0 +1,29 @@
+package io.jenkins.plugins.signpath.Benchmarks;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all JMH benchmarks of this package
+ * It is intentionally not named *Test, so it is only executed via the jmh-benchmark profile: mvn test -P jmh-benchmark
+ * Single parameters can be overridden via system properties, e.g. -Dbenchmark.fileSizeInMegabytes=100
+ */
+public class BenchmarkRunner {
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(BenchmarkRunner.class.getPackage().getName() + "\\..*Benchmark")
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-report.json");
+
+        String fileSizes = System.getProperty("benchmark.fileSizeInMegabytes");
+        if (fileSizes != null && !fileSizes.isEmpty()) {
+            options.param("fileSizeInMegabytes", fileSizes.split(","));
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package io.jenkins.plugins.signpath.Benchmarks;
+
+import io.jenkins.plugins.signpath.Artifacts.ArtifactDigest;
+import org.apache.commons.codec.binary.Hex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the fingerprint digest of archived artifacts via {@link ArtifactDigest} (MD5 and SHA-256, bulk reads,
+ * reused digests) with the previous implementation (MD5 only, DigestInputStream read byte by byte)
+ * The throughput in MB/s is fileSizeInMegabytes / (ms/op / 1000)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class FingerprintDigestBenchmark {
+    private static final int BLOCK_SIZE = 1024 * 1024;
+
+    // the byte-by-byte loop takes several seconds per GB, larger sizes only make the run longer
+    @Param({"100", "1024"})
+    public int fileSizeInMegabytes;
+
+    private File artifact;
+
+    @Setup(Level.Trial)
+    public void createArtifact() throws IOException {
+        artifact = File.createTempFile("SignPathDigestBenchmark", ".bin");
+        byte[] block = new byte[BLOCK_SIZE];
+        Random random = new Random(42);
+        try (OutputStream out = Files.newOutputStream(artifact.toPath())) {
+            for (int i = 0; i < fileSizeInMegabytes; i++) {
+                random.nextBytes(block);
+                out.write(block);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteArtifact() throws IOException {
+        Files.deleteIfExists(artifact.toPath());
+    }
+
+    @Benchmark
+    public String md5ByteByByte() throws IOException, NoSuchAlgorithmException {
+        MessageDigest md5 = MessageDigest.getInstance("MD5");
+        try (DigestInputStream dis = new DigestInputStream(new BufferedInputStream(new FileInputStream(artifact)), md5)) {
+            //noinspection StatementWithEmptyBody
+            while (dis.read() != -1) {
+            }
+        }
+        return Hex.encodeHexString(md5.digest());
+    }
+
+    @Benchmark
+    public String md5AndSha256Bulk() throws IOException {
+        ArtifactDigest digest = ArtifactDigest.of(artifact);
+        return digest.getMd5Hex() + digest.getSha256Hex();
+    }
+}
@@ -3,6 +3,7 @@ package io.jenkins.plugins.signpath;
 import com.cloudbees.plugins.credentials.CredentialsScope;
 import com.cloudbees.plugins.credentials.CredentialsStore;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import hudson.FilePath;
 import hudson.Launcher;
 import hudson.model.FingerprintMap;
 import hudson.model.Result;
@@ -13,6 +14,7 @@ import io.jenkins.plugins.signpath.Artifacts.DefaultArtifactFileManager;
 import io.jenkins.plugins.signpath.Common.TemporaryFile;
 import io.jenkins.plugins.signpath.Exceptions.ArtifactNotFoundException;
 import io.jenkins.plugins.signpath.TestUtils.*;
+import org.apache.commons.io.IOUtils;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 import org.junit.ClassRule;
@@ -22,6 +24,7 @@ import org.junit.experimental.theories.Theory;
 import org.junit.runner.RunWith;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import jenkins.model.GlobalConfiguration;
@@ -70,6 +73,7 @@ public class GetSignedArtifactStepEndToEndTest {
 
         WorkflowJob workflowJob = createWorkflowJob(
             apiUrl,
+            "outputArtifactPath: 'signed.exe', ",
             trustedBuildSystemTokenCredentialId,
             apiTokenCredentialId,
             organizationId,
@@ -98,6 +102,77 @@ public class GetSignedArtifactStepEndToEndTest {
                 .withHeader("Authorization", equalTo("Bearer " + apiToken)));
     }
 
+    @Theory
+    public void getSignedArtifact_toWorkspace(boolean archive) throws Exception {
+        byte[] signedArtifactBytes = Some.bytes();
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+        String apiToken = Some.stringNonEmpty();
+        String organizationId = Some.uuid().toString();
+        String signingRequestId = Some.uuid().toString();
+
+        CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(j.jenkins);
+        assert credentialStore != null;
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, Some.stringNonEmpty());
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, apiToken);
+
+        String apiUrl = getMockUrl();
+        SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        globalConfig.setApiURL(apiUrl);
+        globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+        globalConfig.setOrganizationId(organizationId);
+
+        wireMockRule.stubFor(get(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/Status"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("{status: 'Completed', workflowStatus: 'Completed', isFinalStatus: true}")));
+
+        wireMockRule.stubFor(get(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/SignedArtifact"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(signedArtifactBytes)));
+
+        String outputParameters = "outputWorkspacePath: 'out/signed.exe', " + (archive ? "outputArtifactPath: 'signed.exe', " : "");
+        WorkflowJob workflowJob = createWorkflowJob(
+                apiUrl,
+                outputParameters,
+                trustedBuildSystemTokenCredentialId,
+                apiTokenCredentialId,
+                organizationId,
+                signingRequestId);
+
+        // ACT
+        WorkflowRun run = j.assertBuildStatusSuccess(workflowJob.scheduleBuild2(0));
+
+        // ASSERT
+        FilePath workspaceArtifact = j.jenkins.getWorkspaceFor(workflowJob).child("out/signed.exe");
+        try (InputStream in = workspaceArtifact.read()) {
+            assertArrayEquals(signedArtifactBytes, IOUtils.toByteArray(in));
+        }
+
+        if (archive) {
+            assertArrayEquals(signedArtifactBytes, getSignedArtifactBytes(run));
+        } else {
+            assertFalse(run.getArtifactManager().root().child("signed.exe").exists());
+        }
+    }
+
+    @Theory
+    public void getSignedArtifact_withoutOutput_fails() throws Exception {
+        WorkflowJob workflowJob = j.createWorkflow("SignPath",
+                "getSignedArtifact(trustedBuildSystemTokenCredentialId: 'tbs', apiTokenCredentialId: 'api', " +
+                        "organizationId: '" + Some.uuid() + "', signingRequestId: '" + Some.uuid() + "');");
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        assertEquals(Result.FAILURE, run.getResult());
+        assertTrue(run.getLog(), run.getLog().contains("outputArtifactPath or outputWorkspacePath must be set"));
+    }
+
     @Theory
     public void getSignedArtifact_withMissingField_fails() throws Exception {
         WorkflowJob workflowJob = j.createWorkflow("SignPath", "getSignedArtifact();");
@@ -117,13 +192,14 @@ public class GetSignedArtifactStepEndToEndTest {
     }
 
     private WorkflowJob createWorkflowJob(String apiUrl,
+                                          String outputParameters,
                                           String trustedBuildSystemTokenCredentialId,
                                           String apiTokenCredentialId,
                                           String organizationId,
                                           String signingRequestId) throws IOException {
         return j.createWorkflow("SignPath",
                 "getSignedArtifact(apiUrl: '" + apiUrl + "', " +
-                        "outputArtifactPath: 'signed.exe', " +
+                        outputParameters +
                         "trustedBuildSystemTokenCredentialId: '" + trustedBuildSystemTokenCredentialId + "'," +
                         "apiTokenCredentialId: '" + apiTokenCredentialId + "'," +
                         "organizationId: '" + organizationId + "'," +
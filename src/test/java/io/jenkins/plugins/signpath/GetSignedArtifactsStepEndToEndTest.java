@@ -0,0 +1,181 @@
+package io.jenkins.plugins.signpath;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.CredentialsStore;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import hudson.Launcher;
+import hudson.model.FingerprintMap;
+import hudson.model.Result;
+import hudson.model.TaskListener;
+import hudson.model.queue.QueueTaskFuture;
+import io.jenkins.plugins.signpath.Artifacts.DefaultArtifactFileManager;
+import io.jenkins.plugins.signpath.Common.TemporaryFile;
+import io.jenkins.plugins.signpath.TestUtils.*;
+import jenkins.model.GlobalConfiguration;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Rule;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.FromDataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.Assert.*;
+
+@RunWith(Theories.class)
+public class GetSignedArtifactsStepEndToEndTest {
+    private static final int MockServerPort = 51000;
+
+    @Rule
+    public final SignPathJenkinsRule j = new SignPathJenkinsRule();
+
+    @Rule
+    public final WireMockRule wireMockRule = new WireMockRule(MockServerPort);
+
+    @Theory
+    public void getSignedArtifacts() throws Exception {
+        String organizationId = Some.uuid().toString();
+        String firstSigningRequestId = Some.uuid().toString();
+        String secondSigningRequestId = Some.uuid().toString();
+        byte[] firstSignedArtifactBytes = Some.bytes();
+        byte[] secondSignedArtifactBytes = Some.bytes();
+        String apiTokenCredentialId = setUpCredentialsAndGlobalConfig();
+
+        stubSigningRequest(organizationId, firstSigningRequestId, "Completed", firstSignedArtifactBytes);
+        stubSigningRequest(organizationId, secondSigningRequestId, "Completed", secondSignedArtifactBytes);
+
+        WorkflowJob workflowJob = createWorkflowJob(apiTokenCredentialId, organizationId,
+                "['bin/first.exe': '" + firstSigningRequestId + "', 'bin/second.exe': '" + secondSigningRequestId + "']", "");
+
+        // ACT
+        WorkflowRun run = runWorkflowJob(workflowJob);
+
+        // ASSERT
+        if (run.getResult() != Result.SUCCESS) {
+            assertEquals("", run.getLog() + run.getResult());
+            fail();
+        }
+
+        assertTrue(run.getLog().contains("<returnValue>:Completed,Completed,2"));
+        assertArrayEquals(firstSignedArtifactBytes, getArtifactBytes(run, "signed/bin/first.exe"));
+        assertArrayEquals(secondSignedArtifactBytes, getArtifactBytes(run, "signed/bin/second.exe"));
+    }
+
+    @Theory
+    public void getSignedArtifacts_withFailedSigningRequest_reportsEveryResult(@FromDataPoints("allBooleans") boolean failOnError) throws Exception {
+        String organizationId = Some.uuid().toString();
+        String failedSigningRequestId = Some.uuid().toString();
+        String completedSigningRequestId = Some.uuid().toString();
+        byte[] signedArtifactBytes = Some.bytes();
+        String apiTokenCredentialId = setUpCredentialsAndGlobalConfig();
+
+        stubSigningRequest(organizationId, failedSigningRequestId, "Failed", Some.bytes());
+        stubSigningRequest(organizationId, completedSigningRequestId, "Completed", signedArtifactBytes);
+
+        WorkflowJob workflowJob = createWorkflowJob(apiTokenCredentialId, organizationId,
+                "['bin/first.exe': '" + failedSigningRequestId + "', 'bin/second.exe': '" + completedSigningRequestId + "']",
+                "failOnError: " + failOnError + ", ");
+
+        // ACT
+        WorkflowRun run = runWorkflowJob(workflowJob);
+
+        // ASSERT
+        assertEquals(failOnError ? Result.FAILURE : Result.SUCCESS, run.getResult());
+        assertTrue(run.getLog().contains("Downloading failed for 1 of 2 signed artifacts: 'bin/first.exe': Failed: Signing request "
+                + failedSigningRequestId + " finished with status 'Failed'"));
+        if (!failOnError) {
+            assertTrue(run.getLog().contains("<returnValue>:Failed: Signing request " + failedSigningRequestId
+                    + " finished with status 'Failed',Completed,2"));
+        }
+
+        // the failure of the first signing request does not prevent the download of the second one
+        assertArrayEquals(signedArtifactBytes, getArtifactBytes(run, "signed/bin/second.exe"));
+        wireMockRule.verify(0, getRequestedFor(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + failedSigningRequestId + "/SignedArtifact")));
+    }
+
+    @Theory
+    public void getSignedArtifacts_withoutOutput_fails() throws Exception {
+        WorkflowJob workflowJob = j.createWorkflow("SignPath",
+                "getSignedArtifacts(trustedBuildSystemTokenCredentialId: 'tbs', apiTokenCredentialId: 'api', " +
+                        "organizationId: '" + Some.uuid() + "', signingRequestIds: ['a.exe': '" + Some.uuid() + "']);");
+
+        // ACT
+        WorkflowRun run = runWorkflowJob(workflowJob);
+
+        // ASSERT
+        assertEquals(Result.FAILURE, run.getResult());
+        assertTrue(run.getLog(), run.getLog().contains("outputArtifactDirectory or outputWorkspaceDirectory must be set"));
+    }
+
+    private String setUpCredentialsAndGlobalConfig() throws IOException {
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+
+        CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(j.jenkins);
+        assert credentialStore != null;
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, Some.stringNonEmpty());
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, Some.stringNonEmpty());
+
+        SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        globalConfig.setApiURL(getMockUrl());
+        globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+        return apiTokenCredentialId;
+    }
+
+    private WorkflowJob createWorkflowJob(String apiTokenCredentialId, String organizationId, String signingRequestIds, String additionalParameters) throws IOException {
+        return j.createWorkflow("SignPath",
+                "def results = getSignedArtifacts(" +
+                        "signingRequestIds: " + signingRequestIds + ", " +
+                        "outputArtifactDirectory: 'signed', " +
+                        additionalParameters +
+                        "apiTokenCredentialId: '" + apiTokenCredentialId + "'," +
+                        "organizationId: '" + organizationId + "'," +
+                        "maxConcurrentDownloads: 2," +
+                        "serviceUnavailableTimeoutInSeconds: 10," +
+                        "uploadAndDownloadRequestTimeoutInSeconds: 10," +
+                        "waitForCompletionTimeoutInSeconds: 10); " +
+                        "echo '<returnValue>:' + results['bin/first.exe'] + ',' + results['bin/second.exe'] + ',' + results.size();");
+    }
+
+    private WorkflowRun runWorkflowJob(WorkflowJob workflowJob) throws Exception {
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0);
+        assert runFuture != null;
+        return runFuture.get();
+    }
+
+    // ---- WireMock stubs ----
+
+    private void stubSigningRequest(String organizationId, String signingRequestId, String status, byte[] signedArtifactBytes) {
+        wireMockRule.stubFor(get(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/Status"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("{status: '" + status + "', workflowStatus: '" + status + "', isFinalStatus: true}")));
+
+        wireMockRule.stubFor(get(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/SignedArtifact"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(signedArtifactBytes)));
+    }
+
+    private String getMockUrl() {
+        return String.format("http://localhost:%d/", MockServerPort);
+    }
+
+    private byte[] getArtifactBytes(WorkflowRun run, String artifactPath) throws Exception {
+        Launcher launcher = j.createLocalLauncher();
+        TaskListener listener = j.createTaskListener();
+        FingerprintMap fingerprintMap = j.jenkins.getFingerprintMap();
+        DefaultArtifactFileManager artifactFileManager = new DefaultArtifactFileManager(fingerprintMap, run, launcher, listener);
+        TemporaryFile signedArtifact = artifactFileManager.retrieveArtifact(artifactPath);
+        return TemporaryFileUtil.getContentAndDispose(signedArtifact);
+    }
+
+    @DataPoints("allBooleans")
+    public static boolean[] allBooleans() {
+        return new boolean[]{true, false};
+    }
+}
@@ -12,6 +12,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import hudson.util.FormValidation;
 import hudson.util.FormValidation.Kind;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiClientImplementation;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiCircuitBreaker;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiRateLimiter;
+import io.jenkins.plugins.signpath.ApiIntegration.SigningRequestPollingService;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactTransferMode;
+import io.jenkins.plugins.signpath.Artifacts.HashRecordingMode;
+import io.jenkins.plugins.signpath.Artifacts.TransferCompression;
 import io.jenkins.plugins.signpath.Exceptions.SecretNotFoundException;
 import io.jenkins.plugins.signpath.SecretRetrieval.CredentialBasedSecretRetriever;
 import io.jenkins.plugins.signpath.TestUtils.CredentialStoreUtils;
@@ -120,4 +127,163 @@ public class SignPathPluginGlobalConfigurationTest {
         FormValidation result = config.doCheckOrganizationId("");
         assertEquals("Validation should pass for an empty value.", FormValidation.Kind.OK, result.kind);
     }
+
+    @Test
+    public void testGetAndSetArtifactTransferMode() {
+        assertEquals("The transfer mode should default to the controller.", ArtifactTransferMode.CONTROLLER, config.getArtifactTransferMode());
+        config.setArtifactTransferMode(ArtifactTransferMode.AGENT);
+        assertEquals("The transfer mode should match the set value.", ArtifactTransferMode.AGENT, config.getArtifactTransferMode());
+    }
+
+    @Test
+    public void testGetAndSetHashRecordingMode() {
+        assertEquals("Hash files should be archived per artifact by default.", HashRecordingMode.SIDECAR_FILE, config.getHashRecordingMode());
+        config.setHashRecordingMode(HashRecordingMode.MANIFEST);
+        assertEquals("The hash recording mode should match the set value.", HashRecordingMode.MANIFEST, config.getHashRecordingMode());
+    }
+
+    @Test
+    public void testGetAndSetArtifactHashCacheSize() {
+        assertEquals("The hash cache should be disabled by default.", 0, config.getArtifactHashCacheSize());
+        config.setArtifactHashCacheSize(500);
+        assertEquals("The hash cache size should match the set value.", 500, config.getArtifactHashCacheSize());
+    }
+
+    @Test
+    public void testDoCheckArtifactHashCacheSize_Negative() {
+        FormValidation result = config.doCheckArtifactHashCacheSize("-1");
+        assertEquals("Validation should fail for a negative size.", FormValidation.Kind.ERROR, result.kind);
+    }
+
+    @Test
+    public void testGetAndSetArtifactTransferCompression() {
+        assertEquals("The compression should default to GZIP.", TransferCompression.GZIP, config.getArtifactTransferCompression());
+        config.setArtifactTransferCompression(TransferCompression.DEFLATE);
+        config.setArtifactTransferCompressionLevel(9);
+        assertEquals("The compression should match the set value.", TransferCompression.DEFLATE, config.getArtifactTransferCompression());
+        assertEquals("The compression level should match the set value.", 9, config.getArtifactTransferCompressionLevel());
+    }
+
+    @Test
+    public void testSetArtifactTransferCompressionLevel_OutOfRange_IsClamped() {
+        config.setArtifactTransferCompressionLevel(42);
+        assertEquals("A level above the maximum should be clamped.", TransferCompression.MAX_LEVEL, config.getArtifactTransferCompressionLevel());
+        config.setArtifactTransferCompressionLevel(-5);
+        assertEquals("A level below the minimum should be clamped.", TransferCompression.MIN_LEVEL, config.getArtifactTransferCompressionLevel());
+    }
+
+    @Test
+    public void testDoCheckArtifactTransferCompressionLevel_OutOfRange() {
+        FormValidation result = config.doCheckArtifactTransferCompressionLevel("10");
+        assertEquals("Validation should fail for a level above 9.", FormValidation.Kind.ERROR, result.kind);
+    }
+
+    @Test
+    public void testGetAndSetAsynchronousWaitForCompletion() {
+        assertFalse("Waiting should be synchronous by default.", config.getAsynchronousWaitForCompletion());
+        config.setAsynchronousWaitForCompletion(true);
+        assertTrue("The asynchronous wait flag should match the set value.", config.getAsynchronousWaitForCompletion());
+    }
+
+    @Test
+    public void testGetAndSetSignedArtifactCacheSizeInMegabytes() {
+        assertEquals("The signed artifact cache should be disabled by default.", 0, config.getSignedArtifactCacheSizeInMegabytes());
+        config.setSignedArtifactCacheSizeInMegabytes(1024);
+        assertEquals("The cache size should match the set value.", 1024, config.getSignedArtifactCacheSizeInMegabytes());
+    }
+
+    @Test
+    public void testDoCheckSignedArtifactCacheSizeInMegabytes_Negative() {
+        FormValidation result = config.doCheckSignedArtifactCacheSizeInMegabytes("-1");
+        assertEquals("Validation should fail for a negative size.", FormValidation.Kind.ERROR, result.kind);
+    }
+
+    @Test
+    public void testGetAndSetDeduplicateArchivedArtifacts() {
+        assertFalse("Deduplication should be disabled by default.", config.getDeduplicateArchivedArtifacts());
+        config.setDeduplicateArchivedArtifacts(true);
+        assertTrue("The deduplication flag should match the set value.", config.getDeduplicateArchivedArtifacts());
+        config.setDeduplicateArchivedArtifacts(false);
+    }
+
+    @Test
+    public void testGetAndSetApiClientImplementation() {
+        assertEquals("The SignPath client should be used by default.", ApiClientImplementation.SIGNPATH_CLIENT, config.getApiClientImplementation());
+        config.setApiClientImplementation(ApiClientImplementation.JDK_HTTP_CLIENT);
+        assertEquals("The API client should match the set value.", ApiClientImplementation.JDK_HTTP_CLIENT, config.getApiClientImplementation());
+    }
+
+    @Test
+    public void testGetAndSetMaxCallsPerMinute() {
+        assertEquals("Submit calls should not be limited by default.", 0, config.getMaxSubmitCallsPerMinute());
+        assertEquals("Status calls should be limited to 10 per second by default.", 600, config.getMaxStatusCallsPerMinute());
+        assertEquals("Transfer calls should not be limited by default.", 0, config.getMaxTransferCallsPerMinute());
+        config.setMaxSubmitCallsPerMinute(30);
+        config.setMaxStatusCallsPerMinute(300);
+        config.setMaxTransferCallsPerMinute(120);
+        assertEquals("The submit limit should match the set value.", 30, config.getMaxSubmitCallsPerMinute());
+        assertEquals("The rate limiter should use the submit limit.", 30, ApiRateLimiter.get().getMaxCallsPerMinute(ApiRateLimiter.CallType.SUBMIT));
+        assertEquals("The rate limiter should use the status limit.", 300, ApiRateLimiter.get().getMaxCallsPerMinute(ApiRateLimiter.CallType.STATUS));
+        assertEquals("The rate limiter should use the transfer limit.", 120, ApiRateLimiter.get().getMaxCallsPerMinute(ApiRateLimiter.CallType.TRANSFER));
+    }
+
+    @Test
+    public void testDoCheckMaxSubmitCallsPerMinute_Negative() {
+        FormValidation result = config.doCheckMaxSubmitCallsPerMinute("-1");
+        assertEquals("Validation should fail for a negative limit.", FormValidation.Kind.ERROR, result.kind);
+    }
+
+    @Test
+    public void testGetAndSetMaxConcurrentTransfers() {
+        assertEquals(SigningRequestPollingService.DEFAULT_MAX_CONCURRENT_TRANSFERS, config.getMaxConcurrentTransfers());
+        config.setMaxConcurrentTransfers(4);
+        assertEquals("Max. concurrent transfers should match the set value.", 4, config.getMaxConcurrentTransfers());
+        assertEquals("The transfer pool should use the set value.", 4, SigningRequestPollingService.get().getMaxConcurrentTransfers());
+        assertEquals("0 running, 0 queued", config.getTransferStatistics());
+    }
+
+    @Test
+    public void testDoCheckMaxConcurrentTransfers_Zero() {
+        FormValidation result = config.doCheckMaxConcurrentTransfers("0");
+        assertEquals("Validation should fail if no transfer is allowed.", FormValidation.Kind.ERROR, result.kind);
+    }
+
+    @Test
+    public void testGetAndSetCircuitBreaker() {
+        assertEquals("The circuit breaker should be disabled by default.", 0, config.getCircuitBreakerFailureRateThresholdPercent());
+        assertFalse(ApiCircuitBreaker.get().isEnabled());
+        assertEquals(ApiCircuitBreaker.DEFAULT_OPEN_DURATION_IN_SECONDS, config.getCircuitBreakerOpenDurationInSeconds());
+        config.setCircuitBreakerFailureRateThresholdPercent(50);
+        config.setCircuitBreakerOpenDurationInSeconds(120);
+        assertEquals("The failure rate threshold should match the set value.", 50, config.getCircuitBreakerFailureRateThresholdPercent());
+        assertEquals("The open duration should match the set value.", 120, config.getCircuitBreakerOpenDurationInSeconds());
+        assertEquals("The circuit breaker should use the failure rate threshold.", 50, ApiCircuitBreaker.get().getFailureRateThresholdPercent());
+        assertTrue(config.getApiCircuitBreakerStatistics().startsWith("closed"));
+    }
+
+    @Test
+    public void testGetSignPathClientPoolStatistics() {
+        assertTrue(config.getSignPathClientPoolStatistics().contains("responses read completely"));
+    }
+
+    @Test
+    public void testDoCheckCircuitBreakerFailureRateThresholdPercent_AboveHundred() {
+        FormValidation result = config.doCheckCircuitBreakerFailureRateThresholdPercent("101");
+        assertEquals("Validation should fail for a failure rate above 100 percent.", FormValidation.Kind.ERROR, result.kind);
+    }
+
+    @Test
+    public void testDoCheckCircuitBreakerOpenDurationInSeconds_Zero() {
+        FormValidation result = config.doCheckCircuitBreakerOpenDurationInSeconds("0");
+        assertEquals("Validation should fail for an open duration of 0 seconds.", FormValidation.Kind.ERROR, result.kind);
+    }
+
+    @Test
+    public void testGetAndSetCompletionCallbackCredentialId() {
+        assertNull("Completion callbacks should be disabled by default.", config.getCompletionCallbackCredentialId());
+        assertFalse(SigningRequestPollingService.get().getCompletionCallbacksEnabled());
+        config.setCompletionCallbackCredentialId("callback-secret");
+        assertEquals("The completion callback credential ID should match the set value.", "callback-secret", config.getCompletionCallbackCredentialId());
+        assertTrue("Status checks should back off further with completion callbacks.", SigningRequestPollingService.get().getCompletionCallbacksEnabled());
+    }
 }
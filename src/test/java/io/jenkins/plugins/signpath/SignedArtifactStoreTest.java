@@ -0,0 +1,88 @@
+package io.jenkins.plugins.signpath;
+
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactFileManager;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class SignedArtifactStoreTest {
+    private static final UUID ORGANIZATION_ID = UUID.randomUUID();
+
+    @Test
+    public void store_archivedConcurrently_downloadsOverlap() throws Exception {
+        UUID firstSigningRequestId = Some.uuid();
+        UUID secondSigningRequestId = Some.uuid();
+        // each download only finishes once both of them are in progress
+        CountDownLatch bothDownloading = new CountDownLatch(2);
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.downloadSignedArtifact(ORGANIZATION_ID, firstSigningRequestId)).thenReturn(new OverlappingDownload(bothDownloading));
+        when(facade.downloadSignedArtifact(ORGANIZATION_ID, secondSigningRequestId)).thenReturn(new OverlappingDownload(bothDownloading));
+        ArtifactFileManager artifactFileManager = mock(ArtifactFileManager.class);
+        doAnswer(invocation -> {
+            // like the real artifact file manager, the download is consumed while it is archived
+            IOUtils.toByteArray((InputStream) invocation.getArguments()[0]);
+            return null;
+        }).when(artifactFileManager).storeArtifact(any(InputStream.class), anyString());
+        SignedArtifactStore sut = new SignedArtifactStore(facade, artifactFileManager, new PrintStream(new ByteArrayOutputStream()));
+
+        // ACT
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> store(sut, firstSigningRequestId, "first.exe"));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> store(sut, secondSigningRequestId, "second.exe"));
+
+        // ASSERT
+        first.get(10, TimeUnit.SECONDS);
+        second.get(10, TimeUnit.SECONDS);
+        verify(artifactFileManager).storeArtifact(any(InputStream.class), eq("first.exe"));
+        verify(artifactFileManager).storeArtifact(any(InputStream.class), eq("second.exe"));
+    }
+
+    private static void store(SignedArtifactStore sut, UUID signingRequestId, String outputArtifactPath) {
+        try {
+            sut.store(ORGANIZATION_ID, signingRequestId, null, null, outputArtifactPath);
+        } catch (Exception ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    private static final class OverlappingDownload extends InputStream {
+        private final CountDownLatch bothDownloading;
+        private boolean started;
+
+        private OverlappingDownload(CountDownLatch bothDownloading) {
+            this.bothDownloading = bothDownloading;
+        }
+
+        @Override
+        public int read() throws InterruptedIOException {
+            if (!started) {
+                started = true;
+                bothDownloading.countDown();
+                try {
+                    if (!bothDownloading.await(5, TimeUnit.SECONDS)) {
+                        throw new InterruptedIOException("The other download did not start while this one was in progress");
+                    }
+                } catch (InterruptedException ex) {
+                    throw new InterruptedIOException();
+                }
+                return 's';
+            }
+            return -1;
+        }
+    }
+}
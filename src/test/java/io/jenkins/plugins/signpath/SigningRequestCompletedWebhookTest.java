@@ -0,0 +1,121 @@
+package io.jenkins.plugins.signpath;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import hudson.util.Secret;
+import io.jenkins.plugins.signpath.ApiIntegration.ApiConfiguration;
+import io.jenkins.plugins.signpath.ApiIntegration.Model.SigningRequestStatus;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathCredentials;
+import io.jenkins.plugins.signpath.ApiIntegration.SignPathFacade;
+import io.jenkins.plugins.signpath.ApiIntegration.SigningRequestPollingService;
+import io.jenkins.plugins.signpath.TestUtils.CredentialStoreUtils;
+import io.jenkins.plugins.signpath.TestUtils.SignPathJenkinsRule;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import jenkins.model.GlobalConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class SigningRequestCompletedWebhookTest {
+    private static final SigningRequestStatus COMPLETED = new SigningRequestStatus("Completed", "Completed", true);
+
+    @Rule
+    public final SignPathJenkinsRule j = new SignPathJenkinsRule();
+
+    @Test
+    public void post_validSignature_checksWaitingSigningRequestRightAway() throws Exception {
+        String secret = configureCallbackSecret();
+        UUID organizationId = Some.uuid();
+        UUID signingRequestId = Some.uuid();
+        SignPathFacade facade = mock(SignPathFacade.class);
+        when(facade.getSigningRequestStatus(organizationId, signingRequestId)).thenReturn(COMPLETED);
+        // without the callback, the first status check would be up to 10 minutes away
+        ApiConfiguration apiConfiguration = new ApiConfiguration(new URL(Some.url()), 1, 1, 3600, 600, 0, 0, 0, 0);
+        CompletableFuture<SigningRequestStatus> finalStatus = SigningRequestPollingService.get().awaitFinalStatus(
+                facade, new SignPathCredentials(Secret.fromString(Some.stringNonEmpty()), Secret.fromString(Some.stringNonEmpty())),
+                organizationId, signingRequestId, apiConfiguration, new PrintStream(new ByteArrayOutputStream()));
+
+        // ACT
+        byte[] payload = payload(organizationId, signingRequestId);
+        int statusCode = post(payload, SigningRequestCompletedWebhook.sign(Secret.fromString(secret), payload));
+
+        // ASSERT
+        assertEquals(HttpURLConnection.HTTP_ACCEPTED, statusCode);
+        assertSame(COMPLETED, finalStatus.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void post_invalidSignature_isRejected() throws Exception {
+        configureCallbackSecret();
+        byte[] payload = payload(Some.uuid(), Some.uuid());
+
+        // ACT
+        int statusCode = post(payload, SigningRequestCompletedWebhook.sign(Secret.fromString(Some.stringNonEmpty()), payload));
+
+        // ASSERT
+        assertEquals(HttpURLConnection.HTTP_FORBIDDEN, statusCode);
+    }
+
+    @Test
+    public void post_missingSignature_isRejected() throws Exception {
+        configureCallbackSecret();
+
+        // ACT
+        int statusCode = post(payload(Some.uuid(), Some.uuid()), null);
+
+        // ASSERT
+        assertEquals(HttpURLConnection.HTTP_FORBIDDEN, statusCode);
+    }
+
+    @Test
+    public void post_callbacksNotConfigured_notFound() throws Exception {
+        byte[] payload = payload(Some.uuid(), Some.uuid());
+
+        // ACT
+        int statusCode = post(payload, SigningRequestCompletedWebhook.sign(Secret.fromString(Some.stringNonEmpty()), payload));
+
+        // ASSERT
+        assertEquals(HttpURLConnection.HTTP_NOT_FOUND, statusCode);
+    }
+
+    private String configureCallbackSecret() throws IOException {
+        String credentialId = Some.stringNonEmpty();
+        String secret = Some.stringNonEmpty();
+        CredentialStoreUtils.addCredentials(CredentialStoreUtils.getCredentialStore(j.jenkins), CredentialsScope.SYSTEM, credentialId, secret);
+        GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class).setCompletionCallbackCredentialId(credentialId);
+        return secret;
+    }
+
+    private static byte[] payload(UUID organizationId, UUID signingRequestId) {
+        return String.format("{\"organizationId\": \"%s\", \"signingRequestId\": \"%s\"}", organizationId, signingRequestId)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private int post(byte[] payload, String signature) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(j.getURL(), SigningRequestCompletedWebhook.URL_NAME + "/").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        if (signature != null) {
+            connection.setRequestProperty(SigningRequestCompletedWebhook.SIGNATURE_HEADER, signature);
+        }
+        try (OutputStream body = connection.getOutputStream()) {
+            body.write(payload);
+        }
+        int statusCode = connection.getResponseCode();
+        connection.disconnect();
+        return statusCode;
+    }
+}
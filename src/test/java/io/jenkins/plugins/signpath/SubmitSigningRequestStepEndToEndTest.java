@@ -2,6 +2,7 @@ package io.jenkins.plugins.signpath;
 
 import com.cloudbees.plugins.credentials.CredentialsScope;
 import com.cloudbees.plugins.credentials.CredentialsStore;
+import com.github.tomakehurst.wiremock.http.Fault;
 import com.github.tomakehurst.wiremock.http.Request;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import hudson.Launcher;
@@ -9,8 +10,12 @@ import hudson.model.FingerprintMap;
 import hudson.model.Result;
 import hudson.model.TaskListener;
 import hudson.model.queue.QueueTaskFuture;
+import hudson.slaves.DumbSlave;
 import hudson.plugins.git.util.BuildData;
+import io.jenkins.plugins.signpath.Artifacts.ArtifactTransferMode;
 import io.jenkins.plugins.signpath.Artifacts.DefaultArtifactFileManager;
+import io.jenkins.plugins.signpath.Artifacts.HashRecordingMode;
+import io.jenkins.plugins.signpath.Artifacts.SigningManifest;
 import io.jenkins.plugins.signpath.Common.TemporaryFile;
 import io.jenkins.plugins.signpath.Exceptions.ArtifactNotFoundException;
 import io.jenkins.plugins.signpath.TestUtils.*;
@@ -33,6 +38,7 @@ import java.nio.file.Files;
 import java.util.Base64;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import jenkins.model.GlobalConfiguration;
 import static org.junit.Assert.*;
 
@@ -180,6 +186,239 @@ public class SubmitSigningRequestStepEndToEndTest {
         wireMockRule.verify(exactly(0), postRequestedFor(urlEqualTo("/v1/" + organizationId + "/SigningRequests")));
     }
 
+    @Theory
+    public void submitSigningRequest_withAgentTransferMode(@FromDataPoints("allBooleans") boolean waitForCompletion) throws Exception {
+        byte[] signedArtifactBytes = Some.bytes();
+        String unsignedArtifactString = Some.stringNonEmpty();
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String trustedBuildSystemToken = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+        String apiToken = Some.stringNonEmpty();
+        String organizationId = Some.uuid().toString();
+        String signingRequestId = Some.uuid().toString();
+
+        CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(j.jenkins);
+        assert credentialStore != null;
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, trustedBuildSystemToken);
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, apiToken);
+
+        String apiUrl = getMockUrl();
+        String uploadPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/UploadUnsignedArtifact";
+
+        stubSubmitWithoutArtifact(organizationId, signingRequestId, getMockUrl(uploadPath.substring(1)));
+        stubUploadUnsignedArtifact(uploadPath);
+        if (waitForCompletion) {
+            stubGetSigningRequestCompleted(organizationId, signingRequestId, signedArtifactBytes);
+        }
+
+        SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        globalConfig.setApiURL(apiUrl);
+        globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+        globalConfig.setArtifactTransferMode(ArtifactTransferMode.AGENT);
+
+        // the build can only run on the agent, so the transfers really run on the agent and not on the controller
+        DumbSlave agent = j.createOnlineSlave();
+        j.jenkins.setNumExecutors(0);
+
+        WorkflowJob workflowJob = createWorkflowJob(apiUrl, trustedBuildSystemTokenCredentialId, apiTokenCredentialId,
+                organizationId, Some.stringNonEmpty(), Some.stringNonEmpty(), unsignedArtifactString, waitForCompletion);
+
+        BuildData buildData = new BuildData(Some.stringNonEmpty());
+        buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+        buildData.addRemoteUrl(Some.url());
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        if (run.getResult() != Result.SUCCESS) {
+            assertEquals("", run.getLog() + run.getResult());
+            fail();
+        }
+
+        assertTrue(run.getLog().contains("Running on " + agent.getNodeName()));
+        assertTrue(run.getLog().contains("directly from the agent"));
+        assertTrue(run.getLog().contains("<returnValue>:\"" + signingRequestId + "\""));
+        assertUploadRequest(uploadPath, unsignedArtifactString);
+
+        if (waitForCompletion) {
+            assertArrayEquals(signedArtifactBytes, getSignedArtifactBytes(run));
+        }
+    }
+
+    @Theory
+    public void submitSigningRequest_onAgentWithCompressedControllerTransferMode(@FromDataPoints("allBooleans") boolean waitForCompletion) throws Exception {
+        byte[] signedArtifactBytes = Some.bytes();
+        String unsignedArtifactString = Some.stringNonEmpty();
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String trustedBuildSystemToken = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+        String apiToken = Some.stringNonEmpty();
+        String organizationId = Some.uuid().toString();
+        String signingRequestId = Some.uuid().toString();
+
+        CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(j.jenkins);
+        assert credentialStore != null;
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, trustedBuildSystemToken);
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, apiToken);
+
+        String apiUrl = getMockUrl();
+        String uploadPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/UploadUnsignedArtifact";
+
+        stubSubmitWithoutArtifact(organizationId, signingRequestId, getMockUrl(uploadPath.substring(1)));
+        stubUploadUnsignedArtifact(uploadPath);
+        if (waitForCompletion) {
+            stubGetSigningRequestCompleted(organizationId, signingRequestId, signedArtifactBytes);
+        }
+
+        SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        globalConfig.setApiURL(apiUrl);
+        globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+        globalConfig.setArtifactTransferMode(ArtifactTransferMode.COMPRESSED_CONTROLLER);
+
+        // the build can only run on the agent, so the artifact really crosses the remoting channel compressed
+        DumbSlave agent = j.createOnlineSlave();
+        j.jenkins.setNumExecutors(0);
+
+        WorkflowJob workflowJob = createWorkflowJob(apiUrl, trustedBuildSystemTokenCredentialId, apiTokenCredentialId,
+                organizationId, Some.stringNonEmpty(), Some.stringNonEmpty(), unsignedArtifactString, waitForCompletion);
+
+        BuildData buildData = new BuildData(Some.stringNonEmpty());
+        buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+        buildData.addRemoteUrl(Some.url());
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        if (run.getResult() != Result.SUCCESS) {
+            assertEquals("", run.getLog() + run.getResult());
+            fail();
+        }
+
+        assertTrue(run.getLog().contains("Running on " + agent.getNodeName()));
+        assertTrue(run.getLog().contains("(compressed between agent and controller)"));
+        assertTrue(run.getLog().contains("<returnValue>:\"" + signingRequestId + "\""));
+        // SignPath receives the original artifact, the compression only applies between agent and controller
+        assertUploadRequest(uploadPath, unsignedArtifactString);
+
+        if (waitForCompletion) {
+            assertArrayEquals(signedArtifactBytes, getSignedArtifactBytes(run));
+        }
+    }
+
+    @Theory
+    public void submitSigningRequest_withDroppedUploadConnection_retriesUpload(@FromDataPoints("allTransferModes") ArtifactTransferMode transferMode) throws Exception {
+        String unsignedArtifactString = Some.stringNonEmpty();
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String trustedBuildSystemToken = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+        String apiToken = Some.stringNonEmpty();
+        String organizationId = Some.uuid().toString();
+        String signingRequestId = Some.uuid().toString();
+
+        CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(j.jenkins);
+        assert credentialStore != null;
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, trustedBuildSystemToken);
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, apiToken);
+
+        String apiUrl = getMockUrl();
+        String uploadPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/UploadUnsignedArtifact";
+
+        stubSubmitWithoutArtifact(organizationId, signingRequestId, getMockUrl(uploadPath.substring(1)));
+        stubUploadUnsignedArtifactWithDroppedConnection(uploadPath);
+
+        SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        globalConfig.setApiURL(apiUrl);
+        globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+        globalConfig.setArtifactTransferMode(transferMode);
+
+        WorkflowJob workflowJob = createWorkflowJob(apiUrl, trustedBuildSystemTokenCredentialId, apiTokenCredentialId,
+                organizationId, Some.stringNonEmpty(), Some.stringNonEmpty(), unsignedArtifactString, false);
+
+        BuildData buildData = new BuildData(Some.stringNonEmpty());
+        buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+        buildData.addRemoteUrl(Some.url());
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        if (run.getResult() != Result.SUCCESS) {
+            assertEquals("", run.getLog() + run.getResult());
+            fail();
+        }
+
+        assertTrue(run.getLog().contains("<returnValue>:\"" + signingRequestId + "\""));
+        // the first attempt is dropped, the complete artifact is sent again by the retry
+        wireMockRule.verify(2, postRequestedFor(urlEqualTo(uploadPath)));
+        assertUploadRequest(uploadPath, unsignedArtifactString);
+    }
+
+    @Theory
+    public void submitSigningRequest_withAsynchronousWaitForCompletion(@FromDataPoints("allBooleans") boolean completesSuccessfully) throws Exception {
+        byte[] signedArtifactBytes = Some.bytes();
+        String unsignedArtifactString = Some.stringNonEmpty();
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+        String organizationId = Some.uuid().toString();
+        String signingRequestId = Some.uuid().toString();
+
+        CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(j.jenkins);
+        assert credentialStore != null;
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, Some.stringNonEmpty());
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, Some.stringNonEmpty());
+
+        String apiUrl = getMockUrl();
+        String uploadPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/UploadUnsignedArtifact";
+
+        stubSubmitWithoutArtifact(organizationId, signingRequestId, getMockUrl(uploadPath.substring(1)));
+        stubUploadUnsignedArtifact(uploadPath);
+        stubGetSigningRequestInProgressThenFinal(organizationId, signingRequestId, completesSuccessfully ? "Completed" : "Denied", signedArtifactBytes);
+
+        SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        globalConfig.setApiURL(apiUrl);
+        globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+        globalConfig.setAsynchronousWaitForCompletion(true);
+
+        WorkflowJob workflowJob = createWorkflowJob(apiUrl, trustedBuildSystemTokenCredentialId, apiTokenCredentialId,
+                organizationId, Some.stringNonEmpty(), Some.stringNonEmpty(), unsignedArtifactString, true);
+
+        BuildData buildData = new BuildData(Some.stringNonEmpty());
+        buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+        buildData.addRemoteUrl(Some.url());
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        String statusPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/Status";
+        // the first check sees the request in progress, the next scheduled one sees the final status
+        wireMockRule.verify(2, getRequestedFor(urlEqualTo(statusPath)));
+        assertUploadRequest(uploadPath, unsignedArtifactString);
+
+        if (completesSuccessfully) {
+            if (run.getResult() != Result.SUCCESS) {
+                assertEquals("", run.getLog() + run.getResult());
+                fail();
+            }
+            assertTrue(run.getLog().contains("<returnValue>:\"" + signingRequestId + "\""));
+            assertArrayEquals(signedArtifactBytes, getSignedArtifactBytes(run));
+        } else {
+            assertEquals(Result.FAILURE, run.getResult());
+            assertTrue(run.getLog(), run.getLog().contains("finished with status 'Denied'"));
+            wireMockRule.verify(exactly(0), getRequestedFor(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/SignedArtifact")));
+        }
+    }
+
     @Theory
     public void submitSigningRequest_onlyHashFileIsUploadedToJenkins() throws Exception {
         String unsignedArtifactString = Some.stringNonEmpty();
@@ -251,6 +490,63 @@ public class SubmitSigningRequestStepEndToEndTest {
         }
     }
 
+    @Theory
+    public void submitSigningRequest_withHashManifest_archivesManifestInsteadOfHashFile() throws Exception {
+        String unsignedArtifactString = Some.stringNonEmpty();
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+        String organizationId = Some.uuid().toString();
+        String signingRequestId = Some.uuid().toString();
+
+        CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(j.jenkins);
+        assert credentialStore != null;
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, Some.stringNonEmpty());
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, Some.stringNonEmpty());
+
+        String apiUrl = getMockUrl();
+        String uploadPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/UploadUnsignedArtifact";
+
+        stubSubmitWithoutArtifact(organizationId, signingRequestId, getMockUrl(uploadPath.substring(1)));
+        stubUploadUnsignedArtifact(uploadPath);
+
+        SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        globalConfig.setApiURL(apiUrl);
+        globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+        globalConfig.setHashRecordingMode(HashRecordingMode.MANIFEST);
+
+        WorkflowJob workflowJob = createWorkflowJob(apiUrl, trustedBuildSystemTokenCredentialId, apiTokenCredentialId,
+                organizationId, Some.stringNonEmpty(), Some.stringNonEmpty(), unsignedArtifactString, false);
+
+        BuildData buildData = new BuildData(Some.stringNonEmpty());
+        buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+        buildData.addRemoteUrl(Some.url());
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        if (run.getResult() != Result.SUCCESS) {
+            assertEquals("", run.getLog() + run.getResult());
+            fail();
+        }
+
+        DefaultArtifactFileManager artifactFileManager = new DefaultArtifactFileManager(
+                j.jenkins.getFingerprintMap(), run, j.createLocalLauncher(), j.createTaskListener());
+
+        String expectedSha256Hex = DigestUtils.sha256Hex(unsignedArtifactString.getBytes(StandardCharsets.UTF_8));
+        byte[] manifestContent = TemporaryFileUtil.getContentAndDispose(artifactFileManager.retrieveArtifact(SigningManifest.ARTIFACT_PATH));
+        assertEquals(expectedSha256Hex + "  unsigned.exe", new String(manifestContent, StandardCharsets.UTF_8).trim());
+
+        try {
+            artifactFileManager.retrieveArtifact("unsigned.exe.sha256");
+            fail("Expected ArtifactNotFoundException: no hash file is archived in manifest mode");
+        } catch (ArtifactNotFoundException expected) {
+            // correct: the hash is only part of the manifest
+        }
+    }
+
     @Theory
     public void submitSigningRequest_withArtifactRetrievalUrl(@FromDataPoints("allBooleans") boolean waitForCompletion) throws Exception {
         byte[] signedArtifactBytes = Some.bytes();
@@ -427,6 +723,21 @@ public class SubmitSigningRequestStepEndToEndTest {
                 .willReturn(aResponse().withStatus(202)));
     }
 
+    private void stubUploadUnsignedArtifactWithDroppedConnection(String uploadPath) {
+        String scenario = "dropped upload connection";
+
+        wireMockRule.stubFor(post(urlEqualTo(uploadPath))
+                .inScenario(scenario)
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER))
+                .willSetStateTo("connection dropped"));
+
+        wireMockRule.stubFor(post(urlEqualTo(uploadPath))
+                .inScenario(scenario)
+                .whenScenarioStateIs("connection dropped")
+                .willReturn(aResponse().withStatus(202)));
+    }
+
     private void stubGetSigningRequestCompleted(String organizationId, String signingRequestId, byte[] signedArtifactBytes) {
         String downloadSignedArtifact = "downloadSignedArtifact";
 
@@ -446,6 +757,31 @@ public class SubmitSigningRequestStepEndToEndTest {
                         .withBody(signedArtifactBytes)));
     }
 
+    private void stubGetSigningRequestInProgressThenFinal(String organizationId, String signingRequestId, String finalStatus, byte[] signedArtifactBytes) {
+        String scenario = "signing request in progress";
+        String statusPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/Status";
+
+        wireMockRule.stubFor(get(urlEqualTo(statusPath))
+                .inScenario(scenario)
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("{status: 'InProgress', workflowStatus: 'Processing', isFinalStatus: false}"))
+                .willSetStateTo("final"));
+
+        wireMockRule.stubFor(get(urlEqualTo(statusPath))
+                .inScenario(scenario)
+                .whenScenarioStateIs("final")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("{status: '" + finalStatus + "', workflowStatus: '" + finalStatus + "', isFinalStatus: true}")));
+
+        wireMockRule.stubFor(get(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/SignedArtifact"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(signedArtifactBytes)));
+    }
+
     // ---- Pipeline builders ----
 
     private WorkflowJob createWorkflowJobWithOptionalParameters(String apiUrl,
@@ -656,6 +992,11 @@ public class SubmitSigningRequestStepEndToEndTest {
         return TemporaryFileUtil.getContentAndDispose(signedArtifact);
     }
 
+    @DataPoints("allTransferModes")
+    public static ArtifactTransferMode[] allTransferModes() {
+        return ArtifactTransferMode.values();
+    }
+
     @DataPoints("allBooleans")
     public static boolean[] allBooleans() {
         return new boolean[]{true, false};
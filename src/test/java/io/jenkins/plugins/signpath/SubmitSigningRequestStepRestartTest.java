@@ -0,0 +1,129 @@
+package io.jenkins.plugins.signpath;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.CredentialsStore;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import hudson.model.FingerprintMap;
+import hudson.model.queue.QueueTaskFuture;
+import hudson.plugins.git.util.BuildData;
+import io.jenkins.plugins.signpath.Artifacts.DefaultArtifactFileManager;
+import io.jenkins.plugins.signpath.Common.TemporaryFile;
+import io.jenkins.plugins.signpath.TestUtils.BuildDataDomainObjectMother;
+import io.jenkins.plugins.signpath.TestUtils.CredentialStoreUtils;
+import io.jenkins.plugins.signpath.TestUtils.Some;
+import io.jenkins.plugins.signpath.TestUtils.TemporaryFileUtil;
+import jenkins.model.GlobalConfiguration;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.RestartableJenkinsRule;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.Assert.*;
+
+public class SubmitSigningRequestStepRestartTest {
+    private static final int MockServerPort = 51000;
+
+    @Rule
+    public final RestartableJenkinsRule story = new RestartableJenkinsRule();
+
+    @Rule
+    public final WireMockRule wireMockRule = new WireMockRule(MockServerPort);
+
+    @Test
+    public void submitSigningRequest_controllerRestartsWhileWaiting_resumesWaitingAndDownloads() {
+        byte[] signedArtifactBytes = Some.bytes();
+        String unsignedArtifactString = Some.stringNonEmpty();
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+        String organizationId = Some.uuid().toString();
+        String signingRequestId = Some.uuid().toString();
+        String submitPath = "/v1/" + organizationId + "/SigningRequests/SubmitWithoutArtifact";
+        String uploadPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/UploadUnsignedArtifact";
+        String statusPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/Status";
+
+        story.then(r -> {
+            CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(r.jenkins);
+            assert credentialStore != null;
+            CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, Some.stringNonEmpty());
+            CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, Some.stringNonEmpty());
+
+            SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+            globalConfig.setApiURL(getMockUrl(""));
+            globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+            globalConfig.setAsynchronousWaitForCompletion(true);
+
+            wireMockRule.stubFor(post(urlEqualTo(submitPath))
+                    .willReturn(aResponse()
+                            .withStatus(201)
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("{\"signingRequestId\": \"" + signingRequestId + "\", \"uploadLink\": \"" + getMockUrl(uploadPath.substring(1)) + "\"}")));
+            wireMockRule.stubFor(post(urlEqualTo(uploadPath))
+                    .willReturn(aResponse().withStatus(202)));
+            // the signing request waits for a manual approval while the controller restarts
+            wireMockRule.stubFor(get(urlEqualTo(statusPath))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withBody("{status: 'WaitingForApproval', workflowStatus: 'WaitingForApproval', isFinalStatus: false}")));
+            wireMockRule.stubFor(get(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/SignedArtifact"))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withBody(signedArtifactBytes)));
+
+            WorkflowJob workflowJob = r.jenkins.createProject(WorkflowJob.class, "SignPath");
+            workflowJob.setDefinition(new CpsFlowDefinition(
+                    "node {writeFile text: '" + unsignedArtifactString + "', file: 'unsigned.exe'; " +
+                            "echo '<returnValue>:\"'+ submitSigningRequest(" +
+                            "inputArtifactPath: 'unsigned.exe', " +
+                            "outputArtifactPath: 'signed.exe', " +
+                            "apiTokenCredentialId: '" + apiTokenCredentialId + "'," +
+                            "organizationId: '" + organizationId + "'," +
+                            "projectSlug: '" + Some.stringNonEmpty() + "'," +
+                            "signingPolicySlug: '" + Some.stringNonEmpty() + "'," +
+                            "waitForCompletion: true," +
+                            "waitForCompletionTimeoutInSeconds: 600) + '\"';}", true));
+
+            BuildData buildData = new BuildData(Some.stringNonEmpty());
+            buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+            buildData.addRemoteUrl(Some.url());
+
+            QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+            assert runFuture != null;
+            WorkflowRun run = runFuture.waitForStart();
+            r.waitForMessage("Waiting for signing request " + signingRequestId, run);
+        });
+
+        story.then(r -> {
+            wireMockRule.stubFor(get(urlEqualTo(statusPath))
+                    .willReturn(aResponse()
+                            .withStatus(200)
+                            .withBody("{status: 'Completed', workflowStatus: 'Completed', isFinalStatus: true}")));
+
+            WorkflowJob workflowJob = r.jenkins.getItemByFullName("SignPath", WorkflowJob.class);
+            WorkflowRun run = workflowJob.getBuildByNumber(1);
+
+            // ACT
+            r.waitForCompletion(run);
+
+            // ASSERT
+            r.assertBuildStatusSuccess(run);
+            r.assertLogContains("Resuming to wait for signing request " + signingRequestId, run);
+            r.assertLogContains("<returnValue>:\"" + signingRequestId + "\"", run);
+
+            // the signing request has neither been submitted nor uploaded a second time
+            wireMockRule.verify(1, postRequestedFor(urlEqualTo(submitPath)));
+            wireMockRule.verify(1, postRequestedFor(urlEqualTo(uploadPath)));
+
+            FingerprintMap fingerprintMap = r.jenkins.getFingerprintMap();
+            DefaultArtifactFileManager artifactFileManager = new DefaultArtifactFileManager(fingerprintMap, run, r.createLocalLauncher(), r.createTaskListener());
+            TemporaryFile signedArtifact = artifactFileManager.retrieveArtifact("signed.exe");
+            assertArrayEquals(signedArtifactBytes, TemporaryFileUtil.getContentAndDispose(signedArtifact));
+        });
+    }
+
+    private static String getMockUrl(String postfix) {
+        return String.format("http://localhost:%d/%s", MockServerPort, postfix);
+    }
+}
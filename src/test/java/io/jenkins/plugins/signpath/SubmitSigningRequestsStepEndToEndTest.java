@@ -0,0 +1,268 @@
+package io.jenkins.plugins.signpath;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.CredentialsStore;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import hudson.Launcher;
+import hudson.model.FingerprintMap;
+import hudson.model.Result;
+import hudson.model.TaskListener;
+import hudson.model.queue.QueueTaskFuture;
+import hudson.plugins.git.util.BuildData;
+import io.jenkins.plugins.signpath.Artifacts.DefaultArtifactFileManager;
+import io.jenkins.plugins.signpath.Common.TemporaryFile;
+import io.jenkins.plugins.signpath.TestUtils.*;
+import jenkins.model.GlobalConfiguration;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Rule;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.FromDataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.Assert.*;
+
+@RunWith(Theories.class)
+public class SubmitSigningRequestsStepEndToEndTest {
+    private static final int MockServerPort = 51000;
+
+    @Rule
+    public final SignPathJenkinsRule j = new SignPathJenkinsRule();
+
+    @Rule
+    public final WireMockRule wireMockRule = new WireMockRule(MockServerPort);
+
+    @Theory
+    public void submitSigningRequests(@FromDataPoints("allBooleans") boolean waitForCompletion) throws Exception {
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+        String organizationId = Some.uuid().toString();
+        String firstArtifactString = Some.stringNonEmpty();
+        String secondArtifactString = Some.stringNonEmpty();
+        String firstSigningRequestId = Some.uuid().toString();
+        String secondSigningRequestId = Some.uuid().toString();
+        byte[] firstSignedArtifactBytes = Some.bytes();
+        byte[] secondSignedArtifactBytes = Some.bytes();
+
+        CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(j.jenkins);
+        assert credentialStore != null;
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, Some.stringNonEmpty());
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, Some.stringNonEmpty());
+
+        String firstUploadPath = stubSigningRequest(organizationId, "first.exe", firstSigningRequestId, firstSignedArtifactBytes);
+        String secondUploadPath = stubSigningRequest(organizationId, "second.exe", secondSigningRequestId, secondSignedArtifactBytes);
+
+        SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        globalConfig.setApiURL(getMockUrl());
+        globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+
+        String outputArtifactDirectory = waitForCompletion ? "outputArtifactDirectory: 'signed', " : "";
+        WorkflowJob workflowJob = j.createWorkflow("SignPath",
+                "writeFile text: '" + firstArtifactString + "', file: 'bin/first.exe'; " +
+                        "writeFile text: '" + secondArtifactString + "', file: 'bin/second.exe'; " +
+                        "writeFile text: 'not an executable', file: 'bin/readme.txt'; " +
+                        "def ids = submitSigningRequests(" +
+                        "inputArtifactGlob: 'bin/*.exe', " +
+                        outputArtifactDirectory +
+                        "apiTokenCredentialId: '" + apiTokenCredentialId + "'," +
+                        "organizationId: '" + organizationId + "'," +
+                        "projectSlug: '" + Some.stringNonEmpty() + "'," +
+                        "signingPolicySlug: '" + Some.stringNonEmpty() + "'," +
+                        "waitForCompletion: " + waitForCompletion + "," +
+                        "maxConcurrentSubmissions: 2," +
+                        "serviceUnavailableTimeoutInSeconds: 10," +
+                        "uploadAndDownloadRequestTimeoutInSeconds: 10," +
+                        "waitForCompletionTimeoutInSeconds: 10); " +
+                        "echo '<returnValue>:' + ids['bin/first.exe'] + ',' + ids['bin/second.exe'] + ',' + ids.size();");
+
+        BuildData buildData = new BuildData(Some.stringNonEmpty());
+        buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+        buildData.addRemoteUrl(Some.url());
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        if (run.getResult() != Result.SUCCESS) {
+            assertEquals("", run.getLog() + run.getResult());
+            fail();
+        }
+
+        assertTrue(run.getLog().contains("<returnValue>:" + firstSigningRequestId + "," + secondSigningRequestId + ",2"));
+        assertSubmitRequest(organizationId, "first.exe", firstArtifactString);
+        assertSubmitRequest(organizationId, "second.exe", secondArtifactString);
+        wireMockRule.verify(postRequestedFor(urlEqualTo(firstUploadPath)).withRequestBody(equalTo(firstArtifactString)));
+        wireMockRule.verify(postRequestedFor(urlEqualTo(secondUploadPath)).withRequestBody(equalTo(secondArtifactString)));
+
+        if (waitForCompletion) {
+            assertArrayEquals(firstSignedArtifactBytes, getArtifactBytes(run, "signed/bin/first.exe"));
+            assertArrayEquals(secondSignedArtifactBytes, getArtifactBytes(run, "signed/bin/second.exe"));
+        }
+    }
+
+    @Theory
+    public void submitSigningRequests_oneSubmissionRejected_logsSubmittedSigningRequests() throws Exception {
+        String trustedBuildSystemTokenCredentialId = Some.stringNonEmpty();
+        String apiTokenCredentialId = Some.stringNonEmpty();
+        String organizationId = Some.uuid().toString();
+        String firstSigningRequestId = Some.uuid().toString();
+
+        CredentialsStore credentialStore = CredentialStoreUtils.getCredentialStore(j.jenkins);
+        assert credentialStore != null;
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, trustedBuildSystemTokenCredentialId, Some.stringNonEmpty());
+        CredentialStoreUtils.addCredentials(credentialStore, CredentialsScope.SYSTEM, apiTokenCredentialId, Some.stringNonEmpty());
+
+        stubSigningRequest(organizationId, "first.exe", firstSigningRequestId, Some.bytes());
+        wireMockRule.stubFor(post(urlEqualTo("/v1/" + organizationId + "/SigningRequests/SubmitWithoutArtifact"))
+                .withMultipartRequestBody(aMultipart().withName("unsignedArtifactMetadata.fileName").withBody(equalTo("second.exe")))
+                .willReturn(aResponse().withStatus(403)));
+
+        SignPathPluginGlobalConfiguration globalConfig = GlobalConfiguration.all().get(SignPathPluginGlobalConfiguration.class);
+        globalConfig.setApiURL(getMockUrl());
+        globalConfig.setTrustedBuildSystemCredentialId(trustedBuildSystemTokenCredentialId);
+
+        WorkflowJob workflowJob = j.createWorkflow("SignPath",
+                "writeFile text: '" + Some.stringNonEmpty() + "', file: 'bin/first.exe'; " +
+                        "writeFile text: '" + Some.stringNonEmpty() + "', file: 'bin/second.exe'; " +
+                        "submitSigningRequests(" +
+                        "inputArtifactGlob: 'bin/*.exe', " +
+                        "apiTokenCredentialId: '" + apiTokenCredentialId + "'," +
+                        "organizationId: '" + organizationId + "'," +
+                        "projectSlug: '" + Some.stringNonEmpty() + "'," +
+                        "signingPolicySlug: '" + Some.stringNonEmpty() + "'," +
+                        "waitForCompletion: false," +
+                        "serviceUnavailableTimeoutInSeconds: 10," +
+                        "uploadAndDownloadRequestTimeoutInSeconds: 10);");
+
+        BuildData buildData = new BuildData(Some.stringNonEmpty());
+        buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+        buildData.addRemoteUrl(Some.url());
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        assertEquals(Result.FAILURE, run.getResult());
+        assertTrue(run.getLog().contains("Signing failed for 1 of 2 artifacts"));
+        assertTrue(run.getLog().contains("bin/first.exe -> " + firstSigningRequestId));
+    }
+
+    @Theory
+    public void submitSigningRequests_withoutMatchingArtifacts_fails() throws Exception {
+        WorkflowJob workflowJob = j.createWorkflow("SignPath",
+                "submitSigningRequests(" +
+                        "inputArtifactGlob: 'bin/*.exe', " +
+                        "trustedBuildSystemTokenCredentialId: '" + Some.stringNonEmpty() + "'," +
+                        "apiTokenCredentialId: '" + Some.stringNonEmpty() + "'," +
+                        "organizationId: '" + Some.uuid() + "'," +
+                        "projectSlug: '" + Some.stringNonEmpty() + "'," +
+                        "signingPolicySlug: '" + Some.stringNonEmpty() + "');");
+
+        BuildData buildData = new BuildData(Some.stringNonEmpty());
+        buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+        buildData.addRemoteUrl(Some.url());
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        assertEquals(Result.FAILURE, run.getResult());
+        assertTrue(run.getLog().contains("No artifacts matched 'bin/*.exe'"));
+    }
+
+    @Theory
+    public void submitSigningRequests_withoutArtifacts_fails() throws Exception {
+        WorkflowJob workflowJob = j.createWorkflow("SignPath",
+                "submitSigningRequests(" +
+                        "trustedBuildSystemTokenCredentialId: '" + Some.stringNonEmpty() + "'," +
+                        "apiTokenCredentialId: '" + Some.stringNonEmpty() + "'," +
+                        "organizationId: '" + Some.uuid() + "'," +
+                        "projectSlug: '" + Some.stringNonEmpty() + "'," +
+                        "signingPolicySlug: '" + Some.stringNonEmpty() + "');");
+
+        BuildData buildData = new BuildData(Some.stringNonEmpty());
+        buildData.saveBuild(BuildDataDomainObjectMother.createRandomBuild(1));
+        buildData.addRemoteUrl(Some.url());
+
+        // ACT
+        QueueTaskFuture<WorkflowRun> runFuture = workflowJob.scheduleBuild2(0, buildData);
+        assert runFuture != null;
+        WorkflowRun run = runFuture.get();
+
+        // ASSERT
+        assertEquals(Result.FAILURE, run.getResult());
+        assertTrue(run.getLog().contains("SignPathStepInvalidArgumentException"));
+    }
+
+    // ---- WireMock stubs ----
+
+    private String stubSigningRequest(String organizationId, String fileName, String signingRequestId, byte[] signedArtifactBytes) {
+        String uploadPath = "/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/UploadUnsignedArtifact";
+
+        wireMockRule.stubFor(post(urlEqualTo("/v1/" + organizationId + "/SigningRequests/SubmitWithoutArtifact"))
+                .withMultipartRequestBody(aMultipart().withName("unsignedArtifactMetadata.fileName").withBody(equalTo(fileName)))
+                .willReturn(aResponse()
+                        .withStatus(201)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"signingRequestId\": \"" + signingRequestId + "\", \"uploadLink\": \"" + getMockUrl(uploadPath.substring(1)) + "\"}")));
+
+        wireMockRule.stubFor(post(urlEqualTo(uploadPath))
+                .willReturn(aResponse().withStatus(202)));
+
+        wireMockRule.stubFor(get(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/Status"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody("{status: 'Completed', workflowStatus: 'Completed', isFinalStatus: true}")));
+
+        wireMockRule.stubFor(get(urlEqualTo("/v1/" + organizationId + "/SigningRequests/" + signingRequestId + "/SignedArtifact"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(signedArtifactBytes)));
+
+        return uploadPath;
+    }
+
+    // ---- Assertions ----
+
+    private void assertSubmitRequest(String organizationId, String fileName, String unsignedArtifactString) {
+        String sha256Hex = DigestUtils.sha256Hex(unsignedArtifactString.getBytes(StandardCharsets.UTF_8));
+
+        wireMockRule.verify(postRequestedFor(urlEqualTo("/v1/" + organizationId + "/SigningRequests/SubmitWithoutArtifact"))
+                .withRequestBodyPart(aMultipart().withName("unsignedArtifactMetadata.sha256Hash").withBody(equalTo(sha256Hex)).build())
+                .withRequestBodyPart(aMultipart().withName("unsignedArtifactMetadata.fileName").withBody(equalTo(fileName)).build()));
+    }
+
+    private String getMockUrl() {
+        return getMockUrl("");
+    }
+
+    private String getMockUrl(String postfix) {
+        return String.format("http://localhost:%d/%s", MockServerPort, postfix);
+    }
+
+    private byte[] getArtifactBytes(WorkflowRun run, String artifactPath) throws Exception {
+        Launcher launcher = j.createLocalLauncher();
+        TaskListener listener = j.createTaskListener();
+        FingerprintMap fingerprintMap = j.jenkins.getFingerprintMap();
+        DefaultArtifactFileManager artifactFileManager = new DefaultArtifactFileManager(fingerprintMap, run, launcher, listener);
+        TemporaryFile signedArtifact = artifactFileManager.retrieveArtifact(artifactPath);
+        return TemporaryFileUtil.getContentAndDispose(signedArtifact);
+    }
+
+    @DataPoints("allBooleans")
+    public static boolean[] allBooleans() {
+        return new boolean[]{true, false};
+    }
+}
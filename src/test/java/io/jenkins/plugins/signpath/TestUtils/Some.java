@@ -74,11 +74,19 @@ public class Some {
         int uploadAndDownloadRequestTimeoutInSeconds = 2;
         int waitForCompletionTimeoutInSeconds = 3;
         int waitBetweenReadinessChecksInSeconds = 5;
+        int uploadRetryCount = 2;
+        int downloadRetryCount = 3;
+        int maxWaitBetweenReadinessChecksInSeconds = 60;
+        int waitBetweenTransferRetriesInSeconds = 1;
         return new ApiConfiguration(
                 new URL(Some.url()),
                 serviceUnavailableTimeoutInSeconds,
                 uploadAndDownloadRequestTimeoutInSeconds,
                 waitForCompletionTimeoutInSeconds,
-                waitBetweenReadinessChecksInSeconds);
+                waitBetweenReadinessChecksInSeconds,
+                uploadRetryCount,
+                downloadRetryCount,
+                maxWaitBetweenReadinessChecksInSeconds,
+                waitBetweenTransferRetriesInSeconds);
     }
 }
\ No newline at end of file